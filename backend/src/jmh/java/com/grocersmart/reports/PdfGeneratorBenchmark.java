@@ -0,0 +1,43 @@
+package com.grocersmart.reports;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PdfGeneratorBenchmark {
+
+    private static final String[] HEADERS = { "Date", "Invoice", "Customer", "Method", "Items", "Revenue" };
+
+    @Param({ "100", "10000", "100000" })
+    private int rows;
+
+    private List<String[]> data;
+
+    @Setup
+    public void setUp() {
+        data = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            data.add(new String[] {
+                    "2026-01-" + String.format("%02d", (i % 28) + 1),
+                    String.format("#%06d", i),
+                    "Customer " + (i % 500),
+                    i % 3 == 0 ? "CREDIT" : "CASH",
+                    String.valueOf((i % 12) + 1),
+                    String.format("%.2f", 125.5 + (i % 1000))
+            });
+        }
+    }
+
+    @Benchmark
+    public byte[] generatePdf() {
+        return PdfGeneratorUtil.generatePdf("Sales Report", HEADERS, data, "Total Revenue: LKR 1,234,567.00");
+    }
+}
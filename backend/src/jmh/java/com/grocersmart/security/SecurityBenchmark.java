@@ -0,0 +1,51 @@
+package com.grocersmart.security;
+
+import com.grocersmart.common.ModuleKey;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityBenchmark {
+
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @Param({ "/api/products/42", "/api/purchase-orders/7/items", "/api/users/me" })
+    private String uri;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        setField("jwtSecret", "benchmark-secret-that-is-at-least-32-characters-long");
+        setField("jwtExpirationInMs", 86400L);
+        token = tokenProvider.generateToken("benchmark-user");
+    }
+
+    private void setField(String name, Object value) {
+        var field = ReflectionUtils.findField(JwtTokenProvider.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, tokenProvider, value);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String usernameFromToken() {
+        return tokenProvider.getUsernameFromJWT(token);
+    }
+
+    @Benchmark
+    public ModuleKey resolveModule() {
+        return PermissionInterceptor.resolveModule(uri);
+    }
+}
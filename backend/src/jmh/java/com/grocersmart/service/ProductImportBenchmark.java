@@ -0,0 +1,135 @@
+package com.grocersmart.service;
+
+import com.grocersmart.common.EntityType;
+import com.grocersmart.dto.CsvImportResultDTO;
+import com.grocersmart.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductImportBenchmark {
+
+    @Param({ "500", "10000" })
+    private int rows;
+
+    private ProductImportService importService;
+    private MultipartFile csv;
+
+    @Setup
+    public void setUp() {
+        // Persistence is stubbed out so only CSV parsing and row validation are measured
+        ProductRepository repository = (ProductRepository) Proxy.newProxyInstance(
+                ProductRepository.class.getClassLoader(),
+                new Class<?>[] { ProductRepository.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByNameIgnoreCase" -> Optional.empty();
+                    case "save" -> args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        PublicIdGeneratorService publicIds = new PublicIdGeneratorService(null) {
+            private long next = 1;
+
+            @Override
+            public String nextId(EntityType type) {
+                return String.format("%s-%04d", type.getPrefix(), next++);
+            }
+        };
+        StockService stock = new StockService(null, null, null) {
+            @Override
+            public void applyToStore(long storeId, long productId, int unitQty, double bulkQty) {
+            }
+        };
+        // Runs each row's callback without a database transaction
+        TransactionTemplate transactions = new TransactionTemplate(new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        });
+        importService = new ProductImportService(repository, publicIds, stock, transactions);
+
+        StringBuilder sb = new StringBuilder("Product Name,Category,Unit Price,Bulk Price,Unit Stock,Bulk Stock\n");
+        for (int i = 0; i < rows; i++) {
+            sb.append("Product ").append(i).append(",Category ").append(i % 25)
+                    .append(',').append(10 + i % 90).append(".50")
+                    .append(',').append(200 + i % 900).append(".00")
+                    .append(',').append(i % 300)
+                    .append(',').append(i % 12).append(".0\n");
+        }
+        csv = new InMemoryCsv(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public CsvImportResultDTO importCsv() {
+        return importService.importFromCsv(csv);
+    }
+
+    private record InMemoryCsv(byte[] content) implements MultipartFile {
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return "products.csv";
+        }
+
+        @Override
+        public String getContentType() {
+            return "text/csv";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return content.length == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return content.length;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            return content;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public void transferTo(File dest) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
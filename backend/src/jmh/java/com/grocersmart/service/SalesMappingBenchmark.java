@@ -0,0 +1,73 @@
+package com.grocersmart.service;
+
+import com.grocersmart.dto.SalesRecordDto;
+import com.grocersmart.entity.Product;
+import com.grocersmart.entity.SalesItem;
+import com.grocersmart.entity.SalesRecord;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SalesMappingBenchmark {
+
+    @Param({ "1", "10", "50" })
+    private int itemsPerSale;
+
+    private SalesService salesService;
+    private List<SalesRecord> page;
+
+    @Setup
+    public void setUp() {
+        // mapToDto only reads the entity graph, so no repositories are needed
+        salesService = new SalesService(null, null, null, null, null, null, null, null, null, null, null);
+
+        page = new ArrayList<>();
+        for (int r = 0; r < 20; r++) {
+            SalesRecord record = new SalesRecord();
+            record.setId((long) r);
+            record.setPublicId(String.format("S-%04d", r));
+            record.setInvoiceId(String.format("#%04d", r));
+            record.setSalesDate(LocalDate.of(2026, 1, 1).plusDays(r));
+            record.setPaymentMethod(SalesRecord.PaymentMethod.CASH);
+            record.setTotalItemsSold(itemsPerSale);
+            record.setTotalRevenue(BigDecimal.valueOf(100L * itemsPerSale));
+
+            List<SalesItem> items = new ArrayList<>();
+            for (int i = 0; i < itemsPerSale; i++) {
+                Product product = new Product();
+                product.setId((long) i);
+                product.setName("Product " + i);
+
+                SalesItem item = new SalesItem();
+                item.setId((long) (r * itemsPerSale + i));
+                item.setSalesRecord(record);
+                item.setProduct(product);
+                item.setQtySold(2);
+                item.setUnitPrice(BigDecimal.valueOf(50));
+                item.setLineTotal(BigDecimal.valueOf(100));
+                items.add(item);
+            }
+            record.setItems(items);
+            page.add(record);
+        }
+    }
+
+    @Benchmark
+    public List<SalesRecordDto> mapPage() {
+        List<SalesRecordDto> result = new ArrayList<>(page.size());
+        for (SalesRecord record : page) {
+            result.add(salesService.mapToDto(record));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,107 @@
+package com.grocersmart.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.grocersmart.entity.CreditCustomer;
+import com.grocersmart.entity.Product;
+import com.grocersmart.entity.SalesItem;
+import com.grocersmart.entity.SalesRecord;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Recycle-bin snapshot of a credit sale: the legacy full-graph JSON against the compressed compact form
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotCodecBenchmark {
+
+    @Param({ "1", "10", "50" })
+    private int itemsPerSale;
+
+    private ObjectMapper objectMapper;
+    private SnapshotCodec codec;
+    private SalesRecord record;
+    private String legacyJson;
+    private byte[] snapshot;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Same date handling as the application's mapper
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        codec = new SnapshotCodec(objectMapper);
+
+        CreditCustomer customer = new CreditCustomer();
+        customer.setId(17L);
+        customer.setPublicId("CUS-0017");
+        customer.setName("Customer 17");
+        customer.setPhone("0771234567");
+        customer.setAddress("12 Main Street");
+        customer.setCreditLimit(new BigDecimal("50000.00"));
+        customer.setOutstandingBalance(new BigDecimal("12500.00"));
+
+        record = new SalesRecord();
+        record.setId(1L);
+        record.setPublicId("S-0001");
+        record.setInvoiceId("#0001");
+        record.setSalesDate(LocalDate.of(2026, 1, 1));
+        record.setPaymentMethod(SalesRecord.PaymentMethod.CREDIT);
+        record.setCreditCustomer(customer);
+        record.setTotalItemsSold(itemsPerSale);
+        record.setTotalRevenue(BigDecimal.valueOf(100L * itemsPerSale));
+
+        List<SalesItem> items = new ArrayList<>();
+        for (int i = 0; i < itemsPerSale; i++) {
+            Product product = new Product();
+            product.setId((long) i);
+            product.setPublicId(String.format("PRD-%04d", i));
+            product.setName("Product " + i);
+            product.setCategory("Category " + (i % 8));
+            product.setUnitPrice(50.0);
+            product.setPurchasePrice(40.0);
+
+            SalesItem item = new SalesItem();
+            item.setId((long) i);
+            item.setSalesRecord(record);
+            item.setProduct(product);
+            item.setQtySold(2);
+            item.setUnitPrice(BigDecimal.valueOf(50));
+            item.setLineTotal(BigDecimal.valueOf(100));
+            items.add(item);
+        }
+        record.setItems(items);
+
+        legacyJson = objectMapper.writeValueAsString(record);
+        snapshot = codec.encode(record);
+        System.out.printf("%n%d items: legacy %d bytes, compact %d bytes%n", itemsPerSale,
+                legacyJson.getBytes(java.nio.charset.StandardCharsets.UTF_8).length, snapshot.length);
+    }
+
+    @Benchmark
+    public String legacyEncode() throws Exception {
+        return objectMapper.writeValueAsString(record);
+    }
+
+    @Benchmark
+    public byte[] compactEncode() {
+        return codec.encode(record);
+    }
+
+    @Benchmark
+    public SalesRecord legacyDecode() {
+        return codec.decode(null, SnapshotCodec.LEGACY_JSON, legacyJson, SalesRecord.class);
+    }
+
+    @Benchmark
+    public SalesRecord compactDecode() {
+        return codec.decode(snapshot, SnapshotCodec.CURRENT_VERSION, null, SalesRecord.class);
+    }
+}
@@ -0,0 +1,74 @@
+package com.grocersmart.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Per-worker latency samples; workers never share a recorder, results are merged at the end
+public class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new TreeMap<>();
+
+    public void record(String endpoint, long micros, boolean success) {
+        samples.computeIfAbsent(endpoint, k -> new Samples()).add(micros, success);
+    }
+
+    public void mergeInto(LatencyRecorder target) {
+        samples.forEach((endpoint, s) -> target.samples.computeIfAbsent(endpoint, k -> new Samples()).addAll(s));
+    }
+
+    public Map<String, Map<String, Object>> summarize(double elapsedSeconds) {
+        Map<String, Map<String, Object>> report = new LinkedHashMap<>();
+        samples.forEach((endpoint, s) -> {
+            long[] sorted = Arrays.copyOf(s.values, s.size);
+            Arrays.sort(sorted);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("requests", s.size);
+            row.put("errors", s.errors);
+            row.put("throughputPerSec", round(s.size / elapsedSeconds));
+            row.put("p50Ms", percentile(sorted, 50));
+            row.put("p90Ms", percentile(sorted, 90));
+            row.put("p95Ms", percentile(sorted, 95));
+            row.put("p99Ms", percentile(sorted, 99));
+            row.put("maxMs", sorted.length == 0 ? 0 : round(sorted[sorted.length - 1] / 1000.0));
+            report.put(endpoint, row);
+        });
+        return report;
+    }
+
+    private static double percentile(long[] sorted, int pct) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(pct / 100.0 * sorted.length) - 1;
+        return round(sorted[Math.max(0, index)] / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static class Samples {
+        private long[] values = new long[1024];
+        private int size;
+        private int errors;
+
+        void add(long micros, boolean success) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = micros;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i], true);
+            }
+            errors += other.errors;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.grocersmart.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// After a run every customer's stored balance must equal both the last ledger row's balance_after and the
+// sum of all ledger movements, entry_seq must have no gaps, and no balance may sit above its limit or below zero.
+// Any lost or doubled update under concurrency shows up here.
+public record LedgerReconciliation(long customers, long ledgerEntries, long balanceMismatches, long sumMismatches,
+        long sequenceGaps, long overLimit, long negative) {
+
+    public static LedgerReconciliation check(JdbcTemplate jdbcTemplate) {
+        // MySQL sums booleans as 0/1; an empty table gives NULL sums, read back as 0
+        return jdbcTemplate.queryForObject("SELECT COUNT(*), SUM(l.entries), "
+                + "SUM(c.outstanding_balance <> COALESCE(lb.balance_after, 0)), "
+                + "SUM(c.outstanding_balance <> COALESCE(l.net, 0)), "
+                + "SUM(COALESCE(l.entries, 0) <> COALESCE(l.last_seq, 0)), "
+                + "SUM(c.outstanding_balance > COALESCE(c.credit_limit, 0)), "
+                + "SUM(c.outstanding_balance < 0) "
+                + "FROM credit_customers c "
+                + "LEFT JOIN (SELECT customer_id, COUNT(*) AS entries, MAX(entry_seq) AS last_seq, "
+                + "           SUM(debit - credit) AS net FROM credit_ledger GROUP BY customer_id) l "
+                + "       ON l.customer_id = c.id "
+                + "LEFT JOIN credit_ledger lb ON lb.customer_id = c.id AND lb.entry_seq = l.last_seq",
+                (rs, i) -> new LedgerReconciliation(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4),
+                        rs.getLong(5), rs.getLong(6), rs.getLong(7)));
+    }
+
+    public boolean consistent() {
+        return balanceMismatches == 0 && sumMismatches == 0 && sequenceGaps == 0 && overLimit == 0 && negative == 0;
+    }
+}
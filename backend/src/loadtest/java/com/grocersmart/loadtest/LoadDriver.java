@@ -0,0 +1,320 @@
+package com.grocersmart.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Closed-loop driver: each worker picks a weighted scenario, runs it, records latency, repeats
+public class LoadDriver {
+
+    private static final String DEFAULT_MIX = "checkout:35,search:25,payment:15,order:10,report:10,list:5";
+    private static final String[] LIST_PATHS = { "/api/sales?page=0&size=20", "/api/orders?page=0&size=20",
+            "/api/sales?page=0&size=20&expand=items" };
+    private static final String[] CATALOG_PATHS = { "/api/products/all", "/api/credit-customers?page=0&size=20",
+            "/api/suppliers?page=0&size=20", "/api/users?page=0&size=20" };
+    private static final String[] SEARCH_TERMS = { "rice", "milk", "tea", "soap", "sugar", "oil", "bread", "dhal" };
+
+    private final String baseUrl;
+    private final LoadTestOptions options;
+    private final SeedSummary seed;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client;
+    private final String[] scenarioTable;
+    private final Map<String, String> etags = new ConcurrentHashMap<>();
+    private String token;
+
+    public LoadDriver(String baseUrl, LoadTestOptions options, SeedSummary seed) {
+        this.baseUrl = baseUrl;
+        this.options = options;
+        this.seed = seed;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        List<String> table = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : options.getMix(DEFAULT_MIX).entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                table.add(entry.getKey());
+            }
+        }
+        this.scenarioTable = table.toArray(new String[0]);
+    }
+
+    public Map<String, Map<String, Object>> run() throws Exception {
+        token = login();
+
+        int threads = options.getInt("threads", 16);
+        long warmupMs = options.getLong("warmup", 15) * 1000;
+        long durationMs = options.getLong("duration", 60) * 1000;
+
+        long start = System.currentTimeMillis();
+        long measureFrom = start + warmupMs;
+        long stopAt = measureFrom + durationMs;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<LatencyRecorder>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long workerSeed = options.getLong("seed", 42) + t;
+            futures.add(pool.submit(() -> work(new SplittableRandom(workerSeed), measureFrom, stopAt)));
+        }
+
+        LatencyRecorder total = new LatencyRecorder();
+        for (Future<LatencyRecorder> future : futures) {
+            future.get().mergeInto(total);
+        }
+        pool.shutdown();
+        return total.summarize(durationMs / 1000.0);
+    }
+
+    private LatencyRecorder work(SplittableRandom random, long measureFrom, long stopAt) {
+        LatencyRecorder recorder = new LatencyRecorder();
+        LatencyRecorder discard = new LatencyRecorder();
+        while (true) {
+            long now = System.currentTimeMillis();
+            if (now >= stopAt) {
+                return recorder;
+            }
+            LatencyRecorder target = now < measureFrom ? discard : recorder;
+            String scenario = scenarioTable[random.nextInt(scenarioTable.length)];
+            try {
+                switch (scenario) {
+                    case "checkout" -> checkout(random, target);
+                    case "search" -> search(random, target);
+                    case "payment" -> payment(random, target);
+                    case "order" -> orderConfirm(random, target);
+                    case "report" -> report(random, target);
+                    case "list" -> list(random, target);
+                    case "void" -> voidSale(random, target);
+                    case "cheque" -> chequeRun(random, target);
+                    case "catalog" -> catalog(random, target);
+                    default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+                }
+            } catch (Exception e) {
+                target.record(scenario + " (client error)", 0, false);
+            }
+        }
+    }
+
+    private void checkout(SplittableRandom random, LatencyRecorder recorder) throws Exception {
+        send("POST /api/sales", "POST", "/api/sales", saleBody(random, random.nextInt(100) < 25), recorder);
+    }
+
+    // Credit sale that is deleted again straight away: a charge and its reversal on the same customer
+    private void voidSale(SplittableRandom random, LatencyRecorder recorder) throws Exception {
+        JsonNode created = send("POST /api/sales (void)", "POST", "/api/sales", saleBody(random, true), recorder);
+        if (created != null && created.hasNonNull("id")) {
+            send("DELETE /api/sales/{id}", "DELETE", "/api/sales/" + created.path("id").asLong(), null, recorder);
+        }
+    }
+
+    private ObjectNode saleBody(SplittableRandom random, boolean credit) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("salesDate", LocalDate.now().toString());
+        body.put("paymentMethod", credit ? "CREDIT" : "CASH");
+        if (credit) {
+            body.put("creditCustomerId", creditCustomerId(random));
+        }
+        ArrayNode items = body.putArray("items");
+        int lines = 1 + random.nextInt(6);
+        for (int i = 0; i < lines; i++) {
+            ObjectNode item = items.addObject();
+            item.put("productId", seed.randomProductId(random));
+            item.put("qtySold", 1 + random.nextInt(4));
+            item.put("unitPrice", 50 + random.nextInt(450));
+        }
+        return body;
+    }
+
+    // hot-customers=N sends all credit traffic to the first N customers to force contention on their rows
+    private long creditCustomerId(SplittableRandom random) {
+        int hot = options.getInt("hot-customers", 0);
+        return hot > 0 ? seed.firstCustomerId() + random.nextInt(hot) : seed.randomCustomerId(random);
+    }
+
+    private void search(SplittableRandom random, LatencyRecorder recorder) throws Exception {
+        String term = SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)];
+        send("GET /api/products?search", "GET", "/api/products?search=" + term + "&page=0&size=20", null, recorder);
+    }
+
+    private void payment(SplittableRandom random, LatencyRecorder recorder) throws Exception {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("amount", 100 + random.nextInt(400));
+        body.put("method", "CASH");
+        body.put("note", "load test");
+        send("POST /api/credit-customers/{id}/payments", "POST",
+                "/api/credit-customers/" + creditCustomerId(random) + "/payments", body, recorder);
+    }
+
+    // A few payments taken by cheque from one customer, deposited together, then some bounce and the rest
+    // clear: the bulk status endpoint moves the bounced ones back onto the customer's balance in one go
+    private void chequeRun(SplittableRandom random, LatencyRecorder recorder) throws Exception {
+        long customerId = creditCustomerId(random);
+        ArrayNode ids = objectMapper.createArrayNode();
+        int cheques = 1 + random.nextInt(4);
+        for (int i = 0; i < cheques; i++) {
+            ObjectNode payment = objectMapper.createObjectNode();
+            int amount = 100 + random.nextInt(400);
+            payment.put("amount", amount);
+            payment.put("method", "CHEQUE");
+            payment.put("note", "load test cheque");
+            if (send("POST /api/credit-customers/{id}/payments", "POST",
+                    "/api/credit-customers/" + customerId + "/payments", payment, recorder) == null) {
+                break;
+            }
+            ObjectNode cheque = objectMapper.createObjectNode();
+            cheque.put("chequeNumber", String.format("%06d", random.nextInt(1_000_000)));
+            cheque.put("customerId", customerId);
+            cheque.put("bankName", "Load Test Bank");
+            cheque.put("amount", amount);
+            cheque.put("issueDate", LocalDate.now().toString());
+            cheque.put("dueDate", LocalDate.now().toString());
+            JsonNode created = send("POST /api/cheques", "POST", "/api/cheques", cheque, recorder);
+            if (created != null && created.path("data").hasNonNull("id")) {
+                ids.add(created.path("data").path("id").asLong());
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        send("POST /api/cheques/bulk-status", "POST", "/api/cheques/bulk-status",
+                bulkStatus(ids, "DEPOSITED"), recorder);
+        ArrayNode bounced = objectMapper.createArrayNode();
+        ArrayNode cleared = objectMapper.createArrayNode();
+        ids.forEach(id -> (random.nextInt(3) == 0 ? cleared : bounced).add(id));
+        if (!bounced.isEmpty()) {
+            ObjectNode body = bulkStatus(bounced, "BOUNCED");
+            body.put("bounceReason", "Insufficient funds");
+            send("POST /api/cheques/bulk-status", "POST", "/api/cheques/bulk-status", body, recorder);
+        }
+        if (!cleared.isEmpty()) {
+            send("POST /api/cheques/bulk-status", "POST", "/api/cheques/bulk-status",
+                    bulkStatus(cleared, "CLEARED"), recorder);
+        }
+    }
+
+    private ObjectNode bulkStatus(ArrayNode ids, String status) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.set("ids", ids);
+        body.put("status", status);
+        body.put("date", LocalDate.now().toString());
+        return body;
+    }
+
+    private void orderConfirm(SplittableRandom random, LatencyRecorder recorder) throws Exception {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("paymentType", "CASH");
+        ArrayNode items = body.putArray("items");
+        int lines = 1 + random.nextInt(4);
+        for (int i = 0; i < lines; i++) {
+            ObjectNode item = items.addObject();
+            item.put("productId", seed.randomProductId(random));
+            item.put("qty", 1 + random.nextInt(3));
+            item.put("unitPrice", 50.0 + random.nextInt(450));
+        }
+        JsonNode created = send("POST /api/orders", "POST", "/api/orders", body, recorder);
+        if (created != null && created.path("data").hasNonNull("id")) {
+            long orderId = created.path("data").path("id").asLong();
+            send("PUT /api/orders/{id}/confirm", "PUT", "/api/orders/" + orderId + "/confirm", null, recorder);
+        }
+    }
+
+    private void report(SplittableRandom random, LatencyRecorder recorder) throws Exception {
+        LocalDate to = LocalDate.now().minusDays(random.nextInt(365));
+        LocalDate from = to.minusDays(30);
+        send("GET /api/reports/sales/pdf", "GET", "/api/reports/sales/pdf?from=" + from + "&to=" + to, null,
+                recorder);
+    }
+
+    // Page listings must stay within a fixed SQL statement budget (read from X-Query-Count);
+    // a page that exceeds it counts as an error so N+1 regressions show up in the report
+    private void list(SplittableRandom random, LatencyRecorder recorder) throws Exception {
+        String path = LIST_PATHS[random.nextInt(LIST_PATHS.length)];
+        send("GET " + path, "GET", path, null, recorder, options.getInt("list-query-budget", 8));
+    }
+
+    // Reloads a listing the way a browser revalidates it, with the last ETag seen for the path. 304s are reported as
+    // their own endpoint, so the report shows how many reloads were answered without the full response
+    private void catalog(SplittableRandom random, LatencyRecorder recorder) throws Exception {
+        String path = CATALOG_PATHS[random.nextInt(CATALOG_PATHS.length)];
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Authorization", "Bearer " + token);
+        String etag = etags.get(path);
+        if (etag != null) {
+            builder.header("If-None-Match", etag);
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response = client.send(builder.GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+        long micros = (System.nanoTime() - start) / 1000;
+
+        response.headers().firstValue("ETag").ifPresent(tag -> etags.put(path, tag));
+        boolean notModified = response.statusCode() == 304;
+        recorder.record("GET " + path + (notModified ? " (304)" : ""), micros, response.statusCode() < 400);
+    }
+
+    private JsonNode send(String endpoint, String method, String path, JsonNode body, LatencyRecorder recorder)
+            throws Exception {
+        return send(endpoint, method, path, body, recorder, -1);
+    }
+
+    private JsonNode send(String endpoint, String method, String path, JsonNode body, LatencyRecorder recorder,
+            int maxStatements) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json");
+        HttpRequest.BodyPublisher publisher = body != null
+                ? HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))
+                : HttpRequest.BodyPublishers.noBody();
+        HttpRequest request = builder.method(method, publisher).build();
+
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        long micros = (System.nanoTime() - start) / 1000;
+
+        boolean success = response.statusCode() < 400;
+        if (maxStatements >= 0) {
+            long statements = response.headers().firstValueAsLong("X-Query-Count").orElse(0);
+            success = success && statements <= maxStatements;
+        }
+        recorder.record(endpoint, micros, success);
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        if (success && contentType.startsWith("application/json")) {
+            return objectMapper.readTree(response.body());
+        }
+        return null;
+    }
+
+    String login() throws Exception {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("username", options.getString("username", "VTNV"));
+        body.put("password", options.getString("password", "vtnv"));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed: " + response.statusCode() + " " + response.body());
+        }
+        return objectMapper.readTree(response.body()).path("data").path("token").asText();
+    }
+}
@@ -0,0 +1,58 @@
+package com.grocersmart.loadtest;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// key=value style arguments, e.g. products=5000 customers=800 years=3 threads=32 duration=120
+public class LoadTestOptions {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--")) {
+                arg = arg.substring(2);
+                if (!arg.contains("=") && i + 1 < args.length) {
+                    arg = arg + "=" + args[++i];
+                }
+            }
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.values.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = values.get(key);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = values.get(key);
+        return value != null ? Long.parseLong(value) : defaultValue;
+    }
+
+    public String getString(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = values.get(key);
+        return value != null ? Boolean.parseBoolean(value) : defaultValue;
+    }
+
+    // mix=checkout:35,search:30,payment:15,order:10,report:10
+    public Map<String, Integer> getMix(String defaultMix) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : getString("mix", defaultMix).split(",")) {
+            String[] kv = part.split(":");
+            mix.put(kv[0].trim(), Integer.parseInt(kv[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,26 @@
+package com.grocersmart.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.SplittableRandom;
+
+// Id ranges of the generated dataset, used by the driver to build valid requests
+public record SeedSummary(long firstProductId, long lastProductId, long firstCustomerId, long lastCustomerId,
+        long salesRecords, long salesItems) {
+
+    public static SeedSummary load(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("SELECT (SELECT MIN(id) FROM products), (SELECT MAX(id) FROM products), "
+                + "(SELECT MIN(id) FROM credit_customers), (SELECT MAX(id) FROM credit_customers), "
+                + "(SELECT COUNT(*) FROM sales_records), (SELECT COUNT(*) FROM sales_items)",
+                (rs, i) -> new SeedSummary(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5),
+                        rs.getLong(6)));
+    }
+
+    public long randomProductId(SplittableRandom random) {
+        return random.nextLong(firstProductId, lastProductId + 1);
+    }
+
+    public long randomCustomerId(SplittableRandom random) {
+        return random.nextLong(firstCustomerId, lastCustomerId + 1);
+    }
+}
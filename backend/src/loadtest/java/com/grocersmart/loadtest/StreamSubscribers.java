@@ -0,0 +1,170 @@
+package com.grocersmart.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Holds many /api/stream subscriptions open while the scenarios run, all on one non-blocking HttpClient, and reports
+// what they received: frames per subscriber, how long after the server built a frame it arrived, resyncs, and
+// streams that failed to open or dropped early
+public class StreamSubscribers implements AutoCloseable {
+
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final List<Listener> listeners = new ArrayList<>();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final CountDownLatch opened;
+    private long openMs;
+
+    public StreamSubscribers(int count) {
+        this.executor = Executors.newFixedThreadPool(4);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(executor)
+                .build();
+        this.opened = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            listeners.add(new Listener());
+        }
+    }
+
+    // Returns once every stream has its first frame, or failed, or a minute has gone by
+    public void open(String baseUrl, String token) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/stream"))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+        for (Listener listener : listeners) {
+            client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(listener))
+                    .whenComplete((response, error) -> {
+                        if (error != null || response.statusCode() != 200) {
+                            listener.fail();
+                        }
+                    });
+        }
+        opened.await(60, TimeUnit.SECONDS);
+        openMs = System.currentTimeMillis() - start;
+    }
+
+    public Map<String, Object> summarize(double elapsedSeconds) {
+        LatencyRecorder lag = new LatencyRecorder();
+        long frames = 0;
+        long minFrames = Long.MAX_VALUE;
+        int connected = 0;
+        int dropped = 0;
+        int resyncs = 0;
+        for (Listener listener : listeners) {
+            synchronized (listener) {
+                if (listener.hello) {
+                    connected++;
+                    frames += listener.frames;
+                    minFrames = Math.min(minFrames, listener.frames);
+                    listener.lag.mergeInto(lag);
+                }
+                dropped += listener.ended && listener.hello ? 1 : 0;
+                resyncs += listener.resyncs;
+            }
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("subscribers", listeners.size());
+        report.put("connected", connected);
+        report.put("failed", failed.get());
+        report.put("droppedEarly", dropped);
+        report.put("openMs", openMs);
+        report.put("frames", frames);
+        report.put("minFramesPerSubscriber", connected == 0 ? 0 : minFrames);
+        report.put("resyncs", resyncs);
+        report.put("deliveryLag", lag.summarize(elapsedSeconds).get("frame"));
+        return report;
+    }
+
+    @Override
+    public void close() {
+        listeners.forEach(Listener::cancel);
+        executor.shutdownNow();
+    }
+
+    // One stream, parsed just enough to count frames and read each delta's server timestamp
+    private final class Listener implements Flow.Subscriber<String> {
+
+        private final LatencyRecorder lag = new LatencyRecorder();
+        private Flow.Subscription subscription;
+        private String event = "message";
+        private boolean hello;
+        private boolean ended;
+        private long frames;
+        private int resyncs;
+
+        @Override
+        public synchronized void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public synchronized void onNext(String line) {
+            if (line.startsWith("event:")) {
+                event = line.substring(6).trim();
+            } else if (line.startsWith("data:")) {
+                if (!hello) {
+                    hello = true;
+                    opened.countDown();
+                } else if ("delta".equals(event)) {
+                    frames++;
+                    int at = line.indexOf("\"at\":");
+                    if (at >= 0) {
+                        int end = at + 5;
+                        while (end < line.length() && Character.isDigit(line.charAt(end))) {
+                            end++;
+                        }
+                        long sentAt = Long.parseLong(line.substring(at + 5, end));
+                        lag.record("frame", (System.currentTimeMillis() - sentAt) * 1000, true);
+                    }
+                } else if ("resync".equals(event)) {
+                    resyncs++;
+                }
+            } else if (line.isEmpty()) {
+                event = "message";
+            }
+        }
+
+        @Override
+        public synchronized void onError(Throwable throwable) {
+            ended = true;
+        }
+
+        @Override
+        public synchronized void onComplete() {
+            ended = true;
+        }
+
+        private synchronized void fail() {
+            if (!hello && !ended) {
+                failed.incrementAndGet();
+                ended = true;
+                opened.countDown();
+            }
+        }
+
+        private synchronized void cancel() {
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+}
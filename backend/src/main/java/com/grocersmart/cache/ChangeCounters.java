@@ -0,0 +1,194 @@
+package com.grocersmart.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Keeps change_counters moving with the tables it counts. Entity inserts, updates and deletes are picked up by
+// Hibernate listeners; code that writes one of the tables with SQL calls touch. The tables a transaction wrote are
+// collected on it and their counters moved once it has committed, in one autocommit statement on the same connection
+// before the request returns. The counter rows are never locked inside a business transaction, so writers to one
+// table do not queue on its counter row for their whole commit. The version lags the rows by that one statement: a
+// reader in between gets the new rows with the old tag, which only costs it one more full response after the bump.
+@Component
+@Slf4j
+public class ChangeCounters {
+
+    private static final Map<String, CountedTable> BY_NAME = Arrays.stream(CountedTable.values())
+            .collect(Collectors.toMap(CountedTable::tableName, t -> t));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate readTemplate;
+
+    public ChangeCounters(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+            PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        // With a replica the versions are read where the endpoint's own read-only queries go, so a tag is never
+        // newer than the response it is sent with
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+    }
+
+    @PostConstruct
+    void registerListeners() {
+        EntityListener listener = new EntityListener();
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+    }
+
+    // For writes made with SQL; outside a transaction the counters move straight away
+    public void touch(CountedTable... tables) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            bump(Arrays.asList(tables));
+            return;
+        }
+        pending().tables.addAll(Arrays.asList(tables));
+    }
+
+    public Map<CountedTable, Long> versions(Collection<CountedTable> tables) {
+        Map<CountedTable, Long> versions = new EnumMap<>(CountedTable.class);
+        readTemplate.executeWithoutResult(status -> jdbcTemplate.query("SELECT table_name, version FROM "
+                + "change_counters WHERE table_name IN (" + placeholders(tables.size()) + ")",
+                rs -> {
+                    versions.put(BY_NAME.get(rs.getString(1)), rs.getLong(2));
+                }, tables.stream().map(CountedTable::tableName).toArray()));
+        return versions;
+    }
+
+    private Pending pending() {
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    // One statement; InnoDB takes the row locks in key order, so two transactions cannot deadlock on them
+    private void bump(Collection<CountedTable> tables) {
+        if (tables.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE change_counters SET version = version + 1 WHERE table_name IN ("
+                + placeholders(tables.size()) + ")", tables.stream().map(CountedTable::tableName).toArray());
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    // The tables one transaction wrote; set aside while an inner REQUIRES_NEW transaction collects its own
+    private final class Pending implements TransactionSynchronization {
+
+        private final Set<CountedTable> tables = EnumSet.noneOf(CountedTable.class);
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(ChangeCounters.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(ChangeCounters.this, this);
+        }
+
+        // Hibernate's last flush runs inside the commit, so entity changes made up to the end are included
+        @Override
+        public void afterCommit() {
+            try {
+                jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                    boolean autoCommit = connection.getAutoCommit();
+                    if (!autoCommit) {
+                        connection.setAutoCommit(true);
+                    }
+                    try {
+                        bump(tables);
+                    } finally {
+                        if (!autoCommit) {
+                            connection.setAutoCommit(false);
+                        }
+                    }
+                    return null;
+                });
+            } catch (DataAccessException e) {
+                // The change is committed either way; its tags stay put until the table's next write
+                log.warn("Could not move change counters for {}", tables, e);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeCounters.this);
+        }
+    }
+
+    private final class EntityListener implements PostInsertEventListener, PostUpdateEventListener,
+            PostDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            touched(event.getEntity(), event.getSession());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            touched(event.getEntity(), event.getSession());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            touched(event.getEntity(), event.getSession());
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+
+        private void touched(Object entity, EventSource session) {
+            CountedTable table = CountedTable.forEntity(entity.getClass());
+            if (table == null) {
+                return;
+            }
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                pending().tables.add(table);
+            } else {
+                session.getActionQueue().registerProcess(s -> bump(Set.of(table)));
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.grocersmart.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a GET handler whose response is read only from the given tables. ConditionalGetInterceptor tags the response
+// with their change counters and answers a matching If-None-Match with 304 before the handler runs.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConditionalGet {
+
+    CountedTable[] value();
+
+    // Seconds a browser may reuse the response without asking; 0 has it revalidate every time
+    int maxAge() default 0;
+
+    // The response also depends on who is asking, so the tag carries the user
+    boolean perUser() default false;
+}
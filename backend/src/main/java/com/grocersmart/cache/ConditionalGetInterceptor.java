@@ -0,0 +1,49 @@
+package com.grocersmart.cache;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Weak ETags for @ConditionalGet handlers, built from the change counters of the tables they read: one primary-key
+// lookup instead of the handler's queries and mapping. The counters are read before the handler runs, so a tag can
+// only be older than the data sent with it, never newer. Every tagged response is private; maxAge picks between
+// revalidating each time and a short reuse window.
+@Component
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final ChangeCounters changeCounters;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        ConditionalGet conditional = method.getMethodAnnotation(ConditionalGet.class);
+        if (conditional == null) {
+            return true;
+        }
+        Map<CountedTable, Long> versions = changeCounters.versions(Arrays.asList(conditional.value()));
+        String tag = versions.entrySet().stream().map(e -> e.getKey().tableName() + "-" + e.getValue())
+                .collect(Collectors.joining("."));
+        if (conditional.perUser()) {
+            Principal principal = request.getUserPrincipal();
+            tag += "." + (principal != null ? Integer.toHexString(principal.getName().hashCode()) : "anonymous");
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, conditional.maxAge() > 0
+                ? "private, max-age=" + conditional.maxAge()
+                : "private, no-cache");
+        // Sets the ETag, and the 304 when If-None-Match already holds it
+        return !new ServletWebRequest(request, response).checkNotModified("W/\"" + tag + "\"");
+    }
+}
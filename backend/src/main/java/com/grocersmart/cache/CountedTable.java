@@ -0,0 +1,40 @@
+package com.grocersmart.cache;
+
+import com.grocersmart.entity.CreditCustomer;
+import com.grocersmart.entity.CreditLedgerEntry;
+import com.grocersmart.entity.CreditPayment;
+import com.grocersmart.entity.Product;
+import com.grocersmart.entity.Supplier;
+import com.grocersmart.entity.User;
+
+// Tables with a row in change_counters, and the entity each is mapped to
+public enum CountedTable {
+
+    CREDIT_CUSTOMERS("credit_customers", CreditCustomer.class),
+    CREDIT_LEDGER("credit_ledger", CreditLedgerEntry.class),
+    CREDIT_PAYMENTS("credit_payments", CreditPayment.class),
+    PRODUCTS("products", Product.class),
+    SUPPLIERS("suppliers", Supplier.class),
+    USERS("users", User.class);
+
+    private final String tableName;
+    private final Class<?> entityType;
+
+    CountedTable(String tableName, Class<?> entityType) {
+        this.tableName = tableName;
+        this.entityType = entityType;
+    }
+
+    public String tableName() {
+        return tableName;
+    }
+
+    static CountedTable forEntity(Class<?> type) {
+        for (CountedTable table : values()) {
+            if (table.entityType == type) {
+                return table;
+            }
+        }
+        return null;
+    }
+}
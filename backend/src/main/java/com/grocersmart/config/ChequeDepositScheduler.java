@@ -0,0 +1,32 @@
+package com.grocersmart.config;
+
+import com.grocersmart.service.ChequeWorkflowService;
+import com.grocersmart.workload.WorkloadBulkheads;
+import com.grocersmart.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+// Morning refresh of the cheque deposit queue; schedule via app.cheques.cron,
+// disable with app.cheques.schedule-enabled=false
+@Component
+@ConditionalOnProperty(name = "app.cheques.schedule-enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ChequeDepositScheduler {
+
+    private final ChequeWorkflowService chequeWorkflowService;
+    private final WorkloadBulkheads bulkheads;
+
+    @Value("${app.cheques.deposit-window-days:3}")
+    private int windowDays;
+
+    @Scheduled(cron = "${app.cheques.cron:0 0 6 * * *}")
+    public void refreshDepositQueue() {
+        bulkheads.run(WorkloadClass.BACKGROUND,
+                () -> chequeWorkflowService.refreshDepositQueue(LocalDate.now(), windowDays));
+    }
+}
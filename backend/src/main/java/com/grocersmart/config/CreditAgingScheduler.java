@@ -0,0 +1,26 @@
+package com.grocersmart.config;
+
+import com.grocersmart.service.CreditAgingService;
+import com.grocersmart.workload.WorkloadBulkheads;
+import com.grocersmart.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+// Nightly receivables aging; schedule via app.aging.cron, disable with app.aging.schedule-enabled=false
+@Component
+@ConditionalOnProperty(name = "app.aging.schedule-enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class CreditAgingScheduler {
+
+    private final CreditAgingService creditAgingService;
+    private final WorkloadBulkheads bulkheads;
+
+    @Scheduled(cron = "${app.aging.cron:0 30 1 * * *}")
+    public void recomputeAging() {
+        bulkheads.run(WorkloadClass.BACKGROUND, () -> creditAgingService.recompute(LocalDate.now()));
+    }
+}
@@ -16,6 +16,7 @@ public class DataInitializer implements CommandLineRunner {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final com.grocersmart.service.PublicIdGeneratorService publicIdGeneratorService;
 
     @Override
     @Transactional
@@ -37,6 +38,7 @@ public class DataInitializer implements CommandLineRunner {
                     admin.setPhone("0000000000");
                     admin.setRole(User.Role.ADMIN);
                     admin.setStatus(User.Status.ACTIVE);
+                    admin.setPublicId(publicIdGeneratorService.nextId(com.grocersmart.common.EntityType.USER));
                     userRepository.save(admin);
                     log.info("Default admin account created: VTNV / vtnv");
                 });
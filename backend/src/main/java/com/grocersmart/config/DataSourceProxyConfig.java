@@ -0,0 +1,35 @@
+package com.grocersmart.config;
+
+import com.grocersmart.monitoring.QueryStatsListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "app.query-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceProxyConfig {
+
+    // Wraps the pool so every statement, from JPA or JdbcTemplate, is counted and timed. With a read replica each
+    // pool is wrapped and the routing proxy in front of them is not, so no statement is counted twice.
+    @Bean
+    public static BeanPostProcessor queryStatsDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)
+                        && !(bean instanceof DelegatingDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(new QueryStatsListener())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
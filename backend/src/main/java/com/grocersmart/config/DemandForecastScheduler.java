@@ -0,0 +1,27 @@
+package com.grocersmart.config;
+
+import com.grocersmart.service.DemandForecastService;
+import com.grocersmart.workload.WorkloadBulkheads;
+import com.grocersmart.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+// Nightly demand forecast, ahead of the replenishment run that uses it; schedule via app.forecast.cron, disable
+// with app.forecast.schedule-enabled=false
+@Component
+@ConditionalOnProperty(name = "app.forecast.schedule-enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class DemandForecastScheduler {
+
+    private final DemandForecastService forecastService;
+    private final WorkloadBulkheads bulkheads;
+
+    @Scheduled(cron = "${app.forecast.cron:0 0 4 * * *}")
+    public void forecast() {
+        bulkheads.run(WorkloadClass.BACKGROUND, () -> forecastService.run(LocalDate.now()));
+    }
+}
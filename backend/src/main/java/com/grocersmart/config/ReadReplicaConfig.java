@@ -0,0 +1,79 @@
+package com.grocersmart.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Two Hikari pools, one per role, behind a routing DataSource. Read-only transactions (every
+// @Transactional(readOnly = true) service method and report, and Spring Data's own finders) run on the replica while
+// ReplicaLagMonitor keeps it in rotation; everything else, and every read while the replica is lagging or down, runs
+// on the primary. Flyway migrates the primary only; the replica gets the schema through replication.
+// Off unless app.read-replica.enabled=true, in which case Boot's single pool is not created.
+@Configuration
+@ConditionalOnProperty(name = "app.read-replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    // spring.datasource.* and spring.datasource.hikari.* configure this pool exactly as they did the single one
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(PRIMARY);
+        return dataSource;
+    }
+
+    // Hikari settings straight under app.read-replica.datasource (jdbc-url, username, maximum-pool-size, ...)
+    @Bean
+    @ConfigurationProperties("app.read-replica.datasource")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(REPLICA);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${app.read-replica.max-lag-ms:5000}") long maxLagMs) {
+        return new ReplicaLagMonitor(primary, replica, maxLagMs);
+    }
+
+    // The transaction manager asks for a connection before the transaction's read-only flag is published, so the
+    // lazy proxy holds off choosing a pool until the first statement, by which time the routing key is known
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica, ReplicaLagMonitor monitor) {
+        AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return TransactionSynchronizationManager.isActualTransactionActive()
+                        && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                        && monitor.isInRotation() ? REPLICA : PRIMARY;
+            }
+        };
+        routing.setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.setLenientFallback(false);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,27 @@
+package com.grocersmart.config;
+
+import com.grocersmart.service.ReplenishmentService;
+import com.grocersmart.workload.WorkloadBulkheads;
+import com.grocersmart.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+// Nightly sales rollup and reorder drafts; schedule via app.replenishment.cron, disable with
+// app.replenishment.schedule-enabled=false
+@Component
+@ConditionalOnProperty(name = "app.replenishment.schedule-enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ReplenishmentScheduler {
+
+    private final ReplenishmentService replenishmentService;
+    private final WorkloadBulkheads bulkheads;
+
+    @Scheduled(cron = "${app.replenishment.cron:0 30 4 * * *}")
+    public void raiseDrafts() {
+        bulkheads.run(WorkloadClass.BACKGROUND, () -> replenishmentService.run(LocalDate.now()));
+    }
+}
@@ -0,0 +1,71 @@
+package com.grocersmart.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+// Heartbeat between the two pools: each beat stamps replica_heartbeat on the primary and reads the stamp back on the
+// replica. The replica serves reads only while its copy is less than maxLagMs old; a failed read, or a stamp that
+// stops moving because replication broke, takes it out of rotation until it catches up. Lag is known to within one
+// heartbeat, and the replica starts out of rotation until the first beat has measured it.
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMs;
+
+    private volatile long lagMs = -1;
+    private volatile boolean inRotation;
+    private boolean reachable = true;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagMs) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMs = maxLagMs;
+    }
+
+    public boolean isInRotation() {
+        return inRotation;
+    }
+
+    // -1 while the replica cannot be read
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    @Scheduled(fixedDelayString = "${app.read-replica.heartbeat-ms:1000}")
+    public void beat() {
+        try {
+            primary.update("UPDATE replica_heartbeat SET beat_ms = GREATEST(beat_ms, ?) WHERE id = 1",
+                    System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.warn("Replica heartbeat could not be written on the primary: {}", e.getMessage());
+        }
+        long lag;
+        try {
+            Long beat = replica.queryForObject("SELECT beat_ms FROM replica_heartbeat WHERE id = 1", Long.class);
+            lag = beat == null ? -1 : Math.max(System.currentTimeMillis() - beat, 0);
+            reachable = true;
+        } catch (RuntimeException e) {
+            if (reachable) {
+                log.warn("Read replica unreachable: {}", e.getMessage());
+            }
+            reachable = false;
+            lag = -1;
+        }
+        lagMs = lag;
+        boolean fresh = lag >= 0 && lag < maxLagMs;
+        if (fresh != inRotation) {
+            if (fresh) {
+                log.info("Read replica in rotation, lag {} ms", lag);
+            } else {
+                log.warn("Read replica out of rotation, lag {} ms (limit {} ms); reads go to the primary", lag,
+                        maxLagMs);
+            }
+            inRotation = fresh;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.grocersmart.config;
+
+import com.grocersmart.service.SalesArchiveService;
+import com.grocersmart.workload.WorkloadBulkheads;
+import com.grocersmart.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+// Nightly move of settled sales past the hot window into the archive; schedule via app.sales-archive.cron,
+// disable with app.sales-archive.schedule-enabled=false
+@Component
+@ConditionalOnProperty(name = "app.sales-archive.schedule-enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SalesArchiveScheduler {
+
+    private final SalesArchiveService salesArchiveService;
+    private final WorkloadBulkheads bulkheads;
+
+    @Scheduled(cron = "${app.sales-archive.cron:0 30 2 * * *}")
+    public void archive() {
+        bulkheads.run(WorkloadClass.BACKGROUND, () -> salesArchiveService.run(LocalDate.now()));
+    }
+}
@@ -0,0 +1,68 @@
+package com.grocersmart.config;
+
+import com.grocersmart.dto.DataGenerationRequest;
+import com.grocersmart.service.SyntheticDataService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// CLI entry point for the synthetic data generator, e.g.
+//   java -jar grocersmart.jar --app.datagen.run-on-startup=true --app.datagen.years=3 --app.datagen.exit-after-run=true
+@Component
+@Order(100)
+@ConditionalOnProperty(name = "app.datagen.run-on-startup", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class SyntheticDataRunner implements CommandLineRunner {
+
+    private final SyntheticDataService syntheticDataService;
+    private final ApplicationContext applicationContext;
+
+    @Value("${app.datagen.seed:42}")
+    private long seed;
+
+    @Value("${app.datagen.years:2}")
+    private int years;
+
+    @Value("${app.datagen.products:2000}")
+    private int products;
+
+    @Value("${app.datagen.customers:500}")
+    private int customers;
+
+    @Value("${app.datagen.suppliers:30}")
+    private int suppliers;
+
+    @Value("${app.datagen.sales-per-day:150}")
+    private int salesPerDay;
+
+    @Value("${app.datagen.credit-sale-ratio:0.15}")
+    private double creditSaleRatio;
+
+    @Value("${app.datagen.exit-after-run:false}")
+    private boolean exitAfterRun;
+
+    @Override
+    public void run(String... args) {
+        DataGenerationRequest request = new DataGenerationRequest();
+        request.setSeed(seed);
+        request.setYears(years);
+        request.setProducts(products);
+        request.setCustomers(customers);
+        request.setSuppliers(suppliers);
+        request.setSalesPerDay(salesPerDay);
+        request.setCreditSaleRatio(creditSaleRatio);
+        syntheticDataService.generate(request);
+
+        if (exitAfterRun) {
+            log.info("Synthetic data generation finished, shutting down (app.datagen.exit-after-run=true)");
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.grocersmart.config;
+
+import com.grocersmart.service.TrashBulkService;
+import com.grocersmart.workload.WorkloadBulkheads;
+import com.grocersmart.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+// Nightly recycle-bin retention purge; schedule via app.trash.cron, periods via app.trash.retention-days and
+// app.trash.retention-days-by-type, disable with app.trash.schedule-enabled=false
+@Component
+@ConditionalOnProperty(name = "app.trash.schedule-enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class TrashRetentionScheduler {
+
+    private final TrashBulkService trashBulkService;
+    private final WorkloadBulkheads bulkheads;
+
+    @Scheduled(cron = "${app.trash.cron:0 0 3 * * *}")
+    public void purgeExpired() {
+        bulkheads.run(WorkloadClass.BACKGROUND, () -> trashBulkService.purgeExpired(LocalDateTime.now()));
+    }
+}
@@ -1,6 +1,8 @@
 package com.grocersmart.config;
 
+import com.grocersmart.cache.ConditionalGetInterceptor;
 import com.grocersmart.security.PermissionInterceptor;
+import com.grocersmart.workload.WorkloadInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
@@ -11,11 +13,20 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebMvcConfig implements WebMvcConfigurer {
 
     private final PermissionInterceptor permissionInterceptor;
+    private final ConditionalGetInterceptor conditionalGetInterceptor;
+    private final WorkloadInterceptor workloadInterceptor;
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(permissionInterceptor)
                 .addPathPatterns("/api/**")
                 .excludePathPatterns("/api/auth/**", "/api/admin/permissions/**");
+        // After the permission check, so a 304 is only ever sent to someone allowed to read the data
+        registry.addInterceptor(conditionalGetInterceptor)
+                .addPathPatterns("/api/**");
+        // After the permission check, so a request that is refused never waits for a permit; after the conditional
+        // check, so a 304 does not take one either
+        registry.addInterceptor(workloadInterceptor)
+                .addPathPatterns("/api/**");
     }
 }
@@ -2,6 +2,8 @@ package com.grocersmart.controller;
 
 import com.grocersmart.dto.ApiResponse;
 import com.grocersmart.service.AdminService;
+import com.grocersmart.workload.Workload;
+import com.grocersmart.workload.WorkloadClass;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,6 +19,7 @@ public class AdminController {
     private final AdminService adminService;
 
     @PostMapping("/reset-system")
+    @Workload(WorkloadClass.BACKGROUND)
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<Map<String, Object>>> resetSystem(@RequestBody Map<String, String> request) {
         String confirm = request.get("confirm");
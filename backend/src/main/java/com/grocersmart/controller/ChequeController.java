@@ -1,12 +1,25 @@
 package com.grocersmart.controller;
 
 import com.grocersmart.dto.ApiResponse;
+import com.grocersmart.dto.BankReconciliationDto;
+import com.grocersmart.dto.ChequeBulkStatusDto;
+import com.grocersmart.dto.ChequeBulkStatusResultDto;
 import com.grocersmart.dto.ChequeDto;
+import com.grocersmart.dto.ChequeQueueRunDto;
+import com.grocersmart.dto.CsvImportResultDTO;
 import com.grocersmart.entity.Cheque;
+import com.grocersmart.service.ChequeImportService;
 import com.grocersmart.service.ChequeService;
+import com.grocersmart.service.ChequeWorkflowService;
+import com.grocersmart.workload.Workload;
+import com.grocersmart.workload.WorkloadClass;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -15,6 +28,8 @@ import java.util.List;
 public class ChequeController {
 
     private final ChequeService chequeService;
+    private final ChequeWorkflowService chequeWorkflowService;
+    private final ChequeImportService chequeImportService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<ChequeDto>> createCheque(@RequestBody ChequeDto dto) {
@@ -22,11 +37,60 @@ public class ChequeController {
         return ResponseEntity.ok(ApiResponse.success(created, "Cheque created successfully"));
     }
 
+    @PostMapping("/bulk-import")
+    @Workload(WorkloadClass.REPORT)
+    public ResponseEntity<ApiResponse<CsvImportResultDTO>> importChequesCsv(@RequestParam("file") MultipartFile file) {
+        CsvImportResultDTO result = chequeImportService.importCheques(file);
+        if (result.isSuccess()) {
+            return ResponseEntity.ok(ApiResponse.success(result, result.getMessage()));
+        } else {
+            return ResponseEntity.badRequest().body(ApiResponse.error(result.getMessage()));
+        }
+    }
+
+    // Applies a bank statement CSV; lines that match no open cheque come back in the report
+    @PostMapping("/bank-statement")
+    @Workload(WorkloadClass.REPORT)
+    public ResponseEntity<ApiResponse<BankReconciliationDto>> reconcileStatement(
+            @RequestParam("file") MultipartFile file) {
+        BankReconciliationDto result = chequeImportService.reconcileStatement(file);
+        return ResponseEntity.ok(ApiResponse.success(result, "Statement reconciled: " + result.getUnmatched().size()
+                + " unmatched lines"));
+    }
+
     @GetMapping("/summary")
     public ResponseEntity<ApiResponse<java.util.Map<String, Object>>> getSummary() {
         return ResponseEntity.ok(ApiResponse.success(chequeService.getSummary(), "Summary retrieved"));
     }
 
+    // PENDING cheques due within the deposit window, earliest first, as of the last queue refresh
+    @GetMapping("/deposit-queue")
+    public ResponseEntity<ApiResponse<org.springframework.data.domain.Page<ChequeDto>>> getDepositQueue(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(ApiResponse.success(chequeService.getDepositQueue(page, size),
+                "Deposit queue retrieved successfully"));
+    }
+
+    // Runs the daily queue refresh now; asOf defaults to today, days to app.cheques.deposit-window-days
+    @PostMapping("/deposit-queue/refresh")
+    @Workload(WorkloadClass.BACKGROUND)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ChequeQueueRunDto>> refreshDepositQueue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+            @RequestParam(defaultValue = "${app.cheques.deposit-window-days:3}") int days) {
+        ChequeQueueRunDto result = chequeWorkflowService.refreshDepositQueue(asOf != null ? asOf : LocalDate.now(),
+                days);
+        return ResponseEntity.ok(ApiResponse.success(result, "Deposit queue refreshed"));
+    }
+
+    @PostMapping("/bulk-status")
+    public ResponseEntity<ApiResponse<ChequeBulkStatusResultDto>> bulkUpdateStatus(
+            @RequestBody ChequeBulkStatusDto request) {
+        ChequeBulkStatusResultDto result = chequeWorkflowService.bulkUpdateStatus(request);
+        return ResponseEntity.ok(ApiResponse.success(result, result.getUpdated() + " cheques updated"));
+    }
+
     @GetMapping
     public ResponseEntity<ApiResponse<org.springframework.data.domain.Page<ChequeDto>>> getAllCheques(
             @RequestParam(required = false) String search,
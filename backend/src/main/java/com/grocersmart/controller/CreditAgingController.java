@@ -0,0 +1,54 @@
+package com.grocersmart.controller;
+
+import com.grocersmart.dto.ApiResponse;
+import com.grocersmart.dto.CreditAgingDto;
+import com.grocersmart.dto.CreditAgingRunDto;
+import com.grocersmart.service.CreditAgingService;
+import com.grocersmart.workload.Workload;
+import com.grocersmart.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+// Reads the buckets materialised by the nightly aging run; nothing here scans invoices
+@RestController
+@RequestMapping("/api/credit-aging")
+@RequiredArgsConstructor
+public class CreditAgingController {
+
+    private final CreditAgingService creditAgingService;
+
+    @GetMapping("/summary")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getSummary() {
+        return ResponseEntity.ok(ApiResponse.success(creditAgingService.getSummary(), "Aging summary retrieved"));
+    }
+
+    @GetMapping("/customers")
+    public ResponseEntity<ApiResponse<Page<CreditAgingDto>>> getCustomers(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.success(creditAgingService.getCustomers(page, Math.min(size, 500)),
+                "Customer aging retrieved"));
+    }
+
+    @GetMapping("/customers/{id}")
+    public ResponseEntity<ApiResponse<CreditAgingDto>> getCustomer(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(creditAgingService.getCustomer(id), "Customer aging retrieved"));
+    }
+
+    // Runs the nightly job now, e.g. after bulk imports; asOf defaults to today
+    @PostMapping("/recompute")
+    @Workload(WorkloadClass.BACKGROUND)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<CreditAgingRunDto>> recompute(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        CreditAgingRunDto result = creditAgingService.recompute(asOf != null ? asOf : LocalDate.now());
+        return ResponseEntity.ok(ApiResponse.success(result, "Aging recomputed"));
+    }
+}
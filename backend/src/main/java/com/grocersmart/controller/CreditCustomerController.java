@@ -1,12 +1,17 @@
 package com.grocersmart.controller;
 
+import com.grocersmart.cache.ConditionalGet;
+import com.grocersmart.cache.CountedTable;
 import com.grocersmart.dto.ApiResponse;
 import com.grocersmart.dto.CreditCustomerDto;
 import com.grocersmart.dto.CreditPaymentDto;
 import com.grocersmart.service.CreditService;
+import com.grocersmart.workload.Workload;
+import com.grocersmart.workload.WorkloadClass;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -15,9 +20,12 @@ import java.util.List;
 public class CreditCustomerController {
 
     private final CreditService creditService;
+    private final com.grocersmart.service.CreditLedgerService creditLedgerService;
+    private final com.grocersmart.service.CreditAllocationService creditAllocationService;
 
     @GetMapping("/summary")
-    public ResponseEntity<ApiResponse<java.util.Map<String, Double>>> getSummary() {
+    @ConditionalGet(value = CountedTable.CREDIT_CUSTOMERS, maxAge = 15)
+    public ResponseEntity<ApiResponse<java.util.Map<String, BigDecimal>>> getSummary() {
         return ResponseEntity.ok(ApiResponse.success(creditService.getSummary(), "Summary retrieved"));
     }
 
@@ -28,6 +36,7 @@ public class CreditCustomerController {
     }
 
     @GetMapping
+    @ConditionalGet(CountedTable.CREDIT_CUSTOMERS)
     public ResponseEntity<ApiResponse<org.springframework.data.domain.Page<CreditCustomerDto>>> getAllCustomers(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String publicId,
@@ -64,12 +73,14 @@ public class CreditCustomerController {
     }
 
     @GetMapping("/{id}")
+    @ConditionalGet(CountedTable.CREDIT_CUSTOMERS)
     public ResponseEntity<ApiResponse<CreditCustomerDto>> getCustomer(@PathVariable Long id) {
         return ResponseEntity
                 .ok(ApiResponse.success(creditService.getCustomerById(id), "Customer retrieved successfully"));
     }
 
     @GetMapping("/search")
+    @ConditionalGet(CountedTable.CREDIT_CUSTOMERS)
     public ResponseEntity<ApiResponse<CreditCustomerDto>> searchCustomer(@RequestParam(required = false) Long id,
             @RequestParam(required = false) String publicId) {
         CreditCustomerDto customer = null;
@@ -85,15 +96,16 @@ public class CreditCustomerController {
     }
 
     @GetMapping("/{id}/balance")
-    public ResponseEntity<ApiResponse<java.util.Map<String, Double>>> getCustomerBalance(@PathVariable Long id) {
+    @ConditionalGet(CountedTable.CREDIT_CUSTOMERS)
+    public ResponseEntity<ApiResponse<java.util.Map<String, BigDecimal>>> getCustomerBalance(@PathVariable Long id) {
         CreditCustomerDto customer = creditService.getCustomerById(id);
-        java.util.Map<String, Double> balance = new java.util.HashMap<>();
-        double limit = customer.getCreditLimit() != null ? customer.getCreditLimit() : 0.0;
-        double outstanding = customer.getOutstandingBalance() != null ? Math.abs(customer.getOutstandingBalance())
-                : 0.0;
+        java.util.Map<String, BigDecimal> balance = new java.util.HashMap<>();
+        BigDecimal limit = customer.getCreditLimit() != null ? customer.getCreditLimit() : BigDecimal.ZERO;
+        BigDecimal outstanding = customer.getOutstandingBalance() != null ? customer.getOutstandingBalance().abs()
+                : BigDecimal.ZERO;
         balance.put("creditLimit", limit);
         balance.put("outstandingBalance", outstanding);
-        balance.put("availableCredit", Math.max(0.0, limit - outstanding));
+        balance.put("availableCredit", limit.subtract(outstanding).max(BigDecimal.ZERO));
         return ResponseEntity.ok(ApiResponse.success(balance, "Balance retrieved successfully"));
     }
 
@@ -111,18 +123,40 @@ public class CreditCustomerController {
     }
 
     @PostMapping("/{id}/payments")
+    @Workload(WorkloadClass.POS)
     public ResponseEntity<ApiResponse<com.grocersmart.dto.CreditPaymentResponseDto>> addPayment(@PathVariable Long id,
             @RequestBody CreditPaymentDto dto) {
         com.grocersmart.dto.CreditPaymentResponseDto payment = creditService.addPayment(id, dto);
         return ResponseEntity.ok(ApiResponse.success(payment, "Payment added successfully"));
     }
 
+    // Backlog job: re-applies every customer's payments to their invoices oldest due first
+    @PostMapping("/allocations/rebuild")
+    @Workload(WorkloadClass.BACKGROUND)
+    @org.springframework.security.access.prepost.PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<com.grocersmart.dto.CreditAllocationRunDto>> rebuildAllocations() {
+        return ResponseEntity.ok(ApiResponse.success(creditAllocationService.reallocateAll(),
+                "Payments re-allocated"));
+    }
+
     @GetMapping("/{id}/payments")
+    @ConditionalGet(CountedTable.CREDIT_PAYMENTS)
     public ResponseEntity<ApiResponse<List<CreditPaymentDto>>> getPayments(@PathVariable Long id) {
         List<CreditPaymentDto> payments = creditService.getCustomerPayments(id);
         return ResponseEntity.ok(ApiResponse.success(payments, "Customer payments retrieved successfully"));
     }
 
+    // Statement lines in entry order, each carrying the balance after it
+    @GetMapping("/{id}/ledger")
+    @ConditionalGet({ CountedTable.CREDIT_CUSTOMERS, CountedTable.CREDIT_LEDGER })
+    public ResponseEntity<ApiResponse<org.springframework.data.domain.Page<com.grocersmart.dto.CreditLedgerEntryDto>>> getLedger(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(ApiResponse.success(creditLedgerService.getLedger(id, page, Math.min(size, 500)),
+                "Customer ledger retrieved"));
+    }
+
     @GetMapping("/{id}/sales")
     public ResponseEntity<ApiResponse<List<com.grocersmart.dto.SalesRecordDto>>> getCustomerSales(
             @PathVariable Long id) {
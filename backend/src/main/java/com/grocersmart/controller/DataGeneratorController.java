@@ -0,0 +1,33 @@
+package com.grocersmart.controller;
+
+import com.grocersmart.dto.ApiResponse;
+import com.grocersmart.dto.DataGenerationRequest;
+import com.grocersmart.dto.DataGenerationResultDto;
+import com.grocersmart.service.SyntheticDataService;
+import com.grocersmart.workload.Workload;
+import com.grocersmart.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+// Only registered when app.datagen.endpoint-enabled=true (off by default)
+@RestController
+@RequestMapping("/api/admin/data-generator")
+@Workload(WorkloadClass.BACKGROUND)
+@ConditionalOnProperty(name = "app.datagen.endpoint-enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class DataGeneratorController {
+
+    private final SyntheticDataService syntheticDataService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<DataGenerationResultDto>> generate(
+            @RequestBody(required = false) DataGenerationRequest request) {
+        DataGenerationResultDto result = syntheticDataService
+                .generate(request != null ? request : new DataGenerationRequest());
+        return ResponseEntity.ok(ApiResponse.success(result, "Synthetic data generated"));
+    }
+}
@@ -0,0 +1,49 @@
+package com.grocersmart.controller;
+
+import com.grocersmart.dto.ApiResponse;
+import com.grocersmart.dto.ForecastRunDto;
+import com.grocersmart.dto.ProductForecastDto;
+import com.grocersmart.service.DemandForecastService;
+import com.grocersmart.workload.Workload;
+import com.grocersmart.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+// Reads the forecasts materialised by the nightly forecast run; nothing here fits a model
+@RestController
+@RequestMapping("/api/forecasts")
+@RequiredArgsConstructor
+public class ForecastController {
+
+    private final DemandForecastService forecastService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<Page<ProductForecastDto>>> getForecasts(
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.success(forecastService.getForecasts(category, page, Math.min(size, 500)),
+                "Forecasts retrieved"));
+    }
+
+    @GetMapping("/{productId}")
+    public ResponseEntity<ApiResponse<ProductForecastDto>> getForecast(@PathVariable Long productId) {
+        return ResponseEntity.ok(ApiResponse.success(forecastService.getForecast(productId), "Forecast retrieved"));
+    }
+
+    // Runs the nightly job now; asOf defaults to today
+    @PostMapping("/run")
+    @Workload(WorkloadClass.BACKGROUND)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ForecastRunDto>> run(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        ForecastRunDto result = forecastService.run(asOf != null ? asOf : LocalDate.now());
+        return ResponseEntity.ok(ApiResponse.success(result, "Forecast run complete"));
+    }
+}
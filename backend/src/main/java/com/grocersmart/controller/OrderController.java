@@ -31,7 +31,8 @@ public class OrderController {
             @RequestParam(required = false) com.grocersmart.entity.Order.PaymentType paymentType,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "id,desc") String sort) {
+            @RequestParam(defaultValue = "id,desc") String sort,
+            @RequestParam(required = false) String expand) {
 
         String[] sortParts = sort.split(",");
         org.springframework.data.domain.Sort sortObj = sortParts.length > 1 && sortParts[1].equalsIgnoreCase("desc")
@@ -66,7 +67,7 @@ public class OrderController {
             }
         }
         return ResponseEntity.ok(ApiResponse.success(
-                orderService.getOrders(search, status, paymentType, pageable),
+                orderService.getOrders(search, status, paymentType, pageable, "items".equals(expand)),
                 "Orders retrieved successfully"));
     }
 
@@ -1,5 +1,7 @@
 package com.grocersmart.controller;
 
+import com.grocersmart.cache.ConditionalGet;
+import com.grocersmart.cache.CountedTable;
 import com.grocersmart.dto.ApiResponse;
 import com.grocersmart.dto.ProductDto;
 import com.grocersmart.service.ProductService;
@@ -12,6 +14,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import com.grocersmart.entity.Product;
+import com.grocersmart.workload.Workload;
+import com.grocersmart.workload.WorkloadClass;
 import java.util.List;
 
 @RestController
@@ -23,6 +27,7 @@ public class ProductController {
     private final ProductImportService importService;
 
     @PostMapping("/bulk-import")
+    @Workload(WorkloadClass.REPORT)
     // @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<CsvImportResultDTO>> importProductsCsv(@RequestParam("file") MultipartFile file) {
         CsvImportResultDTO result = importService.importFromCsv(file);
@@ -40,6 +45,7 @@ public class ProductController {
     }
 
     @GetMapping
+    @ConditionalGet(CountedTable.PRODUCTS)
     public ResponseEntity<ApiResponse<Page<ProductDto>>> getProducts(
             @RequestParam(required = false) Long id,
             @RequestParam(required = false) String publicId,
@@ -92,18 +98,21 @@ public class ProductController {
     }
 
     @GetMapping("/all")
+    @ConditionalGet(CountedTable.PRODUCTS)
     public ResponseEntity<ApiResponse<List<ProductDto>>> getAllProducts() {
         return ResponseEntity
                 .ok(ApiResponse.success(productService.getAllProducts(), "All products retrieved successfully"));
     }
 
     @GetMapping("/{id}")
+    @ConditionalGet(CountedTable.PRODUCTS)
     public ResponseEntity<ApiResponse<ProductDto>> getProduct(@PathVariable Long id) {
         return ResponseEntity
                 .ok(ApiResponse.success(productService.getProductById(id), "Product retrieved successfully"));
     }
 
     @GetMapping("/search")
+    @ConditionalGet(CountedTable.PRODUCTS)
     public ResponseEntity<ApiResponse<ProductDto>> searchProduct(@RequestParam Long id) {
         return ResponseEntity.ok(ApiResponse.success(productService.getProductById(id), "Product found"));
     }
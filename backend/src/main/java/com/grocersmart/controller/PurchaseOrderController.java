@@ -1,8 +1,11 @@
 package com.grocersmart.controller;
 
 import com.grocersmart.dto.ApiResponse;
+import com.grocersmart.dto.PurchaseOrderBulkReceiveDto;
+import com.grocersmart.dto.PurchaseOrderBulkReceiveResultDto;
 import com.grocersmart.dto.PurchaseOrderDto;
 import com.grocersmart.dto.PurchaseOrderItemDto;
+import com.grocersmart.service.PurchaseOrderReceivingService;
 import com.grocersmart.service.PurchaseOrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -15,6 +18,7 @@ import java.util.List;
 public class PurchaseOrderController {
 
     private final PurchaseOrderService poService;
+    private final PurchaseOrderReceivingService receivingService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<PurchaseOrderDto>> createPO(@RequestBody PurchaseOrderDto dto) {
@@ -24,7 +28,8 @@ public class PurchaseOrderController {
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<PurchaseOrderDto>>> getAllPOs(@RequestParam(required = false) Long id,
-            @RequestParam(required = false) String publicId) {
+            @RequestParam(required = false) String publicId,
+            @RequestParam(required = false) String expand) {
         if (id != null) {
             try {
                 PurchaseOrderDto po = poService.getPOById(id);
@@ -45,7 +50,7 @@ public class PurchaseOrderController {
                         .ok(ApiResponse.success(java.util.Collections.emptyList(), "Purchase Order not found"));
             }
         }
-        return ResponseEntity.ok(ApiResponse.success(poService.getAllPOs(), "Purchase Orders retrieved successfully"));
+        return ResponseEntity.ok(ApiResponse.success(poService.getAllPOs("items".equals(expand)), "Purchase Orders retrieved successfully"));
     }
 
     @GetMapping("/{id}")
@@ -86,6 +91,15 @@ public class PurchaseOrderController {
         return ResponseEntity.ok(ApiResponse.success(received, "Purchase Order received successfully"));
     }
 
+    // The morning delivery run: {"ids":[12,13,14]}; stock for all of them is applied in one batch
+    @PostMapping("/bulk-receive")
+    public ResponseEntity<ApiResponse<PurchaseOrderBulkReceiveResultDto>> bulkReceive(
+            @RequestBody PurchaseOrderBulkReceiveDto request) {
+        PurchaseOrderBulkReceiveResultDto result = receivingService.receiveAll(request.getIds());
+        return ResponseEntity.ok(ApiResponse.success(result,
+                result.getReceivedIds().size() + " purchase orders received"));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> deletePO(@PathVariable Long id) {
         poService.deletePO(id);
@@ -0,0 +1,61 @@
+package com.grocersmart.controller;
+
+import com.grocersmart.dto.ApiResponse;
+import com.grocersmart.dto.PurchaseOrderDto;
+import com.grocersmart.dto.ReplenishmentDecisionDto;
+import com.grocersmart.dto.ReplenishmentDecisionResultDto;
+import com.grocersmart.dto.ReplenishmentRunDto;
+import com.grocersmart.entity.PurchaseOrder;
+import com.grocersmart.service.PurchaseOrderService;
+import com.grocersmart.service.ReplenishmentService;
+import com.grocersmart.workload.Workload;
+import com.grocersmart.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Reviews the DRAFT purchase orders raised by the nightly replenishment run
+@RestController
+@RequestMapping("/api/replenishment")
+@RequiredArgsConstructor
+public class ReplenishmentController {
+
+    private final ReplenishmentService replenishmentService;
+    private final PurchaseOrderService poService;
+
+    @GetMapping("/drafts")
+    public ResponseEntity<ApiResponse<List<PurchaseOrderDto>>> getDrafts() {
+        return ResponseEntity.ok(ApiResponse.success(poService.getPOsByStatus(PurchaseOrder.Status.DRAFT),
+                "Draft purchase orders retrieved"));
+    }
+
+    // {"ids":[40,41,42]}: the drafts become ordinary CREATED purchase orders
+    @PostMapping("/drafts/approve")
+    public ResponseEntity<ApiResponse<ReplenishmentDecisionResultDto>> approve(
+            @RequestBody ReplenishmentDecisionDto request) {
+        ReplenishmentDecisionResultDto result = replenishmentService.approve(request.getIds());
+        return ResponseEntity.ok(ApiResponse.success(result, result.getUpdated() + " drafts approved"));
+    }
+
+    @PostMapping("/drafts/reject")
+    public ResponseEntity<ApiResponse<ReplenishmentDecisionResultDto>> reject(
+            @RequestBody ReplenishmentDecisionDto request) {
+        ReplenishmentDecisionResultDto result = replenishmentService.reject(request.getIds());
+        return ResponseEntity.ok(ApiResponse.success(result, result.getUpdated() + " drafts rejected"));
+    }
+
+    // Runs the nightly job now; asOf defaults to today
+    @PostMapping("/run")
+    @Workload(WorkloadClass.BACKGROUND)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ReplenishmentRunDto>> run(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        ReplenishmentRunDto result = replenishmentService.run(asOf != null ? asOf : LocalDate.now());
+        return ResponseEntity.ok(ApiResponse.success(result, "Replenishment run complete"));
+    }
+}
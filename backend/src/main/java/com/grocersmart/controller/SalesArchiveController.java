@@ -0,0 +1,32 @@
+package com.grocersmart.controller;
+
+import com.grocersmart.dto.ApiResponse;
+import com.grocersmart.dto.SalesArchiveRunDto;
+import com.grocersmart.service.SalesArchiveService;
+import com.grocersmart.workload.Workload;
+import com.grocersmart.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/sales-archive")
+@Workload(WorkloadClass.BACKGROUND)
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class SalesArchiveController {
+
+    private final SalesArchiveService salesArchiveService;
+
+    // Runs the nightly archiver now; asOf defaults to today
+    @PostMapping("/run")
+    public ResponseEntity<ApiResponse<SalesArchiveRunDto>> run(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        SalesArchiveRunDto result = salesArchiveService.run(asOf != null ? asOf : LocalDate.now());
+        return ResponseEntity.ok(ApiResponse.success(result, "Sales archive run complete"));
+    }
+}
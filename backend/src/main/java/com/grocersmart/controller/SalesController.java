@@ -4,6 +4,8 @@ import com.grocersmart.dto.DailySalesStatsDto;
 import com.grocersmart.dto.SalesRecordDto;
 import com.grocersmart.dto.TopProductStatsDto;
 import com.grocersmart.service.SalesService;
+import com.grocersmart.workload.Workload;
+import com.grocersmart.workload.WorkloadClass;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,6 +28,7 @@ public class SalesController {
     }
 
     @PostMapping
+    @Workload(WorkloadClass.POS)
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<SalesRecordDto> createSalesRecord(@RequestBody SalesRecordDto dto) {
         return new ResponseEntity<>(salesService.createSalesRecord(dto), HttpStatus.CREATED);
@@ -56,11 +59,13 @@ public class SalesController {
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String publicId,
             @RequestParam(required = false) com.grocersmart.entity.SalesRecord.PaymentMethod method,
+            @RequestParam(required = false) Long storeId,
             @RequestParam(required = false) LocalDate from,
             @RequestParam(required = false) LocalDate to,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "id,desc") String sort) {
+            @RequestParam(defaultValue = "id,desc") String sort,
+            @RequestParam(required = false) String expand) {
 
         String[] sortParts = sort.split(",");
         org.springframework.data.domain.Sort sortObj = sortParts.length > 1 && sortParts[1].equalsIgnoreCase("desc")
@@ -84,7 +89,8 @@ public class SalesController {
         }
 
         return ResponseEntity.ok(com.grocersmart.dto.ApiResponse.success(
-                salesService.getSalesRecords(search, method, from, to, pageable),
+                salesService.getSalesRecords(search, method, storeId, from, to, pageable,
+                        "items".equals(expand)),
                 "Sales records retrieved successfully"));
     }
 
@@ -95,20 +101,24 @@ public class SalesController {
     }
 
     @GetMapping("/analytics/daily")
+    @Workload(WorkloadClass.REPORT)
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<DailySalesStatsDto>> getDailyStats(
+            @RequestParam(required = false) Long storeId,
             @RequestParam(required = false) LocalDate from,
             @RequestParam(required = false) LocalDate to) {
         if (from == null)
             from = LocalDate.now().minusDays(30);
         if (to == null)
             to = LocalDate.now();
-        return ResponseEntity.ok(salesService.getDailySalesStats(from, to));
+        return ResponseEntity.ok(salesService.getDailySalesStats(storeId, from, to));
     }
 
     @GetMapping("/analytics/top-products")
+    @Workload(WorkloadClass.REPORT)
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<TopProductStatsDto>> getTopProducts(
+            @RequestParam(required = false) Long storeId,
             @RequestParam(required = false) LocalDate from,
             @RequestParam(required = false) LocalDate to,
             @RequestParam(defaultValue = "10") int limit) {
@@ -116,6 +126,6 @@ public class SalesController {
             from = LocalDate.now().minusDays(30);
         if (to == null)
             to = LocalDate.now();
-        return ResponseEntity.ok(salesService.getTopProducts(from, to, limit));
+        return ResponseEntity.ok(salesService.getTopProducts(storeId, from, to, limit));
     }
 }
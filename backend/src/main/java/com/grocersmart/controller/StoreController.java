@@ -0,0 +1,49 @@
+package com.grocersmart.controller;
+
+import com.grocersmart.dto.ApiResponse;
+import com.grocersmart.dto.StoreDto;
+import com.grocersmart.dto.StoreStockDto;
+import com.grocersmart.service.StockService;
+import com.grocersmart.service.StoreService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stores")
+@RequiredArgsConstructor
+public class StoreController {
+
+    private final StoreService storeService;
+    private final StockService stockService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<StoreDto>>> getStores() {
+        return ResponseEntity.ok(ApiResponse.success(storeService.getStores(), "Stores retrieved successfully"));
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<StoreDto>> createStore(@RequestBody StoreDto dto) {
+        return ResponseEntity.ok(ApiResponse.success(storeService.createStore(dto), "Store created successfully"));
+    }
+
+    // Renames a store, or closes it to new sales, orders and purchase orders
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<StoreDto>> updateStore(@PathVariable Long id, @RequestBody StoreDto dto) {
+        return ResponseEntity.ok(ApiResponse.success(storeService.updateStore(id, dto), "Store updated successfully"));
+    }
+
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<ApiResponse<Page<StoreStockDto>>> getStock(@PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(ApiResponse.success(stockService.getStoreStock(id, page, Math.min(size, 500)),
+                "Store stock retrieved successfully"));
+    }
+}
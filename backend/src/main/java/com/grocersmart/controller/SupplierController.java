@@ -1,5 +1,7 @@
 package com.grocersmart.controller;
 
+import com.grocersmart.cache.ConditionalGet;
+import com.grocersmart.cache.CountedTable;
 import com.grocersmart.dto.ApiResponse;
 import com.grocersmart.dto.SupplierDto;
 import com.grocersmart.service.SupplierService;
@@ -17,6 +19,7 @@ public class SupplierController {
     private final SupplierService supplierService;
 
     @GetMapping("/summary")
+    @ConditionalGet(value = CountedTable.SUPPLIERS, maxAge = 15)
     public ResponseEntity<ApiResponse<java.util.Map<String, Long>>> getSummary() {
         return ResponseEntity.ok(ApiResponse.success(supplierService.getSummary(), "Summary retrieved"));
     }
@@ -28,6 +31,7 @@ public class SupplierController {
     }
 
     @GetMapping
+    @ConditionalGet(CountedTable.SUPPLIERS)
     public ResponseEntity<ApiResponse<org.springframework.data.domain.Page<SupplierDto>>> getAllSuppliers(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String publicId,
@@ -64,6 +68,7 @@ public class SupplierController {
     }
 
     @GetMapping("/search")
+    @ConditionalGet(CountedTable.SUPPLIERS)
     public ResponseEntity<ApiResponse<SupplierDto>> searchSupplier(@RequestParam(required = false) Long id,
             @RequestParam(required = false) String publicId) {
         SupplierDto supplier = null;
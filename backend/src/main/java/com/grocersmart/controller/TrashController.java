@@ -1,169 +1,98 @@
 package com.grocersmart.controller;
 
+import com.grocersmart.common.EntityType;
 import com.grocersmart.dto.DeletedItemDto;
 import com.grocersmart.dto.RestoreResponse;
-import com.grocersmart.service.TrashCreditCustomerService;
-import com.grocersmart.service.TrashProductService;
-import com.grocersmart.service.TrashSupplierService;
-import com.grocersmart.service.TrashUserService;
-// Add new services (implementations assumed generic or specific)
-import com.grocersmart.service.TrashOrderService;
-import com.grocersmart.service.TrashSalesService;
-import com.grocersmart.service.TrashChequeService;
-import com.grocersmart.service.TrashPurchaseOrderService;
+import com.grocersmart.dto.TrashBulkRequestDto;
+import com.grocersmart.dto.TrashBulkResultDto;
+import com.grocersmart.dto.TrashPageDto;
+import com.grocersmart.service.TrashBulkService;
+import com.grocersmart.service.TrashEngine;
+import com.grocersmart.workload.Workload;
+import com.grocersmart.workload.WorkloadClass;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/trash")
 @RequiredArgsConstructor
 public class TrashController {
 
-    private final TrashUserService trashUserService;
-    private final TrashProductService trashProductService;
-    private final TrashSupplierService trashSupplierService;
-    private final TrashCreditCustomerService trashCreditCustomerService;
-    private final TrashOrderService trashOrderService;
-    private final TrashSalesService trashSalesService;
-    private final TrashChequeService trashChequeService;
-    private final TrashPurchaseOrderService trashPurchaseOrderService;
+    private static final Map<String, EntityType> KINDS = Map.of(
+            "users", EntityType.USER,
+            "products", EntityType.PRODUCT,
+            "suppliers", EntityType.SUPPLIER,
+            "credit-customers", EntityType.CREDIT_CUSTOMER,
+            "orders", EntityType.ORDER,
+            "sales", EntityType.SALE,
+            "cheques", EntityType.CHEQUE,
+            "purchase-orders", EntityType.PURCHASE_ORDER);
 
-    // Users
-    @GetMapping("/users")
-    public ResponseEntity<List<DeletedItemDto>> getDeletedUsers() {
-        return ResponseEntity.ok(trashUserService.getAllDeleted());
-    }
-
-    @PostMapping("/users/{id}/restore")
-    public ResponseEntity<RestoreResponse> restoreUser(@PathVariable Long id) {
-        return ResponseEntity.ok(trashUserService.restore(id));
-    }
-
-    @DeleteMapping("/users/{id}")
-    public ResponseEntity<Void> deleteUserPermanent(@PathVariable Long id) {
-        trashUserService.permanentDelete(id);
-        return ResponseEntity.noContent().build();
-    }
-
-    // Products
-    @GetMapping("/products")
-    public ResponseEntity<List<DeletedItemDto>> getDeletedProducts() {
-        return ResponseEntity.ok(trashProductService.getAllDeleted());
-    }
-
-    @PostMapping("/products/{id}/restore")
-    public ResponseEntity<RestoreResponse> restoreProduct(@PathVariable Long id) {
-        return ResponseEntity.ok(trashProductService.restore(id));
-    }
-
-    @DeleteMapping("/products/{id}")
-    public ResponseEntity<Void> deleteProductPermanent(@PathVariable Long id) {
-        trashProductService.permanentDelete(id);
-        return ResponseEntity.noContent().build();
-    }
-
-    // Suppliers
-    @GetMapping("/suppliers")
-    public ResponseEntity<List<DeletedItemDto>> getDeletedSuppliers() {
-        return ResponseEntity.ok(trashSupplierService.getAllDeleted());
-    }
-
-    @PostMapping("/suppliers/{id}/restore")
-    public ResponseEntity<RestoreResponse> restoreSupplier(@PathVariable Long id) {
-        return ResponseEntity.ok(trashSupplierService.restore(id));
-    }
-
-    @DeleteMapping("/suppliers/{id}")
-    public ResponseEntity<Void> deleteSupplierPermanent(@PathVariable Long id) {
-        trashSupplierService.permanentDelete(id);
-        return ResponseEntity.noContent().build();
-    }
-
-    // Credit Customers
-    @GetMapping("/credit-customers")
-    public ResponseEntity<List<DeletedItemDto>> getDeletedCustomers() {
-        return ResponseEntity.ok(trashCreditCustomerService.getAllDeleted());
-    }
-
-    @PostMapping("/credit-customers/{id}/restore")
-    public ResponseEntity<RestoreResponse> restoreCustomer(@PathVariable Long id) {
-        return ResponseEntity.ok(trashCreditCustomerService.restore(id));
-    }
-
-    @DeleteMapping("/credit-customers/{id}")
-    public ResponseEntity<Void> deleteCustomerPermanent(@PathVariable Long id) {
-        trashCreditCustomerService.permanentDelete(id);
-        return ResponseEntity.noContent().build();
-    }
+    private final TrashEngine trashEngine;
+    private final TrashBulkService trashBulkService;
 
-    // Orders
-    @GetMapping("/orders")
-    public ResponseEntity<List<DeletedItemDto>> getDeletedOrders() {
-        return ResponseEntity.ok(trashOrderService.getAllDeleted());
+    // All types in one feed, newest first; pass nextCursor back to get the following page
+    @GetMapping
+    public ResponseEntity<TrashPageDto> getTrash(@RequestParam(required = false) EntityType type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(trashEngine.page(type, cursor, size));
     }
 
-    @PostMapping("/orders/{id}/restore")
-    public ResponseEntity<RestoreResponse> restoreOrder(@PathVariable Long id) {
-        return ResponseEntity.ok(trashOrderService.restore(id));
+    @GetMapping("/{type}/{deletedId}")
+    public ResponseEntity<DeletedItemDto> getTrashItem(@PathVariable EntityType type, @PathVariable Long deletedId) {
+        return ResponseEntity.ok(trashEngine.detail(type, deletedId));
     }
 
-    @DeleteMapping("/orders/{id}/permanent")
-    public ResponseEntity<Void> deleteOrderPermanent(@PathVariable Long id) {
-        trashOrderService.permanentDelete(id);
-        return ResponseEntity.noContent().build();
+    // Bulk: {"type":"SALE","ids":[1,2,3]} or a filter {"type":"SALE","deletedBefore":"2024-01-01T00:00:00"}
+    @PostMapping("/bulk-restore")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TrashBulkResultDto> bulkRestore(@RequestBody TrashBulkRequestDto request) {
+        return ResponseEntity.ok(trashBulkService.restore(request));
     }
 
-    // Sales
-    @GetMapping("/sales")
-    public ResponseEntity<List<DeletedItemDto>> getDeletedSales() {
-        return ResponseEntity.ok(trashSalesService.getAllDeleted());
+    @PostMapping("/bulk-purge")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TrashBulkResultDto> bulkPurge(@RequestBody TrashBulkRequestDto request) {
+        return ResponseEntity.ok(trashBulkService.purge(request));
     }
 
-    @PostMapping("/sales/{id}/restore")
-    public ResponseEntity<RestoreResponse> restoreSale(@PathVariable Long id) {
-        return ResponseEntity.ok(trashSalesService.restore(id));
+    // Runs the nightly retention purge now
+    @PostMapping("/retention/run")
+    @Workload(WorkloadClass.BACKGROUND)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TrashBulkResultDto> runRetention() {
+        return ResponseEntity.ok(trashBulkService.purgeExpired(java.time.LocalDateTime.now()));
     }
 
-    @DeleteMapping("/sales/{id}/permanent")
-    public ResponseEntity<Void> deleteSalePermanent(@PathVariable Long id) {
-        trashSalesService.permanentDelete(id);
-        return ResponseEntity.noContent().build();
+    // Per-type lists and actions: /api/trash/{kind}, kind being users, products, suppliers, credit-customers,
+    // orders, sales, cheques or purchase-orders
+    @GetMapping("/{kind:[a-z-]+}")
+    public ResponseEntity<List<DeletedItemDto>> getDeleted(@PathVariable String kind) {
+        return ResponseEntity.ok(trashEngine.list(typeOf(kind)));
     }
 
-    // Cheques
-    @GetMapping("/cheques")
-    public ResponseEntity<List<DeletedItemDto>> getDeletedCheques() {
-        return ResponseEntity.ok(trashChequeService.getAllDeleted());
+    @PostMapping("/{kind:[a-z-]+}/{id}/restore")
+    public ResponseEntity<RestoreResponse> restore(@PathVariable String kind, @PathVariable Long id) {
+        return ResponseEntity.ok(trashEngine.restore(typeOf(kind), id));
     }
 
-    @PostMapping("/cheques/{id}/restore")
-    public ResponseEntity<RestoreResponse> restoreCheque(@PathVariable Long id) {
-        return ResponseEntity.ok(trashChequeService.restore(id));
-    }
-
-    @DeleteMapping("/cheques/{id}/permanent")
-    public ResponseEntity<Void> deleteChequePermanent(@PathVariable Long id) {
-        trashChequeService.permanentDelete(id);
+    @DeleteMapping({ "/{kind:[a-z-]+}/{id}", "/{kind:[a-z-]+}/{id}/permanent" })
+    public ResponseEntity<Void> deletePermanent(@PathVariable String kind, @PathVariable Long id) {
+        trashEngine.permanentDelete(typeOf(kind), id);
         return ResponseEntity.noContent().build();
     }
 
-    // Purchase Orders
-    @GetMapping("/purchase-orders")
-    public ResponseEntity<List<DeletedItemDto>> getDeletedPurchaseOrders() {
-        return ResponseEntity.ok(trashPurchaseOrderService.getAllDeleted());
-    }
-
-    @PostMapping("/purchase-orders/{id}/restore")
-    public ResponseEntity<RestoreResponse> restorePurchaseOrder(@PathVariable Long id) {
-        return ResponseEntity.ok(trashPurchaseOrderService.restore(id));
-    }
-
-    @DeleteMapping("/purchase-orders/{id}/permanent")
-    public ResponseEntity<Void> deletePurchaseOrderPermanent(@PathVariable Long id) {
-        trashPurchaseOrderService.permanentDelete(id);
-        return ResponseEntity.noContent().build();
+    private static EntityType typeOf(String kind) {
+        EntityType type = KINDS.get(kind);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown trash type: " + kind);
+        }
+        return type;
     }
 }
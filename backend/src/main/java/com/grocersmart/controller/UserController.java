@@ -1,5 +1,7 @@
 package com.grocersmart.controller;
 
+import com.grocersmart.cache.ConditionalGet;
+import com.grocersmart.cache.CountedTable;
 import com.grocersmart.dto.ApiResponse;
 import com.grocersmart.dto.UserDto;
 import com.grocersmart.service.UserService;
@@ -25,6 +27,7 @@ public class UserController {
     }
 
     @GetMapping("/profile")
+    @ConditionalGet(value = CountedTable.USERS, perUser = true)
     public ResponseEntity<ApiResponse<UserDto>> getProfile(java.security.Principal principal) {
         UserDto user = userService.getUserByUsername(principal.getName());
         return ResponseEntity.ok(ApiResponse.success(user, "Profile retrieved successfully"));
@@ -39,6 +42,7 @@ public class UserController {
     }
 
     @GetMapping
+    @ConditionalGet(CountedTable.USERS)
     public ResponseEntity<ApiResponse<org.springframework.data.domain.Page<UserDto>>> getUsers(
             @RequestParam(required = false) Long id,
             @RequestParam(required = false) String publicId,
@@ -87,11 +91,13 @@ public class UserController {
     }
 
     @GetMapping("/{id}")
+    @ConditionalGet(CountedTable.USERS)
     public ResponseEntity<ApiResponse<UserDto>> getUser(@PathVariable Long id) {
         return ResponseEntity.ok(ApiResponse.success(userService.getUserById(id), "User retrieved successfully"));
     }
 
     @GetMapping("/search")
+    @ConditionalGet(CountedTable.USERS)
     public ResponseEntity<ApiResponse<UserDto>> searchUser(@RequestParam(required = false) Long id,
             @RequestParam(required = false) String publicId) {
         UserDto user = null;
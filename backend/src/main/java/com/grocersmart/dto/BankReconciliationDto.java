@@ -0,0 +1,22 @@
+package com.grocersmart.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class BankReconciliationDto {
+    private LocalDateTime timestamp;
+    private long lines;
+    private long openCheques;
+    private int cleared;
+    private int bounced;
+    private int customersCharged;
+    private BigDecimal amountMigratedToDebt;
+    private int invoicesReopened;
+    private List<BankStatementLineDto> unmatched;
+    private long elapsedMs;
+}
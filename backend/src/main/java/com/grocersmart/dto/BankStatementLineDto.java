@@ -0,0 +1,18 @@
+package com.grocersmart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A bank statement line that could not be applied, as it appeared in the file
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BankStatementLineDto {
+    private long lineNumber;
+    private String chequeNumber;
+    private String bankName;
+    private String amount;
+    private String status;
+    private String reason;
+}
@@ -0,0 +1,15 @@
+package com.grocersmart.dto;
+
+import com.grocersmart.entity.Cheque;
+import lombok.Data;
+import java.time.LocalDate;
+import java.util.List;
+
+// One status change for many cheques: date is the deposit, cleared or bounced date
+@Data
+public class ChequeBulkStatusDto {
+    private List<Long> ids;
+    private Cheque.Status status;
+    private LocalDate date;
+    private String bounceReason;
+}
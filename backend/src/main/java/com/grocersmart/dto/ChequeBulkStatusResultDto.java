@@ -0,0 +1,20 @@
+package com.grocersmart.dto;
+
+import com.grocersmart.entity.Cheque;
+import lombok.Builder;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+public class ChequeBulkStatusResultDto {
+    private Cheque.Status status;
+    private int requested;
+    private int updated;
+    // Missing, deleted, or not in a status the transition starts from
+    private List<Long> skippedIds;
+    private int customersCharged;
+    private BigDecimal amountMigratedToDebt;
+    private int invoicesReopened;
+}
@@ -0,0 +1,17 @@
+package com.grocersmart.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ChequeQueueRunDto {
+    private LocalDateTime timestamp;
+    private LocalDate asOfDate;
+    private int windowDays;
+    private long queued;
+    private long removed;
+    private long elapsedMs;
+}
@@ -0,0 +1,22 @@
+package com.grocersmart.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class CreditAgingDto {
+    private Long customerId;
+    private String customerPublicId;
+    private String customerName;
+    private LocalDate asOfDate;
+    private Integer openInvoices;
+    private BigDecimal bucket0To30;
+    private BigDecimal bucket31To60;
+    private BigDecimal bucket61To90;
+    private BigDecimal bucket90Plus;
+    private BigDecimal totalOpen;
+    private Integer maxDaysOverdue;
+    private LocalDateTime computedAt;
+}
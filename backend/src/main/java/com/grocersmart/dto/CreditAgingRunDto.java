@@ -0,0 +1,19 @@
+package com.grocersmart.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class CreditAgingRunDto {
+    private LocalDateTime timestamp;
+    private LocalDate asOfDate;
+    private long dueDatesFilled;
+    private long invoicesUpdated;
+    private long customers;
+    private long updateMs;
+    private long summaryMs;
+    private long elapsedMs;
+}
@@ -0,0 +1,14 @@
+package com.grocersmart.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class CreditAllocationRunDto {
+    private LocalDateTime timestamp;
+    private long customers;
+    private long invoicesUpdated;
+    private long elapsedMs;
+}
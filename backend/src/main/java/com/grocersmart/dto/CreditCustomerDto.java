@@ -3,6 +3,8 @@ package com.grocersmart.dto;
 import com.grocersmart.entity.CreditCustomer;
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @Data
 public class CreditCustomerDto {
     private Long id;
@@ -10,19 +12,22 @@ public class CreditCustomerDto {
     private String name;
     private String phone;
     private String address;
-    private Double creditLimit;
-    private Double outstandingBalance;
-    private Double availableCredit;
+    private BigDecimal creditLimit;
+    private BigDecimal outstandingBalance;
+    private BigDecimal availableCredit;
     private Integer paymentTermsDays;
-    private Double authorizedThreshold;
+    private BigDecimal authorizedThreshold;
 
     // AI / Risk Stats
     private CreditCustomer.CustomerType customerType;
-    private Double totalPurchases;
-    private Double totalPaid;
+    private BigDecimal totalPurchases;
+    private BigDecimal totalPaid;
     private java.time.LocalDate lastPaymentDate;
 
     private CreditCustomer.Status status;
     private java.time.LocalDateTime createdAt;
     private java.time.LocalDateTime updatedAt;
+
+    // Echo back on update; a mismatch means the balance or details changed since the form was loaded
+    private Long version;
 }
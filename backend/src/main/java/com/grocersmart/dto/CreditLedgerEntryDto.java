@@ -0,0 +1,22 @@
+package com.grocersmart.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class CreditLedgerEntryDto {
+    private Long id;
+    private Long customerId;
+    private Long entrySeq;
+    private LocalDate entryDate;
+    private String entryType;
+    private String referenceType;
+    private Long referenceId;
+    private String description;
+    private BigDecimal debit;
+    private BigDecimal credit;
+    private BigDecimal balanceAfter;
+    private LocalDateTime createdAt;
+}
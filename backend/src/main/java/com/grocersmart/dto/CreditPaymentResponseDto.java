@@ -18,4 +18,8 @@ public class CreditPaymentResponseDto {
     private Double previousOutstanding;
     private Double newOutstanding;
     private String message;
+
+    // Invoices the payment was applied to, oldest due first; anything left over is unallocated
+    private java.util.List<InvoiceAllocationDto> allocations;
+    private Double unallocatedAmount;
 }
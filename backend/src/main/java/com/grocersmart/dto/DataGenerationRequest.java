@@ -0,0 +1,19 @@
+package com.grocersmart.dto;
+
+import lombok.Data;
+import java.time.LocalDate;
+
+@Data
+public class DataGenerationRequest {
+    // Same seed + same parameters on an empty database always yields the same dataset
+    private long seed = 42;
+    private int years = 2;
+    private int products = 2000;
+    private int customers = 500;
+    private int suppliers = 30;
+    private int salesPerDay = 150;
+    private double creditSaleRatio = 0.15;
+
+    // Last day of generated history; defaults to yesterday
+    private LocalDate endDate;
+}
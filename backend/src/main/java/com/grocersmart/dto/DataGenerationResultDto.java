@@ -0,0 +1,24 @@
+package com.grocersmart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DataGenerationResultDto {
+    private LocalDateTime timestamp;
+    private long seed;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+
+    // Inserted row count per table
+    private Map<String, Long> rowCounts;
+    private long elapsedMs;
+}
@@ -1,5 +1,6 @@
 package com.grocersmart.dto;
 
+import com.grocersmart.common.EntityType;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -15,7 +16,7 @@ public class DeletedItemDto {
     private String description;
     private String publicId;
 
-    // Legacy / specific fields from TrashProductService etc.
+    // Per-type list and detail fields
     private Long deletedId;
     private Long originalId;
     private LocalDateTime deletedAt;
@@ -32,4 +33,5 @@ public class DeletedItemDto {
     private LocalDateTime restoredAt;
     private Integer restoreCount;
     private String entityName;
+    private EntityType entityType; // Set in the unified /api/trash feed
 }
@@ -0,0 +1,23 @@
+package com.grocersmart.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+public class ForecastRunDto {
+    private LocalDateTime timestamp;
+    private LocalDate asOfDate;
+    // First day of the history the models were fitted on; it always ends the day before asOfDate
+    private LocalDate historyFrom;
+    private long rollupRows;
+    private long rowsRead;
+    private int products;
+    // Products per chosen model
+    private Map<String, Long> models;
+    private int parallelism;
+    private long elapsedMs;
+}
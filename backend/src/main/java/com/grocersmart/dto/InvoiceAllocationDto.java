@@ -0,0 +1,18 @@
+package com.grocersmart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+// One invoice's share of a payment
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceAllocationDto {
+    private Long salesRecordId;
+    private String invoiceId;
+    private BigDecimal applied;
+    private BigDecimal paidAmount;
+    private String paymentStatus;
+}
@@ -16,6 +16,8 @@ public class OrderDto {
     private Double totalAmount;
     private Long salesRecordId;
     private Long creditCustomerId;
+    // Defaults to the main store when creating
+    private Long storeId;
     private String creditCustomerName;
     private List<OrderItemDto> items;
     private LocalDateTime createdAt;
@@ -17,6 +17,7 @@ public class ProductDto {
     private Double purchasePrice;
     private Integer reorderLevel;
     private Integer unitsPerBulk;
+    private Long supplierId;
     private Product.Status status;
     private java.time.LocalDateTime createdAt;
     private java.time.LocalDateTime updatedAt;
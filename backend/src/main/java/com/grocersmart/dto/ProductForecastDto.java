@@ -0,0 +1,25 @@
+package com.grocersmart.dto;
+
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class ProductForecastDto {
+    private Long productId;
+    private String productPublicId;
+    private String productName;
+    private String category;
+    private LocalDate asOfDate;
+    private String model;
+    // Expected units: per day on average over the horizon, and over the next 7 and 28 days
+    private Double dailyRate;
+    private Double next7Days;
+    private Double next28Days;
+    // Mean absolute error per day over the held-out last 28 days; null when the history was too short to hold out
+    private Double meanAbsError;
+    private Integer historyDays;
+    // Share of the units sold in the history that were sold on promotion
+    private Double promoShare;
+    private LocalDateTime computedAt;
+}
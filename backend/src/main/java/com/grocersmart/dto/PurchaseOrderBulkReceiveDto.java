@@ -0,0 +1,10 @@
+package com.grocersmart.dto;
+
+import lombok.Data;
+import java.util.List;
+
+// A delivery run: every purchase order that arrived, received together
+@Data
+public class PurchaseOrderBulkReceiveDto {
+    private List<Long> ids;
+}
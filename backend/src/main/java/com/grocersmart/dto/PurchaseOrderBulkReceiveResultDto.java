@@ -0,0 +1,18 @@
+package com.grocersmart.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@Builder
+public class PurchaseOrderBulkReceiveResultDto {
+    private int requested;
+    private List<Long> receivedIds;
+    // "id: reason" for purchase orders left as they were (missing, draft, already received, unknown product)
+    private List<String> skipped;
+    private int products;
+    private long units;
+    private double totalAmount;
+    private long elapsedMs;
+}
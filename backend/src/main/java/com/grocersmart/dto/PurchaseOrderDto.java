@@ -10,6 +10,8 @@ public class PurchaseOrderDto {
     private Long id;
     private String publicId;
     private Long supplierId;
+    // Store the goods are delivered to; defaults to the main store when creating
+    private Long storeId;
     private LocalDateTime poDate;
     private PurchaseOrder.Status status;
     private Double totalAmount;
@@ -0,0 +1,10 @@
+package com.grocersmart.dto;
+
+import lombok.Data;
+import java.util.List;
+
+// Draft purchase orders to approve or reject together
+@Data
+public class ReplenishmentDecisionDto {
+    private List<Long> ids;
+}
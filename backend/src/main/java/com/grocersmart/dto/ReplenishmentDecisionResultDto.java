@@ -0,0 +1,16 @@
+package com.grocersmart.dto;
+
+import com.grocersmart.entity.PurchaseOrder;
+import lombok.Builder;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@Builder
+public class ReplenishmentDecisionResultDto {
+    private PurchaseOrder.Status status;
+    private int requested;
+    private int updated;
+    // Missing, or no longer a draft
+    private List<Long> skippedIds;
+}
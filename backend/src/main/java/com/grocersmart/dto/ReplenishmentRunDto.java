@@ -0,0 +1,25 @@
+package com.grocersmart.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class ReplenishmentRunDto {
+    private LocalDateTime timestamp;
+    private LocalDate asOfDate;
+    // Days of product_daily_sales rewritten by this run, and the first of them
+    private LocalDate rolledUpFrom;
+    private long rollupRows;
+    private int velocityDays;
+    // Products at or under their reorder point, those of them without a supplier, and the drafts raised
+    private int productsToReorder;
+    private int withoutSupplier;
+    private List<Long> draftIds;
+    private long units;
+    private double totalCost;
+    private long elapsedMs;
+}
@@ -22,7 +22,7 @@ public class RestoreResponse {
         this.message = message;
     }
 
-    // Constructor matching typical usage in TrashProductService
+    // Constructor used by TrashEngine.restore
     public RestoreResponse(String message, Long restoredId, Long deletedId, Integer restoreCount) {
         this.success = true; // Assuming successful if this constructor is used
         this.message = message;
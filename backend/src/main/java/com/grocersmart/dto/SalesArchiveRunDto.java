@@ -0,0 +1,22 @@
+package com.grocersmart.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class SalesArchiveRunDto {
+    private LocalDateTime timestamp;
+    private LocalDate asOfDate;
+    // Settled sales dated before this day were moved to the archive
+    private LocalDate archivedBefore;
+    private int months;
+    private int partitionsAdded;
+    private long records;
+    private long items;
+    // Newest day in the archive after the run; reads reaching back to it include the archive
+    private LocalDate archivedThrough;
+    private long elapsedMs;
+}
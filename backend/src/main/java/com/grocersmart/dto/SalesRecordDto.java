@@ -21,6 +21,8 @@ public class SalesRecordDto {
     private String note;
     private List<SalesItemDto> items;
     private Long creditCustomerId;
+    // Defaults to the main store when creating
+    private Long storeId;
 
     // AI / Payment Stats
     private String paymentStatus;
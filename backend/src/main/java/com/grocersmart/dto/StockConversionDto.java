@@ -6,6 +6,8 @@ import java.time.LocalDateTime;
 @Data
 public class StockConversionDto {
     private Long productId;
+    // Store whose packs are opened; defaults to the main store
+    private Long storeId;
     private Double fromBulkQty;
     private Integer toUnitQty;
     private String note;
@@ -0,0 +1,14 @@
+package com.grocersmart.dto;
+
+import com.grocersmart.entity.Store;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class StoreDto {
+    private Long id;
+    private String code;
+    private String name;
+    private Store.Status status;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,18 @@
+package com.grocersmart.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// One product's stock in one store
+@Data
+public class StoreStockDto {
+    private Long storeId;
+    private Long productId;
+    private String productPublicId;
+    private String productName;
+    private String category;
+    private Integer unitQty;
+    private Double bulkQty;
+    private Integer reorderLevel;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,19 @@
+package com.grocersmart.dto;
+
+import com.grocersmart.common.EntityType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Either ids (of one type) or a filter: everything of type (all types when null) deleted before deletedBefore
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrashBulkRequestDto {
+    private EntityType type;
+    private List<Long> ids;
+    private LocalDateTime deletedBefore;
+}
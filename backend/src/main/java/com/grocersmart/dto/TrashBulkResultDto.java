@@ -0,0 +1,21 @@
+package com.grocersmart.dto;
+
+import com.grocersmart.common.EntityType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class TrashBulkResultDto {
+    private LocalDateTime timestamp;
+    private String action;
+    private long processed;
+    private Map<EntityType, Long> byType;
+    private List<String> skipped;
+    private long reclaimedBytes;
+    private long elapsedMs;
+}
@@ -0,0 +1,15 @@
+package com.grocersmart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrashPageDto {
+    private List<DeletedItemDto> items;
+    private String nextCursor; // null on the last page
+}
@@ -0,0 +1,53 @@
+package com.grocersmart.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Read model written by the nightly aging job (CreditAgingService); never modified through JPA
+@Entity
+@Table(name = "credit_aging_summary")
+@org.hibernate.annotations.Immutable
+@NamedEntityGraph(name = "CreditAgingSummary.customer", attributeNodes = @NamedAttributeNode("customer"))
+@Data
+@NoArgsConstructor
+public class CreditAgingSummary {
+
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "customer_id", insertable = false, updatable = false)
+    private CreditCustomer customer;
+
+    @Column(name = "as_of_date")
+    private LocalDate asOfDate;
+
+    @Column(name = "open_invoices")
+    private Integer openInvoices;
+
+    @Column(name = "bucket_0_30")
+    private BigDecimal bucket0To30;
+
+    @Column(name = "bucket_31_60")
+    private BigDecimal bucket31To60;
+
+    @Column(name = "bucket_61_90")
+    private BigDecimal bucket61To90;
+
+    @Column(name = "bucket_90_plus")
+    private BigDecimal bucket90Plus;
+
+    @Column(name = "total_open")
+    private BigDecimal totalOpen;
+
+    @Column(name = "max_days_overdue")
+    private Integer maxDaysOverdue;
+
+    @Column(name = "computed_at")
+    private LocalDateTime computedAt;
+}
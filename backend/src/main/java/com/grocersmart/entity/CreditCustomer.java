@@ -3,6 +3,8 @@ package com.grocersmart.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
@@ -23,27 +25,28 @@ public class CreditCustomer {
     private String phone;
     private String address;
 
-    private Double creditLimit;
-    private Double outstandingBalance = 0.0;
+    // Money columns are DECIMAL(12,2) and mapped as BigDecimal, so balances are never rounded through a double
+    private BigDecimal creditLimit;
+    private BigDecimal outstandingBalance = BigDecimal.ZERO;
 
     @Column(name = "available_credit")
-    private Double availableCredit = 0.0;
+    private BigDecimal availableCredit = BigDecimal.ZERO;
 
     @Column(name = "payment_terms_days", nullable = false)
     private Integer paymentTermsDays = 30;
 
     @Column(name = "authorized_threshold")
-    private Double authorizedThreshold;
+    private BigDecimal authorizedThreshold;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "customer_type")
     private CustomerType customerType = CustomerType.CREDIT;
 
     @Column(name = "total_purchases")
-    private Double totalPurchases = 0.0;
+    private BigDecimal totalPurchases = BigDecimal.ZERO;
 
     @Column(name = "total_paid")
-    private Double totalPaid = 0.0;
+    private BigDecimal totalPaid = BigDecimal.ZERO;
 
     @Column(name = "last_payment_date")
     private java.time.LocalDate lastPaymentDate;
@@ -62,6 +65,11 @@ public class CreditCustomer {
 
     private LocalDateTime updatedAt = LocalDateTime.now();
 
+    // Bumped by every balance UPDATE in CreditBalanceService, so a form edit saved over a newer balance fails.
+    // Primitive on purpose: restoring from a trash snapshot keeps the id-based merge it always used.
+    @Version
+    private long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -73,12 +81,6 @@ public class CreditCustomer {
         updatedAt = LocalDateTime.now();
     }
 
-    public void updateBalance(Double newOutstanding) {
-        this.outstandingBalance = (newOutstanding != null ? newOutstanding : 0.0);
-        double limit = (this.creditLimit != null ? this.creditLimit : 0.0);
-        this.availableCredit = Math.max(0.0, limit - this.outstandingBalance);
-    }
-
     public enum Status {
         ACTIVE, INACTIVE
     }
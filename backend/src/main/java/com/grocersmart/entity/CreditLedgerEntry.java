@@ -0,0 +1,67 @@
+package com.grocersmart.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Append-only: rows are never updated; corrections are new entries (reversals / adjustments)
+@Entity
+@Table(name = "credit_ledger")
+@Data
+@NoArgsConstructor
+public class CreditLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_id", nullable = false, updatable = false)
+    private Long customerId;
+
+    // Per-customer sequence, gap-free and strictly increasing
+    @Column(name = "entry_seq", nullable = false, updatable = false)
+    private Long entrySeq;
+
+    @Column(name = "entry_date", nullable = false, updatable = false)
+    private LocalDate entryDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, updatable = false, length = 30)
+    private EntryType entryType;
+
+    @Column(name = "reference_type", updatable = false, length = 30)
+    private String referenceType;
+
+    @Column(name = "reference_id", updatable = false)
+    private Long referenceId;
+
+    @Column(updatable = false)
+    private String description;
+
+    @Column(nullable = false, updatable = false)
+    private BigDecimal debit = BigDecimal.ZERO;
+
+    @Column(nullable = false, updatable = false)
+    private BigDecimal credit = BigDecimal.ZERO;
+
+    @Column(name = "balance_after", nullable = false, updatable = false)
+    private BigDecimal balanceAfter;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (entryDate == null) {
+            entryDate = LocalDate.now();
+        }
+    }
+
+    public enum EntryType {
+        OPENING_BALANCE, SALE, SALE_REVERSAL, PAYMENT, CHEQUE_BOUNCE, ORDER_REVERSAL, ADJUSTMENT
+    }
+}
@@ -9,6 +9,15 @@ import java.util.List;
 
 @Entity
 @Table(name = "orders")
+@NamedEntityGraph(name = "Order.list", attributeNodes = {
+        @NamedAttributeNode("creditCustomer"),
+        @NamedAttributeNode(value = "salesRecord", subgraph = "salesRecord")
+}, subgraphs = @NamedSubgraph(name = "salesRecord", attributeNodes = @NamedAttributeNode("creditCustomer")))
+@NamedEntityGraph(name = "Order.detail", attributeNodes = {
+        @NamedAttributeNode("creditCustomer"),
+        @NamedAttributeNode(value = "salesRecord", subgraph = "salesRecord"),
+        @NamedAttributeNode("items")
+}, subgraphs = @NamedSubgraph(name = "salesRecord", attributeNodes = @NamedAttributeNode("creditCustomer")))
 @Data
 @NoArgsConstructor
 public class Order {
@@ -34,6 +43,10 @@ public class Order {
 
     private Double totalAmount = 0.0;
 
+    // Branch the order is taken and fulfilled at; see Store
+    @Column(name = "store_id", nullable = false)
+    private Long storeId;
+
     // Link to Sales Record
     @OneToOne
     @JoinColumn(name = "sales_record_id")
@@ -44,6 +57,7 @@ public class Order {
     @JoinColumn(name = "credit_customer_id")
     private CreditCustomer creditCustomer;
 
+    @org.hibernate.annotations.BatchSize(size = 50)
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> items = new ArrayList<>();
 
@@ -56,6 +70,10 @@ public class Order {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        // Orders restored from the recycle bin may predate stores
+        if (storeId == null) {
+            storeId = Store.MAIN_ID;
+        }
     }
 
     @PreUpdate
@@ -26,7 +26,11 @@ public class Product {
     @Column(columnDefinition = "VARCHAR(50)")
     private UnitType unitType = UnitType.UNIT;
 
+    // Chain-wide totals, written on insert only; afterwards StockService moves them with SQL deltas alongside
+    // product_stock, so saving a loaded Product cannot put back totals a concurrent sale or delivery has moved
+    @Column(updatable = false)
     private Double bulkQty = 0.0;
+    @Column(updatable = false)
     private Integer unitQty = 0;
 
     private Double unitPrice = 0.0;
@@ -36,6 +40,9 @@ public class Product {
     private Integer reorderLevel = 0;
     private Integer unitsPerBulk = 1;
 
+    // Usual supplier; replenishment drafts are grouped by it
+    private Long supplierId;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, columnDefinition = "VARCHAR(50)")
     private Status status = Status.ACTIVE;
@@ -0,0 +1,51 @@
+package com.grocersmart.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Read model written by the nightly forecast job (DemandForecastService); never modified through JPA
+@Entity
+@Table(name = "product_forecasts")
+@org.hibernate.annotations.Immutable
+@NamedEntityGraph(name = "ProductForecast.product", attributeNodes = @NamedAttributeNode("product"))
+@Data
+@NoArgsConstructor
+public class ProductForecast {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", insertable = false, updatable = false)
+    private Product product;
+
+    @Column(name = "as_of_date")
+    private LocalDate asOfDate;
+
+    private String model;
+
+    @Column(name = "daily_rate")
+    private Double dailyRate;
+
+    @Column(name = "next_7_days")
+    private Double next7Days;
+
+    @Column(name = "next_28_days")
+    private Double next28Days;
+
+    @Column(name = "mean_abs_error")
+    private Double meanAbsError;
+
+    @Column(name = "history_days")
+    private Integer historyDays;
+
+    @Column(name = "promo_share")
+    private Double promoShare;
+
+    @Column(name = "computed_at")
+    private LocalDateTime computedAt;
+}
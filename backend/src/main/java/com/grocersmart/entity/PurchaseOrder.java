@@ -9,6 +9,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "purchase_orders")
+@NamedEntityGraph(name = "PurchaseOrder.detail", attributeNodes = @NamedAttributeNode("items"))
 @Data
 @NoArgsConstructor
 public class PurchaseOrder {
@@ -30,6 +31,11 @@ public class PurchaseOrder {
 
     private Double totalAmount = 0.0;
 
+    // Branch the goods are delivered to; see Store
+    @Column(name = "store_id", nullable = false)
+    private Long storeId;
+
+    @org.hibernate.annotations.BatchSize(size = 50)
     @OneToMany(mappedBy = "purchaseOrder", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<PurchaseOrderItem> items = new ArrayList<>();
 
@@ -42,6 +48,10 @@ public class PurchaseOrder {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        // Purchase orders restored from the recycle bin may predate stores
+        if (storeId == null) {
+            storeId = Store.MAIN_ID;
+        }
     }
 
     @PreUpdate
@@ -50,6 +60,7 @@ public class PurchaseOrder {
     }
 
     public enum Status {
-        CREATED, SENT, RECEIVED, CANCELLED
+        // DRAFT: suggested by replenishment, not yet approved
+        CREATED, SENT, RECEIVED, CANCELLED, DRAFT
     }
 }
@@ -3,6 +3,8 @@ package com.grocersmart.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.math.BigDecimal;
 
 @Entity
@@ -17,10 +19,13 @@ public class SalesItem {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sales_record_id", nullable = false)
+    @JsonIgnore
     private SalesRecord salesRecord;
 
+    // Trash snapshots serialise the item with its (possibly still lazy) product
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
+    @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
     private Product product;
 
     @Column(nullable = false)
@@ -0,0 +1,52 @@
+package com.grocersmart.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// A line of an archived sale; see SalesRecordArchive
+@Entity
+@Table(name = "sales_items_archive")
+@org.hibernate.annotations.Immutable
+@Data
+@NoArgsConstructor
+public class SalesItemArchive {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sales_record_id")
+    private SalesRecordArchive salesRecord;
+
+    // A plain id: archived lines do not hold their product in place, so it may have been purged since. The name
+    // snapshot stands in for it.
+    @Column(name = "product_id")
+    private Long productId;
+
+    private Integer qtySold;
+
+    private BigDecimal unitPrice;
+
+    private BigDecimal lineTotal;
+
+    @Column(name = "product_name_snapshot")
+    private String productNameSnapshot;
+
+    @Column(name = "category_snapshot")
+    private String categorySnapshot;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "unit_or_bulk")
+    private Product.UnitType unitOrBulk;
+
+    @Column(name = "promotion_applied")
+    private Boolean promotionApplied;
+
+    @Column(name = "discount_amount")
+    private BigDecimal discountAmount;
+
+    private LocalDate salesDate;
+}
@@ -11,6 +11,12 @@ import java.util.List;
 
 @Entity
 @Table(name = "sales_records")
+// Fetch plans: list pages join the customer only; detail views also pull items and their products
+@NamedEntityGraph(name = "SalesRecord.list", attributeNodes = @NamedAttributeNode("creditCustomer"))
+@NamedEntityGraph(name = "SalesRecord.detail", attributeNodes = {
+        @NamedAttributeNode("creditCustomer"),
+        @NamedAttributeNode(value = "items", subgraph = "items")
+}, subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("product")))
 @Data
 @NoArgsConstructor
 public class SalesRecord {
@@ -28,7 +34,8 @@ public class SalesRecord {
     @Column(nullable = false)
     private LocalDate salesDate;
 
-    // Optional store ID if multi-store support is added later
+    // Branch the sale was made at; see Store
+    @Column(name = "store_id", nullable = false)
     private Long storeId;
 
     @Column(nullable = false)
@@ -64,6 +71,7 @@ public class SalesRecord {
     @Column(columnDefinition = "TEXT")
     private String note;
 
+    @org.hibernate.annotations.BatchSize(size = 50)
     @OneToMany(mappedBy = "salesRecord", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<SalesItem> items = new ArrayList<>();
 
@@ -84,6 +92,10 @@ public class SalesRecord {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        // Sales restored from the recycle bin may predate stores
+        if (storeId == null) {
+            storeId = Store.MAIN_ID;
+        }
     }
 
     @PreUpdate
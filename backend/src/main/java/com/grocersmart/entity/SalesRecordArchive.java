@@ -0,0 +1,66 @@
+package com.grocersmart.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// A settled sale moved out of sales_records by the archiver (SalesArchiveService), same id and columns; read only.
+// Attribute names match SalesRecord so SalesSpecification filters both tiers.
+@Entity
+@Table(name = "sales_records_archive")
+@org.hibernate.annotations.Immutable
+@NamedEntityGraph(name = "SalesRecordArchive.list", attributeNodes = @NamedAttributeNode("creditCustomer"))
+@Data
+@NoArgsConstructor
+public class SalesRecordArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "public_id")
+    private String publicId;
+
+    private String invoiceId;
+
+    private LocalDate salesDate;
+
+    @Column(name = "store_id")
+    private Long storeId;
+
+    private BigDecimal totalRevenue;
+
+    private Integer totalItemsSold;
+
+    @Enumerated(EnumType.STRING)
+    private SalesRecord.PaymentMethod paymentMethod;
+
+    @Enumerated(EnumType.STRING)
+    private SalesRecord.PaymentStatus paymentStatus;
+
+    private LocalDate dueDate;
+    private BigDecimal paidAmount;
+    private Integer daysOverdue;
+    private Long cashierId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "credit_customer_id")
+    private CreditCustomer creditCustomer;
+
+    @Column(columnDefinition = "TEXT")
+    private String note;
+
+    @org.hibernate.annotations.BatchSize(size = 50)
+    @OneToMany(mappedBy = "salesRecord")
+    private List<SalesItemArchive> items = new ArrayList<>();
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime archivedAt;
+}
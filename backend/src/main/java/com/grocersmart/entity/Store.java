@@ -0,0 +1,38 @@
+package com.grocersmart.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// A branch. Sales, orders, purchase orders and stock rows carry its id; MAIN (id 1) is the default for requests
+// that do not name a store and owns everything recorded before there were branches
+@Entity
+@Table(name = "stores")
+@Data
+@NoArgsConstructor
+public class Store {
+
+    public static final long MAIN_ID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 20)
+    private String code;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, columnDefinition = "VARCHAR(20)")
+    private Status status = Status.ACTIVE;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public enum Status {
+        ACTIVE, CLOSED
+    }
+}
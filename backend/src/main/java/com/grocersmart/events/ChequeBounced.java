@@ -0,0 +1,22 @@
+package com.grocersmart.events;
+
+import java.math.BigDecimal;
+
+// A cheque bounced; when it has a customer its amount has been added back to their debt and taken off the invoice
+public record ChequeBounced(long chequeId, Long customerId, Long invoiceId, BigDecimal amount) implements DomainEvent {
+
+    @Override
+    public String aggregateType() {
+        return "CHEQUE";
+    }
+
+    @Override
+    public long aggregateId() {
+        return chequeId;
+    }
+
+    @Override
+    public Long storeId() {
+        return null;
+    }
+}
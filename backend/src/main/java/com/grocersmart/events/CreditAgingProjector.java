@@ -0,0 +1,51 @@
+package com.grocersmart.events;
+
+import com.grocersmart.service.CreditAgingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Keeps the receivables aging current during the day: every credit sale, payment and bounced cheque re-buckets its
+// customer, a batch of events at a time, so the aging screens no longer trail the tills until the nightly run.
+// Idempotent: a replayed batch re-buckets the same customers from the same invoices.
+@Component
+@RequiredArgsConstructor
+public class CreditAgingProjector implements DomainEventProjector {
+
+    private final CreditAgingService creditAgingService;
+
+    @Override
+    public String name() {
+        return "credit-aging";
+    }
+
+    @Override
+    public Set<Class<? extends DomainEvent>> eventTypes() {
+        return Set.of(SaleCreated.class, PaymentRecorded.class, ChequeBounced.class);
+    }
+
+    @Override
+    public void project(List<StoredEvent> events) {
+        Set<Long> customers = new HashSet<>();
+        for (StoredEvent stored : events) {
+            Long customerId = null;
+            if (stored.event() instanceof SaleCreated sale) {
+                customerId = sale.creditCustomerId();
+            } else if (stored.event() instanceof PaymentRecorded payment) {
+                customerId = payment.customerId();
+            } else if (stored.event() instanceof ChequeBounced cheque) {
+                customerId = cheque.customerId();
+            }
+            if (customerId != null) {
+                customers.add(customerId);
+            }
+        }
+        if (!customers.isEmpty()) {
+            creditAgingService.refreshCustomers(customers, LocalDate.now());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.grocersmart.events;
+
+// Something the business cares about that a write path has just committed. Each event is a record whose components
+// are its JSON payload in domain_events; the record's simple name is its event_type, so renaming one is a breaking
+// change for events still in the outbox.
+public sealed interface DomainEvent permits SaleCreated, PaymentRecorded, StockChanged, ChequeBounced {
+
+    String aggregateType();
+
+    long aggregateId();
+
+    // The store the change happened in, null for chain-wide aggregates such as credit customers
+    Long storeId();
+}
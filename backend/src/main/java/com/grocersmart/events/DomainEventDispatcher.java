@@ -0,0 +1,272 @@
+package com.grocersmart.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grocersmart.workload.WorkloadBulkheads;
+import com.grocersmart.workload.WorkloadClass;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Delivers the outbox to the projectors: per projector, the next batch of events after its position, in id order,
+// projected and the position moved in one transaction. The position row is locked with SKIP LOCKED, so with several
+// app nodes one of them projects while the others move on. A projector that throws keeps its position and is retried
+// with a growing back-off; the others carry on.
+//
+// Ids are taken when a transaction writes its events, moments before it commits, so a missing id is usually a
+// commit still in flight: a batch stops at it and waits. After gap-grace-ms the position moves past it, but the id is
+// kept in event_consumer_gaps, in the same transaction, and re-checked on every later poll: if its events commit
+// they are projected then, out of id order. Only an id still missing after gap-horizon-ms is given up on, as one whose
+// transaction rolled back. Each projector's backlog is published as grocersmart.events.backlog.
+// Dispatch is off on nodes with app.events.dispatch-enabled=false; the nightly purge removes events every projector
+// has passed once they are older than retention-days.
+@Component
+@ConditionalOnProperty(name = "app.events.dispatch-enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class DomainEventDispatcher {
+
+    private static final long MAX_BACKOFF_MS = 60_000;
+    private static final int PURGE_CHUNK = 10_000;
+
+    private static final Map<String, Class<? extends DomainEvent>> TYPES = Arrays
+            .stream(DomainEvent.class.getPermittedSubclasses())
+            .collect(Collectors.toMap(Class::getSimpleName, c -> c.asSubclass(DomainEvent.class)));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final WorkloadBulkheads bulkheads;
+    private final List<DomainEventProjector> projectors;
+    private final int batchSize;
+    private final long gapGraceMs;
+    private final long gapHorizonMs;
+    private final int retentionDays;
+    private final Map<String, Consumer> consumers = new HashMap<>();
+    private boolean registered;
+
+    public DomainEventDispatcher(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper, WorkloadBulkheads bulkheads, List<DomainEventProjector> projectors,
+            MeterRegistry meterRegistry, @Value("${app.events.batch-size:500}") int batchSize,
+            @Value("${app.events.gap-grace-ms:5000}") long gapGraceMs,
+            @Value("${app.events.gap-horizon-ms:3600000}") long gapHorizonMs,
+            @Value("${app.events.retention-days:7}") int retentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Read committed: each batch sees every event committed before it, and the projections take no gap locks
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.objectMapper = objectMapper;
+        this.bulkheads = bulkheads;
+        this.projectors = projectors;
+        this.batchSize = batchSize;
+        this.gapGraceMs = gapGraceMs;
+        this.gapHorizonMs = gapHorizonMs;
+        this.retentionDays = retentionDays;
+        for (DomainEventProjector projector : projectors) {
+            Consumer consumer = new Consumer();
+            if (consumers.put(projector.name(), consumer) != null) {
+                throw new IllegalStateException("Two event projectors are named " + projector.name());
+            }
+            Gauge.builder("grocersmart.events.backlog", consumer.backlog::get).tag("consumer", projector.name())
+                    .description("Outbox events not yet projected").register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.poll-ms:200}")
+    public void dispatch() {
+        if (!registered) {
+            // A new projector starts from the oldest event still in the outbox
+            jdbcTemplate.batchUpdate("INSERT IGNORE INTO event_consumers (consumer, last_event_id) "
+                    + "SELECT ?, COALESCE(MIN(id), 1) - 1 FROM domain_events",
+                    projectors.stream().map(p -> new Object[] { p.name() }).toList());
+            registered = true;
+        }
+        long now = System.currentTimeMillis();
+        for (DomainEventProjector projector : projectors) {
+            Consumer consumer = consumers.get(projector.name());
+            if (now < consumer.retryAt) {
+                continue;
+            }
+            try {
+                while (dispatchBatch(projector, consumer) == batchSize) {
+                    // a full batch: there may be more behind it
+                }
+                consumer.backoffMs = 0;
+            } catch (RuntimeException e) {
+                consumer.backoffMs = Math.min(Math.max(consumer.backoffMs * 2, 1000), MAX_BACKOFF_MS);
+                consumer.retryAt = System.currentTimeMillis() + consumer.backoffMs;
+                log.error("Event projector {} failed after event {}; retrying in {} ms", projector.name(),
+                        consumer.position, consumer.backoffMs, e);
+            }
+        }
+        Long head = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM domain_events", Long.class);
+        consumers.values().forEach(c -> c.backlog.set(Math.max(head - c.position, 0)));
+    }
+
+    // Returns how many outbox rows the projector's position moved past
+    private int dispatchBatch(DomainEventProjector projector, Consumer consumer) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Long> locked = jdbcTemplate.queryForList("SELECT last_event_id FROM event_consumers "
+                    + "WHERE consumer = ? FOR UPDATE SKIP LOCKED", Long.class, projector.name());
+            if (locked.isEmpty()) {
+                return 0;
+            }
+            long position = locked.get(0);
+            consumer.position = position;
+            recheckGaps(projector);
+            List<Row> rows = jdbcTemplate.query("SELECT id, event_type, payload, created_at FROM domain_events "
+                    + "WHERE id > ? ORDER BY id LIMIT ?", (rs, i) -> new Row(rs.getLong(1), rs.getString(2),
+                            rs.getString(3), rs.getTimestamp(4).toLocalDateTime()), position, batchSize);
+
+            List<StoredEvent> events = new ArrayList<>();
+            List<Object[]> gaps = new ArrayList<>();
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            long next = position;
+            int count = 0;
+            for (Row row : rows) {
+                if (row.id != next + 1 && !consumer.gapExpired(next + 1, gapGraceMs)) {
+                    break;
+                }
+                for (long missing = next + 1; missing < row.id; missing++) {
+                    gaps.add(new Object[] { projector.name(), missing, now });
+                }
+                StoredEvent event = stored(row, projector);
+                if (event != null) {
+                    events.add(event);
+                }
+                next = row.id;
+                count++;
+            }
+            if (count == 0) {
+                return 0;
+            }
+            if (!events.isEmpty()) {
+                projector.project(events);
+            }
+            if (!gaps.isEmpty()) {
+                log.debug("Event projector {} moving past {} missing outbox ids; re-checking them on later polls",
+                        projector.name(), gaps.size());
+                jdbcTemplate.batchUpdate("INSERT IGNORE INTO event_consumer_gaps (consumer, event_id, seen_at) "
+                        + "VALUES (?, ?, ?)", gaps);
+            }
+            jdbcTemplate.update("UPDATE event_consumers SET last_event_id = ? WHERE consumer = ?", next,
+                    projector.name());
+            consumer.position = next;
+            return count;
+        });
+        return moved != null ? moved : 0;
+    }
+
+    // Projects the events of ids the projector moved past that have committed since, and gives up on those missing
+    // for longer than gap-horizon-ms. Runs in the batch's transaction, under the position lock.
+    private void recheckGaps(DomainEventProjector projector) {
+        List<Long> gaps = jdbcTemplate.queryForList("SELECT event_id FROM event_consumer_gaps WHERE consumer = ? "
+                + "ORDER BY event_id LIMIT ?", Long.class, projector.name(), batchSize);
+        if (gaps.isEmpty()) {
+            return;
+        }
+        List<Row> late = jdbcTemplate.query("SELECT id, event_type, payload, created_at FROM domain_events "
+                + "WHERE id IN (" + String.join(", ", gaps.stream().map(id -> "?").toList()) + ") ORDER BY id",
+                (rs, i) -> new Row(rs.getLong(1), rs.getString(2), rs.getString(3),
+                        rs.getTimestamp(4).toLocalDateTime()), gaps.toArray());
+        if (!late.isEmpty()) {
+            List<StoredEvent> events = late.stream().map(row -> stored(row, projector)).filter(Objects::nonNull)
+                    .toList();
+            if (!events.isEmpty()) {
+                projector.project(events);
+            }
+            jdbcTemplate.batchUpdate("DELETE FROM event_consumer_gaps WHERE consumer = ? AND event_id = ?",
+                    late.stream().map(row -> new Object[] { projector.name(), row.id }).toList());
+            log.info("Event projector {} caught up on {} outbox events committed behind its position",
+                    projector.name(), late.size());
+        }
+        int expired = jdbcTemplate.update("DELETE FROM event_consumer_gaps WHERE consumer = ? AND seen_at < ?",
+                projector.name(), new Timestamp(System.currentTimeMillis() - gapHorizonMs));
+        if (expired > 0) {
+            log.warn("Event projector {} gave up on {} outbox ids still missing after {} ms: never committed",
+                    projector.name(), expired, gapHorizonMs);
+        }
+    }
+
+    // The row as the projector's event, or null when the projector does not subscribe to its type
+    private StoredEvent stored(Row row, DomainEventProjector projector) {
+        Class<? extends DomainEvent> type = TYPES.get(row.type);
+        if (type == null) {
+            throw new IllegalStateException("Unknown event type " + row.type + " at event " + row.id);
+        }
+        return projector.eventTypes().contains(type) ? new StoredEvent(row.id, row.createdAt, read(row, type)) : null;
+    }
+
+    private DomainEvent read(Row row, Class<? extends DomainEvent> type) {
+        try {
+            return objectMapper.readValue(row.payload, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable payload for event " + row.id, e);
+        }
+    }
+
+    @Scheduled(cron = "${app.events.purge-cron:0 15 3 * * *}")
+    public void purge() {
+        if (projectors.isEmpty()) {
+            return;
+        }
+        bulkheads.run(WorkloadClass.BACKGROUND, () -> {
+            Long passed = jdbcTemplate.queryForObject("SELECT MIN(last_event_id) FROM event_consumers WHERE consumer "
+                    + "IN (" + String.join(", ", projectors.stream().map(p -> "?").toList()) + ")", Long.class,
+                    projectors.stream().map(DomainEventProjector::name).toArray());
+            if (passed == null) {
+                return;
+            }
+            Timestamp before = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+            long deleted = 0;
+            int chunk;
+            do {
+                chunk = jdbcTemplate.update("DELETE FROM domain_events WHERE id <= ? AND created_at < ? ORDER BY id "
+                        + "LIMIT " + PURGE_CHUNK, passed, before);
+                deleted += chunk;
+            } while (chunk == PURGE_CHUNK);
+            log.info("Purged {} domain events projected and older than {} days", deleted, retentionDays);
+        });
+    }
+
+    private record Row(long id, String type, String payload, LocalDateTime createdAt) {
+    }
+
+    // Dispatch state of one projector; only touched from the scheduler thread
+    private static final class Consumer {
+
+        private final AtomicLong backlog = new AtomicLong();
+        private volatile long position;
+        private long retryAt;
+        private long backoffMs;
+        private long gapId = -1;
+        private long gapSeenAt;
+
+        private boolean gapExpired(long missingId, long graceMs) {
+            long now = System.currentTimeMillis();
+            if (gapId != missingId) {
+                gapId = missingId;
+                gapSeenAt = now;
+            }
+            return now - gapSeenAt >= graceMs;
+        }
+    }
+}
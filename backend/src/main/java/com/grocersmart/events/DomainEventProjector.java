@@ -0,0 +1,18 @@
+package com.grocersmart.events;
+
+import java.util.List;
+import java.util.Set;
+
+// A consumer of the outbox. DomainEventDispatcher calls project with the next events of the subscribed types, in
+// commit order, inside the transaction that then moves the projector's position past them. Delivery is at least
+// once: a batch that throws, or whose transaction does not commit, is handed over again, so projections must be
+// idempotent (recompute from the tables rather than add to a running total).
+public interface DomainEventProjector {
+
+    // Key of the projector's position in event_consumers; renaming it replays the retained outbox
+    String name();
+
+    Set<Class<? extends DomainEvent>> eventTypes();
+
+    void project(List<StoredEvent> events);
+}
@@ -0,0 +1,108 @@
+package com.grocersmart.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Appends domain events to the outbox as part of the caller's transaction. Events are collected on the transaction
+// and written in one batch insert just before it commits: they roll back with the change they describe, the outbox
+// rows are locked only for the last moments of the transaction, and a checkout with many lines pays one round trip.
+// After the commit the same events go to in-process listeners as one DomainEventsCommitted.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DomainEventPublisher {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public void publish(DomainEvent event) {
+        outbox().events.add(event);
+    }
+
+    public void publishAll(Collection<? extends DomainEvent> events) {
+        if (!events.isEmpty()) {
+            outbox().events.addAll(events);
+        }
+    }
+
+    private Outbox outbox() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Domain events must be published inside the transaction that makes the "
+                    + "change");
+        }
+        Outbox outbox = (Outbox) TransactionSynchronizationManager.getResource(this);
+        if (outbox == null) {
+            outbox = new Outbox();
+            TransactionSynchronizationManager.bindResource(this, outbox);
+            TransactionSynchronizationManager.registerSynchronization(outbox);
+        }
+        return outbox;
+    }
+
+    private void write(List<DomainEvent> events) {
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (DomainEvent event : events) {
+            try {
+                rows.add(new Object[] { event.getClass().getSimpleName(), event.aggregateType(),
+                        event.aggregateId(), event.storeId(), objectMapper.writeValueAsString(event) });
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialise " + event, e);
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO domain_events (event_type, aggregate_type, aggregate_id, store_id, "
+                + "payload) VALUES (?, ?, ?, ?, ?)", rows);
+    }
+
+    // The events of one transaction; set aside while an inner REQUIRES_NEW transaction collects its own
+    private final class Outbox implements TransactionSynchronization {
+
+        private final List<DomainEvent> events = new ArrayList<>();
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(DomainEventPublisher.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(DomainEventPublisher.this, this);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!events.isEmpty()) {
+                write(events);
+            }
+        }
+
+        // The change is committed by now; a listener that fails must not turn it into an error for the caller
+        @Override
+        public void afterCommit() {
+            if (events.isEmpty()) {
+                return;
+            }
+            try {
+                applicationEventPublisher.publishEvent(new DomainEventsCommitted(List.copyOf(events)));
+            } catch (RuntimeException e) {
+                log.warn("Domain event listener failed after commit", e);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DomainEventPublisher.this);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.grocersmart.events;
+
+import java.util.List;
+
+// Spring application event fired on the publishing thread once a transaction that published domain events has
+// committed, for in-process listeners that react to fresh changes (the live stream) rather than follow the outbox
+public record DomainEventsCommitted(List<DomainEvent> events) {
+}
@@ -0,0 +1,23 @@
+package com.grocersmart.events;
+
+import java.math.BigDecimal;
+
+// A credit customer paid; allocated is the part applied to open invoices
+public record PaymentRecorded(long paymentId, long customerId, BigDecimal amount, BigDecimal allocated,
+        BigDecimal newOutstanding) implements DomainEvent {
+
+    @Override
+    public String aggregateType() {
+        return "CREDIT_CUSTOMER";
+    }
+
+    @Override
+    public long aggregateId() {
+        return customerId;
+    }
+
+    @Override
+    public Long storeId() {
+        return null;
+    }
+}
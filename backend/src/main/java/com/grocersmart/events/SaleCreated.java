@@ -0,0 +1,19 @@
+package com.grocersmart.events;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// A sale was recorded; creditCustomerId is set for CREDIT sales only
+public record SaleCreated(long saleId, String invoiceId, Long storeId, String paymentMethod, Long creditCustomerId,
+        BigDecimal totalRevenue, int itemsSold, LocalDate salesDate) implements DomainEvent {
+
+    @Override
+    public String aggregateType() {
+        return "SALE";
+    }
+
+    @Override
+    public long aggregateId() {
+        return saleId;
+    }
+}
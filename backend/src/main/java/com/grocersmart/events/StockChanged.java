@@ -0,0 +1,15 @@
+package com.grocersmart.events;
+
+// One store's stock of one product moved by the given amounts (negative for sales and conversions out)
+public record StockChanged(Long storeId, long productId, long unitDelta, double bulkDelta) implements DomainEvent {
+
+    @Override
+    public String aggregateType() {
+        return "PRODUCT";
+    }
+
+    @Override
+    public long aggregateId() {
+        return productId;
+    }
+}
@@ -0,0 +1,7 @@
+package com.grocersmart.events;
+
+import java.time.LocalDateTime;
+
+// An event as read back from the outbox: its position (ids only grow) and when it was committed
+public record StoredEvent(long id, LocalDateTime createdAt, DomainEvent event) {
+}
@@ -0,0 +1,15 @@
+package com.grocersmart.exception;
+
+import com.grocersmart.workload.WorkloadClass;
+import lombok.Getter;
+
+@Getter
+public class WorkloadRejectedException extends RuntimeException {
+    private final WorkloadClass workload;
+
+    public WorkloadRejectedException(WorkloadClass workload, long waitedMs) {
+        super("The server is busy with other " + workload.getKey() + " work (waited " + waitedMs
+                + " ms). Try again shortly.");
+        this.workload = workload;
+    }
+}
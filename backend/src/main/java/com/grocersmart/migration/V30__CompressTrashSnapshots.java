@@ -0,0 +1,124 @@
+package com.grocersmart.migration;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.luben.zstd.Zstd;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Converts the recycle-bin rows written before V29 to compressed version 2 snapshots. Spring Boot hands
+// JavaMigration beans to Flyway, which runs this after V29 on Flyway's own connection. Rows are read in
+// deleted_id chunks; a row whose JSON no longer parses is logged and left at version 1, where it still restores
+// through the legacy path.
+//
+// The conversion works on the JSON tree only, never on the entity classes, so it does the same thing whatever
+// those classes look like when it runs: version 2 is version 1 with the references to other aggregates (a sale's
+// customer, an item's product, an order's sale and customer) cut down to their ids, zstd-compressed.
+@Component
+@Slf4j
+public class V30__CompressTrashSnapshots extends BaseJavaMigration {
+
+    private static final int CHUNK = 500;
+    private static final int LEGACY_JSON = 1;
+    private static final int COMPRESSED_JSON = 2;
+    private static final int ZSTD_LEVEL = 3;
+    private static final int DISPLAY_LENGTH = 255;
+
+    // Decimals are kept digit for digit, so amounts are written back exactly as they were read
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .configure(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES, false);
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        convert(jdbcTemplate, "deleted_users", node -> { },
+                node -> text(node, "fullName") + " (" + text(node, "username") + ")");
+        convert(jdbcTemplate, "deleted_products", node -> { }, node -> text(node, "name"));
+        convert(jdbcTemplate, "deleted_suppliers", node -> { }, node -> text(node, "name"));
+        convert(jdbcTemplate, "deleted_credit_customers", node -> { }, node -> text(node, "name"));
+        convert(jdbcTemplate, "deleted_sales", node -> {
+            toReference(node, "creditCustomer");
+            node.path("items").forEach(item -> {
+                if (item instanceof ObjectNode objectItem) {
+                    toReference(objectItem, "product");
+                }
+            });
+        }, null);
+        convert(jdbcTemplate, "deleted_cheques", node -> { }, null);
+        convert(jdbcTemplate, "deleted_orders", node -> {
+            toReference(node, "salesRecord");
+            toReference(node, "creditCustomer");
+        }, null);
+        convert(jdbcTemplate, "deleted_purchase_orders", node -> { }, null);
+    }
+
+    // entityName is null for the tables without an entity_name column
+    private void convert(JdbcTemplate jdbcTemplate, String table, Consumer<ObjectNode> compact,
+            Function<JsonNode, String> entityName) {
+        String update = "UPDATE " + table + " SET snapshot = ?, snapshot_version = ?, snapshot_json = NULL"
+                + (entityName != null ? ", entity_name = ?" : "") + " WHERE deleted_id = ?";
+        long lastId = 0;
+        int converted = 0;
+        int skipped = 0;
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query("SELECT deleted_id, snapshot_json FROM " + table
+                    + " WHERE deleted_id > ? AND snapshot_version = ? ORDER BY deleted_id LIMIT ?",
+                    (rs, i) -> new Object[] { rs.getLong(1), rs.getString(2) }, lastId, LEGACY_JSON, CHUNK);
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                Long deletedId = (Long) row[0];
+                try {
+                    if (!(objectMapper.readTree((String) row[1]) instanceof ObjectNode node)) {
+                        throw new IllegalStateException("snapshot is not a JSON object");
+                    }
+                    compact.accept(node);
+                    byte[] snapshot = Zstd.compress(objectMapper.writeValueAsBytes(node), ZSTD_LEVEL);
+                    updates.add(entityName != null
+                            ? new Object[] { snapshot, COMPRESSED_JSON, clip(entityName.apply(node)), deletedId }
+                            : new Object[] { snapshot, COMPRESSED_JSON, deletedId });
+                } catch (JsonProcessingException | RuntimeException e) {
+                    log.warn("{} row {} left as a JSON snapshot: {}", table, deletedId, e.getMessage());
+                    skipped++;
+                }
+            }
+            jdbcTemplate.batchUpdate(update, updates);
+            converted += updates.size();
+            lastId = (Long) rows.get(rows.size() - 1)[0];
+        }
+        log.info("{}: {} snapshots compressed, {} left as JSON", table, converted, skipped);
+    }
+
+    // An embedded aggregate becomes its id; null and ids already cut down stay as they are
+    private static void toReference(ObjectNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value != null && value.isObject()) {
+            node.set(field, value.get("id"));
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? "null" : value.asText();
+    }
+
+    private static String clip(String value) {
+        return value.length() > DISPLAY_LENGTH ? value.substring(0, DISPLAY_LENGTH) : value;
+    }
+}
@@ -0,0 +1,135 @@
+package com.grocersmart.migration;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import com.github.luben.zstd.Zstd;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Fills entity_name and summary (added in V31) for rows deleted before the trash feed existed, reading each
+// snapshot once. Rows whose snapshot cannot be read get a name from public_id or original_id and no summary.
+// Names and summaries are taken from the snapshot's JSON tree, in the format SnapshotCodec used when this was
+// written, without the entity classes or the codec, so the migration does not change when they do.
+@Component
+@Slf4j
+public class V32__BackfillTrashSummaries extends BaseJavaMigration {
+
+    private static final int CHUNK = 500;
+    private static final int LEGACY_JSON = 1;
+    private static final int COMPRESSED_JSON = 2;
+    private static final int DISPLAY_LENGTH = 255;
+
+    // Decimals keep their scale, as they did on the entities' BigDecimal fields
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .configure(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES, false);
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        backfill(jdbcTemplate, "deleted_users", node -> text(node, "fullName") + " (" + text(node, "username") + ")",
+                node -> join(value(node, "role"), value(node, "phone")));
+        backfill(jdbcTemplate, "deleted_products", node -> value(node, "name"),
+                node -> join(value(node, "category"), value(node, "unitPrice")));
+        backfill(jdbcTemplate, "deleted_suppliers", node -> value(node, "name"),
+                node -> join(value(node, "phone"), value(node, "email")));
+        backfill(jdbcTemplate, "deleted_credit_customers", node -> value(node, "name"),
+                node -> join(value(node, "phone"), "Outstanding " + text(node, "outstandingBalance")));
+        backfill(jdbcTemplate, "deleted_sales", node -> publicIdOr(node, "Sale #"),
+                node -> join(value(node, "invoiceId"), value(node, "paymentMethod"), value(node, "totalRevenue"),
+                        node.path("items").isArray() ? node.path("items").size() + " items" : null));
+        backfill(jdbcTemplate, "deleted_cheques", node -> publicIdOr(node, "Cheque #"),
+                node -> join(value(node, "chequeNumber"), value(node, "bankName"), value(node, "amount"),
+                        value(node, "status")));
+        backfill(jdbcTemplate, "deleted_orders", node -> publicIdOr(node, "Order #"),
+                node -> join(value(node, "invoiceNo"), value(node, "status"), value(node, "totalAmount")));
+        backfill(jdbcTemplate, "deleted_purchase_orders", node -> publicIdOr(node, "PO #"),
+                node -> join(value(node, "status"), value(node, "totalAmount")));
+    }
+
+    private void backfill(JdbcTemplate jdbcTemplate, String table, Function<JsonNode, String> nameOf,
+            Function<JsonNode, String> summaryOf) {
+        long lastId = 0;
+        int filled = 0;
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query("SELECT deleted_id, snapshot, snapshot_version, snapshot_json, "
+                    + "COALESCE(entity_name, public_id, CONCAT('#', original_id)) FROM " + table
+                    + " WHERE deleted_id > ? AND summary IS NULL ORDER BY deleted_id LIMIT ?",
+                    (rs, i) -> new Object[] { rs.getLong(1), rs.getBytes(2), rs.getInt(3), rs.getString(4),
+                            rs.getString(5) },
+                    lastId, CHUNK);
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                String name = (String) row[4];
+                String summary = null;
+                try {
+                    JsonNode node = read((byte[]) row[1], (Integer) row[2], (String) row[3]);
+                    name = clip(nameOf.apply(node));
+                    summary = clip(summaryOf.apply(node));
+                } catch (IOException | RuntimeException e) {
+                    log.warn("{} row {}: snapshot not readable, summary left empty: {}", table, row[0], e.getMessage());
+                }
+                updates.add(new Object[] { name, summary, row[0] });
+            }
+            jdbcTemplate.batchUpdate("UPDATE " + table + " SET entity_name = ?, summary = ? WHERE deleted_id = ?",
+                    updates);
+            filled += updates.size();
+            lastId = (Long) rows.get(rows.size() - 1)[0];
+        }
+        log.info("{}: {} trash rows given a name and summary", table, filled);
+    }
+
+    private JsonNode read(byte[] snapshot, int version, String legacyJson) throws IOException {
+        JsonNode node = switch (version) {
+            case LEGACY_JSON -> objectMapper.readTree(legacyJson);
+            case COMPRESSED_JSON -> objectMapper.readTree(
+                    Zstd.decompress(snapshot, (int) Zstd.decompressedSize(snapshot)));
+            default -> throw new IllegalStateException("Snapshot version " + version + " is unknown");
+        };
+        if (node == null || !node.isObject()) {
+            throw new IllegalStateException("snapshot is not a JSON object");
+        }
+        return node;
+    }
+
+    private static String publicIdOr(JsonNode node, String prefix) {
+        String publicId = value(node, "publicId");
+        return publicId != null ? publicId : prefix + text(node, "id");
+    }
+
+    // The field as text, or null when it is missing or null
+    private static String value(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    // The field as string concatenation would print it, "null" included
+    private static String text(JsonNode node, String field) {
+        return String.valueOf(value(node, field));
+    }
+
+    private static String join(String... parts) {
+        return Stream.of(parts).filter(Objects::nonNull).collect(Collectors.joining(" · "));
+    }
+
+    private static String clip(String value) {
+        return value != null && value.length() > DISPLAY_LENGTH ? value.substring(0, DISPLAY_LENGTH) : value;
+    }
+}
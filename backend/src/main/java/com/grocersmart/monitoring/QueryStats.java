@@ -0,0 +1,73 @@
+package com.grocersmart.monitoring;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Per-request SQL statement counters, bound to the request thread by QueryStatsFilter
+public class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private static final int MAX_FINGERPRINTS = 50;
+    private static final int MAX_FINGERPRINT_LENGTH = 240;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private int statementCount;
+    private long totalTimeMs;
+    private final Map<String, Integer> fingerprints = new LinkedHashMap<>();
+
+    public static QueryStats begin() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public void record(String sql, long elapsedMs) {
+        statementCount++;
+        totalTimeMs += elapsedMs;
+        String fingerprint = fingerprint(sql);
+        if (fingerprints.containsKey(fingerprint) || fingerprints.size() < MAX_FINGERPRINTS) {
+            fingerprints.merge(fingerprint, 1, Integer::sum);
+        }
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getTotalTimeMs() {
+        return totalTimeMs;
+    }
+
+    public Map<String, Integer> getFingerprints() {
+        return fingerprints;
+    }
+
+    // Strips literals and collapses IN lists so the same query shape groups together
+    static String fingerprint(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("in (?)");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        if (normalized.length() > MAX_FINGERPRINT_LENGTH) {
+            normalized = normalized.substring(0, MAX_FINGERPRINT_LENGTH) + "...";
+        }
+        return normalized;
+    }
+}
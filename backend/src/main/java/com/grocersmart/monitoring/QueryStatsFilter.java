@@ -0,0 +1,82 @@
+package com.grocersmart.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+@Slf4j
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.query-stats.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.query-stats.warn-statement-count:30}")
+    private int warnStatementCount;
+
+    @Value("${app.query-stats.warn-query-time-ms:500}")
+    private long warnQueryTimeMs;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryStats.begin();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryStats.end();
+            long requestMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            publish(request, response, stats, requestMs);
+        }
+    }
+
+    private void publish(HttpServletRequest request, HttpServletResponse response, QueryStats stats, long requestMs) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("grocersmart.request.sql.statements")
+                .description("SQL statements executed per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getStatementCount());
+        meterRegistry.timer("grocersmart.request.sql.time", "method", request.getMethod(), "uri", uri)
+                .record(stats.getTotalTimeMs(), TimeUnit.MILLISECONDS);
+
+        if (stats.getStatementCount() >= warnStatementCount || stats.getTotalTimeMs() >= warnQueryTimeMs) {
+            String fingerprints = stats.getFingerprints().entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .map(e -> "  " + e.getValue() + "x " + e.getKey())
+                    .collect(Collectors.joining("\n"));
+            log.warn("{} {} -> {} ran {} SQL statements in {} ms (request {} ms)\n{}",
+                    request.getMethod(), request.getRequestURI(), response.getStatus(),
+                    stats.getStatementCount(), stats.getTotalTimeMs(), requestMs, fingerprints);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.grocersmart.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+// Feeds every JDBC execution (JPA and JdbcTemplate alike) into the current request's QueryStats
+public class QueryStatsListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        QueryStats stats = QueryStats.current();
+        if (stats == null) {
+            return; // Scheduled jobs, migrations and startup work run outside a request
+        }
+        // A batch is one round trip, so it is recorded once under its first statement
+        String sql = queryInfoList.isEmpty() ? null : queryInfoList.get(0).getQuery();
+        stats.record(sql, execInfo.getElapsedTime());
+    }
+}
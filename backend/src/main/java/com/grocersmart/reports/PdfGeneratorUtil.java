@@ -7,8 +7,10 @@ import com.lowagie.text.pdf.draw.LineSeparator;
 
 import java.awt.Color;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
 
 public class PdfGeneratorUtil {
@@ -39,49 +41,17 @@ public class PdfGeneratorUtil {
             document.open();
 
             // 1. Report Title Section
-            Paragraph reportTitle = new Paragraph(title.toUpperCase(), REPORT_TITLE_FONT);
-            reportTitle.setAlignment(Element.ALIGN_CENTER);
-            document.add(reportTitle);
-
-            Paragraph reportSubtitle = new Paragraph("Detailed Confidential Report", SUBTITLE_FONT);
-            reportSubtitle.setAlignment(Element.ALIGN_CENTER);
-            reportSubtitle.setSpacingAfter(20);
-            document.add(reportSubtitle);
+            addTitle(document, title);
 
             // 2. Data Table
             if (headers != null && headers.length > 0) {
-                PdfPTable table = new PdfPTable(headers.length);
-                table.setWidthPercentage(100);
-                table.setHeaderRows(1);
-
-                // Table Header
-                for (String columnTitle : headers) {
-                    PdfPCell cell = new PdfPCell(new Phrase(columnTitle, TABLE_HEADER_FONT));
-                    cell.setBackgroundColor(BRAND_COLOR);
-                    cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                    cell.setVerticalAlignment(Element.ALIGN_MIDDLE);
-                    cell.setPadding(8);
-                    cell.setBorderColor(Color.WHITE);
-                    table.addCell(cell);
-                }
+                PdfPTable table = createTable(headers);
 
                 // Table Data
                 boolean alternate = false;
                 if (data != null) {
                     for (String[] row : data) {
-                        // Ensure row length matches header length to avoid misalignment
-                        for (int i = 0; i < headers.length; i++) {
-                            String cellData = (i < row.length) ? row[i] : "";
-                            PdfPCell cell = new PdfPCell(new Phrase(cellData != null ? cellData : "-", CELL_FONT));
-                            cell.setPadding(6);
-                            cell.setVerticalAlignment(Element.ALIGN_MIDDLE);
-                            cell.setBorderColor(BORDER_COLOR);
-
-                            if (alternate) {
-                                cell.setBackgroundColor(ALT_ROW_BG);
-                            }
-                            table.addCell(cell);
-                        }
+                        addRow(table, headers.length, row, alternate);
                         alternate = !alternate;
                     }
                 }
@@ -94,21 +64,7 @@ public class PdfGeneratorUtil {
             }
 
             // 3. Summary Section (Bottom)
-            if (summary != null && !summary.isEmpty()) {
-                PdfPTable summaryTable = new PdfPTable(1);
-                summaryTable.setWidthPercentage(100);
-                summaryTable.setSpacingBefore(15);
-
-                PdfPCell summaryCell = new PdfPCell(
-                        new Phrase(summary, FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, BRAND_COLOR)));
-                summaryCell.setBackgroundColor(new Color(235, 247, 242));
-                summaryCell.setBorderColor(BRAND_COLOR);
-                summaryCell.setPadding(10);
-                summaryCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-
-                summaryTable.addCell(summaryCell);
-                document.add(summaryTable);
-            }
+            addSummary(document, summary);
 
             document.close();
 
@@ -119,6 +75,110 @@ public class PdfGeneratorUtil {
         return out.toByteArray();
     }
 
+    // Same layout as generatePdf, but rows arrive in chunks and each chunk is flushed to the
+    // output as soon as it is laid out, so memory stays bounded by the chunk size, not the report size
+    public static void streamPdf(OutputStream out, String title, String[] headers, Iterator<List<String[]>> chunks,
+            String summary) {
+        Document document = new Document(PageSize.A4.rotate(), 20, 20, 90, 50);
+
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            // The caller owns the stream (e.g. the servlet response) and closes it
+            writer.setCloseStream(false);
+            writer.setPageEvent(new HeaderFooterPageEvent());
+
+            document.open();
+            addTitle(document, title);
+
+            // An incomplete table lets document.add() render the rows added so far and then
+            // drop them, while keeping the header row for the following pages
+            PdfPTable table = createTable(headers);
+            table.setComplete(false);
+            boolean alternate = false;
+            while (chunks.hasNext()) {
+                for (String[] row : chunks.next()) {
+                    addRow(table, headers.length, row, alternate);
+                    alternate = !alternate;
+                }
+                document.add(table);
+                writer.flush();
+            }
+            table.setComplete(true);
+            document.add(table);
+
+            addSummary(document, summary);
+
+            document.close();
+
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Failed to write PDF: " + e.getMessage(), e);
+        }
+    }
+
+    private static void addTitle(Document document, String title) throws DocumentException {
+        Paragraph reportTitle = new Paragraph(title.toUpperCase(), REPORT_TITLE_FONT);
+        reportTitle.setAlignment(Element.ALIGN_CENTER);
+        document.add(reportTitle);
+
+        Paragraph reportSubtitle = new Paragraph("Detailed Confidential Report", SUBTITLE_FONT);
+        reportSubtitle.setAlignment(Element.ALIGN_CENTER);
+        reportSubtitle.setSpacingAfter(20);
+        document.add(reportSubtitle);
+    }
+
+    private static PdfPTable createTable(String[] headers) {
+        PdfPTable table = new PdfPTable(headers.length);
+        table.setWidthPercentage(100);
+        table.setHeaderRows(1);
+
+        // Table Header
+        for (String columnTitle : headers) {
+            PdfPCell cell = new PdfPCell(new Phrase(columnTitle, TABLE_HEADER_FONT));
+            cell.setBackgroundColor(BRAND_COLOR);
+            cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            cell.setVerticalAlignment(Element.ALIGN_MIDDLE);
+            cell.setPadding(8);
+            cell.setBorderColor(Color.WHITE);
+            table.addCell(cell);
+        }
+        return table;
+    }
+
+    private static void addRow(PdfPTable table, int columns, String[] row, boolean alternate) {
+        // Ensure row length matches header length to avoid misalignment
+        for (int i = 0; i < columns; i++) {
+            String cellData = (i < row.length) ? row[i] : "";
+            PdfPCell cell = new PdfPCell(new Phrase(cellData != null ? cellData : "-", CELL_FONT));
+            cell.setPadding(6);
+            cell.setVerticalAlignment(Element.ALIGN_MIDDLE);
+            cell.setBorderColor(BORDER_COLOR);
+
+            if (alternate) {
+                cell.setBackgroundColor(ALT_ROW_BG);
+            }
+            table.addCell(cell);
+        }
+    }
+
+    private static void addSummary(Document document, String summary) throws DocumentException {
+        if (summary == null || summary.isEmpty()) {
+            return;
+        }
+        PdfPTable summaryTable = new PdfPTable(1);
+        summaryTable.setWidthPercentage(100);
+        summaryTable.setSpacingBefore(15);
+
+        PdfPCell summaryCell = new PdfPCell(
+                new Phrase(summary, FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, BRAND_COLOR)));
+        summaryCell.setBackgroundColor(new Color(235, 247, 242));
+        summaryCell.setBorderColor(BRAND_COLOR);
+        summaryCell.setPadding(10);
+        summaryCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+
+        summaryTable.addCell(summaryCell);
+        document.add(summaryTable);
+    }
+
     // Inner class for Header and Footer
     static class HeaderFooterPageEvent extends PdfPageEventHelper {
 
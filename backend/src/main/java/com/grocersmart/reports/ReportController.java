@@ -2,6 +2,8 @@ package com.grocersmart.reports;
 
 import com.grocersmart.entity.Cheque;
 import com.grocersmart.entity.Product;
+import com.grocersmart.workload.Workload;
+import com.grocersmart.workload.WorkloadClass;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
@@ -10,11 +12,13 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/reports")
+@Workload(WorkloadClass.REPORT)
 @RequiredArgsConstructor
 @PreAuthorize("hasRole('ADMIN')")
 public class ReportController {
@@ -24,13 +28,15 @@ public class ReportController {
     @GetMapping("/sales/pdf")
     public ResponseEntity<byte[]> getSalesReport(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long storeId) {
 
-        byte[] pdf = reportService.generateSalesReport(from, to);
+        byte[] pdf = reportService.generateSalesReport(storeId, from, to);
         return createPdfResponse(pdf, "sales_report.pdf");
     }
 
     @GetMapping("/sales/{salesId}/invoice.pdf")
+    @Workload(WorkloadClass.POS)
     public ResponseEntity<byte[]> getInvoice(@PathVariable Long salesId) {
         byte[] pdf = reportService.generateInvoicePdf(salesId);
         return createPdfResponse(pdf, "invoice_" + salesId + ".pdf");
@@ -42,10 +48,17 @@ public class ReportController {
         return createPdfResponse(pdf, "customer_profile_" + id + ".pdf");
     }
 
+    // Streamed: the ledger can run to tens of thousands of rows, so pages are written as they are laid out
     @GetMapping("/credit-customers/{id}/ledger.pdf")
-    public ResponseEntity<byte[]> getCustomerLedger(@PathVariable Long id) {
-        byte[] pdf = reportService.generateCreditLedger(id);
-        return createPdfResponse(pdf, "customer_ledger_" + id + ".pdf");
+    public ResponseEntity<StreamingResponseBody> getCustomerLedger(@PathVariable Long id) {
+        StreamingResponseBody body = reportService.streamCreditLedger(id);
+        return new ResponseEntity<>(body, pdfHeaders("customer_ledger_" + id + ".pdf"), HttpStatus.OK);
+    }
+
+    @GetMapping("/credit-aging/pdf")
+    public ResponseEntity<byte[]> getCreditAgingReport() {
+        byte[] pdf = reportService.generateCreditAgingReport();
+        return createPdfResponse(pdf, "credit_aging_report.pdf");
     }
 
     @GetMapping("/cheques/pdf")
@@ -61,8 +74,9 @@ public class ReportController {
     }
 
     @GetMapping("/products/pdf")
-    public ResponseEntity<byte[]> getInventoryReport(@RequestParam(required = false) Product.Status status) {
-        byte[] pdf = reportService.generateInventoryReport(status);
+    public ResponseEntity<byte[]> getInventoryReport(@RequestParam(required = false) Product.Status status,
+            @RequestParam(required = false) Long storeId) {
+        byte[] pdf = reportService.generateInventoryReport(status, storeId);
         return createPdfResponse(pdf, "inventory_report.pdf");
     }
 
@@ -117,10 +131,14 @@ public class ReportController {
     }
 
     private ResponseEntity<byte[]> createPdfResponse(byte[] pdf, String filename) {
+        return new ResponseEntity<>(pdf, pdfHeaders(filename), HttpStatus.OK);
+    }
+
+    private HttpHeaders pdfHeaders(String filename) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
         headers.setContentDispositionFormData("attachment", filename);
         headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
-        return new ResponseEntity<>(pdf, headers, HttpStatus.OK);
+        return headers;
     }
 }
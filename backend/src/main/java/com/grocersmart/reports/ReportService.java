@@ -2,18 +2,32 @@ package com.grocersmart.reports;
 
 import com.grocersmart.entity.*;
 import com.grocersmart.repository.*;
+import com.grocersmart.specification.SalesSpecification;
+import com.grocersmart.service.CreditAgingService;
+import com.grocersmart.service.CreditLedgerService;
+import com.grocersmart.service.SalesArchiveService;
+import com.grocersmart.service.StockService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.persistence.EntityNotFoundException;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+// Reports read in one read-only transaction each, so they see one snapshot and run on the read replica when one is
+// configured (ReadReplicaConfig)
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ReportService {
 
         private final SalesRecordRepository salesRepository;
@@ -24,6 +38,10 @@ public class ReportService {
         private final SupplierRepository supplierRepository;
         private final PurchaseOrderRepository purchaseOrderRepository;
         private final UserRepository userRepository;
+        private final CreditLedgerService creditLedgerService;
+        private final CreditAgingService creditAgingService;
+        private final StockService stockService;
+        private final SalesArchiveService salesArchiveService;
 
         private String safe(Object val) {
                 return val != null ? val.toString() : "-";
@@ -37,12 +55,23 @@ public class ReportService {
                 return val != null ? String.format("%.2f", val) : "0.00";
         }
 
-        public byte[] generateSalesReport(LocalDate from, LocalDate to) {
-                List<SalesRecord> sales = salesRepository.findAll();
-                if (from != null && to != null) {
-                        sales = sales.stream()
-                                        .filter(s -> !s.getSalesDate().isBefore(from) && !s.getSalesDate().isAfter(to))
-                                        .collect(Collectors.toList());
+        // The date range applies only when both ends are given; storeId narrows to one store's sales. Archived
+        // sales are added when the range reaches back to them, and the rows stay in id order.
+        public byte[] generateSalesReport(Long storeId, LocalDate from, LocalDate to) {
+                boolean ranged = from != null && to != null;
+                List<SalesRecord> sales;
+                if (storeId != null) {
+                        sales = ranged ? salesRepository.findByStoreIdAndSalesDateBetween(storeId, from, to)
+                                        : salesRepository.findByStoreId(storeId);
+                } else {
+                        sales = ranged ? salesRepository.findBySalesDateBetween(from, to) : salesRepository.findAll();
+                }
+                if (salesArchiveService.reaches(ranged ? from : null)) {
+                        List<SalesRecord> archived = salesArchiveService.findSales(SalesSpecification.filterBy(null,
+                                        null, storeId, ranged ? from : null, ranged ? to : null), Sort.by("id"));
+                        sales = new ArrayList<>(sales);
+                        sales.addAll(archived);
+                        sales.sort(Comparator.comparing(SalesRecord::getId));
                 }
 
                 String[] headers = { "Invoice", "Date", "Customer", "Pay Method", "Status", "Due Date", "Days Late",
@@ -86,14 +115,17 @@ public class ReportService {
 
                 return PdfGeneratorUtil.generatePdf(
                                 "Sales Report (" + (from != null ? from : "All") + " to " + (to != null ? to : "All")
-                                                + ")",
+                                                + ")" + (storeId != null ? " - Store " + storeId : ""),
                                 headers, data,
                                 "Grand Total Revenue: INR " + safeMoney(totalRevenue) + "\nTotal Outstanding: INR "
                                                 + safeMoney(totalOutstanding));
         }
 
+        // On the primary: the till prints the invoice right after the sale, before a replica may have it
+        @Transactional
         public byte[] generateInvoicePdf(Long salesId) {
                 SalesRecord sales = salesRepository.findById(salesId)
+                                .or(() -> salesArchiveService.findSale(salesId))
                                 .orElseThrow(() -> new EntityNotFoundException("Sale not found"));
 
                 String[] headers = { "Item", "Category", "Qty", "Type", "Unit Price", "Total" };
@@ -142,28 +174,32 @@ public class ReportService {
                                                 "\nBalance Due: INR " + safeMoney(balance));
         }
 
-        public byte[] generateInventoryReport(Product.Status status) {
+        // Chain-wide totals by default; with storeId the quantities are that store's
+        public byte[] generateInventoryReport(Product.Status status, Long storeId) {
                 List<Product> products = status != null ? productRepository.findByStatus(status)
                                 : productRepository.findAll();
+                Map<Long, double[]> levels = storeId != null ? stockService.levels(storeId) : null;
 
                 String[] headers = { "ID", "Name", "Category", "Unit Qty", "Bulk Qty", "Unit Price", "Bulk Price",
                                 "Status" };
                 List<String[]> data = new ArrayList<>();
 
                 for (Product p : products) {
+                        double[] level = levels != null ? levels.getOrDefault(p.getId(), new double[2]) : null;
                         data.add(new String[] {
                                         p.getPublicId() != null ? p.getPublicId() : safe(p.getId()),
                                         safe(p.getName()),
                                         safe(p.getCategory()),
-                                        safe(p.getUnitQty()),
-                                        safe(p.getBulkQty()),
+                                        level != null ? safe((int) level[0]) : safe(p.getUnitQty()),
+                                        level != null ? safe(level[1]) : safe(p.getBulkQty()),
                                         safeMoney(p.getUnitPrice()),
                                         safeMoney(p.getBulkPrice()),
                                         safe(p.getStatus())
                         });
                 }
 
-                return PdfGeneratorUtil.generatePdf("Inventory Stock Report - " + (status != null ? status : "ALL"),
+                return PdfGeneratorUtil.generatePdf("Inventory Stock Report - " + (status != null ? status : "ALL")
+                                + (storeId != null ? " - Store " + storeId : ""),
                                 headers, data, "Total Items: " + products.size());
         }
 
@@ -174,7 +210,7 @@ public class ReportService {
                 String[] headers = { "ID", "Name", "Phone", "Address", "Limit", "Balance", "Available",
                                 "Last Payment" };
                 List<String[]> data = new ArrayList<>();
-                Double totalBalance = 0.0;
+                BigDecimal totalBalance = BigDecimal.ZERO;
 
                 for (CreditCustomer c : customers) {
                         data.add(new String[] {
@@ -190,69 +226,78 @@ public class ReportService {
                                         safe(c.getLastPaymentDate())
                         });
                         if (c.getOutstandingBalance() != null)
-                                totalBalance += c.getOutstandingBalance();
+                                totalBalance = totalBalance.add(c.getOutstandingBalance());
                 }
 
                 return PdfGeneratorUtil.generatePdf("Credit Customer Summary", headers, data,
                                 "Total Outstanding Debt: INR " + safeMoney(totalBalance));
         }
 
-        public byte[] generateCreditLedger(Long customerId) {
+        // Reads the stored ledger in (customer_id, entry_seq) order, one keyset chunk at a time,
+        // so neither the entries nor the rendered PDF are ever held in memory as a whole
+        public StreamingResponseBody streamCreditLedger(Long customerId) {
                 CreditCustomer customer = creditCustomerRepository.findById(customerId)
                                 .orElseThrow(() -> new EntityNotFoundException("Customer not found"));
 
-                List<SalesRecord> sales = salesRepository.findByCreditCustomerId(customerId);
-                List<CreditPayment> payments = creditPaymentRepository.findByCustomerId(customerId);
-
-                // Entry class for combining
-                class LedgerEntry {
-                        LocalDate date;
-                        String description;
-                        String type; // DEBIT (Sale), CREDIT (Payment)
-                        Double amount;
-
-                        LedgerEntry(LocalDate d, String desc, String t, Double a) {
-                                date = d;
-                                description = desc;
-                                type = t;
-                                amount = a;
-                        }
-                }
-
-                List<LedgerEntry> entries = new ArrayList<>();
-                for (SalesRecord s : sales) {
-                        entries.add(new LedgerEntry(s.getSalesDate(), "Sale: " + s.getInvoiceId(), "DEBIT",
-                                        s.getTotalRevenue().doubleValue()));
-                }
-                for (CreditPayment p : payments) {
-                        entries.add(new LedgerEntry(p.getPaymentDate().toLocalDate(), "Payment: " + safe(p.getNote()),
-                                        "CREDIT", p.getAmount()));
-                }
+                String[] headers = { "#", "Date", "Description", "Debit (+)", "Credit (-)", "Balance" };
+                String title = "Customer Ledger: " + customer.getName() + " (" + safe(customer.getPublicId()) + ")";
+                String summary = "Current Outstanding Balance: INR " + safeMoney(customer.getOutstandingBalance());
 
-                entries.sort((a, b) -> a.date.compareTo(b.date));
+                return out -> PdfGeneratorUtil.streamPdf(out, title, headers, new Iterator<List<String[]>>() {
+                        private List<CreditLedgerEntry> next = creditLedgerService.getEntriesAfter(customerId, 0L);
 
-                String[] headers = { "Date", "Description", "Debit (+)", "Credit (-)", "Balance" };
-                List<String[]> data = new ArrayList<>();
-                Double runningBalance = 0.0;
+                        @Override
+                        public boolean hasNext() {
+                                return !next.isEmpty();
+                        }
 
-                for (LedgerEntry e : entries) {
-                        if (e.type.equals("DEBIT"))
-                                runningBalance += e.amount;
-                        else
-                                runningBalance -= e.amount;
+                        @Override
+                        public List<String[]> next() {
+                                List<CreditLedgerEntry> chunk = next;
+                                next = creditLedgerService.getEntriesAfter(customerId,
+                                                chunk.get(chunk.size() - 1).getEntrySeq());
+                                List<String[]> rows = new ArrayList<>(chunk.size());
+                                for (CreditLedgerEntry e : chunk) {
+                                        rows.add(new String[] {
+                                                        safe(e.getEntrySeq()),
+                                                        safe(e.getEntryDate()),
+                                                        safe(e.getDescription()),
+                                                        e.getDebit().signum() != 0 ? safeMoney(e.getDebit()) : "-",
+                                                        e.getCredit().signum() != 0 ? safeMoney(e.getCredit()) : "-",
+                                                        safeMoney(e.getBalanceAfter())
+                                        });
+                                }
+                                return rows;
+                        }
+                }, summary);
+        }
 
+        // Reads the materialised buckets from the last aging run
+        public byte[] generateCreditAgingReport() {
+                String[] headers = { "Customer", "Open Invoices", "0-30", "31-60", "61-90", "90+", "Total Open",
+                                "Max Days Overdue" };
+                List<String[]> data = new ArrayList<>();
+                for (com.grocersmart.dto.CreditAgingDto a : creditAgingService.getAllCustomers()) {
                         data.add(new String[] {
-                                        safe(e.date),
-                                        e.description,
-                                        e.type.equals("DEBIT") ? safeMoney(e.amount) : "-",
-                                        e.type.equals("CREDIT") ? safeMoney(e.amount) : "-",
-                                        safeMoney(runningBalance)
+                                        safe(a.getCustomerName()) + " (" + safe(a.getCustomerPublicId()) + ")",
+                                        safe(a.getOpenInvoices()),
+                                        safeMoney(a.getBucket0To30()),
+                                        safeMoney(a.getBucket31To60()),
+                                        safeMoney(a.getBucket61To90()),
+                                        safeMoney(a.getBucket90Plus()),
+                                        safeMoney(a.getTotalOpen()),
+                                        safe(a.getMaxDaysOverdue())
                         });
                 }
 
-                String title = "Customer Ledger: " + customer.getName() + " (" + safe(customer.getPublicId()) + ")";
-                return PdfGeneratorUtil.generatePdf(title, headers, data,
-                                "Current Outstanding Balance: INR " + safeMoney(customer.getOutstandingBalance()));
+                java.util.Map<String, Object> totals = creditAgingService.getSummary();
+                String summary = "As of " + safe(totals.get("asOfDate"))
+                                + " | 0-30: INR " + totals.get("bucket0To30")
+                                + " | 31-60: INR " + totals.get("bucket31To60")
+                                + " | 61-90: INR " + totals.get("bucket61To90")
+                                + " | 90+: INR " + totals.get("bucket90Plus")
+                                + " | Total: INR " + totals.get("totalOpen");
+                return PdfGeneratorUtil.generatePdf("Receivables Aging Report", headers, data, summary);
         }
 
         public byte[] generateProductDetailsPdf(Long productId) {
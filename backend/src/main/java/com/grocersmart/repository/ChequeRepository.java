@@ -1,10 +1,29 @@
 package com.grocersmart.repository;
 
 import com.grocersmart.entity.Cheque;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface ChequeRepository extends JpaRepository<Cheque, Long>, JpaSpecificationExecutor<Cheque> {
     java.util.Optional<Cheque> findByPublicId(String publicId);
+
+    // Status changes lock the cheque so a bounce cannot be applied twice
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cheque c WHERE c.id = :id")
+    java.util.Optional<Cheque> findByIdForUpdate(@Param("id") Long id);
+
+    // Cheques still PENDING in the deposit queue, earliest due first
+    @Query(value = "SELECT c.* FROM cheque_deposit_queue q JOIN cheques c ON c.id = q.cheque_id "
+            + "WHERE c.status = 'PENDING' ORDER BY q.due_date, q.cheque_id",
+            countQuery = "SELECT COUNT(*) FROM cheque_deposit_queue q JOIN cheques c ON c.id = q.cheque_id "
+                    + "WHERE c.status = 'PENDING'",
+            nativeQuery = true)
+    Page<Cheque> findDepositQueue(Pageable pageable);
 }
@@ -0,0 +1,29 @@
+package com.grocersmart.repository;
+
+import com.grocersmart.entity.CreditAgingSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface CreditAgingSummaryRepository extends JpaRepository<CreditAgingSummary, Long> {
+
+    @Override
+    @EntityGraph("CreditAgingSummary.customer")
+    Page<CreditAgingSummary> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph("CreditAgingSummary.customer")
+    List<CreditAgingSummary> findAll(Sort sort);
+
+    // Totals row: customers, open invoices, the four buckets, total, oldest days overdue, as-of date
+    @Query("SELECT COUNT(a), COALESCE(SUM(a.openInvoices), 0), COALESCE(SUM(a.bucket0To30), 0), "
+            + "COALESCE(SUM(a.bucket31To60), 0), COALESCE(SUM(a.bucket61To90), 0), COALESCE(SUM(a.bucket90Plus), 0), "
+            + "COALESCE(SUM(a.totalOpen), 0), COALESCE(MAX(a.maxDaysOverdue), 0), MAX(a.asOfDate) "
+            + "FROM CreditAgingSummary a")
+    List<Object[]> summarize();
+}
@@ -0,0 +1,26 @@
+package com.grocersmart.repository;
+
+import com.grocersmart.entity.CreditLedgerEntry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface CreditLedgerRepository extends JpaRepository<CreditLedgerEntry, Long> {
+
+    // Both queries below are served by uk_credit_ledger_customer_seq (customer_id, entry_seq)
+    Page<CreditLedgerEntry> findByCustomerId(Long customerId, Pageable pageable);
+
+    // Keyset chunk for streaming exports
+    List<CreditLedgerEntry> findTop1000ByCustomerIdAndEntrySeqGreaterThanOrderByEntrySeqAsc(Long customerId,
+            Long afterSeq);
+
+    // Locking read: a plain read returns the transaction's snapshot, which can be older than the
+    // customer row lock the caller waited for and miss entries committed in between
+    @Query(value = "SELECT COALESCE(MAX(entry_seq), 0) FROM credit_ledger WHERE customer_id = :customerId FOR UPDATE",
+            nativeQuery = true)
+    long findLastSeq(@Param("customerId") Long customerId);
+}
@@ -1,9 +1,23 @@
 package com.grocersmart.repository;
 
 import com.grocersmart.entity.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
     java.util.Optional<Order> findByPublicId(String publicId);
+
+    @Override
+    @EntityGraph("Order.list")
+    Page<Order> findAll(Specification<Order> spec, Pageable pageable);
+
+    @EntityGraph("Order.detail")
+    java.util.Optional<Order> findDetailedById(Long id);
+
+    @EntityGraph("Order.detail")
+    java.util.Optional<Order> findDetailedByPublicId(String publicId);
 }
@@ -0,0 +1,17 @@
+package com.grocersmart.repository;
+
+import com.grocersmart.entity.ProductForecast;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ProductForecastRepository extends JpaRepository<ProductForecast, Long> {
+
+    @Override
+    @EntityGraph("ProductForecast.product")
+    Page<ProductForecast> findAll(Pageable pageable);
+
+    @EntityGraph("ProductForecast.product")
+    Page<ProductForecast> findByProductCategory(String category, Pageable pageable);
+}
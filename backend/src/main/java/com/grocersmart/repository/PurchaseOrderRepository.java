@@ -1,8 +1,18 @@
 package com.grocersmart.repository;
 
 import com.grocersmart.entity.PurchaseOrder;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Long> {
     java.util.Optional<PurchaseOrder> findByPublicId(String publicId);
+
+    @EntityGraph("PurchaseOrder.detail")
+    java.util.Optional<PurchaseOrder> findDetailedById(Long id);
+
+    @EntityGraph("PurchaseOrder.detail")
+    java.util.Optional<PurchaseOrder> findDetailedByPublicId(String publicId);
+
+    @EntityGraph("PurchaseOrder.detail")
+    java.util.List<PurchaseOrder> findByStatusOrderByIdAsc(PurchaseOrder.Status status);
 }
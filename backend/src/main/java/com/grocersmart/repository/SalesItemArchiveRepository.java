@@ -0,0 +1,30 @@
+package com.grocersmart.repository;
+
+import com.grocersmart.dto.TopProductStatsDto;
+import com.grocersmart.entity.SalesItemArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesItemArchiveRepository extends JpaRepository<SalesItemArchive, Long> {
+
+    // Every product sold in the range, unranked: the caller adds the hot tier's figures before ranking. The
+    // product's current name where it still exists, else the name it was sold under.
+    @Query("SELECT new com.grocersmart.dto.TopProductStatsDto(si.productId, COALESCE(p.name, "
+            + "MAX(si.productNameSnapshot)), SUM(si.qtySold), SUM(si.lineTotal)) "
+            + "FROM SalesItemArchive si LEFT JOIN Product p ON p.id = si.productId "
+            + "WHERE si.salesDate BETWEEN :startDate AND :endDate GROUP BY si.productId, p.name")
+    List<TopProductStatsDto> getProductTotals(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.grocersmart.dto.TopProductStatsDto(si.productId, COALESCE(p.name, "
+            + "MAX(si.productNameSnapshot)), SUM(si.qtySold), SUM(si.lineTotal)) "
+            + "FROM SalesItemArchive si JOIN si.salesRecord s LEFT JOIN Product p ON p.id = si.productId "
+            + "WHERE s.storeId = :storeId AND si.salesDate BETWEEN :startDate AND :endDate "
+            + "AND s.salesDate BETWEEN :startDate AND :endDate GROUP BY si.productId, p.name")
+    List<TopProductStatsDto> getProductTotalsForStore(@Param("storeId") Long storeId,
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
@@ -24,4 +24,15 @@ public interface SalesItemRepository extends JpaRepository<SalesItem, Long> {
         List<TopProductStatsDto> getTopSellingProducts(@Param("startDate") LocalDate startDate,
                         @Param("endDate") LocalDate endDate,
                         Pageable pageable);
+
+        @Query("SELECT new com.grocersmart.dto.TopProductStatsDto(si.product.id, si.product.name, SUM(si.qtySold), SUM(si.lineTotal)) "
+                        + "FROM SalesItem si "
+                        + "WHERE si.salesRecord.storeId = :storeId "
+                        + "AND si.salesRecord.salesDate BETWEEN :startDate AND :endDate "
+                        + "GROUP BY si.product.id, si.product.name "
+                        + "ORDER BY SUM(si.lineTotal) DESC")
+        List<TopProductStatsDto> getTopSellingProductsForStore(@Param("storeId") Long storeId,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        Pageable pageable);
 }
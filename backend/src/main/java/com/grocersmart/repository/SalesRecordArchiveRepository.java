@@ -0,0 +1,49 @@
+package com.grocersmart.repository;
+
+import com.grocersmart.dto.DailySalesStatsDto;
+import com.grocersmart.entity.SalesRecordArchive;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface SalesRecordArchiveRepository
+        extends JpaRepository<SalesRecordArchive, Long>, JpaSpecificationExecutor<SalesRecordArchive> {
+
+    @Override
+    @EntityGraph("SalesRecordArchive.list")
+    Page<SalesRecordArchive> findAll(Specification<SalesRecordArchive> spec, Pageable pageable);
+
+    @Override
+    @EntityGraph("SalesRecordArchive.list")
+    List<SalesRecordArchive> findAll(Specification<SalesRecordArchive> spec, Sort sort);
+
+    @EntityGraph("SalesRecordArchive.list")
+    Optional<SalesRecordArchive> findByPublicId(String publicId);
+
+    // Newest archived day; everything on or before it may be (partly) in the archive
+    @Query("SELECT MAX(s.salesDate) FROM SalesRecordArchive s")
+    LocalDate findLastSalesDate();
+
+    @Query("SELECT new com.grocersmart.dto.DailySalesStatsDto(s.salesDate, SUM(s.totalRevenue), "
+            + "SUM(CAST(s.totalItemsSold AS long))) FROM SalesRecordArchive s "
+            + "WHERE s.salesDate BETWEEN :startDate AND :endDate GROUP BY s.salesDate ORDER BY s.salesDate ASC")
+    List<DailySalesStatsDto> getDailySalesStats(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.grocersmart.dto.DailySalesStatsDto(s.salesDate, SUM(s.totalRevenue), "
+            + "SUM(CAST(s.totalItemsSold AS long))) FROM SalesRecordArchive s "
+            + "WHERE s.storeId = :storeId AND s.salesDate BETWEEN :startDate AND :endDate "
+            + "GROUP BY s.salesDate ORDER BY s.salesDate ASC")
+    List<DailySalesStatsDto> getDailySalesStatsForStore(@Param("storeId") Long storeId,
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
@@ -2,6 +2,10 @@ package com.grocersmart.repository;
 
 import com.grocersmart.dto.DailySalesStatsDto;
 import com.grocersmart.entity.SalesRecord;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
@@ -33,6 +37,19 @@ public interface SalesRecordRepository extends JpaRepository<SalesRecord, Long>,
         List<DailySalesStatsDto> getDailySalesStats(@Param("startDate") LocalDate startDate,
                         @Param("endDate") LocalDate endDate);
 
+        // One store's days: a range of idx_sales_store_date
+        @Query("SELECT new com.grocersmart.dto.DailySalesStatsDto(s.salesDate, SUM(s.totalRevenue), SUM(CAST(s.totalItemsSold AS long))) "
+                        + "FROM SalesRecord s "
+                        + "WHERE s.storeId = :storeId AND s.salesDate BETWEEN :startDate AND :endDate "
+                        + "GROUP BY s.salesDate "
+                        + "ORDER BY s.salesDate ASC")
+        List<DailySalesStatsDto> getDailySalesStatsForStore(@Param("storeId") Long storeId,
+                        @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+        List<SalesRecord> findByStoreIdAndSalesDateBetween(Long storeId, LocalDate startDate, LocalDate endDate);
+
+        List<SalesRecord> findByStoreId(Long storeId);
+
         // Use native query sequence logic
         @Query(value = "SELECT next_val FROM invoice_sequences WHERE sequence_name = 'sales_invoice' FOR UPDATE", nativeQuery = true)
         Long getNextInvoiceSequence();
@@ -43,6 +60,16 @@ public interface SalesRecordRepository extends JpaRepository<SalesRecord, Long>,
 
         java.util.Optional<SalesRecord> findByPublicId(String publicId);
 
+        @Override
+        @EntityGraph("SalesRecord.list")
+        Page<SalesRecord> findAll(Specification<SalesRecord> spec, Pageable pageable);
+
+        @EntityGraph("SalesRecord.detail")
+        java.util.Optional<SalesRecord> findDetailedById(Long id);
+
+        @EntityGraph("SalesRecord.detail")
+        java.util.Optional<SalesRecord> findDetailedByPublicId(String publicId);
+
         long countByCreditCustomerIdAndPaymentStatusIn(Long customerId, List<SalesRecord.PaymentStatus> statuses);
 
         List<SalesRecord> findByCreditCustomerIdAndPaymentStatus(Long customerId, SalesRecord.PaymentStatus status);
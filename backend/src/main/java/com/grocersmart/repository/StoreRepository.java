@@ -0,0 +1,12 @@
+package com.grocersmart.repository;
+
+import com.grocersmart.entity.Store;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface StoreRepository extends JpaRepository<Store, Long> {
+    List<Store> findAllByOrderByIdAsc();
+
+    boolean existsByCodeIgnoreCase(String code);
+}
@@ -2,6 +2,7 @@ package com.grocersmart.security;
 
 import com.grocersmart.common.ModuleKey;
 import com.grocersmart.service.PermissionService;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -25,18 +26,26 @@ public class PermissionInterceptor implements HandlerInterceptor {
         URI_MODULE_MAP.put("/api/products", ModuleKey.PRODUCTS);
         URI_MODULE_MAP.put("/api/inventory-convert", ModuleKey.INVENTORY_CONVERT);
         URI_MODULE_MAP.put("/api/credit-customers", ModuleKey.CREDIT_CUSTOMERS);
+        URI_MODULE_MAP.put("/api/credit-aging", ModuleKey.CREDIT_CUSTOMERS);
         URI_MODULE_MAP.put("/api/cheques", ModuleKey.CHEQUES);
         URI_MODULE_MAP.put("/api/orders", ModuleKey.ORDERS);
         URI_MODULE_MAP.put("/api/sales", ModuleKey.SALES);
         URI_MODULE_MAP.put("/api/suppliers", ModuleKey.SUPPLIERS);
         URI_MODULE_MAP.put("/api/purchase-orders", ModuleKey.PURCHASE_ORDERS);
+        URI_MODULE_MAP.put("/api/replenishment", ModuleKey.PURCHASE_ORDERS);
+        URI_MODULE_MAP.put("/api/forecasts", ModuleKey.PRODUCTS);
+        URI_MODULE_MAP.put("/api/stores", ModuleKey.PRODUCTS);
         URI_MODULE_MAP.put("/api/trash", ModuleKey.TRASH);
         URI_MODULE_MAP.put("/api/reports", ModuleKey.REPORTS);
+        URI_MODULE_MAP.put("/api/stream", ModuleKey.DASHBOARD);
     }
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
             throws Exception {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true; // Permission was checked on the original dispatch of a streamed response
+        }
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
             return true; // Let Spring Security handle unauthenticated requests
@@ -51,15 +60,7 @@ public class PermissionInterceptor implements HandlerInterceptor {
             return true;
         }
 
-        String uri = request.getRequestURI();
-        ModuleKey module = null;
-
-        for (Map.Entry<String, ModuleKey> entry : URI_MODULE_MAP.entrySet()) {
-            if (uri.startsWith(entry.getKey())) {
-                module = entry.getValue();
-                break;
-            }
-        }
+        ModuleKey module = resolveModule(request.getRequestURI());
 
         if (module != null) {
             if (!permissionService.hasPermission(role, module)) {
@@ -73,4 +74,13 @@ public class PermissionInterceptor implements HandlerInterceptor {
 
         return true;
     }
+
+    static ModuleKey resolveModule(String uri) {
+        for (Map.Entry<String, ModuleKey> entry : URI_MODULE_MAP.entrySet()) {
+            if (uri.startsWith(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
 }
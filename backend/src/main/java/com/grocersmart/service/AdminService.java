@@ -1,5 +1,7 @@
 package com.grocersmart.service;
 
+import com.grocersmart.cache.ChangeCounters;
+import com.grocersmart.cache.CountedTable;
 import lombok.RequiredArgsConstructor;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
@@ -13,6 +15,7 @@ import java.util.Map;
 public class AdminService {
 
     private final JdbcTemplate jdbcTemplate;
+    private final ChangeCounters changeCounters;
 
     @Transactional
     public Map<String, Object> resetSystem() {
@@ -27,6 +30,8 @@ public class AdminService {
             jdbcTemplate.execute("TRUNCATE TABLE orders");
             jdbcTemplate.execute("TRUNCATE TABLE sales_items");
             jdbcTemplate.execute("TRUNCATE TABLE sales_records");
+            jdbcTemplate.execute("TRUNCATE TABLE sales_items_archive");
+            jdbcTemplate.execute("TRUNCATE TABLE sales_records_archive");
             jdbcTemplate.execute("TRUNCATE TABLE cheques");
             jdbcTemplate.execute("TRUNCATE TABLE purchase_order_items");
             jdbcTemplate.execute("TRUNCATE TABLE purchase_orders");
@@ -50,6 +55,7 @@ public class AdminService {
             // Ensure VTNV is active and has correct default password if it was somehow
             // changed?
             // The user said "DO NOT reset VTNV password", so we just keep it.
+            changeCounters.touch(CountedTable.values());
 
             response.put("message", "System reset completed successfully");
             response.put("adminPreserved", true);
@@ -0,0 +1,339 @@
+package com.grocersmart.service;
+
+import com.grocersmart.common.EntityType;
+import com.grocersmart.dto.BankReconciliationDto;
+import com.grocersmart.dto.BankStatementLineDto;
+import com.grocersmart.dto.CsvImportResultDTO;
+import com.grocersmart.entity.Cheque;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// CSV cheque intake and bank statement reconciliation. Both read the file record by record instead of
+// loading it whole. Imports are written in chunks: one public id block and one JDBC batch per chunk.
+// Statements are matched against an in-memory index of open cheques, and the matches are applied through
+// ChequeWorkflowService in one transaction.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChequeImportService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final CSVFormat FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader()
+            .setIgnoreHeaderCase(true)
+            .setIgnoreEmptyLines(true)
+            .setTrim(true)
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PublicIdGeneratorService publicIdGeneratorService;
+    private final ChequeWorkflowService chequeWorkflowService;
+
+    // Columns: Cheque Number, Bank Name, Amount (required); Customer Id, Issue Date, Due Date, Invoice Id,
+    // Note (optional). Rows repeating a cheque number and bank already on file, or earlier in the file,
+    // are skipped as duplicates. Imported cheques start PENDING.
+    public CsvImportResultDTO importCheques(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            return CsvImportResultDTO.builder()
+                    .timestamp(LocalDateTime.now())
+                    .success(false)
+                    .message("CSV import failed: File is empty")
+                    .build();
+        }
+
+        Set<Long> customerIds = new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM credit_customers",
+                Long.class));
+        Set<String> seen = new HashSet<>();
+        List<Object[]> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<String> errors = new ArrayList<>();
+        int totalRows = 0;
+        int imported = 0;
+        int skippedDuplicates = 0;
+        int failedRows = 0;
+
+        try (CSVParser parser = parse(file)) {
+            for (CSVRecord record : parser) {
+                totalRows++;
+                String chequeNumber = value(record, "Cheque Number");
+                String bankName = value(record, "Bank Name");
+                if (chequeNumber == null || bankName == null) {
+                    failedRows++;
+                    errors.add("Row " + totalRows + ": Cheque Number and Bank Name are required");
+                    continue;
+                }
+                Object[] row;
+                try {
+                    BigDecimal amount = amount(value(record, "Amount"));
+                    Long customerId = longValue(value(record, "Customer Id"));
+                    if (customerId != null && !customerIds.contains(customerId)) {
+                        failedRows++;
+                        errors.add("Row " + totalRows + ": Customer " + customerId + " not found");
+                        continue;
+                    }
+                    row = new Object[] { null, chequeNumber, customerId, bankName, amount.doubleValue(),
+                            sqlDate(date(value(record, "Issue Date"))), sqlDate(date(value(record, "Due Date"))),
+                            longValue(value(record, "Invoice Id")), value(record, "Note") };
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    failedRows++;
+                    errors.add("Row " + totalRows + ": " + e.getMessage());
+                    continue;
+                }
+                if (!seen.add(key(chequeNumber, bankName))) {
+                    skippedDuplicates++;
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    int written = insertChunk(chunk);
+                    imported += written;
+                    skippedDuplicates += chunk.size() - written;
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                int written = insertChunk(chunk);
+                imported += written;
+                skippedDuplicates += chunk.size() - written;
+            }
+        } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+            log.error("Cheque CSV import error: ", e);
+            return CsvImportResultDTO.builder()
+                    .timestamp(LocalDateTime.now())
+                    .success(false)
+                    .message("CSV import failed after " + imported + " cheques: " + e.getMessage())
+                    .build();
+        }
+
+        return CsvImportResultDTO.builder()
+                .timestamp(LocalDateTime.now())
+                .success(true)
+                .message("Imported " + imported + " cheques")
+                .totalRows(totalRows)
+                .imported(imported)
+                .skippedDuplicates(skippedDuplicates)
+                .failedRows(failedRows)
+                .errors(errors)
+                .build();
+    }
+
+    // Columns: Cheque Number, Bank Name, Amount, Status (CLEARED, or BOUNCED / RETURNED), Date, and Reason
+    // for returns. Each line takes the oldest open (PENDING or DEPOSITED) cheque with the same number, bank and
+    // amount. Lines without one, with bad values, or whose cheque changed before the update are reported back.
+    @Transactional
+    public BankReconciliationDto reconcileStatement(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Statement file is empty");
+        }
+        long started = System.currentTimeMillis();
+
+        Map<String, ArrayDeque<Long>> open = new HashMap<>();
+        jdbcTemplate.query("SELECT id, cheque_number, bank_name, amount FROM cheques "
+                + "WHERE status IN ('PENDING', 'DEPOSITED') AND COALESCE(is_deleted, FALSE) = FALSE "
+                + "ORDER BY due_date, id", rs -> {
+                    if (rs.getString(2) != null && rs.getString(3) != null) {
+                        open.computeIfAbsent(key(rs.getString(2), rs.getString(3),
+                                rs.getBigDecimal(4).setScale(2, RoundingMode.HALF_UP)),
+                                k -> new ArrayDeque<>()).add(rs.getLong(1));
+                    }
+                });
+        long openCheques = open.values().stream().mapToLong(ArrayDeque::size).sum();
+
+        List<ChequeWorkflowService.ChequeUpdate> cleared = new ArrayList<>();
+        List<ChequeWorkflowService.ChequeUpdate> bounced = new ArrayList<>();
+        Map<Long, BankStatementLineDto> matchedLines = new HashMap<>();
+        List<BankStatementLineDto> unmatched = new ArrayList<>();
+        long lines = 0;
+        try (CSVParser parser = parse(file)) {
+            for (CSVRecord record : parser) {
+                lines++;
+                BankStatementLineDto line = new BankStatementLineDto(record.getRecordNumber() + 1,
+                        value(record, "Cheque Number"), value(record, "Bank Name"), value(record, "Amount"),
+                        value(record, "Status"), null);
+                Cheque.Status status = statementStatus(line.getStatus());
+                LocalDate date;
+                BigDecimal amount;
+                try {
+                    date = date(value(record, "Date"));
+                    amount = amount(line.getAmount());
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    line.setReason(e.getMessage());
+                    unmatched.add(line);
+                    continue;
+                }
+                if (status == null || date == null || line.getChequeNumber() == null || line.getBankName() == null) {
+                    line.setReason("Cheque Number, Bank Name, Date and a CLEARED or BOUNCED status are required");
+                    unmatched.add(line);
+                    continue;
+                }
+                ArrayDeque<Long> candidates = open.get(key(line.getChequeNumber(), line.getBankName(), amount));
+                Long chequeId = candidates != null ? candidates.poll() : null;
+                if (chequeId == null) {
+                    line.setReason("No open cheque with this number, bank and amount");
+                    unmatched.add(line);
+                    continue;
+                }
+                String reason = value(record, "Reason");
+                ChequeWorkflowService.ChequeUpdate update = new ChequeWorkflowService.ChequeUpdate(chequeId, date,
+                        reason != null ? reason : "Returned by bank");
+                (status == Cheque.Status.CLEARED ? cleared : bounced).add(update);
+                matchedLines.put(chequeId, line);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new IllegalArgumentException("Could not read statement: " + e.getMessage());
+        }
+
+        // Both sets locked together in id order before either transition re-reads them
+        chequeWorkflowService.lock(matchedLines.keySet());
+        ChequeWorkflowService.Transition clearing = chequeWorkflowService.transition(Cheque.Status.CLEARED, cleared);
+        ChequeWorkflowService.Transition bouncing = chequeWorkflowService.transition(Cheque.Status.BOUNCED, bounced);
+        matchedLines.forEach((chequeId, line) -> {
+            if (!clearing.updatedIds().contains(chequeId) && !bouncing.updatedIds().contains(chequeId)) {
+                line.setReason("Cheque changed status before the statement was applied");
+                unmatched.add(line);
+            }
+        });
+        unmatched.sort((a, b) -> Long.compare(a.getLineNumber(), b.getLineNumber()));
+
+        BankReconciliationDto result = BankReconciliationDto.builder()
+                .timestamp(LocalDateTime.now())
+                .lines(lines)
+                .openCheques(openCheques)
+                .cleared(clearing.updatedIds().size())
+                .bounced(bouncing.updatedIds().size())
+                .customersCharged(bouncing.debt().customers())
+                .amountMigratedToDebt(bouncing.debt().amount())
+                .invoicesReopened(bouncing.debt().invoices())
+                .unmatched(unmatched)
+                .elapsedMs(System.currentTimeMillis() - started)
+                .build();
+        log.info("Bank statement: {} lines, {} cleared, {} bounced, {} unmatched in {} ms", lines,
+                result.getCleared(), result.getBounced(), unmatched.size(), result.getElapsedMs());
+        return result;
+    }
+
+    // One transaction per chunk: a public id block, a duplicate check through idx_chq_no, one batch insert.
+    // Returns the number of rows written.
+    private int insertChunk(List<Object[]> chunk) {
+        Integer written = transactionTemplate.execute(status -> {
+            Set<String> existing = new HashSet<>();
+            List<Object> numbers = chunk.stream().map(row -> row[1]).distinct().toList();
+            jdbcTemplate.query("SELECT cheque_number, bank_name FROM cheques WHERE cheque_number IN ("
+                    + String.join(", ", Collections.nCopies(numbers.size(), "?")) + ") "
+                    + "AND COALESCE(is_deleted, FALSE) = FALSE",
+                    rs -> {
+                        existing.add(key(rs.getString(1), rs.getString(2)));
+                    }, numbers.toArray());
+            List<Object[]> rows = chunk.stream()
+                    .filter(row -> !existing.contains(key((String) row[1], (String) row[3]))).toList();
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            long first = publicIdGeneratorService.reserveBlock(EntityType.CHEQUE, rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                rows.get(i)[0] = PublicIdGeneratorService.format(EntityType.CHEQUE, first + i);
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO cheques (public_id, cheque_number, customer_id, bank_name, amount, "
+                    + "issue_date, due_date, invoice_id, note, status, migrated_to_debt, is_deleted, created_at, "
+                    + "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 'PENDING', FALSE, FALSE, CURRENT_TIMESTAMP, "
+                    + "CURRENT_TIMESTAMP)", rows);
+            return rows.size();
+        });
+        return written != null ? written : 0;
+    }
+
+    private static CSVParser parse(MultipartFile file) throws IOException {
+        return new CSVParser(new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)),
+                FORMAT);
+    }
+
+    private static String value(CSVRecord record, String column) {
+        if (!record.isMapped(column) || !record.isSet(column)) {
+            return null;
+        }
+        String value = record.get(column);
+        return value.isBlank() ? null : value;
+    }
+
+    private static BigDecimal amount(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Amount is required");
+        }
+        try {
+            BigDecimal amount = new BigDecimal(value.replace(",", "")).setScale(2, RoundingMode.HALF_UP);
+            if (amount.signum() <= 0) {
+                throw new IllegalArgumentException("Amount must be positive");
+            }
+            return amount;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + value);
+        }
+    }
+
+    private static Long longValue(String value) {
+        try {
+            return value != null ? Long.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + value);
+        }
+    }
+
+    private static LocalDate date(String value) {
+        return value != null ? LocalDate.parse(value) : null;
+    }
+
+    private static Date sqlDate(LocalDate value) {
+        return value != null ? Date.valueOf(value) : null;
+    }
+
+    private static Cheque.Status statementStatus(String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.toUpperCase(Locale.ROOT)) {
+            case "CLEARED", "PAID" -> Cheque.Status.CLEARED;
+            case "BOUNCED", "RETURNED", "DISHONOURED" -> Cheque.Status.BOUNCED;
+            default -> null;
+        };
+    }
+
+    // Cheque numbers as printed, bank names without case or repeated spaces
+    private static String key(String chequeNumber, String bankName) {
+        return chequeNumber.trim().toUpperCase(Locale.ROOT) + '|'
+                + bankName.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static String key(String chequeNumber, String bankName, BigDecimal amount) {
+        return key(chequeNumber, bankName) + '|' + amount.toPlainString();
+    }
+}
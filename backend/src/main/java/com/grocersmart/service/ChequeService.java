@@ -1,16 +1,16 @@
 package com.grocersmart.service;
 
+import com.grocersmart.common.EntityType;
 import com.grocersmart.dto.ChequeDto;
 import com.grocersmart.entity.Cheque;
-import com.grocersmart.entity.CreditCustomer;
 import com.grocersmart.repository.ChequeRepository;
-import com.grocersmart.repository.CreditCustomerRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,10 +19,10 @@ import java.util.stream.Collectors;
 public class ChequeService {
 
     private final ChequeRepository chequeRepository;
-    private final CreditCustomerRepository customerRepository;
-    private final com.grocersmart.repository.SalesRecordRepository salesRecordRepository;
-    private final TrashChequeService trashChequeService;
+    private final TrashEngine trashEngine;
     private final PublicIdGeneratorService publicIdGeneratorService;
+    private final ChequeWorkflowService chequeWorkflowService;
+    private final org.springframework.jdbc.core.JdbcTemplate jdbcTemplate;
 
     public ChequeDto createCheque(ChequeDto dto) {
         Cheque cheque = new Cheque();
@@ -72,7 +72,7 @@ public class ChequeService {
 
     @Transactional
     public ChequeDto updateStatus(Long id, ChequeDto statusUpdate) {
-        Cheque cheque = chequeRepository.findById(id)
+        Cheque cheque = chequeRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new EntityNotFoundException("Cheque not found"));
 
         Cheque.Status newStatus = statusUpdate.getStatus();
@@ -90,36 +90,16 @@ public class ChequeService {
             if (statusUpdate.getBounceReason() == null) throw new IllegalArgumentException("Bounce reason is required");
         }
 
-        // Business logic: if becoming BOUNCED and customerId exists
-        if (newStatus == Cheque.Status.BOUNCED && cheque.getCustomerId() != null) {
-            // Only update balance if it wasn't already bounced (avoid double charge)
-            if (cheque.getStatus() != Cheque.Status.BOUNCED) {
-                CreditCustomer customer = customerRepository.findById(cheque.getCustomerId())
-                        .orElseThrow(() -> new EntityNotFoundException("Customer not found for cheque"));
-
-                double current = customer.getOutstandingBalance() != null ? customer.getOutstandingBalance() : 0.0;
-                customer.updateBalance(current + cheque.getAmount());
-                
-                cheque.setMigratedToDebt(true);
-                customerRepository.save(customer);
-
-                // Update linked invoice if exists
-                if (cheque.getInvoiceId() != null) {
-                    salesRecordRepository.findById(cheque.getInvoiceId()).ifPresent(invoice -> {
-                        BigDecimal currentPaid = invoice.getPaidAmount() != null ? invoice.getPaidAmount() : BigDecimal.ZERO;
-                        BigDecimal newPaid = currentPaid.subtract(BigDecimal.valueOf(cheque.getAmount()));
-                        if (newPaid.compareTo(BigDecimal.ZERO) < 0) newPaid = BigDecimal.ZERO;
-                        invoice.setPaidAmount(newPaid);
-                        
-                        if (newPaid.compareTo(BigDecimal.ZERO) == 0) {
-                            invoice.setPaymentStatus(com.grocersmart.entity.SalesRecord.PaymentStatus.UNPAID);
-                        } else if (newPaid.compareTo(invoice.getTotalRevenue()) < 0) {
-                            invoice.setPaymentStatus(com.grocersmart.entity.SalesRecord.PaymentStatus.PARTIAL);
-                        }
-                        salesRecordRepository.save(invoice);
-                    });
-                }
-            }
+        // Business logic: if becoming BOUNCED, the customer's debt (if any) grows and the bounce is announced.
+        // Only update balance if it wasn't already bounced (avoid double charge)
+        if (newStatus == Cheque.Status.BOUNCED && cheque.getStatus() != Cheque.Status.BOUNCED) {
+            chequeWorkflowService.migrateToDebt(List.of(new ChequeWorkflowService.ChequeRow(cheque.getId(),
+                    cheque.getCustomerId(), cheque.getInvoiceId(), cheque.getChequeNumber(),
+                    BigDecimal.valueOf(cheque.getAmount()).setScale(2, RoundingMode.HALF_UP))));
+            cheque.setMigratedToDebt(cheque.getCustomerId() != null);
+        }
+        if (newStatus != Cheque.Status.PENDING) {
+            jdbcTemplate.update("DELETE FROM cheque_deposit_queue WHERE cheque_id = ?", cheque.getId());
         }
 
         cheque.setStatus(newStatus);
@@ -131,6 +111,13 @@ public class ChequeService {
         return mapToDto(chequeRepository.save(cheque));
     }
 
+    // Today's deposit work list as materialised by the daily queue refresh
+    @Transactional(readOnly = true)
+    public org.springframework.data.domain.Page<ChequeDto> getDepositQueue(int page, int size) {
+        return chequeRepository.findDepositQueue(org.springframework.data.domain.PageRequest.of(page, size))
+                .map(this::mapToDto);
+    }
+
     public void deleteCheque(Long id) {
         Cheque cheque = chequeRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Cheque not found"));
@@ -138,7 +125,7 @@ public class ChequeService {
         if (cheque.getStatus() != Cheque.Status.PENDING) {
             throw new IllegalStateException("Only PENDING cheques can be moved to trash");
         }
-        trashChequeService.moveToTrash(cheque);
+        trashEngine.moveToTrash(EntityType.CHEQUE, cheque, null, null);
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,246 @@
+package com.grocersmart.service;
+
+import com.grocersmart.dto.ChequeBulkStatusDto;
+import com.grocersmart.dto.ChequeBulkStatusResultDto;
+import com.grocersmart.dto.ChequeQueueRunDto;
+import com.grocersmart.entity.Cheque;
+import com.grocersmart.entity.CreditLedgerEntry;
+import com.grocersmart.events.ChequeBounced;
+import com.grocersmart.events.DomainEventPublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+// Cheque clearing workflow: the daily deposit queue, and status changes applied to many cheques in one request.
+// Bounced cheques are moved to debt per customer rather than per cheque: one balance UPDATE and one ledger
+// batch for however many of a customer's cheques bounce together, and one batch for the linked invoices.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChequeWorkflowService {
+
+    private static final int MAX_BULK = 1000;
+
+    // payment_status is assigned first so it is computed from the paid amount before the reduction
+    private static final String REOPEN_INVOICE = "UPDATE sales_records SET "
+            + "payment_status = CASE WHEN COALESCE(paid_amount, 0) - ? <= 0 THEN 'UNPAID' "
+            + "                      WHEN COALESCE(paid_amount, 0) - ? < total_revenue THEN 'PARTIAL' "
+            + "                      ELSE payment_status END, "
+            + "paid_amount = GREATEST(0, COALESCE(paid_amount, 0) - ?) "
+            + "WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CreditBalanceService creditBalanceService;
+    private final CreditLedgerService creditLedgerService;
+    private final DomainEventPublisher eventPublisher;
+
+    // Brings the queue in line with the PENDING cheques due on or before asOf + windowDays; overdue cheques
+    // nobody deposited stay in it. The candidates are one range read on idx_cheques_status_due.
+    @Transactional
+    public ChequeQueueRunDto refreshDepositQueue(LocalDate asOf, int windowDays) {
+        if (windowDays < 0) {
+            throw new IllegalArgumentException("Deposit window cannot be negative");
+        }
+        long started = System.currentTimeMillis();
+        Date horizon = Date.valueOf(asOf.plusDays(windowDays));
+        int removed = jdbcTemplate.update("DELETE q FROM cheque_deposit_queue q JOIN cheques c ON c.id = q.cheque_id "
+                + "WHERE c.status <> 'PENDING' OR COALESCE(c.is_deleted, FALSE) = TRUE "
+                + "OR c.due_date IS NULL OR c.due_date > ?", horizon);
+        jdbcTemplate.update("INSERT INTO cheque_deposit_queue (cheque_id, customer_id, amount, due_date, queued_for) "
+                + "SELECT id, customer_id, ROUND(amount, 2), due_date, ? FROM cheques "
+                + "WHERE status = 'PENDING' AND due_date <= ? AND COALESCE(is_deleted, FALSE) = FALSE "
+                + "ON DUPLICATE KEY UPDATE amount = VALUES(amount), due_date = VALUES(due_date), "
+                + "queued_for = VALUES(queued_for)", Date.valueOf(asOf), horizon);
+        Long queued = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cheque_deposit_queue", Long.class);
+
+        ChequeQueueRunDto result = ChequeQueueRunDto.builder()
+                .timestamp(LocalDateTime.now())
+                .asOfDate(asOf)
+                .windowDays(windowDays)
+                .queued(queued != null ? queued : 0)
+                .removed(removed)
+                .elapsedMs(System.currentTimeMillis() - started)
+                .build();
+        log.info("Cheque deposit queue as of {} (+{} days): {} queued, {} removed in {} ms", asOf, windowDays,
+                result.getQueued(), removed, result.getElapsedMs());
+        return result;
+    }
+
+    // Deposits, clears or bounces many cheques in one request, all with the same date. Cheques that are missing,
+    // deleted, or not in a status the transition starts from are skipped and listed in the result:
+    // DEPOSITED starts from PENDING, CLEARED and BOUNCED from PENDING or DEPOSITED.
+    @Transactional
+    public ChequeBulkStatusResultDto bulkUpdateStatus(ChequeBulkStatusDto request) {
+        Cheque.Status target = request.getStatus();
+        if (target == null || target == Cheque.Status.PENDING) {
+            throw new IllegalArgumentException("Status must be DEPOSITED, CLEARED or BOUNCED");
+        }
+        if (request.getIds() == null || request.getIds().isEmpty()) {
+            throw new IllegalArgumentException("At least one cheque id is required");
+        }
+        if (request.getIds().size() > MAX_BULK) {
+            throw new IllegalArgumentException("At most " + MAX_BULK + " cheques can be updated per request");
+        }
+        if (request.getDate() == null) {
+            throw new IllegalArgumentException("Date is required for " + target + " status");
+        }
+        if (target == Cheque.Status.BOUNCED && request.getBounceReason() == null) {
+            throw new IllegalArgumentException("Bounce reason is required");
+        }
+
+        Transition result = transition(target, request.getIds().stream().filter(Objects::nonNull).distinct()
+                .map(id -> new ChequeUpdate(id, request.getDate(), request.getBounceReason())).toList());
+        return ChequeBulkStatusResultDto.builder()
+                .status(target)
+                .requested(request.getIds().size())
+                .updated(result.updatedIds().size())
+                .skippedIds(request.getIds().stream().filter(id -> !result.updatedIds().contains(id)).distinct()
+                        .toList())
+                .customersCharged(result.debt().customers())
+                .amountMigratedToDebt(result.debt().amount())
+                .invoicesReopened(result.debt().invoices())
+                .build();
+    }
+
+    // Takes the row locks on a set of cheques in id order ahead of one or more transitions over parts of it. A caller
+    // running several transitions in one transaction locks their union first; locking each part in turn would take
+    // the locks out of id order and could deadlock against a concurrent bulk transition.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lock(Collection<Long> chequeIds) {
+        List<Long> ids = new ArrayList<>(new TreeSet<>(chequeIds));
+        for (int i = 0; i < ids.size(); i += MAX_BULK) {
+            List<Long> chunk = ids.subList(i, Math.min(i + MAX_BULK, ids.size()));
+            jdbcTemplate.queryForList("SELECT id FROM cheques WHERE id IN (" + placeholders(chunk.size())
+                    + ") ORDER BY id FOR UPDATE", Long.class, chunk.toArray());
+        }
+    }
+
+    // Moves cheques to one target status, each with its own date (and bounce reason): locking reads in id order,
+    // one JDBC batch, and for bounces a single debt migration across all of them. Cheques that are missing,
+    // deleted or not in a status the transition starts from are left alone and missing from updatedIds.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Transition transition(Cheque.Status target, List<ChequeUpdate> updates) {
+        Set<String> from = target == Cheque.Status.DEPOSITED ? Set.of("PENDING") : Set.of("PENDING", "DEPOSITED");
+        Map<Long, ChequeUpdate> byId = new TreeMap<>();
+        updates.forEach(u -> byId.putIfAbsent(u.id(), u));
+        List<Long> ids = new ArrayList<>(byId.keySet());
+        // Locked in id order, so overlapping requests wait for each other instead of deadlocking
+        List<ChequeRow> eligible = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += MAX_BULK) {
+            List<Long> chunk = ids.subList(i, Math.min(i + MAX_BULK, ids.size()));
+            jdbcTemplate.query("SELECT id, status, customer_id, invoice_id, cheque_number, amount FROM cheques "
+                    + "WHERE id IN (" + placeholders(chunk.size()) + ") AND COALESCE(is_deleted, FALSE) = FALSE "
+                    + "ORDER BY id FOR UPDATE", rs -> {
+                        if (from.contains(rs.getString(2))) {
+                            eligible.add(new ChequeRow(rs.getLong(1), rs.getObject(3, Long.class),
+                                    rs.getObject(4, Long.class), rs.getString(5),
+                                    rs.getBigDecimal(6).setScale(2, RoundingMode.HALF_UP)));
+                        }
+                    }, chunk.toArray());
+        }
+        if (eligible.isEmpty()) {
+            return new Transition(Set.of(), new DebtMigration(0, BigDecimal.ZERO, 0));
+        }
+
+        List<Object[]> rows = new ArrayList<>(eligible.size());
+        String sql;
+        if (target == Cheque.Status.DEPOSITED) {
+            sql = "UPDATE cheques SET status = 'DEPOSITED', deposit_date = ?, updated_at = CURRENT_TIMESTAMP "
+                    + "WHERE id = ?";
+            eligible.forEach(c -> rows.add(new Object[] { Date.valueOf(byId.get(c.id()).date()), c.id() }));
+        } else if (target == Cheque.Status.CLEARED) {
+            sql = "UPDATE cheques SET status = 'CLEARED', deposit_date = COALESCE(deposit_date, ?), "
+                    + "cleared_date = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+            eligible.forEach(c -> {
+                Date day = Date.valueOf(byId.get(c.id()).date());
+                rows.add(new Object[] { day, day, c.id() });
+            });
+        } else {
+            sql = "UPDATE cheques SET status = 'BOUNCED', deposit_date = COALESCE(deposit_date, ?), "
+                    + "bounced_date = ?, bounce_reason = ?, migrated_to_debt = customer_id IS NOT NULL, "
+                    + "updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+            eligible.forEach(c -> {
+                ChequeUpdate u = byId.get(c.id());
+                Date day = Date.valueOf(u.date());
+                rows.add(new Object[] { day, day, u.bounceReason(), c.id() });
+            });
+        }
+        jdbcTemplate.batchUpdate(sql, rows);
+        List<Long> updatedIds = eligible.stream().map(ChequeRow::id).toList();
+        for (int i = 0; i < updatedIds.size(); i += MAX_BULK) {
+            List<Long> chunk = updatedIds.subList(i, Math.min(i + MAX_BULK, updatedIds.size()));
+            jdbcTemplate.update("DELETE FROM cheque_deposit_queue WHERE cheque_id IN ("
+                    + placeholders(chunk.size()) + ")", chunk.toArray());
+        }
+        DebtMigration debt = target == Cheque.Status.BOUNCED ? migrateToDebt(eligible)
+                : new DebtMigration(0, BigDecimal.ZERO, 0);
+        return new Transition(Set.copyOf(updatedIds), debt);
+    }
+
+    // Adds bounced cheques to their customers' balances, writes the CHEQUE_BOUNCE ledger rows and takes the
+    // amounts back off the linked invoices; cheques without a customer are only announced. Customers are charged in
+    // id order, the same lock order for every caller. The caller holds the cheque row locks and has checked none of
+    // them was bounced before. Publishes a ChequeBounced event per cheque.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public DebtMigration migrateToDebt(List<ChequeRow> cheques) {
+        Map<Long, List<ChequeRow>> byCustomer = cheques.stream().filter(c -> c.customerId() != null)
+                .collect(Collectors.groupingBy(ChequeRow::customerId, TreeMap::new, Collectors.toList()));
+        BigDecimal total = BigDecimal.ZERO;
+        Map<Long, BigDecimal> byInvoice = new TreeMap<>();
+        for (Map.Entry<Long, List<ChequeRow>> customer : byCustomer.entrySet()) {
+            BigDecimal sum = customer.getValue().stream().map(ChequeRow::amount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal balance = creditBalanceService.adjust(customer.getKey(), sum);
+            creditLedgerService.appendAll(customer.getKey(), CreditLedgerEntry.EntryType.CHEQUE_BOUNCE, "CHEQUE",
+                    customer.getValue().stream().map(c -> new CreditLedgerService.Movement(c.id(),
+                            "Cheque bounced: " + (c.chequeNumber() != null ? c.chequeNumber() : "-"), c.amount(),
+                            BigDecimal.ZERO)).toList(),
+                    balance.subtract(sum));
+            customer.getValue().stream().filter(c -> c.invoiceId() != null)
+                    .forEach(c -> byInvoice.merge(c.invoiceId(), c.amount(), BigDecimal::add));
+            total = total.add(sum);
+        }
+        // Several cheques against one invoice come off it in a single statement
+        List<Object[]> reopen = new ArrayList<>(byInvoice.size());
+        byInvoice.forEach((invoiceId, amount) -> reopen.add(new Object[] { amount, amount, amount, invoiceId }));
+        jdbcTemplate.batchUpdate(REOPEN_INVOICE, reopen);
+        eventPublisher.publishAll(cheques.stream().map(c -> new ChequeBounced(c.id(), c.customerId(),
+                c.customerId() != null ? c.invoiceId() : null, c.amount())).toList());
+        return new DebtMigration(byCustomer.size(), total, byInvoice.size());
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    public record ChequeRow(Long id, Long customerId, Long invoiceId, String chequeNumber, BigDecimal amount) {
+    }
+
+    public record DebtMigration(int customers, BigDecimal amount, int invoices) {
+    }
+
+    public record ChequeUpdate(Long id, LocalDate date, String bounceReason) {
+    }
+
+    public record Transition(Set<Long> updatedIds, DebtMigration debt) {
+    }
+}
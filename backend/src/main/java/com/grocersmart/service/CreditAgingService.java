@@ -0,0 +1,281 @@
+package com.grocersmart.service;
+
+import com.grocersmart.dto.CreditAgingDto;
+import com.grocersmart.dto.CreditAgingRunDto;
+import com.grocersmart.entity.CreditAgingSummary;
+import com.grocersmart.repository.CreditAgingSummaryRepository;
+import com.grocersmart.repository.CreditCustomerRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// Accounts-receivable aging. The nightly run is set-based: days_overdue is recomputed with
+// UPDATEs over primary-key ranges (each range commits on its own, so row locks stay short),
+// each range is bucketed per customer with one GROUP BY, and the merged buckets replace
+// credit_aging_summary in a single transaction. Between runs CreditAgingProjector refreshes the rows of customers
+// whose invoices changed, from the outbox events of sales, payments and bounced cheques.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CreditAgingService {
+
+    private static final int CHUNK_SIZE = 50_000;
+
+    private static final String OVERDUE_EXPR = "CASE WHEN payment_status <> 'PAID' AND due_date < ? "
+            + "THEN DATEDIFF(?, due_date) ELSE 0 END";
+
+    private static final String OPEN_AMOUNT = "total_revenue - COALESCE(paid_amount, 0)";
+
+    // Per customer: open invoices, the four buckets and the oldest; callers add the FROM and the row range
+    private static final String BUCKETS = "SELECT credit_customer_id, COUNT(*), "
+            + "SUM(CASE WHEN days_overdue <= 30 THEN " + OPEN_AMOUNT + " ELSE 0 END), "
+            + "SUM(CASE WHEN days_overdue BETWEEN 31 AND 60 THEN " + OPEN_AMOUNT + " ELSE 0 END), "
+            + "SUM(CASE WHEN days_overdue BETWEEN 61 AND 90 THEN " + OPEN_AMOUNT + " ELSE 0 END), "
+            + "SUM(CASE WHEN days_overdue > 90 THEN " + OPEN_AMOUNT + " ELSE 0 END), "
+            + "MAX(days_overdue) ";
+
+    private static final String OPEN_INVOICES = "payment_method = 'CREDIT' "
+            + "AND payment_status IN ('UNPAID', 'PARTIAL') AND credit_customer_id IS NOT NULL "
+            + "AND COALESCE(is_deleted, FALSE) = FALSE ";
+
+    private static final String INSERT_SUMMARY = "INSERT INTO credit_aging_summary (customer_id, as_of_date, "
+            + "open_invoices, bucket_0_30, bucket_31_60, bucket_61_90, bucket_90_plus, total_open, max_days_overdue, "
+            + "computed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)";
+
+    // Keeps an IN list within one statement's reasonable size
+    private static final int MAX_IN = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CreditAgingSummaryRepository agingRepository;
+    private final CreditCustomerRepository customerRepository;
+
+    public CreditAgingRunDto recompute(LocalDate asOf) {
+        long started = System.currentTimeMillis();
+        Date day = Date.valueOf(asOf);
+
+        Map<String, Object> range = jdbcTemplate.queryForMap(
+                "SELECT MIN(id) AS first_id, MAX(id) AS last_id FROM sales_records WHERE payment_method = 'CREDIT'");
+        long dueDatesFilled = 0;
+        long invoicesUpdated = 0;
+        long aggregateMs = 0;
+        Map<Long, Buckets> buckets = new HashMap<>();
+        if (range.get("first_id") != null) {
+            long lastId = ((Number) range.get("last_id")).longValue();
+            for (long from = ((Number) range.get("first_id")).longValue(); from <= lastId; from += CHUNK_SIZE) {
+                long to = Math.min(from + CHUNK_SIZE - 1, lastId);
+                dueDatesFilled += jdbcTemplate.update("UPDATE sales_records s "
+                        + "JOIN credit_customers c ON c.id = s.credit_customer_id "
+                        + "SET s.due_date = DATE_ADD(s.sales_date, INTERVAL c.payment_terms_days DAY) "
+                        + "WHERE s.id BETWEEN ? AND ? AND s.payment_method = 'CREDIT' AND s.due_date IS NULL",
+                        from, to);
+                // Only rows whose value actually changes are touched: newly overdue, one day older,
+                // or settled since the last run (reset to 0)
+                invoicesUpdated += jdbcTemplate.update("UPDATE sales_records SET days_overdue = " + OVERDUE_EXPR
+                        + " WHERE id BETWEEN ? AND ? AND payment_method = 'CREDIT' AND days_overdue <> "
+                        + OVERDUE_EXPR, day, day, from, to, day, day);
+
+                // Bucket the same key range while its pages are hot. Left alone the optimizer walks
+                // idx_payment_method for every chunk (one lookup per credit row), which is twice as slow
+                long aggregateStarted = System.currentTimeMillis();
+                jdbcTemplate.query(BUCKETS + "FROM sales_records FORCE INDEX (PRIMARY) "
+                        + "WHERE id BETWEEN ? AND ? AND " + OPEN_INVOICES + "GROUP BY credit_customer_id",
+                        rs -> {
+                            addBuckets(buckets, rs);
+                        }, from, to);
+                aggregateMs += System.currentTimeMillis() - aggregateStarted;
+            }
+        }
+        long updateMs = System.currentTimeMillis() - started - aggregateMs;
+
+        long summaryStarted = System.currentTimeMillis();
+        // Invoices of customers that no longer exist are not reported
+        buckets.keySet().retainAll(new HashSet<>(
+                jdbcTemplate.queryForList("SELECT id FROM credit_customers", Long.class)));
+        List<Object[]> rows = summaryRows(buckets, day);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM credit_aging_summary");
+            jdbcTemplate.batchUpdate(INSERT_SUMMARY, rows);
+        });
+        long summaryMs = System.currentTimeMillis() - summaryStarted + aggregateMs;
+
+        CreditAgingRunDto result = CreditAgingRunDto.builder()
+                .timestamp(LocalDateTime.now())
+                .asOfDate(asOf)
+                .dueDatesFilled(dueDatesFilled)
+                .invoicesUpdated(invoicesUpdated)
+                .customers(rows.size())
+                .updateMs(updateMs)
+                .summaryMs(summaryMs)
+                .elapsedMs(System.currentTimeMillis() - started)
+                .build();
+        log.info("Credit aging as of {}: {} invoices updated, {} customers summarised in {} ms", asOf,
+                invoicesUpdated, result.getCustomers(), result.getElapsedMs());
+        return result;
+    }
+
+    // Brings a few customers' summary rows up to date between nightly runs, for CreditAgingProjector: their invoices'
+    // days_overdue as of asOf, then their buckets, replacing their rows. Reads the customers' own invoices through
+    // idx_sales_customer_open rather than walking the table, so it is cheap enough to follow every payment.
+    @Transactional
+    public int refreshCustomers(Collection<Long> customerIds, LocalDate asOf) {
+        Date day = Date.valueOf(asOf);
+        List<Long> ids = new ArrayList<>(new TreeSet<>(customerIds));
+        int refreshed = 0;
+        for (int i = 0; i < ids.size(); i += MAX_IN) {
+            List<Long> chunk = ids.subList(i, Math.min(i + MAX_IN, ids.size()));
+            String in = "(" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            List<Object> args = new ArrayList<>(List.of(day, day));
+            args.addAll(chunk);
+            args.add(day);
+            args.add(day);
+            jdbcTemplate.update("UPDATE sales_records SET days_overdue = " + OVERDUE_EXPR
+                    + " WHERE credit_customer_id IN " + in + " AND payment_method = 'CREDIT' AND days_overdue <> "
+                    + OVERDUE_EXPR, args.toArray());
+
+            Map<Long, Buckets> buckets = new HashMap<>();
+            jdbcTemplate.query(BUCKETS + "FROM sales_records WHERE credit_customer_id IN " + in + " AND "
+                    + OPEN_INVOICES + "GROUP BY credit_customer_id", rs -> {
+                        addBuckets(buckets, rs);
+                    }, chunk.toArray());
+            buckets.keySet().retainAll(new HashSet<>(jdbcTemplate.queryForList(
+                    "SELECT id FROM credit_customers WHERE id IN " + in, Long.class, chunk.toArray())));
+            jdbcTemplate.update("DELETE FROM credit_aging_summary WHERE customer_id IN " + in, chunk.toArray());
+            jdbcTemplate.batchUpdate(INSERT_SUMMARY, summaryRows(buckets, day));
+            refreshed += chunk.size();
+        }
+        return refreshed;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getSummary() {
+        Object[] row = agingRepository.summarize().get(0);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("asOfDate", row[8]);
+        summary.put("customers", row[0]);
+        summary.put("openInvoices", row[1]);
+        summary.put("bucket0To30", row[2]);
+        summary.put("bucket31To60", row[3]);
+        summary.put("bucket61To90", row[4]);
+        summary.put("bucket90Plus", row[5]);
+        summary.put("totalOpen", row[6]);
+        summary.put("maxDaysOverdue", row[7]);
+        return summary;
+    }
+
+    // Worst first: by the 90+ bucket, then by total open
+    @Transactional(readOnly = true)
+    public Page<CreditAgingDto> getCustomers(int page, int size) {
+        PageRequest pageable = PageRequest.of(page, size, defaultSort());
+        return agingRepository.findAll(pageable).map(this::mapToDto);
+    }
+
+    @Transactional(readOnly = true)
+    public List<CreditAgingDto> getAllCustomers() {
+        return agingRepository.findAll(defaultSort()).stream().map(this::mapToDto).toList();
+    }
+
+    // Customers without open invoices have no summary row; they are reported with empty buckets
+    @Transactional(readOnly = true)
+    public CreditAgingDto getCustomer(Long customerId) {
+        return agingRepository.findById(customerId).map(this::mapToDto).orElseGet(() -> {
+            CreditAgingDto dto = new CreditAgingDto();
+            customerRepository.findById(customerId).ifPresentOrElse(c -> {
+                dto.setCustomerId(c.getId());
+                dto.setCustomerPublicId(c.getPublicId());
+                dto.setCustomerName(c.getName());
+            }, () -> {
+                throw new EntityNotFoundException("Customer not found");
+            });
+            dto.setOpenInvoices(0);
+            dto.setBucket0To30(BigDecimal.ZERO);
+            dto.setBucket31To60(BigDecimal.ZERO);
+            dto.setBucket61To90(BigDecimal.ZERO);
+            dto.setBucket90Plus(BigDecimal.ZERO);
+            dto.setTotalOpen(BigDecimal.ZERO);
+            dto.setMaxDaysOverdue(0);
+            return dto;
+        });
+    }
+
+    private static void addBuckets(Map<Long, Buckets> buckets, ResultSet rs) throws SQLException {
+        buckets.computeIfAbsent(rs.getLong(1), id -> new Buckets()).add(rs.getInt(2), rs.getBigDecimal(3),
+                rs.getBigDecimal(4), rs.getBigDecimal(5), rs.getBigDecimal(6), rs.getInt(7));
+    }
+
+    private static List<Object[]> summaryRows(Map<Long, Buckets> buckets, Date day) {
+        List<Object[]> rows = new ArrayList<>(buckets.size());
+        buckets.forEach((customerId, b) -> rows.add(new Object[] { customerId, day, b.invoices, b.days0To30,
+                b.days31To60, b.days61To90, b.days90Plus, b.total(), b.maxDaysOverdue }));
+        return rows;
+    }
+
+    private Sort defaultSort() {
+        return Sort.by(Sort.Order.desc("bucket90Plus"), Sort.Order.desc("totalOpen"));
+    }
+
+    // Per-customer running totals while the chunks are scanned
+    private static class Buckets {
+        private int invoices;
+        private BigDecimal days0To30 = BigDecimal.ZERO;
+        private BigDecimal days31To60 = BigDecimal.ZERO;
+        private BigDecimal days61To90 = BigDecimal.ZERO;
+        private BigDecimal days90Plus = BigDecimal.ZERO;
+        private int maxDaysOverdue;
+
+        private void add(int count, BigDecimal b0, BigDecimal b1, BigDecimal b2, BigDecimal b3, int maxDays) {
+            invoices += count;
+            days0To30 = days0To30.add(b0);
+            days31To60 = days31To60.add(b1);
+            days61To90 = days61To90.add(b2);
+            days90Plus = days90Plus.add(b3);
+            maxDaysOverdue = Math.max(maxDaysOverdue, maxDays);
+        }
+
+        private BigDecimal total() {
+            return days0To30.add(days31To60).add(days61To90).add(days90Plus);
+        }
+    }
+
+    private CreditAgingDto mapToDto(CreditAgingSummary a) {
+        CreditAgingDto dto = new CreditAgingDto();
+        dto.setCustomerId(a.getCustomerId());
+        if (a.getCustomer() != null) {
+            dto.setCustomerPublicId(a.getCustomer().getPublicId());
+            dto.setCustomerName(a.getCustomer().getName());
+        }
+        dto.setAsOfDate(a.getAsOfDate());
+        dto.setOpenInvoices(a.getOpenInvoices());
+        dto.setBucket0To30(a.getBucket0To30());
+        dto.setBucket31To60(a.getBucket31To60());
+        dto.setBucket61To90(a.getBucket61To90());
+        dto.setBucket90Plus(a.getBucket90Plus());
+        dto.setTotalOpen(a.getTotalOpen());
+        dto.setMaxDaysOverdue(a.getMaxDaysOverdue());
+        dto.setComputedAt(a.getComputedAt());
+        return dto;
+    }
+}
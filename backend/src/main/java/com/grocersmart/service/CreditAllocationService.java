@@ -0,0 +1,123 @@
+package com.grocersmart.service;
+
+import com.grocersmart.dto.CreditAllocationRunDto;
+import com.grocersmart.dto.InvoiceAllocationDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Applies customer payments to open credit invoices, oldest due date first.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CreditAllocationService {
+
+    private static final int CUSTOMER_CHUNK = 500;
+
+    // Backlog re-allocation for a customer id range. A customer's open invoice amounts are made to add up to
+    // their outstanding balance (capped at what was invoiced): walking newest to oldest, each invoice stays open
+    // for whatever of the balance the newer ones have not taken, so everything older is settled (FIFO).
+    // Only rows whose paid amount or status changes are written.
+    private static final String REALLOCATE_SQL = "UPDATE sales_records s JOIN ("
+            + "  SELECT r.id, r.total_revenue, "
+            + "         LEAST(r.total_revenue, GREATEST(0, c.outstanding_balance - COALESCE(SUM(r.total_revenue) "
+            + "             OVER (PARTITION BY r.credit_customer_id "
+            + "                   ORDER BY COALESCE(r.due_date, r.sales_date) DESC, r.id DESC "
+            + "                   ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING), 0))) AS open_amount "
+            + "  FROM sales_records r JOIN credit_customers c ON c.id = r.credit_customer_id "
+            + "  WHERE r.credit_customer_id BETWEEN ? AND ? AND r.payment_method = 'CREDIT' "
+            + "    AND COALESCE(r.is_deleted, FALSE) = FALSE"
+            + ") a ON a.id = s.id "
+            + "SET s.paid_amount = a.total_revenue - a.open_amount, "
+            + "    s.payment_status = CASE WHEN a.open_amount = 0 THEN 'PAID' "
+            + "                            WHEN a.open_amount = a.total_revenue THEN 'UNPAID' ELSE 'PARTIAL' END "
+            + "WHERE s.paid_amount IS NULL OR s.paid_amount <> a.total_revenue - a.open_amount "
+            + "   OR s.payment_status <> CASE WHEN a.open_amount = 0 THEN 'PAID' "
+            + "                               WHEN a.open_amount = a.total_revenue THEN 'UNPAID' ELSE 'PARTIAL' END";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Splits a payment across the customer's open invoices and writes them back in one JDBC batch.
+    // The invoices are read through idx_sales_customer_open, so the cost follows the open invoices,
+    // not the customer's history. Runs inside the payment transaction after CreditBalanceService.pay has
+    // locked the customer row, so concurrent payments cannot allocate the same invoice; the read is a
+    // locking one so it sees invoices settled by a payment that committed while we waited.
+    // The invoice the payment was taken against, if any and still open, is settled first.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<InvoiceAllocationDto> allocate(Long customerId, BigDecimal amount, Long preferredInvoiceId) {
+        List<Object[]> open = jdbcTemplate.query("SELECT id, invoice_id, total_revenue, COALESCE(paid_amount, 0) "
+                + "FROM sales_records "
+                + "WHERE credit_customer_id = ? AND payment_status IN ('UNPAID', 'PARTIAL') "
+                + "AND payment_method = 'CREDIT' AND COALESCE(is_deleted, FALSE) = FALSE "
+                + "ORDER BY due_date, id FOR UPDATE",
+                (rs, i) -> new Object[] { rs.getLong(1), rs.getString(2), rs.getBigDecimal(3), rs.getBigDecimal(4) },
+                customerId);
+        if (preferredInvoiceId != null) {
+            open.stream().filter(row -> preferredInvoiceId.equals(row[0])).findFirst().ifPresent(row -> {
+                open.remove(row);
+                open.add(0, row);
+            });
+        }
+
+        BigDecimal remaining = amount;
+        List<Object[]> updates = new ArrayList<>();
+        List<InvoiceAllocationDto> allocations = new ArrayList<>();
+        for (Object[] row : open) {
+            BigDecimal total = (BigDecimal) row[2];
+            BigDecimal paid = (BigDecimal) row[3];
+            BigDecimal due = total.subtract(paid);
+            if (remaining.signum() <= 0 && due.signum() > 0) {
+                break;
+            }
+            // Fully paid rows still marked open are closed on the way past
+            BigDecimal applied = due.signum() > 0 ? due.min(remaining) : BigDecimal.ZERO;
+            BigDecimal newPaid = paid.add(applied);
+            String status = newPaid.compareTo(total) >= 0 ? "PAID" : "PARTIAL";
+            updates.add(new Object[] { newPaid, status, row[0] });
+            if (applied.signum() > 0) {
+                allocations.add(new InvoiceAllocationDto((Long) row[0], (String) row[1], applied, newPaid, status));
+            }
+            remaining = remaining.subtract(applied);
+        }
+        jdbcTemplate.batchUpdate("UPDATE sales_records SET paid_amount = ?, payment_status = ? WHERE id = ?",
+                updates);
+        return allocations;
+    }
+
+    // Backlog job: re-allocates every customer's payments in id chunks, each committed on its own
+    public CreditAllocationRunDto reallocateAll() {
+        long started = System.currentTimeMillis();
+        Map<String, Object> range = jdbcTemplate.queryForMap(
+                "SELECT MIN(id) AS first_id, MAX(id) AS last_id, COUNT(*) AS customers FROM credit_customers");
+        long updated = 0;
+        if (range.get("first_id") != null) {
+            long lastId = ((Number) range.get("last_id")).longValue();
+            for (long first = ((Number) range.get("first_id")).longValue(); first <= lastId; first += CUSTOMER_CHUNK) {
+                long from = first;
+                long to = Math.min(first + CUSTOMER_CHUNK - 1, lastId);
+                Integer chunk = transactionTemplate.execute(status -> jdbcTemplate.update(REALLOCATE_SQL, from, to));
+                updated += chunk != null ? chunk : 0;
+            }
+        }
+        CreditAllocationRunDto result = CreditAllocationRunDto.builder()
+                .timestamp(LocalDateTime.now())
+                .customers(((Number) range.get("customers")).longValue())
+                .invoicesUpdated(updated)
+                .elapsedMs(System.currentTimeMillis() - started)
+                .build();
+        log.info("Payment re-allocation: {} invoices updated for {} customers in {} ms", updated,
+                result.getCustomers(), result.getElapsedMs());
+        return result;
+    }
+}
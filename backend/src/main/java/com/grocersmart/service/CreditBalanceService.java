@@ -0,0 +1,93 @@
+package com.grocersmart.service;
+
+import com.grocersmart.cache.ChangeCounters;
+import com.grocersmart.cache.CountedTable;
+import com.grocersmart.exception.CreditLimitExceededException;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+// Every change to a credit customer's outstanding balance goes through here as one UPDATE with the
+// delta applied in DECIMAL by the database and the business rule in the WHERE clause. Nothing is read
+// into Java and written back, so a concurrent sale and payment cannot overwrite each other, and the
+// row lock is only held from the UPDATE to commit. Callers must run this before inserting rows that
+// reference the customer: taking the row lock first keeps the FK checks of those inserts from deadlocking.
+@Service
+@RequiredArgsConstructor
+public class CreditBalanceService {
+
+    // available_credit is assigned first so it is computed from the old balance whichever
+    // SET evaluation order the server uses
+    private static final String APPLY_DELTA = "UPDATE credit_customers SET "
+            + "available_credit = GREATEST(0, COALESCE(credit_limit, 0) - outstanding_balance - ?), "
+            + "outstanding_balance = outstanding_balance + ?, "
+            + "version = version + 1, updated_at = CURRENT_TIMESTAMP";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeCounters changeCounters;
+
+    // Credit sale: rejected when the balance would go over the credit limit. Returns the new balance.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BigDecimal charge(Long customerId, BigDecimal amount) {
+        changeCounters.touch(CountedTable.CREDIT_CUSTOMERS);
+        int updated = jdbcTemplate.update(APPLY_DELTA
+                + " WHERE id = ? AND outstanding_balance + ? <= COALESCE(credit_limit, 0)",
+                amount, amount, customerId, amount);
+        if (updated == 0) {
+            Map<String, Object> current = current(customerId);
+            throw new CreditLimitExceededException("Credit limit exceeded",
+                    current.get("credit_limit") != null ? ((BigDecimal) current.get("credit_limit")).doubleValue() : 0,
+                    ((BigDecimal) current.get("outstanding_balance")).doubleValue(), amount.doubleValue());
+        }
+        return balance(customerId);
+    }
+
+    // Payment: rejected when it is more than the customer owes. Also rolls up total_paid and
+    // last_payment_date in the same statement. Returns the new balance.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BigDecimal pay(Long customerId, BigDecimal amount) {
+        changeCounters.touch(CountedTable.CREDIT_CUSTOMERS);
+        int updated = jdbcTemplate.update(APPLY_DELTA
+                + ", total_paid = total_paid + ?, last_payment_date = CURRENT_DATE"
+                + " WHERE id = ? AND outstanding_balance >= ?",
+                amount.negate(), amount.negate(), amount, customerId, amount);
+        if (updated == 0) {
+            throw new IllegalArgumentException("Payment amount cannot exceed outstanding balance (₹"
+                    + current(customerId).get("outstanding_balance") + ")");
+        }
+        return balance(customerId);
+    }
+
+    // Reversals (deleted or amended sales, deleted orders) and bounced cheques: applied unconditionally
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BigDecimal adjust(Long customerId, BigDecimal delta) {
+        changeCounters.touch(CountedTable.CREDIT_CUSTOMERS);
+        int updated = jdbcTemplate.update(APPLY_DELTA + " WHERE id = ?", delta, delta, customerId);
+        if (updated == 0) {
+            throw new EntityNotFoundException("Customer not found");
+        }
+        return balance(customerId);
+    }
+
+    // Our own UPDATE holds the row lock, so this read sees exactly the balance it produced
+    private BigDecimal balance(Long customerId) {
+        return jdbcTemplate.queryForObject("SELECT outstanding_balance FROM credit_customers WHERE id = ?",
+                BigDecimal.class, customerId);
+    }
+
+    private Map<String, Object> current(Long customerId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT outstanding_balance, credit_limit FROM credit_customers WHERE id = ?", customerId);
+        if (rows.isEmpty()) {
+            throw new EntityNotFoundException("Customer not found");
+        }
+        return rows.get(0);
+    }
+}
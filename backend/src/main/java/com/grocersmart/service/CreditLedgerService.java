@@ -0,0 +1,182 @@
+package com.grocersmart.service;
+
+import com.grocersmart.cache.ChangeCounters;
+import com.grocersmart.cache.CountedTable;
+import com.grocersmart.dto.CreditLedgerEntryDto;
+import com.grocersmart.entity.CreditLedgerEntry;
+import com.grocersmart.repository.CreditCustomerRepository;
+import com.grocersmart.repository.CreditLedgerRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class CreditLedgerService {
+
+    // Rebuilds ledger rows for a customer id range from sales, payments and bounced cheques.
+    // Mirrors the V24 backfill: whatever the history does not explain becomes an OPENING_BALANCE row.
+    // Settled credit sales may have moved to sales_records_archive (SalesArchiveService); both tiers are read.
+    private static final String REBUILD_SQL = "INSERT INTO credit_ledger (customer_id, entry_seq, entry_date, "
+            + "entry_type, reference_type, reference_id, description, debit, credit, balance_after) "
+            + "WITH events AS ("
+            + "  SELECT s.credit_customer_id AS customer_id, s.sales_date AS entry_date, "
+            + "         CAST(COALESCE(s.created_at, s.sales_date) AS DATETIME) AS sort_ts, 1 AS src_order, "
+            + "         'SALE' AS entry_type, 'SALE' AS reference_type, s.id AS reference_id, "
+            + "         CONCAT('Sale: ', s.invoice_id) AS description, ROUND(s.total_revenue, 2) AS debit, 0 AS credit "
+            + "  FROM sales_records s "
+            + "  WHERE s.payment_method = 'CREDIT' AND s.credit_customer_id BETWEEN ? AND ? "
+            + "    AND COALESCE(s.is_deleted, FALSE) = FALSE "
+            + "  UNION ALL "
+            + "  SELECT s.credit_customer_id, s.sales_date, CAST(COALESCE(s.created_at, s.sales_date) AS DATETIME), 1, "
+            + "         'SALE', 'SALE', s.id, CONCAT('Sale: ', s.invoice_id), ROUND(s.total_revenue, 2), 0 "
+            + "  FROM sales_records_archive s "
+            + "  WHERE s.payment_method = 'CREDIT' AND s.credit_customer_id BETWEEN ? AND ? "
+            + "    AND COALESCE(s.is_deleted, FALSE) = FALSE "
+            + "  UNION ALL "
+            + "  SELECT p.customer_id, DATE(p.payment_date), CAST(p.payment_date AS DATETIME), 2, "
+            + "         'PAYMENT', 'PAYMENT', p.id, CONCAT('Payment: ', COALESCE(p.note, '-')), 0, ROUND(p.amount, 2) "
+            + "  FROM credit_payments p "
+            + "  WHERE p.customer_id BETWEEN ? AND ? AND COALESCE(p.status, 'SUCCESS') <> 'PENDING' "
+            + "    AND COALESCE(p.is_deleted, FALSE) = FALSE AND p.payment_date IS NOT NULL "
+            + "  UNION ALL "
+            + "  SELECT c.customer_id, COALESCE(c.bounced_date, c.due_date), "
+            + "         CAST(COALESCE(c.bounced_date, c.due_date) AS DATETIME), 3, 'CHEQUE_BOUNCE', 'CHEQUE', c.id, "
+            + "         CONCAT('Cheque bounced: ', COALESCE(c.cheque_number, '-')), ROUND(c.amount, 2), 0 "
+            + "  FROM cheques c "
+            + "  WHERE c.customer_id BETWEEN ? AND ? AND c.status = 'BOUNCED' AND c.migrated_to_debt = TRUE "
+            + "    AND COALESCE(c.is_deleted, FALSE) = FALSE AND COALESCE(c.bounced_date, c.due_date) IS NOT NULL"
+            + "), numbered AS ("
+            + "  SELECT e.*, "
+            + "         ROW_NUMBER() OVER (PARTITION BY e.customer_id "
+            + "                            ORDER BY e.entry_date, e.sort_ts, e.src_order, e.reference_id) AS rn, "
+            + "         SUM(e.debit - e.credit) OVER (PARTITION BY e.customer_id "
+            + "                            ORDER BY e.entry_date, e.sort_ts, e.src_order, e.reference_id "
+            + "                            ROWS UNBOUNDED PRECEDING) AS net "
+            + "  FROM events e"
+            + "), opening AS ("
+            + "  SELECT c.id AS customer_id, ROUND(COALESCE(c.outstanding_balance, 0) - COALESCE(t.net, 0), 2) AS amount, "
+            + "         COALESCE(t.first_date, DATE(c.created_at), CURRENT_DATE) AS entry_date "
+            + "  FROM credit_customers c "
+            + "  LEFT JOIN (SELECT customer_id, SUM(debit - credit) AS net, MIN(entry_date) AS first_date "
+            + "             FROM events GROUP BY customer_id) t ON t.customer_id = c.id "
+            + "  WHERE c.id BETWEEN ? AND ?"
+            + ") "
+            + "SELECT o.customer_id, 1, o.entry_date, 'OPENING_BALANCE', NULL, NULL, 'Opening balance', "
+            + "       GREATEST(o.amount, 0), GREATEST(-o.amount, 0), o.amount "
+            + "FROM opening o WHERE o.amount <> 0 "
+            + "UNION ALL "
+            + "SELECT n.customer_id, n.rn + CASE WHEN o.amount <> 0 THEN 1 ELSE 0 END, n.entry_date, n.entry_type, "
+            + "       n.reference_type, n.reference_id, n.description, n.debit, n.credit, o.amount + n.net "
+            + "FROM numbered n JOIN opening o ON o.customer_id = n.customer_id";
+
+    private final CreditLedgerRepository ledgerRepository;
+    private final CreditCustomerRepository customerRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeCounters changeCounters;
+
+    // Appends one movement. Callers pass the customer's outstanding balance after the movement, exactly as
+    // CreditBalanceService returned it; it is stored on the row so statements never have to re-sum history.
+    // The customer row lock serialises concurrent appends for the same customer, keeping entry_seq gap-free.
+    // Balance changes already hold it through their CreditBalanceService UPDATE; customer edits take it here.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public CreditLedgerEntry append(Long customerId, CreditLedgerEntry.EntryType type, String referenceType,
+            Long referenceId, String description, BigDecimal debit, BigDecimal credit, BigDecimal balanceAfter) {
+        jdbcTemplate.queryForList("SELECT id FROM credit_customers WHERE id = ? FOR UPDATE", Long.class, customerId);
+
+        CreditLedgerEntry entry = new CreditLedgerEntry();
+        entry.setCustomerId(customerId);
+        entry.setEntrySeq(ledgerRepository.findLastSeq(customerId) + 1);
+        entry.setEntryDate(LocalDate.now());
+        entry.setEntryType(type);
+        entry.setReferenceType(referenceType);
+        entry.setReferenceId(referenceId);
+        entry.setDescription(description);
+        entry.setDebit(debit);
+        entry.setCredit(credit);
+        entry.setBalanceAfter(balanceAfter);
+        return ledgerRepository.save(entry);
+    }
+
+    // Appends several movements of one customer with a single batch insert, in list order. balanceBefore is the
+    // balance before the first of them; each row's balance_after carries on from it. Same locking as append.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(Long customerId, CreditLedgerEntry.EntryType type, String referenceType,
+            List<Movement> movements, BigDecimal balanceBefore) {
+        jdbcTemplate.queryForList("SELECT id FROM credit_customers WHERE id = ? FOR UPDATE", Long.class, customerId);
+
+        long seq = ledgerRepository.findLastSeq(customerId);
+        BigDecimal balance = balanceBefore;
+        Date today = Date.valueOf(LocalDate.now());
+        List<Object[]> rows = new ArrayList<>(movements.size());
+        for (Movement m : movements) {
+            balance = balance.add(m.debit()).subtract(m.credit());
+            rows.add(new Object[] { customerId, ++seq, today, type.name(), referenceType, m.referenceId(),
+                    m.description(), m.debit(), m.credit(), balance });
+        }
+        changeCounters.touch(CountedTable.CREDIT_LEDGER);
+        jdbcTemplate.batchUpdate("INSERT INTO credit_ledger (customer_id, entry_seq, entry_date, entry_type, "
+                + "reference_type, reference_id, description, debit, credit, balance_after) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<CreditLedgerEntryDto> getLedger(Long customerId, int page, int size) {
+        if (!customerRepository.existsById(customerId)) {
+            throw new EntityNotFoundException("Customer not found");
+        }
+        PageRequest pageable = PageRequest.of(page, size, Sort.by("entrySeq"));
+        return ledgerRepository.findByCustomerId(customerId, pageable).map(this::mapToDto);
+    }
+
+    // Next chunk of entries after the given sequence number, for streaming exports
+    @Transactional(readOnly = true)
+    public List<CreditLedgerEntry> getEntriesAfter(Long customerId, long afterSeq) {
+        return ledgerRepository.findTop1000ByCustomerIdAndEntrySeqGreaterThanOrderByEntrySeqAsc(customerId,
+                afterSeq);
+    }
+
+    // Replaces the ledger of every customer in the id range with one derived from history.
+    // Used after bulk loads that write sales and payments directly with SQL.
+    @Transactional
+    public int rebuild(long firstCustomerId, long lastCustomerId) {
+        changeCounters.touch(CountedTable.CREDIT_LEDGER);
+        jdbcTemplate.update("DELETE FROM credit_ledger WHERE customer_id BETWEEN ? AND ?", firstCustomerId,
+                lastCustomerId);
+        return jdbcTemplate.update(REBUILD_SQL, firstCustomerId, lastCustomerId, firstCustomerId, lastCustomerId,
+                firstCustomerId, lastCustomerId, firstCustomerId, lastCustomerId, firstCustomerId, lastCustomerId);
+    }
+
+    // One row for appendAll; amounts in DECIMAL(14,2) scale
+    public record Movement(Long referenceId, String description, BigDecimal debit, BigDecimal credit) {
+    }
+
+    private CreditLedgerEntryDto mapToDto(CreditLedgerEntry e) {
+        CreditLedgerEntryDto dto = new CreditLedgerEntryDto();
+        dto.setId(e.getId());
+        dto.setCustomerId(e.getCustomerId());
+        dto.setEntrySeq(e.getEntrySeq());
+        dto.setEntryDate(e.getEntryDate());
+        dto.setEntryType(e.getEntryType().name());
+        dto.setReferenceType(e.getReferenceType());
+        dto.setReferenceId(e.getReferenceId());
+        dto.setDescription(e.getDescription());
+        dto.setDebit(e.getDebit());
+        dto.setCredit(e.getCredit());
+        dto.setBalanceAfter(e.getBalanceAfter());
+        dto.setCreatedAt(e.getCreatedAt());
+        return dto;
+    }
+}
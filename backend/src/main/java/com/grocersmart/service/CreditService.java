@@ -1,9 +1,12 @@
 package com.grocersmart.service;
 
+import com.grocersmart.common.EntityType;
 import com.grocersmart.dto.CreditCustomerDto;
 import com.grocersmart.dto.CreditPaymentDto;
 import com.grocersmart.entity.CreditCustomer;
 import com.grocersmart.entity.CreditPayment;
+import com.grocersmart.events.DomainEventPublisher;
+import com.grocersmart.events.PaymentRecorded;
 import com.grocersmart.repository.CreditCustomerRepository;
 import com.grocersmart.repository.CreditPaymentRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -22,21 +25,34 @@ public class CreditService {
 
     private final CreditCustomerRepository customerRepository;
     private final CreditPaymentRepository paymentRepository;
-    private final TrashCreditCustomerService trashCreditCustomerService;
+    private final TrashEngine trashEngine;
     private final com.grocersmart.repository.SalesRecordRepository salesRecordRepository;
     private final PublicIdGeneratorService publicIdGeneratorService;
+    private final CreditLedgerService creditLedgerService;
+    private final CreditBalanceService creditBalanceService;
+    private final CreditAllocationService creditAllocationService;
+    private final DomainEventPublisher eventPublisher;
 
+    @Transactional
     public CreditCustomerDto createCustomer(CreditCustomerDto dto) {
         CreditCustomer customer = new CreditCustomer();
         mapToEntity(dto, customer);
 
-        if (customer.getOutstandingBalance() > customer.getCreditLimit()) {
+        if (exceedsLimit(customer)) {
             throw new IllegalArgumentException("Outstanding balance cannot exceed credit limit during creation");
         }
 
         customer.setStatus(CreditCustomer.Status.ACTIVE);
         customer.setPublicId(publicIdGeneratorService.nextId(com.grocersmart.common.EntityType.CREDIT_CUSTOMER));
-        return mapToDto(customerRepository.save(customer));
+        CreditCustomer saved = customerRepository.save(customer);
+
+        BigDecimal opening = orZero(saved.getOutstandingBalance());
+        if (opening.signum() != 0) {
+            creditLedgerService.append(saved.getId(), com.grocersmart.entity.CreditLedgerEntry.EntryType.OPENING_BALANCE,
+                    null, null, "Opening balance", opening.max(BigDecimal.ZERO), opening.negate().max(BigDecimal.ZERO),
+                    opening);
+        }
+        return mapToDto(saved);
     }
 
     @Transactional(readOnly = true)
@@ -74,15 +90,28 @@ public class CreditService {
                 .orElseThrow(() -> new EntityNotFoundException("Customer not found with publicId: " + publicId));
     }
 
+    @Transactional
     public CreditCustomerDto updateCustomer(Long id, CreditCustomerDto dto) {
         CreditCustomer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Customer not found"));
+        if (dto.getVersion() != null && dto.getVersion() != customer.getVersion()) {
+            throw new org.springframework.orm.ObjectOptimisticLockingFailureException(CreditCustomer.class, id);
+        }
+        BigDecimal previousBalance = orZero(customer.getOutstandingBalance());
         mapToEntity(dto, customer);
 
-        if (customer.getOutstandingBalance() > customer.getCreditLimit()) {
+        if (exceedsLimit(customer)) {
             throw new IllegalArgumentException("Outstanding balance cannot exceed credit limit");
         }
 
+        // A manual balance edit is recorded as an adjustment so the ledger still ends at the stored balance
+        BigDecimal change = orZero(customer.getOutstandingBalance()).subtract(previousBalance);
+        if (change.signum() != 0) {
+            creditLedgerService.append(id, com.grocersmart.entity.CreditLedgerEntry.EntryType.ADJUSTMENT, null, null,
+                    "Manual balance adjustment", change.max(BigDecimal.ZERO), change.negate().max(BigDecimal.ZERO),
+                    customer.getOutstandingBalance());
+        }
+
         return mapToDto(customerRepository.save(customer));
     }
 
@@ -90,7 +119,7 @@ public class CreditService {
         CreditCustomer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Customer not found"));
 
-        if (customer.getOutstandingBalance() != null && customer.getOutstandingBalance() != 0) {
+        if (customer.getOutstandingBalance() != null && customer.getOutstandingBalance().signum() != 0) {
             throw new IllegalStateException(
                     "Cannot delete. Customer has unsettled balance (₹" + customer.getOutstandingBalance() + ")");
         }
@@ -105,7 +134,7 @@ public class CreditService {
         }
 
         // Use trash system to archive and delete
-        trashCreditCustomerService.archiveAndDelete(id, "Deleted via API", null);
+        trashEngine.archiveAndDelete(EntityType.CREDIT_CUSTOMER, id, "Deleted via API", null);
     }
 
     @Transactional(readOnly = true)
@@ -148,20 +177,18 @@ public class CreditService {
 
     @Transactional
     public com.grocersmart.dto.CreditPaymentResponseDto addPayment(Long customerId, CreditPaymentDto dto) {
-        CreditCustomer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> new EntityNotFoundException("Customer not found"));
-
         if (dto.getAmount() == null || dto.getAmount() <= 0) {
             throw new IllegalArgumentException("Payment amount must be positive");
         }
-
-        double previousBalance = customer.getOutstandingBalance() != null ? customer.getOutstandingBalance() : 0.0;
-
-        if (dto.getAmount() > previousBalance) {
-            throw new IllegalArgumentException(
-                    "Payment amount cannot exceed outstanding balance (₹" + previousBalance + ")");
+        if (dto.getInvoiceId() != null && !salesRecordRepository.existsById(dto.getInvoiceId())) {
+            throw new EntityNotFoundException("Invoice not found: " + dto.getInvoiceId());
         }
 
+        // Payment reduces debt; the overpayment check, total paid and last payment date go in the same
+        // UPDATE. It runs before the payment insert so the customer row lock is taken ahead of its FK check.
+        BigDecimal amount = BigDecimal.valueOf(dto.getAmount());
+        BigDecimal newBalance = creditBalanceService.pay(customerId, amount);
+
         CreditPayment payment = new CreditPayment();
         payment.setCustomerId(customerId);
         payment.setAmount(dto.getAmount());
@@ -170,39 +197,25 @@ public class CreditService {
 
         paymentRepository.save(payment);
 
-        // Update balance (Payment reduces debt)
-        customer.updateBalance(previousBalance - dto.getAmount());
-
-        // Update total paid and last payment date
-        double totalPaid = (customer.getTotalPaid() != null ? customer.getTotalPaid() : 0.0) + dto.getAmount();
-        customer.setTotalPaid(totalPaid);
-        customer.setLastPaymentDate(java.time.LocalDate.now());
-
-        // Update linked invoice if provided
-        if (dto.getInvoiceId() != null) {
-            com.grocersmart.entity.SalesRecord invoice = salesRecordRepository.findById(dto.getInvoiceId())
-                    .orElseThrow(() -> new EntityNotFoundException("Invoice not found: " + dto.getInvoiceId()));
-
-            BigDecimal currentPaid = invoice.getPaidAmount() != null ? invoice.getPaidAmount() : BigDecimal.ZERO;
-            BigDecimal newPaid = currentPaid.add(BigDecimal.valueOf(dto.getAmount()));
-            invoice.setPaidAmount(newPaid);
-
-            if (newPaid.compareTo(invoice.getTotalRevenue()) >= 0) {
-                invoice.setPaymentStatus(com.grocersmart.entity.SalesRecord.PaymentStatus.PAID);
-            } else if (newPaid.compareTo(BigDecimal.ZERO) > 0) {
-                invoice.setPaymentStatus(com.grocersmart.entity.SalesRecord.PaymentStatus.PARTIAL);
-            }
-            salesRecordRepository.save(invoice);
-        }
+        creditLedgerService.append(customerId, com.grocersmart.entity.CreditLedgerEntry.EntryType.PAYMENT, "PAYMENT",
+                payment.getId(), "Payment: " + (dto.getNote() != null ? dto.getNote() : "-"), BigDecimal.ZERO, amount,
+                newBalance);
 
-        customerRepository.save(customer);
+        // Settle open invoices oldest due first (the invoice named on the payment, if any, goes first)
+        List<com.grocersmart.dto.InvoiceAllocationDto> allocations = creditAllocationService.allocate(customerId,
+                amount, dto.getInvoiceId());
+        BigDecimal allocated = allocations.stream().map(com.grocersmart.dto.InvoiceAllocationDto::getApplied)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        eventPublisher.publish(new PaymentRecorded(payment.getId(), customerId, amount, allocated, newBalance));
 
         return com.grocersmart.dto.CreditPaymentResponseDto.builder()
-                .customerId(customer.getId())
+                .customerId(customerId)
                 .paidAmount(dto.getAmount())
-                .previousOutstanding(previousBalance)
-                .newOutstanding(customer.getOutstandingBalance())
-                .message("Payment recorded successfully" + (dto.getInvoiceId() != null ? " and invoice updated" : ""))
+                .previousOutstanding(newBalance.add(amount).doubleValue())
+                .newOutstanding(newBalance.doubleValue())
+                .allocations(allocations)
+                .unallocatedAmount(amount.subtract(allocated).doubleValue())
+                .message("Payment recorded and applied to " + allocations.size() + " invoice(s)")
                 .build();
     }
 
@@ -226,17 +239,17 @@ public class CreditService {
     }
 
     @Transactional(readOnly = true)
-    public java.util.Map<String, Double> getSummary() {
+    public java.util.Map<String, BigDecimal> getSummary() {
         List<CreditCustomer> customers = customerRepository.findAll();
-        double totalLimit = customers.stream().mapToDouble(c -> c.getCreditLimit() != null ? c.getCreditLimit() : 0.0)
-                .sum();
-        double totalOutstanding = customers.stream()
-                .mapToDouble(c -> c.getOutstandingBalance() != null ? c.getOutstandingBalance() : 0.0).sum();
+        BigDecimal totalLimit = customers.stream().map(c -> orZero(c.getCreditLimit()))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalOutstanding = customers.stream().map(c -> orZero(c.getOutstandingBalance()))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-        java.util.Map<String, Double> summary = new java.util.HashMap<>();
+        java.util.Map<String, BigDecimal> summary = new java.util.HashMap<>();
         summary.put("totalLimit", totalLimit);
         summary.put("totalOutstanding", totalOutstanding);
-        summary.put("totalAvailable", Math.max(0.0, totalLimit - totalOutstanding));
+        summary.put("totalAvailable", available(totalLimit, totalOutstanding));
         return summary;
     }
 
@@ -251,9 +264,7 @@ public class CreditService {
         dto.setOutstandingBalance(c.getOutstandingBalance());
 
         // Safety: Calculate correctly: limit - balance, min 0
-        double limit = c.getCreditLimit() != null ? c.getCreditLimit() : 0.0;
-        double balance = c.getOutstandingBalance() != null ? c.getOutstandingBalance() : 0.0;
-        dto.setAvailableCredit(Math.max(0.0, limit - balance));
+        dto.setAvailableCredit(available(orZero(c.getCreditLimit()), orZero(c.getOutstandingBalance())));
 
         dto.setStatus(c.getStatus());
         dto.setCreatedAt(c.getCreatedAt());
@@ -266,6 +277,7 @@ public class CreditService {
         dto.setTotalPaid(c.getTotalPaid());
         dto.setLastPaymentDate(c.getLastPaymentDate());
         dto.setCustomerType(c.getCustomerType());
+        dto.setVersion(c.getVersion());
 
         return dto;
     }
@@ -280,9 +292,7 @@ public class CreditService {
             c.setOutstandingBalance(dto.getOutstandingBalance());
 
         // Sync availableCredit correctly: limit - balance, min 0
-        double limit = c.getCreditLimit() != null ? c.getCreditLimit() : 0.0;
-        double balance = c.getOutstandingBalance() != null ? c.getOutstandingBalance() : 0.0;
-        c.setAvailableCredit(Math.max(0.0, limit - balance));
+        c.setAvailableCredit(available(orZero(c.getCreditLimit()), orZero(c.getOutstandingBalance())));
 
         if (dto.getStatus() != null)
             c.setStatus(dto.getStatus());
@@ -295,6 +305,18 @@ public class CreditService {
             c.setCustomerType(dto.getCustomerType());
     }
 
+    private static boolean exceedsLimit(CreditCustomer c) {
+        return orZero(c.getOutstandingBalance()).compareTo(orZero(c.getCreditLimit())) > 0;
+    }
+
+    private static BigDecimal available(BigDecimal limit, BigDecimal balance) {
+        return limit.subtract(balance).max(BigDecimal.ZERO);
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
     private CreditPaymentDto mapToDto(CreditPayment p) {
         CreditPaymentDto dto = new CreditPaymentDto();
         dto.setId(p.getId());
@@ -0,0 +1,292 @@
+package com.grocersmart.service;
+
+import com.grocersmart.dto.ForecastRunDto;
+import com.grocersmart.dto.ProductForecastDto;
+import com.grocersmart.entity.ProductForecast;
+import com.grocersmart.repository.ProductForecastRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+
+// Nightly demand forecast per product. product_daily_sales is streamed product by product through a server-side
+// cursor into one double[] per product (a slot per day of history); batches of series are fitted on a fork-join
+// pool while the cursor moves on, and only the small per-product results are kept. They replace
+// product_forecasts in one transaction, where replenishment and the dashboard read them.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DemandForecastService {
+
+    public static final int HORIZON_DAYS = 28;
+    private static final int HOLDOUT_DAYS = 28;
+    private static final int BATCH_SIZE = 1000;
+    // Below this many products a batch is fitted on one thread rather than split further
+    private static final int SPLIT_THRESHOLD = 64;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReplenishmentService replenishmentService;
+    private final ProductForecastRepository forecastRepository;
+
+    @Value("${app.forecast.history-days:1095}")
+    private int historyDays;
+
+    // Worker threads for model fitting; 0 = one per core
+    @Value("${app.forecast.parallelism:0}")
+    private int parallelism;
+
+    public ForecastRunDto run(LocalDate asOf) {
+        long started = System.currentTimeMillis();
+        LocalDate rolledFrom = replenishmentService.rollupStart(asOf);
+        long rollupRows = replenishmentService.rollup(rolledFrom, asOf);
+
+        // History ends with yesterday, the last complete day, and starts on a Monday so that i % 7 is the weekday
+        LocalDate last = asOf.minusDays(1);
+        LocalDate first = last.minusDays(historyDays - 1L).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        int days = (int) ChronoUnit.DAYS.between(first, last) + 1;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+
+        List<Forecast> forecasts = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        SeriesReader reader = new SeriesReader(days, pool, threads * 2, forecasts);
+        try {
+            // Fetch size MIN_VALUE makes Connector/J stream the rows instead of buffering the whole result
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement("SELECT product_id, DATEDIFF(sales_date, ?), units_sold, "
+                        + "promo_units FROM product_daily_sales FORCE INDEX (idx_pds_product) "
+                        + "WHERE sales_date BETWEEN ? AND ? ORDER BY product_id, sales_date",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(Integer.MIN_VALUE);
+                ps.setDate(1, Date.valueOf(first));
+                ps.setDate(2, Date.valueOf(first));
+                ps.setDate(3, Date.valueOf(last));
+                return ps;
+            }, reader);
+            reader.finish();
+        } finally {
+            pool.shutdown();
+        }
+
+        List<Object[]> rows = new ArrayList<>(forecasts.size());
+        for (Forecast f : forecasts) {
+            rows.add(new Object[] { f.productId(), Date.valueOf(asOf), f.model(), f.dailyRate(), f.next7Days(),
+                    f.next28Days(), Double.isNaN(f.meanAbsError()) ? null : f.meanAbsError(), f.historyDays(),
+                    f.promoShare() });
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM product_forecasts");
+            jdbcTemplate.batchUpdate("INSERT INTO product_forecasts (product_id, as_of_date, model, daily_rate, "
+                    + "next_7_days, next_28_days, mean_abs_error, history_days, promo_share, computed_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", rows);
+        });
+
+        ForecastRunDto result = ForecastRunDto.builder()
+                .timestamp(LocalDateTime.now())
+                .asOfDate(asOf)
+                .historyFrom(first)
+                .rollupRows(rollupRows)
+                .rowsRead(reader.rowsRead)
+                .products(forecasts.size())
+                .models(forecasts.stream().collect(Collectors.groupingBy(Forecast::model, TreeMap::new,
+                        Collectors.counting())))
+                .parallelism(threads)
+                .elapsedMs(System.currentTimeMillis() - started)
+                .build();
+        log.info("Demand forecast as of {}: {} daily rows read, {} products fitted on {} threads in {} ms", asOf,
+                reader.rowsRead, forecasts.size(), threads, result.getElapsedMs());
+        return result;
+    }
+
+    // Largest expected demand first
+    @Transactional(readOnly = true)
+    public Page<ProductForecastDto> getForecasts(String category, int page, int size) {
+        PageRequest pageable = PageRequest.of(page, size, Sort.by(Sort.Order.desc("next28Days")));
+        Page<ProductForecast> forecasts = category == null || category.isBlank()
+                ? forecastRepository.findAll(pageable)
+                : forecastRepository.findByProductCategory(category, pageable);
+        return forecasts.map(this::mapToDto);
+    }
+
+    @Transactional(readOnly = true)
+    public ProductForecastDto getForecast(Long productId) {
+        return forecastRepository.findById(productId).map(this::mapToDto)
+                .orElseThrow(() -> new EntityNotFoundException("No forecast for product " + productId));
+    }
+
+    private ProductForecastDto mapToDto(ProductForecast f) {
+        ProductForecastDto dto = new ProductForecastDto();
+        dto.setProductId(f.getProductId());
+        if (f.getProduct() != null) {
+            dto.setProductPublicId(f.getProduct().getPublicId());
+            dto.setProductName(f.getProduct().getName());
+            dto.setCategory(f.getProduct().getCategory());
+        }
+        dto.setAsOfDate(f.getAsOfDate());
+        dto.setModel(f.getModel());
+        dto.setDailyRate(f.getDailyRate());
+        dto.setNext7Days(f.getNext7Days());
+        dto.setNext28Days(f.getNext28Days());
+        dto.setMeanAbsError(f.getMeanAbsError());
+        dto.setHistoryDays(f.getHistoryDays());
+        dto.setPromoShare(f.getPromoShare());
+        dto.setComputedAt(f.getComputedAt());
+        return dto;
+    }
+
+    // Assembles one series per product from the ordered cursor and hands full batches to the pool. At most
+    // maxInFlight batches are queued; past that the reader collects the oldest before reading on, which bounds
+    // memory to a few batches of series whatever the catalogue size.
+    private static final class SeriesReader implements RowCallbackHandler {
+
+        private final int days;
+        private final ForkJoinPool pool;
+        private final int maxInFlight;
+        private final List<Forecast> forecasts;
+        private final Deque<ForkJoinTask<List<Forecast>>> inFlight = new ArrayDeque<>();
+        private List<Series> batch = new ArrayList<>(BATCH_SIZE);
+        private long rowsRead;
+
+        private long productId = -1;
+        private double[] units;
+        private int start;
+        private long total;
+        private long promo;
+
+        SeriesReader(int days, ForkJoinPool pool, int maxInFlight, List<Forecast> forecasts) {
+            this.days = days;
+            this.pool = pool;
+            this.maxInFlight = maxInFlight;
+            this.forecasts = forecasts;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong(1);
+            int day = rs.getInt(2);
+            if (id != productId) {
+                closeSeries();
+                productId = id;
+                units = new double[days];
+                start = day;
+                total = 0;
+                promo = 0;
+            }
+            units[day] = rs.getInt(3);
+            total += rs.getInt(3);
+            promo += rs.getInt(4);
+            rowsRead++;
+        }
+
+        void finish() {
+            closeSeries();
+            submit();
+            while (!inFlight.isEmpty()) {
+                forecasts.addAll(inFlight.poll().join());
+            }
+        }
+
+        private void closeSeries() {
+            if (units == null) {
+                return;
+            }
+            batch.add(new Series(productId, units, start, total == 0 ? 0 : (double) promo / total));
+            units = null;
+            if (batch.size() == BATCH_SIZE) {
+                submit();
+            }
+        }
+
+        private void submit() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            inFlight.add(pool.submit(new FitTask(batch, 0, batch.size())));
+            batch = new ArrayList<>(BATCH_SIZE);
+            while (inFlight.size() > maxInFlight) {
+                forecasts.addAll(inFlight.poll().join());
+            }
+        }
+    }
+
+    // Splits a batch in halves down to SPLIT_THRESHOLD products, fits each product, and joins the results
+    private static final class FitTask extends RecursiveTask<List<Forecast>> {
+
+        private final List<Series> series;
+        private final int from;
+        private final int to;
+
+        FitTask(List<Series> series, int from, int to) {
+            this.series = series;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Forecast> compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                List<Forecast> fitted = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    fitted.add(fit(series.get(i)));
+                }
+                return fitted;
+            }
+            int middle = (from + to) >>> 1;
+            FitTask left = new FitTask(series, from, middle);
+            left.fork();
+            List<Forecast> fitted = new FitTask(series, middle, to).compute();
+            fitted.addAll(left.join());
+            return fitted;
+        }
+    }
+
+    private static Forecast fit(Series s) {
+        double[] y = s.units();
+        DemandModels.Fit fit = DemandModels.best(y, s.start(), y.length, HORIZON_DAYS, HOLDOUT_DAYS);
+        double next7 = 0;
+        double next28 = 0;
+        for (int h = 0; h < HORIZON_DAYS; h++) {
+            double units = Math.max(fit.forecast()[h], 0);
+            next28 += units;
+            if (h < 7) {
+                next7 += units;
+            }
+        }
+        return new Forecast(s.productId(), fit.model(), next28 / HORIZON_DAYS, next7, next28, fit.meanAbsError(),
+                y.length - s.start(), s.promoShare());
+    }
+
+    private record Series(long productId, double[] units, int start, double promoShare) {
+    }
+
+    private record Forecast(long productId, String model, double dailyRate, double next7Days, double next28Days,
+            double meanAbsError, int historyDays, double promoShare) {
+    }
+}
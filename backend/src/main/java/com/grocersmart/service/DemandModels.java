@@ -0,0 +1,117 @@
+package com.grocersmart.service;
+
+import java.util.Arrays;
+
+// Lightweight daily demand models over one product's series. y[start..end) are consecutive days and y[i] falls on
+// weekday i % 7 (the caller aligns index 0 with a fixed weekday), so every model is one or two passes over a
+// primitive array with no allocation beyond the forecast itself.
+final class DemandModels {
+
+    static final String SEASONAL_NAIVE = "SEASONAL_NAIVE";
+    static final String SMOOTHING = "SMOOTHING";
+    static final String MEAN = "MEAN";
+
+    // Below this much history the weekly models have too little to go on and the plain mean is used
+    static final int MIN_SEASONAL_DAYS = 28;
+
+    private static final double[] ALPHAS = { 0.05, 0.1, 0.2, 0.3, 0.5 };
+
+    private DemandModels() {
+    }
+
+    record Fit(String model, double[] forecast, double meanAbsError) {
+    }
+
+    // Fits both weekly models on all but the last holdout days, keeps the one with the lower mean absolute error
+    // over those days and refits it on the whole series
+    static Fit best(double[] y, int start, int end, int horizon, int holdout) {
+        if (end - start < MIN_SEASONAL_DAYS) {
+            double[] forecast = mean(y, start, end, horizon);
+            return new Fit(MEAN, forecast, Double.NaN);
+        }
+        if (end - start - holdout < MIN_SEASONAL_DAYS) {
+            return new Fit(SMOOTHING, smoothing(y, start, end, horizon), Double.NaN);
+        }
+        int cut = end - holdout;
+        double naiveError = meanAbsError(y, cut, seasonalNaive(y, start, cut, holdout));
+        double smoothingError = meanAbsError(y, cut, smoothing(y, start, cut, holdout));
+        return naiveError < smoothingError
+                ? new Fit(SEASONAL_NAIVE, seasonalNaive(y, start, end, horizon), naiveError)
+                : new Fit(SMOOTHING, smoothing(y, start, end, horizon), smoothingError);
+    }
+
+    // Each day repeats the mean of the same weekday over the last four weeks
+    static double[] seasonalNaive(double[] y, int start, int end, int horizon) {
+        double[] forecast = new double[horizon];
+        for (int h = 0; h < horizon; h++) {
+            double sum = 0;
+            int weeks = 0;
+            for (int i = end - 7 + h % 7; i >= start && weeks < 4; i -= 7) {
+                sum += y[i];
+                weeks++;
+            }
+            forecast[h] = weeks == 0 ? 0 : sum / weeks;
+        }
+        return forecast;
+    }
+
+    // Simple exponential smoothing of the deseasonalised series, reseasonalised with multiplicative weekday
+    // indices. The smoothing constant is the one with the lowest one-step squared error.
+    static double[] smoothing(double[] y, int start, int end, int horizon) {
+        double[] weekdaySum = new double[7];
+        int[] weekdayDays = new int[7];
+        double total = 0;
+        for (int i = start; i < end; i++) {
+            weekdaySum[i % 7] += y[i];
+            weekdayDays[i % 7]++;
+            total += y[i];
+        }
+        double overall = total / (end - start);
+        if (overall == 0) {
+            return new double[horizon];
+        }
+        double[] index = new double[7];
+        for (int d = 0; d < 7; d++) {
+            index[d] = weekdayDays[d] == 0 || weekdaySum[d] == 0 ? 1 : weekdaySum[d] / weekdayDays[d] / overall;
+        }
+
+        double bestLevel = overall;
+        double bestError = Double.MAX_VALUE;
+        for (double alpha : ALPHAS) {
+            double level = y[start] / index[start % 7];
+            double error = 0;
+            for (int i = start + 1; i < end; i++) {
+                double residual = y[i] - level * index[i % 7];
+                error += residual * residual;
+                level += alpha * (y[i] / index[i % 7] - level);
+            }
+            if (error < bestError) {
+                bestError = error;
+                bestLevel = level;
+            }
+        }
+        double[] forecast = new double[horizon];
+        for (int h = 0; h < horizon; h++) {
+            forecast[h] = bestLevel * index[(end + h) % 7];
+        }
+        return forecast;
+    }
+
+    static double[] mean(double[] y, int start, int end, int horizon) {
+        double total = 0;
+        for (int i = start; i < end; i++) {
+            total += y[i];
+        }
+        double[] forecast = new double[horizon];
+        Arrays.fill(forecast, end > start ? total / (end - start) : 0);
+        return forecast;
+    }
+
+    private static double meanAbsError(double[] y, int from, double[] forecast) {
+        double error = 0;
+        for (int h = 0; h < forecast.length; h++) {
+            error += Math.abs(y[from + h] - forecast[h]);
+        }
+        return error / forecast.length;
+    }
+}
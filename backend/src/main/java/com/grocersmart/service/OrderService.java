@@ -1,5 +1,6 @@
 package com.grocersmart.service;
 
+import com.grocersmart.common.EntityType;
 import com.grocersmart.dto.OrderDto;
 import com.grocersmart.dto.OrderItemDto;
 import com.grocersmart.dto.SalesItemDto;
@@ -37,8 +38,12 @@ public class OrderService {
     private final CreditCustomerRepository creditCustomerRepository;
     private final SalesService salesService;
     private final SalesRecordRepository salesRecordRepository;
-    private final TrashOrderService trashOrderService; // Add TrashService
+    private final TrashEngine trashEngine;
     private final PublicIdGeneratorService publicIdGeneratorService;
+    private final CreditLedgerService creditLedgerService;
+    private final CreditBalanceService creditBalanceService;
+    private final StoreService storeService;
+    private final StockService stockService;
 
     @Transactional
     public OrderDto createOrder(OrderDto dto) {
@@ -48,6 +53,7 @@ public class OrderService {
         order.setPaymentType(dto.getPaymentType());
         order.setOrderDate(LocalDateTime.now());
         order.setStatus(Order.Status.DRAFT);
+        order.setStoreId(storeService.resolve(dto.getStoreId()));
 
         if (dto.getPaymentType() == Order.PaymentType.CREDIT) {
             if (dto.getCreditCustomerId() == null) {
@@ -80,24 +86,24 @@ public class OrderService {
 
     @Transactional(readOnly = true)
     public OrderDto getOrderById(Long id) {
-        return orderRepository.findById(id)
+        return orderRepository.findDetailedById(id)
                 .map(this::mapToDto)
                 .orElseThrow(() -> new EntityNotFoundException("Order not found with ID: " + id));
     }
 
     @Transactional(readOnly = true)
     public OrderDto getOrderByPublicId(String publicId) {
-        return orderRepository.findByPublicId(publicId)
+        return orderRepository.findDetailedByPublicId(publicId)
                 .map(this::mapToDto)
                 .orElseThrow(() -> new EntityNotFoundException("Order not found with publicId: " + publicId));
     }
 
     @Transactional(readOnly = true)
     public Page<OrderDto> getOrders(String search, Order.Status status, Order.PaymentType paymentType,
-            Pageable pageable) {
+            Pageable pageable, boolean expandItems) {
         return orderRepository.findAll(
                 com.grocersmart.specification.OrderSpecification.filterBy(search, status, paymentType),
-                pageable).map(this::mapToDto);
+                pageable).map(order -> mapToDto(order, expandItems));
     }
 
     @Transactional(readOnly = true)
@@ -119,8 +125,9 @@ public class OrderService {
         Product product = productRepository.findById(itemDto.getProductId())
                 .orElseThrow(() -> new EntityNotFoundException("Product not found"));
 
-        if (product.getUnitQty() < itemDto.getQty()) {
-            throw new IllegalArgumentException("Insufficient stock. Available: " + product.getUnitQty());
+        int available = stockService.available(order.getStoreId(), product.getId());
+        if (available < itemDto.getQty()) {
+            throw new IllegalArgumentException("Insufficient stock. Available: " + available);
         }
 
         OrderItem item = new OrderItem();
@@ -160,13 +167,10 @@ public class OrderService {
             Product product = productRepository.findById(item.getProductId())
                     .orElseThrow(() -> new EntityNotFoundException("Product not found: " + item.getProductId()));
 
-            if (product.getUnitQty() < item.getQty()) {
+            if (!stockService.take(order.getStoreId(), product.getId(), item.getQty())) {
                 throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
             }
 
-            product.setUnitQty(product.getUnitQty() - item.getQty());
-            productRepository.save(product);
-
             totalAmount += item.getLineTotal();
         }
 
@@ -176,6 +180,7 @@ public class OrderService {
         SalesRecordDto salesDto = new SalesRecordDto();
         salesDto.setSalesDate(order.getOrderDate().toLocalDate());
         salesDto.setNote("Auto-created from Order #" + order.getInvoiceNo());
+        salesDto.setStoreId(order.getStoreId());
         salesDto.setPaymentMethod(order.getPaymentType() == Order.PaymentType.CREDIT
                 ? SalesRecord.PaymentMethod.CREDIT
                 : SalesRecord.PaymentMethod.CASH);
@@ -211,16 +216,24 @@ public class OrderService {
                 order.getPaymentType() == Order.PaymentType.CREDIT &&
                 order.getCreditCustomer() != null) {
 
-            CreditCustomer customer = order.getCreditCustomer();
-            customer.updateBalance(customer.getOutstandingBalance() - order.getTotalAmount());
-            creditCustomerRepository.save(customer);
+            Long customerId = order.getCreditCustomer().getId();
+            BigDecimal balance = creditBalanceService.adjust(customerId,
+                    BigDecimal.valueOf(order.getTotalAmount()).negate());
+            creditLedgerService.append(customerId,
+                    com.grocersmart.entity.CreditLedgerEntry.EntryType.ORDER_REVERSAL, "ORDER", order.getId(),
+                    "Order deleted: " + order.getPublicId(), BigDecimal.ZERO, BigDecimal.valueOf(order.getTotalAmount()),
+                    balance);
         }
 
-        // Use trash service to move to recycle bin
-        trashOrderService.moveToTrash(order);
+        // Move to the recycle bin
+        trashEngine.moveToTrash(EntityType.ORDER, order, null, null);
     }
 
     private OrderDto mapToDto(Order o) {
+        return mapToDto(o, true);
+    }
+
+    private OrderDto mapToDto(Order o, boolean includeItems) {
         OrderDto dto = new OrderDto();
         dto.setId(o.getId());
         dto.setPublicId(o.getPublicId());
@@ -229,6 +242,7 @@ public class OrderService {
         dto.setPaymentType(o.getPaymentType());
         dto.setStatus(o.getStatus());
         dto.setTotalAmount(o.getTotalAmount());
+        dto.setStoreId(o.getStoreId());
 
         if (o.getSalesRecord() != null) {
             dto.setSalesRecordId(o.getSalesRecord().getId());
@@ -239,7 +253,7 @@ public class OrderService {
             dto.setCreditCustomerName(o.getCreditCustomer().getName());
         }
 
-        if (o.getItems() != null) {
+        if (includeItems && o.getItems() != null) {
             dto.setItems(o.getItems().stream().map(this::mapToItemDto).collect(Collectors.toList()));
         }
         dto.setCreatedAt(o.getCreatedAt());
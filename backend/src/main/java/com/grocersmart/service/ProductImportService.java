@@ -2,6 +2,7 @@ package com.grocersmart.service;
 
 import com.grocersmart.dto.CsvImportResultDTO;
 import com.grocersmart.entity.Product;
+import com.grocersmart.entity.Store;
 import com.grocersmart.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,7 +10,7 @@ import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.BufferedReader;
@@ -27,6 +28,8 @@ public class ProductImportService {
 
     private final ProductRepository productRepository;
     private final PublicIdGeneratorService publicIdGeneratorService;
+    private final StockService stockService;
+    private final TransactionTemplate transactionTemplate;
 
     public CsvImportResultDTO importFromCsv(MultipartFile file) {
         if (file == null || file.isEmpty()) {
@@ -123,7 +126,12 @@ public class ProductImportService {
                     // Generate public ID (Requirement: All entities must have public_id)
                     product.setPublicId(publicIdGeneratorService.nextId(com.grocersmart.common.EntityType.PRODUCT));
 
-                    productRepository.save(product);
+                    // Imported stock is opening stock of the main store; the product and its store row are
+                    // written together or not at all
+                    transactionTemplate.executeWithoutResult(status -> {
+                        productRepository.save(product);
+                        stockService.applyToStore(Store.MAIN_ID, product.getId(), unitQty, bulkQty);
+                    });
                     imported++;
 
                 } catch (IllegalArgumentException e) {
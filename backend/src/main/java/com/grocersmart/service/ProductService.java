@@ -1,8 +1,10 @@
 package com.grocersmart.service;
 
+import com.grocersmart.common.EntityType;
 import com.grocersmart.dto.ProductDto;
 import com.grocersmart.dto.StockConversionDto;
 import com.grocersmart.entity.Product;
+import com.grocersmart.entity.Store;
 import com.grocersmart.entity.StockConversion;
 import com.grocersmart.repository.ProductRepository;
 import com.grocersmart.repository.StockConversionRepository;
@@ -23,15 +25,21 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final StockConversionRepository stockConversionRepository;
-    private final TrashProductService trashProductService;
+    private final TrashEngine trashEngine;
     private final PublicIdGeneratorService publicIdGeneratorService;
+    private final StockService stockService;
+    private final StoreService storeService;
 
+    // Opening stock is put in the main store
+    @Transactional
     public ProductDto createProduct(ProductDto dto) {
         Product product = new Product();
         mapToEntity(dto, product);
         product.setStatus(Product.Status.ACTIVE);
         product.setPublicId(publicIdGeneratorService.nextId(com.grocersmart.common.EntityType.PRODUCT));
-        return mapToDto(productRepository.save(product));
+        Product saved = productRepository.saveAndFlush(product);
+        stockService.applyToStore(Store.MAIN_ID, saved.getId(), qty(saved.getUnitQty()), qty(saved.getBulkQty()));
+        return mapToDto(saved);
     }
 
     public Page<ProductDto> getProducts(String search, String category, Product.Status status, Pageable pageable) {
@@ -58,16 +66,25 @@ public class ProductService {
                 .orElseThrow(() -> new EntityNotFoundException("Product not found with publicId: " + publicId));
     }
 
+    // A manual stock correction lands on the main store as the difference between the edited quantities and the
+    // ones loaded here, applied with StockService's SQL deltas; the entity save itself never writes quantities.
+    // Deliveries and sales at other stores go through StockService.
+    @Transactional
     public ProductDto updateProduct(Long id, ProductDto dto) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Product not found"));
+        int unitQty = qty(product.getUnitQty());
+        double bulkQty = qty(product.getBulkQty());
         mapToEntity(dto, product);
-        return mapToDto(productRepository.save(product));
+        Product saved = productRepository.saveAndFlush(product);
+        stockService.adjust(Store.MAIN_ID, id, qty(saved.getUnitQty()) - unitQty,
+                qty(saved.getBulkQty()) - bulkQty);
+        return mapToDto(saved);
     }
 
     public void deleteProduct(Long id) {
         // Use trash system to archive and delete
-        trashProductService.archiveAndDelete(id, "Deleted via API", null);
+        trashEngine.archiveAndDelete(EntityType.PRODUCT, id, "Deleted via API", null);
     }
 
     @Transactional
@@ -75,13 +92,9 @@ public class ProductService {
         Product product = productRepository.findById(dto.getProductId())
                 .orElseThrow(() -> new EntityNotFoundException("Product not found"));
 
-        if (product.getBulkQty() < dto.getFromBulkQty()) {
-            throw new IllegalArgumentException("Insufficient bulk quantity");
-        }
-
-        product.setBulkQty(product.getBulkQty() - dto.getFromBulkQty());
-        product.setUnitQty(product.getUnitQty() + dto.getToUnitQty());
-        productRepository.save(product);
+        // The store's own bulk quantity is checked by the conditional update
+        stockService.adjust(storeService.resolve(dto.getStoreId()), product.getId(), dto.getToUnitQty(),
+                -dto.getFromBulkQty());
 
         StockConversion conversion = new StockConversion();
         conversion.setProductId(dto.getProductId());
@@ -92,6 +105,14 @@ public class ProductService {
         stockConversionRepository.save(conversion);
     }
 
+    private static int qty(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    private static double qty(Double value) {
+        return value != null ? value : 0;
+    }
+
     private ProductDto mapToDto(Product p) {
         ProductDto dto = new ProductDto();
         dto.setId(p.getId());
@@ -102,6 +123,7 @@ public class ProductService {
         dto.setUnitQty(p.getUnitQty());
         dto.setReorderLevel(p.getReorderLevel());
         dto.setUnitsPerBulk(p.getUnitsPerBulk());
+        dto.setSupplierId(p.getSupplierId());
         dto.setUnitPrice(p.getUnitPrice());
         dto.setBulkPrice(p.getBulkPrice());
         dto.setPurchasePrice(p.getPurchasePrice());
@@ -132,5 +154,7 @@ public class ProductService {
             p.setReorderLevel(dto.getReorderLevel());
         if (dto.getUnitsPerBulk() != null)
             p.setUnitsPerBulk(dto.getUnitsPerBulk());
+        if (dto.getSupplierId() != null)
+            p.setSupplierId(dto.getSupplierId());
     }
 }
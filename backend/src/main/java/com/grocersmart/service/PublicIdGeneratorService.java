@@ -38,4 +38,29 @@ public class PublicIdGeneratorService {
         // 3. Format
         return String.format("%s-%04d", type.getPrefix(), nextVal);
     }
+
+    // Bulk writers (imports, data generation) reserve a contiguous block in one round trip
+    // and format the ids themselves; returns the first number of the block
+    @Transactional
+    public long reserveBlock(EntityType type, long count) {
+        Long first = jdbcTemplate.queryForObject(
+                "SELECT next_number FROM public_id_sequence WHERE entity_type = ? FOR UPDATE", Long.class,
+                type.name());
+        jdbcTemplate.update("UPDATE public_id_sequence SET next_number = ? WHERE entity_type = ?", first + count,
+                type.name());
+        return first;
+    }
+
+    @Transactional
+    public long reserveInvoiceBlock(long count) {
+        Long first = jdbcTemplate.queryForObject(
+                "SELECT next_val FROM invoice_sequences WHERE sequence_name = 'sales_invoice' FOR UPDATE", Long.class);
+        jdbcTemplate.update("UPDATE invoice_sequences SET next_val = ? WHERE sequence_name = 'sales_invoice'",
+                first + count);
+        return first;
+    }
+
+    public static String format(EntityType type, long number) {
+        return String.format("%s-%04d", type.getPrefix(), number);
+    }
 }
@@ -0,0 +1,174 @@
+package com.grocersmart.service;
+
+import com.grocersmart.dto.PurchaseOrderBulkReceiveResultDto;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Goods receiving for purchase orders, one order or a whole delivery run at a time. Quantities are summed per
+// store and product across every order received together and applied by StockService with batched atomic
+// increments, so a till taking stock from the same product at the same moment loses nothing. The IN stock
+// movements (one per order and product) and the order status updates are two more batches in the same transaction.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PurchaseOrderReceivingService {
+
+    public static final int MAX_BULK = 200;
+    private static final int IN_CHUNK = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockService stockService;
+
+    // Orders that cannot be received are listed in skipped and the rest go ahead
+    @Transactional
+    public PurchaseOrderBulkReceiveResultDto receiveAll(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one purchase order id is required");
+        }
+        if (ids.size() > MAX_BULK) {
+            throw new IllegalArgumentException("At most " + MAX_BULK + " purchase orders can be received per request");
+        }
+        long started = System.currentTimeMillis();
+        Receipt receipt = receive(ids.stream().filter(Objects::nonNull).distinct().toList(), false);
+        PurchaseOrderBulkReceiveResultDto result = PurchaseOrderBulkReceiveResultDto.builder()
+                .requested(ids.size())
+                .receivedIds(receipt.receivedIds())
+                .skipped(receipt.skipped())
+                .products(receipt.products())
+                .units(receipt.units())
+                .totalAmount(receipt.totalAmount())
+                .elapsedMs(System.currentTimeMillis() - started)
+                .build();
+        log.info("Received {} purchase orders ({} skipped): {} units of {} products in {} ms",
+                receipt.receivedIds().size(), receipt.skipped().size(), receipt.units(), receipt.products(),
+                result.getElapsedMs());
+        return result;
+    }
+
+    // Single order: the same path, but anything that stops it is thrown instead of skipped
+    @Transactional
+    public void receiveOne(Long id) {
+        receive(List.of(id), true);
+    }
+
+    private Receipt receive(List<Long> ids, boolean strict) {
+        List<String> skipped = new ArrayList<>();
+        // Locked in id order, so two overlapping delivery runs wait for each other instead of deadlocking
+        Map<Long, String> orders = new TreeMap<>();
+        Map<Long, Long> storeOf = new HashMap<>();
+        Set<Long> found = new HashSet<>();
+        jdbcTemplate.query("SELECT id, public_id, status, store_id FROM purchase_orders WHERE id IN ("
+                + placeholders(ids.size()) + ") ORDER BY id FOR UPDATE", rs -> {
+                    found.add(rs.getLong(1));
+                    if ("RECEIVED".equals(rs.getString(3))) {
+                        reject(strict, skipped, rs.getLong(1), new IllegalStateException("PO already received"));
+                    } else if ("DRAFT".equals(rs.getString(3))) {
+                        reject(strict, skipped, rs.getLong(1),
+                                new IllegalStateException("PO is a draft; approve it first"));
+                    } else {
+                        orders.put(rs.getLong(1), rs.getString(2));
+                        storeOf.put(rs.getLong(1), rs.getLong(4));
+                    }
+                }, ids.toArray());
+        ids.stream().filter(id -> !found.contains(id))
+                .forEach(id -> reject(strict, skipped, id, new EntityNotFoundException("PO not found")));
+        if (orders.isEmpty()) {
+            return new Receipt(List.of(), skipped, 0, 0, 0);
+        }
+
+        // Per order: quantity per product and the order total
+        Map<Long, Map<Long, Long>> quantities = new TreeMap<>();
+        Map<Long, Double> totals = new TreeMap<>();
+        orders.keySet().forEach(id -> {
+            quantities.put(id, new TreeMap<>());
+            totals.put(id, 0.0);
+        });
+        List<Long> orderIds = new ArrayList<>(orders.keySet());
+        jdbcTemplate.query("SELECT purchase_order_id, product_id, qty, line_total FROM purchase_order_items "
+                + "WHERE purchase_order_id IN (" + placeholders(orderIds.size()) + ")", rs -> {
+                    long orderId = rs.getLong(1);
+                    quantities.get(orderId).merge(rs.getLong(2), (long) rs.getInt(3), Long::sum);
+                    totals.merge(orderId, rs.getDouble(4), Double::sum);
+                }, orderIds.toArray());
+
+        Set<Long> productIds = new HashSet<>();
+        quantities.values().forEach(lines -> productIds.addAll(lines.keySet()));
+        Set<Long> existing = existingProducts(productIds);
+        for (Long orderId : orderIds) {
+            quantities.get(orderId).keySet().stream().filter(productId -> !existing.contains(productId)).findFirst()
+                    .ifPresent(productId -> {
+                        reject(strict, skipped, orderId,
+                                new EntityNotFoundException("Product not found: " + productId));
+                        quantities.remove(orderId);
+                        totals.remove(orderId);
+                    });
+        }
+        if (quantities.isEmpty()) {
+            return new Receipt(List.of(), skipped, 0, 0, 0);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Long> perProduct = new TreeMap<>();
+        List<StockService.StockLine> stock = new ArrayList<>();
+        List<Object[]> movements = new ArrayList<>();
+        quantities.forEach((orderId, lines) -> lines.forEach((productId, qty) -> {
+            perProduct.merge(productId, qty, Long::sum);
+            stock.add(new StockService.StockLine(storeOf.get(orderId), productId, qty));
+            movements.add(new Object[] { productId, storeOf.get(orderId), qty, now,
+                    "PO received: " + orders.get(orderId), orderId, now });
+        }));
+        stockService.receive(stock, now);
+        jdbcTemplate.batchUpdate("INSERT INTO stock_movements (product_id, store_id, movement_type, quantity, "
+                + "movement_date, reason, reference_type, reference_id, created_at) "
+                + "VALUES (?, ?, 'IN', ?, ?, ?, 'PURCHASE_ORDER', ?, ?)", movements);
+        List<Object[]> received = new ArrayList<>(totals.size());
+        totals.forEach((orderId, total) -> received.add(new Object[] { total, now, orderId }));
+        jdbcTemplate.batchUpdate("UPDATE purchase_orders SET status = 'RECEIVED', total_amount = ?, updated_at = ? "
+                + "WHERE id = ?", received);
+
+        return new Receipt(new ArrayList<>(totals.keySet()), skipped, perProduct.size(),
+                perProduct.values().stream().mapToLong(Long::longValue).sum(),
+                totals.values().stream().mapToDouble(Double::doubleValue).sum());
+    }
+
+    private Set<Long> existingProducts(Set<Long> productIds) {
+        List<Long> ids = new ArrayList<>(productIds);
+        Set<Long> existing = new HashSet<>();
+        for (int i = 0; i < ids.size(); i += IN_CHUNK) {
+            List<Long> chunk = ids.subList(i, Math.min(i + IN_CHUNK, ids.size()));
+            existing.addAll(jdbcTemplate.queryForList("SELECT id FROM products WHERE id IN ("
+                    + placeholders(chunk.size()) + ")", Long.class, chunk.toArray()));
+        }
+        return existing;
+    }
+
+    private static void reject(boolean strict, List<String> skipped, Long id, RuntimeException problem) {
+        if (strict) {
+            throw problem;
+        }
+        skipped.add(id + ": " + problem.getMessage());
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private record Receipt(List<Long> receivedIds, List<String> skipped, int products, long units,
+            double totalAmount) {
+    }
+}
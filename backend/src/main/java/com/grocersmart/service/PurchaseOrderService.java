@@ -1,11 +1,10 @@
 package com.grocersmart.service;
 
+import com.grocersmart.common.EntityType;
 import com.grocersmart.dto.PurchaseOrderDto;
 import com.grocersmart.dto.PurchaseOrderItemDto;
-import com.grocersmart.entity.Product;
 import com.grocersmart.entity.PurchaseOrder;
 import com.grocersmart.entity.PurchaseOrderItem;
-import com.grocersmart.repository.ProductRepository;
 import com.grocersmart.repository.PurchaseOrderItemRepository;
 import com.grocersmart.repository.PurchaseOrderRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -23,36 +22,46 @@ public class PurchaseOrderService {
 
     private final PurchaseOrderRepository poRepository;
     private final PurchaseOrderItemRepository poiRepository;
-    private final ProductRepository productRepository;
-    private final TrashPurchaseOrderService trashPurchaseOrderService;
+    private final PurchaseOrderReceivingService receivingService;
+    private final TrashEngine trashEngine;
     private final PublicIdGeneratorService publicIdGeneratorService;
+    private final StoreService storeService;
 
     public PurchaseOrderDto createPO(PurchaseOrderDto dto) {
         PurchaseOrder po = new PurchaseOrder();
         po.setPublicId(publicIdGeneratorService.nextId(com.grocersmart.common.EntityType.PURCHASE_ORDER));
         po.setSupplierId(dto.getSupplierId());
+        po.setStoreId(storeService.resolve(dto.getStoreId()));
         po.setPoDate(LocalDateTime.now());
         po.setStatus(PurchaseOrder.Status.CREATED);
         return mapToDto(poRepository.save(po));
     }
 
     @Transactional(readOnly = true)
-    public List<PurchaseOrderDto> getAllPOs() {
+    public List<PurchaseOrderDto> getAllPOs(boolean expandItems) {
         return poRepository.findAll().stream()
+                .map(po -> mapToDto(po, expandItems))
+                .collect(Collectors.toList());
+    }
+
+    // Review list, e.g. the drafts replenishment suggested
+    @Transactional(readOnly = true)
+    public List<PurchaseOrderDto> getPOsByStatus(PurchaseOrder.Status status) {
+        return poRepository.findByStatusOrderByIdAsc(status).stream()
                 .map(this::mapToDto)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public PurchaseOrderDto getPOById(Long id) {
-        return poRepository.findById(id)
+        return poRepository.findDetailedById(id)
                 .map(this::mapToDto)
                 .orElseThrow(() -> new EntityNotFoundException("PO not found"));
     }
 
     @Transactional(readOnly = true)
     public PurchaseOrderDto getPOByPublicId(String publicId) {
-        return poRepository.findByPublicId(publicId)
+        return poRepository.findDetailedByPublicId(publicId)
                 .map(this::mapToDto)
                 .orElseThrow(() -> new EntityNotFoundException("PO not found with publicId: " + publicId));
     }
@@ -77,30 +86,13 @@ public class PurchaseOrderService {
                 .collect(Collectors.toList());
     }
 
+    // Stock goes up through the receiving engine's atomic increment; the order is read back afterwards
     @Transactional
     public PurchaseOrderDto receivePO(Long id) {
-        PurchaseOrder po = poRepository.findById(id)
+        receivingService.receiveOne(id);
+        return poRepository.findDetailedById(id)
+                .map(this::mapToDto)
                 .orElseThrow(() -> new EntityNotFoundException("PO not found"));
-
-        if (po.getStatus() == PurchaseOrder.Status.RECEIVED) {
-            throw new IllegalStateException("PO already received");
-        }
-
-        double total = 0;
-        for (PurchaseOrderItem item : po.getItems()) {
-            total += item.getLineTotal();
-
-            // Increase Stock
-            Product product = productRepository.findById(item.getProductId())
-                    .orElseThrow(() -> new EntityNotFoundException("Product not found: " + item.getProductId()));
-
-            product.setUnitQty(product.getUnitQty() + item.getQty());
-            productRepository.save(product);
-        }
-
-        po.setTotalAmount(total);
-        po.setStatus(PurchaseOrder.Status.RECEIVED);
-        return mapToDto(poRepository.save(po));
     }
 
     @Transactional
@@ -113,18 +105,23 @@ public class PurchaseOrderService {
             // For not, allow deletion but just move to trash.
         }
 
-        trashPurchaseOrderService.moveToTrash(po);
+        trashEngine.moveToTrash(EntityType.PURCHASE_ORDER, po, null, null);
     }
 
     private PurchaseOrderDto mapToDto(PurchaseOrder po) {
+        return mapToDto(po, true);
+    }
+
+    private PurchaseOrderDto mapToDto(PurchaseOrder po, boolean includeItems) {
         PurchaseOrderDto dto = new PurchaseOrderDto();
         dto.setId(po.getId());
         dto.setPublicId(po.getPublicId());
         dto.setSupplierId(po.getSupplierId());
+        dto.setStoreId(po.getStoreId());
         dto.setPoDate(po.getPoDate());
         dto.setStatus(po.getStatus());
         dto.setTotalAmount(po.getTotalAmount());
-        if (po.getItems() != null) {
+        if (includeItems && po.getItems() != null) {
             dto.setItems(po.getItems().stream().map(this::mapToItemDto).collect(Collectors.toList()));
         }
         dto.setCreatedAt(po.getCreatedAt());
@@ -0,0 +1,269 @@
+package com.grocersmart.service;
+
+import com.grocersmart.common.EntityType;
+import com.grocersmart.dto.ReplenishmentDecisionResultDto;
+import com.grocersmart.dto.ReplenishmentRunDto;
+import com.grocersmart.entity.PurchaseOrder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Replenishment: keeps product_daily_sales (units sold per product per day) current, and raises DRAFT purchase
+// orders, one per supplier, for products whose stock plus open orders has fallen to the reorder point. The reorder
+// point is the larger of reorderLevel and the units expected to sell over the supplier lead time, at the average
+// daily rate of the last velocity-days. Every step is a handful of set-based statements, whatever the catalogue size.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReplenishmentService {
+
+    public static final int MAX_BULK = 500;
+    private static final int IN_CHUNK = 1000;
+
+    private static final String UNITS = "CASE WHEN si.unit_or_bulk = 'BULK' "
+            + "THEN si.qty_sold * COALESCE(p.units_per_bulk, 1) ELSE si.qty_sold END";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PublicIdGeneratorService publicIdGeneratorService;
+
+    // Average daily sales are taken over this many days
+    @Value("${app.replenishment.velocity-days:28}")
+    private int velocityDays;
+
+    // Days from ordering to delivery, and days of sales an order should cover beyond that
+    @Value("${app.replenishment.lead-days:7}")
+    private int leadDays;
+
+    @Value("${app.replenishment.cover-days:14}")
+    private int coverDays;
+
+    // Each run rewrites the rollup from this many days before its last rolled day, to pick up late edits
+    @Value("${app.replenishment.restate-days:7}")
+    private int restateDays;
+
+    public ReplenishmentRunDto run(LocalDate asOf) {
+        long started = System.currentTimeMillis();
+        LocalDate from = rollupStart(asOf);
+        long rollupRows = rollup(from, asOf);
+
+        List<Suggestion> suggestions = suggestions(asOf);
+        Drafts drafts = transactionTemplate.execute(status -> raiseDrafts(suggestions));
+        ReplenishmentRunDto result = ReplenishmentRunDto.builder()
+                .timestamp(LocalDateTime.now())
+                .asOfDate(asOf)
+                .rolledUpFrom(from)
+                .rollupRows(rollupRows)
+                .velocityDays(velocityDays)
+                .productsToReorder(suggestions.size())
+                .withoutSupplier(drafts.withoutSupplier())
+                .draftIds(drafts.ids())
+                .units(drafts.units())
+                .totalCost(drafts.cost())
+                .elapsedMs(System.currentTimeMillis() - started)
+                .build();
+        log.info("Replenishment as of {}: rollup from {} ({} rows), {} products to reorder, {} drafts, "
+                + "{} without a supplier in {} ms", asOf, from, rollupRows, suggestions.size(),
+                drafts.ids().size(), drafts.withoutSupplier(), result.getElapsedMs());
+        return result;
+    }
+
+    // First day the next rollup up to asOf has to rewrite: restate-days before the last rolled day, or the first
+    // sale when nothing has been rolled up yet
+    public LocalDate rollupStart(LocalDate asOf) {
+        LocalDate lastRolled = jdbcTemplate.queryForObject("SELECT MAX(sales_date) FROM product_daily_sales",
+                LocalDate.class);
+        if (lastRolled != null) {
+            return (lastRolled.isAfter(asOf) ? asOf : lastRolled).minusDays(restateDays);
+        }
+        LocalDate firstSale = jdbcTemplate.queryForObject("SELECT MIN(d) FROM ("
+                + "SELECT MIN(sales_date) AS d FROM sales_records WHERE COALESCE(is_deleted, FALSE) = FALSE "
+                + "UNION ALL SELECT MIN(sales_date) FROM sales_records_archive) m", LocalDate.class);
+        return firstSale != null ? firstSale : asOf;
+    }
+
+    // Rewrites product_daily_sales for the days from..to, a month per transaction. Bulk lines count as
+    // unitsPerBulk units each; promo_units are the units of them sold on promotion. Lines are read from both the
+    // hot and the archived sales (SalesArchiveService), the archive only from the partitions the month falls in.
+    public long rollup(LocalDate from, LocalDate to) {
+        long rows = 0;
+        for (LocalDate start = from; !start.isAfter(to); start = start.plusMonths(1)) {
+            LocalDate monthEnd = start.plusMonths(1).minusDays(1);
+            Date first = Date.valueOf(start);
+            Date last = Date.valueOf(monthEnd.isAfter(to) ? to : monthEnd);
+            Integer written = transactionTemplate.execute(status -> {
+                jdbcTemplate.update("DELETE FROM product_daily_sales WHERE sales_date BETWEEN ? AND ?", first, last);
+                return jdbcTemplate.update("INSERT INTO product_daily_sales (sales_date, product_id, units_sold, "
+                        + "promo_units, revenue) SELECT si.sales_date, si.product_id, SUM(" + UNITS + "), "
+                        + "SUM(CASE WHEN si.promotion_applied THEN " + UNITS + " ELSE 0 END), SUM(si.line_total) "
+                        + "FROM (SELECT s.sales_date, i.product_id, i.qty_sold, i.unit_or_bulk, i.promotion_applied, "
+                        + "i.line_total FROM sales_records s JOIN sales_items i ON i.sales_record_id = s.id "
+                        + "WHERE s.sales_date BETWEEN ? AND ? AND COALESCE(s.is_deleted, FALSE) = FALSE "
+                        + "UNION ALL SELECT sales_date, product_id, qty_sold, unit_or_bulk, promotion_applied, "
+                        + "line_total FROM sales_items_archive WHERE sales_date BETWEEN ? AND ?) si "
+                        + "JOIN products p ON p.id = si.product_id "
+                        + "GROUP BY si.sales_date, si.product_id", first, last, first, last);
+            });
+            rows += written != null ? written : 0;
+        }
+        return rows;
+    }
+
+    @Transactional
+    public ReplenishmentDecisionResultDto approve(List<Long> ids) {
+        return decide(ids, PurchaseOrder.Status.CREATED);
+    }
+
+    @Transactional
+    public ReplenishmentDecisionResultDto reject(List<Long> ids) {
+        return decide(ids, PurchaseOrder.Status.CANCELLED);
+    }
+
+    // One statement over every active product: units on hand (bulk packs counted in units) plus units already on
+    // open orders, against the reorder point. The daily rate is the product's forecast when the forecast job has
+    // produced one in the last restate-days, else its average over velocity-days.
+    private List<Suggestion> suggestions(LocalDate asOf) {
+        return jdbcTemplate.query("SELECT id, supplier_id, cost, pack, available, velocity, reorder_point FROM ("
+                + "SELECT p.id, p.supplier_id, COALESCE(p.purchase_price, 0) AS cost, "
+                + "GREATEST(COALESCE(p.units_per_bulk, 1), 1) AS pack, "
+                + "COALESCE(p.unit_qty, 0) + FLOOR(COALESCE(p.bulk_qty, 0) * COALESCE(p.units_per_bulk, 1)) "
+                + "+ COALESCE(o.units, 0) AS available, "
+                + "COALESCE(f.daily_rate, COALESCE(v.units, 0) / ?) AS velocity, "
+                + "GREATEST(COALESCE(p.reorder_level, 0), "
+                + "CEIL(COALESCE(f.daily_rate, COALESCE(v.units, 0) / ?) * ?)) AS reorder_point "
+                + "FROM products p "
+                + "LEFT JOIN product_forecasts f ON f.product_id = p.id AND f.as_of_date > ? "
+                + "LEFT JOIN (SELECT product_id, SUM(units_sold) AS units FROM product_daily_sales "
+                + "WHERE sales_date > ? AND sales_date <= ? GROUP BY product_id) v ON v.product_id = p.id "
+                + "LEFT JOIN (SELECT poi.product_id, SUM(poi.qty) AS units FROM purchase_orders po "
+                + "JOIN purchase_order_items poi ON poi.purchase_order_id = po.id "
+                + "WHERE po.status IN ('DRAFT', 'CREATED', 'SENT') GROUP BY poi.product_id) o ON o.product_id = p.id "
+                + "WHERE p.status = 'ACTIVE' AND COALESCE(p.is_deleted, FALSE) = FALSE"
+                + ") c WHERE reorder_point > 0 AND available <= reorder_point ORDER BY supplier_id, id",
+                (rs, i) -> {
+                    double velocity = rs.getDouble("velocity");
+                    long pack = rs.getLong("pack");
+                    // Past the reorder point plus cover-days of sales, in whole packs, so the next run leaves
+                    // the product alone
+                    long target = rs.getLong("reorder_point") + (long) Math.ceil(velocity * coverDays);
+                    long needed = target + 1 - rs.getLong("available");
+                    long qty = (needed + pack - 1) / pack * pack;
+                    return new Suggestion(rs.getLong("id"), rs.getObject("supplier_id", Long.class), qty,
+                            rs.getDouble("cost"));
+                }, velocityDays, velocityDays, leadDays, Date.valueOf(asOf.minusDays(restateDays)),
+                Date.valueOf(asOf.minusDays(velocityDays)), Date.valueOf(asOf));
+    }
+
+    // One DRAFT order per supplier: a public id block, one batch of orders, one batch of items
+    private Drafts raiseDrafts(List<Suggestion> suggestions) {
+        Map<Long, List<Suggestion>> bySupplier = new TreeMap<>();
+        int withoutSupplier = 0;
+        for (Suggestion s : suggestions) {
+            if (s.supplierId() == null) {
+                withoutSupplier++;
+            } else {
+                bySupplier.computeIfAbsent(s.supplierId(), k -> new ArrayList<>()).add(s);
+            }
+        }
+        if (bySupplier.isEmpty()) {
+            return new Drafts(List.of(), withoutSupplier, 0, 0);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        long firstNumber = publicIdGeneratorService.reserveBlock(EntityType.PURCHASE_ORDER, bySupplier.size());
+        Map<String, Long> supplierByPublicId = new HashMap<>();
+        List<Object[]> orders = new ArrayList<>(bySupplier.size());
+        long number = firstNumber;
+        for (Map.Entry<Long, List<Suggestion>> entry : bySupplier.entrySet()) {
+            String publicId = PublicIdGeneratorService.format(EntityType.PURCHASE_ORDER, number++);
+            double total = entry.getValue().stream().mapToDouble(s -> s.qty() * s.cost()).sum();
+            supplierByPublicId.put(publicId, entry.getKey());
+            orders.add(new Object[] { publicId, entry.getKey(), now, total, now, now });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO purchase_orders (public_id, supplier_id, po_date, status, total_amount, "
+                + "created_at, updated_at) VALUES (?, ?, ?, 'DRAFT', ?, ?, ?)", orders);
+
+        Map<Long, Long> orderBySupplier = new TreeMap<>();
+        List<String> publicIds = new ArrayList<>(supplierByPublicId.keySet());
+        for (int i = 0; i < publicIds.size(); i += IN_CHUNK) {
+            List<String> chunk = publicIds.subList(i, Math.min(i + IN_CHUNK, publicIds.size()));
+            jdbcTemplate.query("SELECT id, public_id FROM purchase_orders WHERE public_id IN ("
+                    + placeholders(chunk.size()) + ")",
+                    rs -> {
+                        orderBySupplier.put(supplierByPublicId.get(rs.getString(2)), rs.getLong(1));
+                    }, chunk.toArray());
+        }
+
+        List<Object[]> items = new ArrayList<>(suggestions.size());
+        long units = 0;
+        double cost = 0;
+        for (Map.Entry<Long, List<Suggestion>> entry : bySupplier.entrySet()) {
+            Long orderId = orderBySupplier.get(entry.getKey());
+            for (Suggestion s : entry.getValue()) {
+                items.add(new Object[] { orderId, s.productId(), s.qty(), s.cost(), s.qty() * s.cost() });
+                units += s.qty();
+                cost += s.qty() * s.cost();
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO purchase_order_items (purchase_order_id, product_id, qty, unit_cost, "
+                + "line_total) VALUES (?, ?, ?, ?, ?)", items);
+        return new Drafts(new ArrayList<>(orderBySupplier.values()), withoutSupplier, units, cost);
+    }
+
+    // Drafts are locked in id order; anything that is missing or no longer a draft is skipped
+    private ReplenishmentDecisionResultDto decide(List<Long> ids, PurchaseOrder.Status target) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one purchase order id is required");
+        }
+        if (ids.size() > MAX_BULK) {
+            throw new IllegalArgumentException("At most " + MAX_BULK + " drafts per request");
+        }
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        List<Long> drafts = jdbcTemplate.queryForList("SELECT id FROM purchase_orders WHERE id IN ("
+                + placeholders(distinct.size()) + ") AND status = 'DRAFT' ORDER BY id FOR UPDATE", Long.class,
+                distinct.toArray());
+        if (!drafts.isEmpty()) {
+            List<Object> args = new ArrayList<>();
+            args.add(target.name());
+            args.add(LocalDateTime.now());
+            args.addAll(drafts);
+            jdbcTemplate.update("UPDATE purchase_orders SET status = ?, updated_at = ? WHERE id IN ("
+                    + placeholders(drafts.size()) + ")", args.toArray());
+        }
+        Set<Long> updated = new HashSet<>(drafts);
+        log.info("Replenishment drafts {}: {} of {}", target, drafts.size(), ids.size());
+        return ReplenishmentDecisionResultDto.builder()
+                .status(target)
+                .requested(ids.size())
+                .updated(drafts.size())
+                .skippedIds(distinct.stream().filter(id -> !updated.contains(id)).toList())
+                .build();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private record Suggestion(long productId, Long supplierId, long qty, double cost) {
+    }
+
+    private record Drafts(List<Long> ids, int withoutSupplier, long units, double cost) {
+    }
+}
@@ -0,0 +1,346 @@
+package com.grocersmart.service;
+
+import com.grocersmart.dto.DailySalesStatsDto;
+import com.grocersmart.dto.SalesArchiveRunDto;
+import com.grocersmart.dto.TopProductStatsDto;
+import com.grocersmart.entity.Product;
+import com.grocersmart.entity.SalesItem;
+import com.grocersmart.entity.SalesItemArchive;
+import com.grocersmart.entity.SalesRecord;
+import com.grocersmart.entity.SalesRecordArchive;
+import com.grocersmart.repository.SalesItemArchiveRepository;
+import com.grocersmart.repository.SalesRecordArchiveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+// History tiering for sales. Settled sales dated before the first of the month app.sales-archive.months back are
+// moved, month by month in chunks of CHUNK sales per transaction, from sales_records / sales_items into the
+// monthly-partitioned archive tables (V37). Open credit invoices, invoices with a cheque in flight and sales linked
+// to an order stay hot whatever their age, because aging, allocation, cheque bounces and orders still work on them;
+// they follow on a later run once settled. Reads ask reaches(from) and add the archive only when the range does.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesArchiveService {
+
+    private static final int CHUNK = 1000;
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    // Both tiers share these columns; sales_items_archive adds the parent's sales_date
+    static final String RECORD_COLUMNS = "id, public_id, invoice_id, sales_date, store_id, total_revenue, "
+            + "total_items_sold, payment_method, payment_status, due_date, paid_amount, days_overdue, cashier_id, "
+            + "is_deleted, deleted_at, deleted_by, credit_customer_id, note, created_at, updated_at";
+    static final String ITEM_COLUMNS = "id, sales_record_id, product_id, qty_sold, unit_price, line_total, "
+            + "product_name_snapshot, category_snapshot, unit_or_bulk, promotion_applied, discount_amount";
+
+    private static final String SETTLED = "COALESCE(s.is_deleted, FALSE) = FALSE "
+            + "AND (s.payment_method = 'CASH' OR s.payment_status = 'PAID') "
+            + "AND NOT EXISTS (SELECT 1 FROM orders o WHERE o.sales_record_id = s.id) "
+            + "AND NOT EXISTS (SELECT 1 FROM cheques c WHERE c.invoice_id = s.id "
+            + "AND c.status IN ('PENDING', 'DEPOSITED'))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SalesRecordArchiveRepository archiveRepository;
+    private final SalesItemArchiveRepository archiveItemRepository;
+
+    // Whole months kept in the hot tables
+    @Value("${app.sales-archive.months:24}")
+    private int months;
+
+    public SalesArchiveRunDto run(LocalDate asOf) {
+        if (months < 1) {
+            throw new IllegalArgumentException("app.sales-archive.months must be at least 1");
+        }
+        long started = System.currentTimeMillis();
+        LocalDate before = asOf.withDayOfMonth(1).minusMonths(months);
+        LocalDate first = jdbcTemplate.queryForObject("SELECT MIN(s.sales_date) FROM sales_records s "
+                + "WHERE s.sales_date < ? AND " + SETTLED, LocalDate.class, Date.valueOf(before));
+
+        int partitions = 0;
+        int monthsMoved = 0;
+        long records = 0;
+        long items = 0;
+        if (first != null) {
+            partitions = addPartitions(first.withDayOfMonth(1), before);
+            for (LocalDate month = first.withDayOfMonth(1); month.isBefore(before); month = month.plusMonths(1)) {
+                long[] moved = moveMonth(month);
+                records += moved[0];
+                items += moved[1];
+                monthsMoved += moved[0] > 0 ? 1 : 0;
+            }
+        }
+
+        SalesArchiveRunDto result = SalesArchiveRunDto.builder()
+                .timestamp(LocalDateTime.now())
+                .asOfDate(asOf)
+                .archivedBefore(before)
+                .months(monthsMoved)
+                .partitionsAdded(partitions)
+                .records(records)
+                .items(items)
+                .archivedThrough(archivedThrough())
+                .elapsedMs(System.currentTimeMillis() - started)
+                .build();
+        log.info("Sales archive before {}: {} sales and {} items from {} months moved ({} partitions added) in {} ms",
+                before, records, items, monthsMoved, partitions, result.getElapsedMs());
+        return result;
+    }
+
+    // Newest day in the archive, or null while it is empty
+    public LocalDate archivedThrough() {
+        return archiveRepository.findLastSalesDate();
+    }
+
+    // Whether a read starting at from (null = open start) can find sales in the archive
+    public boolean reaches(LocalDate from) {
+        LocalDate through = archivedThrough();
+        return through != null && (from == null || !from.isAfter(through));
+    }
+
+    // One archived sale with its items, by id or public id
+    @Transactional(readOnly = true)
+    public Optional<SalesRecord> findSale(Long id) {
+        return archiveRepository.findById(id).map(a -> toSalesRecord(a, true));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<SalesRecord> findSaleByPublicId(String publicId) {
+        return archiveRepository.findByPublicId(publicId).map(a -> toSalesRecord(a, true));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<SalesRecord> findSales(Specification<SalesRecordArchive> spec, Pageable pageable,
+            boolean withItems) {
+        return archiveRepository.findAll(spec, pageable).map(a -> toSalesRecord(a, withItems));
+    }
+
+    public long countSales(Specification<SalesRecordArchive> spec) {
+        return archiveRepository.count(spec);
+    }
+
+    // A sale id on one page of a list over both tiers, and whether the archive holds it
+    public record TierRow(long id, boolean archived) {
+    }
+
+    // One page of a sales list over both tiers: a UNION ALL of the matching rows of the two tables, sorted and cut
+    // by the database, with id as the last key in the direction of the last sort order so every row has one place.
+    // The filters are SalesSpecification's; sorting is on the columns the tiers share.
+    public List<TierRow> pageAcrossTiers(String search, SalesRecord.PaymentMethod method, Long storeId,
+            LocalDate from, LocalDate to, Pageable pageable) {
+        List<Object> filterArgs = new ArrayList<>();
+        List<String> filters = new ArrayList<>();
+        filters.add("1 = 1");
+        if (storeId != null) {
+            filters.add("store_id = ?");
+            filterArgs.add(storeId);
+        }
+        if (method != null) {
+            filters.add("payment_method = ?");
+            filterArgs.add(method.name());
+        }
+        if (from != null) {
+            filters.add("sales_date >= ?");
+            filterArgs.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            filters.add("sales_date <= ?");
+            filterArgs.add(Date.valueOf(to));
+        }
+        if (search != null && !search.isEmpty()) {
+            filters.add("(LOWER(invoice_id) LIKE ? OR LOWER(public_id) LIKE ?)");
+            String pattern = "%" + search.toLowerCase() + "%";
+            filterArgs.add(pattern);
+            filterArgs.add(pattern);
+        }
+        String where = String.join(" AND ", filters);
+
+        List<String> keys = new ArrayList<>();
+        List<String> orderBy = new ArrayList<>();
+        Sort.Direction last = Sort.Direction.ASC;
+        for (Sort.Order order : pageable.getSort()) {
+            if (order.getProperty().equals("id")) {
+                continue;
+            }
+            String column = sortColumn(order.getProperty());
+            keys.add(column + " AS k" + keys.size());
+            orderBy.add("k" + (keys.size() - 1) + " " + order.getDirection().name());
+            last = order.getDirection();
+        }
+        Sort.Order byId = pageable.getSort().getOrderFor("id");
+        orderBy.add("id " + (byId != null ? byId.getDirection() : last).name());
+        String select = String.join(", ", keys);
+        String columns = "id" + (select.isEmpty() ? "" : ", " + select);
+
+        List<Object> args = new ArrayList<>(filterArgs);
+        args.addAll(filterArgs);
+        args.add(pageable.getPageSize());
+        args.add(pageable.getOffset());
+        return jdbcTemplate.query("SELECT id, archived FROM ("
+                + "SELECT " + columns + ", 0 AS archived FROM sales_records WHERE " + where
+                + " UNION ALL SELECT " + columns + ", 1 AS archived FROM sales_records_archive WHERE " + where
+                + ") s ORDER BY " + String.join(", ", orderBy) + " LIMIT ? OFFSET ?",
+                (rs, i) -> new TierRow(rs.getLong(1), rs.getBoolean(2)), args.toArray());
+    }
+
+    // The shared column behind a SalesRecord property, e.g. salesDate -> sales_date
+    private static String sortColumn(String property) {
+        String column = property.replaceAll("([A-Z])", "_$1").toLowerCase();
+        if (!Arrays.asList(RECORD_COLUMNS.split(", ")).contains(column)) {
+            throw new IllegalArgumentException("Sales reaching into the archive cannot be sorted by " + property);
+        }
+        return column;
+    }
+
+    @Transactional(readOnly = true)
+    public List<SalesRecord> findSales(Specification<SalesRecordArchive> spec, Sort sort) {
+        return archiveRepository.findAll(spec, sort).stream().map(a -> toSalesRecord(a, false)).toList();
+    }
+
+    public List<DailySalesStatsDto> getDailySalesStats(Long storeId, LocalDate from, LocalDate to) {
+        return storeId != null ? archiveRepository.getDailySalesStatsForStore(storeId, from, to)
+                : archiveRepository.getDailySalesStats(from, to);
+    }
+
+    // Units and revenue per product over the range, unranked
+    public List<TopProductStatsDto> getProductTotals(Long storeId, LocalDate from, LocalDate to) {
+        return storeId != null ? archiveItemRepository.getProductTotalsForStore(storeId, from, to)
+                : archiveItemRepository.getProductTotals(from, to);
+    }
+
+    // A detached SalesRecord carrying the archived values, so mapping and report code serve both tiers unchanged.
+    // Items are copied only when asked for, which loads them (in batches) from the archive.
+    private SalesRecord toSalesRecord(SalesRecordArchive a, boolean withItems) {
+        SalesRecord s = new SalesRecord();
+        s.setId(a.getId());
+        s.setPublicId(a.getPublicId());
+        s.setInvoiceId(a.getInvoiceId());
+        s.setSalesDate(a.getSalesDate());
+        s.setStoreId(a.getStoreId());
+        s.setTotalRevenue(a.getTotalRevenue());
+        s.setTotalItemsSold(a.getTotalItemsSold());
+        s.setPaymentMethod(a.getPaymentMethod());
+        s.setPaymentStatus(a.getPaymentStatus());
+        s.setDueDate(a.getDueDate());
+        s.setPaidAmount(a.getPaidAmount());
+        s.setDaysOverdue(a.getDaysOverdue());
+        s.setCashierId(a.getCashierId());
+        s.setCreditCustomer(a.getCreditCustomer());
+        s.setNote(a.getNote());
+        s.setCreatedAt(a.getCreatedAt());
+        s.setUpdatedAt(a.getUpdatedAt());
+        if (withItems) {
+            for (SalesItemArchive ai : a.getItems()) {
+                SalesItem item = new SalesItem();
+                item.setId(ai.getId());
+                item.setSalesRecord(s);
+                Product product = new Product();
+                product.setId(ai.getProductId());
+                product.setName(ai.getProductNameSnapshot());
+                product.setCategory(ai.getCategorySnapshot());
+                item.setProduct(product);
+                item.setQtySold(ai.getQtySold());
+                item.setUnitPrice(ai.getUnitPrice());
+                item.setLineTotal(ai.getLineTotal());
+                item.setProductNameSnapshot(ai.getProductNameSnapshot());
+                item.setCategorySnapshot(ai.getCategorySnapshot());
+                item.setUnitOrBulk(ai.getUnitOrBulk());
+                item.setPromotionApplied(ai.getPromotionApplied());
+                item.setDiscountAmount(ai.getDiscountAmount());
+                s.getItems().add(item);
+            }
+        }
+        return s;
+    }
+
+    // One partition per month from..before that the archive does not have yet, split off the empty p_future in a
+    // single statement per table. Months older than the newest partition already fall inside an existing one.
+    private int addPartitions(LocalDate from, LocalDate before) {
+        List<String> existing = jdbcTemplate.queryForList("SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'sales_records_archive' "
+                + "AND PARTITION_NAME NOT IN ('p_before', 'p_future') ORDER BY PARTITION_NAME", String.class);
+        LocalDate start = from;
+        if (!existing.isEmpty()) {
+            String newest = existing.get(existing.size() - 1);
+            LocalDate next = LocalDate.of(Integer.parseInt(newest.substring(1, 5)),
+                    Integer.parseInt(newest.substring(5, 7)), 1).plusMonths(1);
+            start = next.isAfter(start) ? next : start;
+        }
+        List<String> definitions = new ArrayList<>();
+        for (LocalDate month = start; month.isBefore(before); month = month.plusMonths(1)) {
+            definitions.add("PARTITION " + month.format(PARTITION_NAME) + " VALUES LESS THAN ('"
+                    + month.plusMonths(1) + "')");
+        }
+        if (definitions.isEmpty()) {
+            return 0;
+        }
+        definitions.add("PARTITION p_future VALUES LESS THAN (MAXVALUE)");
+        for (String table : List.of("sales_records_archive", "sales_items_archive")) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION p_future INTO ("
+                    + String.join(", ", definitions) + ")");
+        }
+        return definitions.size() - 1;
+    }
+
+    // Moves the month's settled sales CHUNK at a time; returns {sales, items} moved
+    private long[] moveMonth(LocalDate month) {
+        Date from = Date.valueOf(month);
+        Date to = Date.valueOf(month.plusMonths(1));
+        long[] total = new long[2];
+        while (true) {
+            long[] moved = transactionTemplate.execute(status -> {
+                List<Long> ids = jdbcTemplate.queryForList("SELECT s.id FROM sales_records s "
+                        + "WHERE s.sales_date >= ? AND s.sales_date < ? AND " + SETTLED
+                        + " ORDER BY s.id LIMIT " + CHUNK + " FOR UPDATE", Long.class, from, to);
+                if (ids.isEmpty()) {
+                    return new long[2];
+                }
+                String in = String.join(",", Collections.nCopies(ids.size(), "?"));
+                Object[] args = ids.toArray();
+                int records = jdbcTemplate.update("INSERT INTO sales_records_archive (" + RECORD_COLUMNS + ") "
+                        + "SELECT " + RECORD_COLUMNS + " FROM sales_records WHERE id IN (" + in + ")", args);
+                // Archived items are shown from their snapshot alone, so a line written without one takes the
+                // product's current name and category
+                int items = jdbcTemplate.update("INSERT INTO sales_items_archive (" + ITEM_COLUMNS + ", sales_date) "
+                        + "SELECT " + prefixed("si.", ITEM_COLUMNS)
+                                .replace("si.product_name_snapshot", "COALESCE(si.product_name_snapshot, p.name)")
+                                .replace("si.category_snapshot", "COALESCE(si.category_snapshot, p.category)")
+                        + ", s.sales_date FROM sales_items si JOIN sales_records s ON s.id = si.sales_record_id "
+                        + "LEFT JOIN products p ON p.id = si.product_id WHERE si.sales_record_id IN (" + in + ")",
+                        args);
+                jdbcTemplate.update("DELETE FROM sales_items WHERE sales_record_id IN (" + in + ")", args);
+                jdbcTemplate.update("DELETE FROM sales_records WHERE id IN (" + in + ")", args);
+                return new long[] { records, items };
+            });
+            if (moved == null || moved[0] == 0) {
+                return total;
+            }
+            total[0] += moved[0];
+            total[1] += moved[1];
+        }
+    }
+
+    private static String prefixed(String alias, String columns) {
+        return Arrays.stream(columns.split(", ")).map(alias::concat).collect(Collectors.joining(", "));
+    }
+}
@@ -1,15 +1,19 @@
 package com.grocersmart.service;
 
+import com.grocersmart.common.EntityType;
 import com.grocersmart.dto.*;
 import com.grocersmart.entity.CreditCustomer;
+import com.grocersmart.entity.CreditLedgerEntry;
 import com.grocersmart.entity.Product;
 import com.grocersmart.entity.SalesItem;
 import com.grocersmart.entity.SalesRecord;
+import com.grocersmart.events.DomainEventPublisher;
+import com.grocersmart.events.SaleCreated;
 import com.grocersmart.repository.CreditCustomerRepository;
 import com.grocersmart.repository.ProductRepository;
 import com.grocersmart.repository.SalesItemRepository;
 import com.grocersmart.repository.SalesRecordRepository;
-import com.grocersmart.exception.CreditLimitExceededException;
+import com.grocersmart.specification.SalesSpecification;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,13 +21,21 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,22 +45,37 @@ public class SalesService {
     private final SalesItemRepository salesItemRepository;
     private final ProductRepository productRepository;
     private final CreditCustomerRepository creditCustomerRepository;
-    private final TrashSalesService trashSalesService; // Added trash service
+    private final TrashEngine trashEngine;
     private final PublicIdGeneratorService publicIdGeneratorService;
+    private final CreditLedgerService creditLedgerService;
+    private final CreditBalanceService creditBalanceService;
+    private final StoreService storeService;
+    private final SalesArchiveService salesArchiveService;
+    private final DomainEventPublisher eventPublisher;
 
     @Autowired
     public SalesService(SalesRecordRepository salesRecordRepository,
             SalesItemRepository salesItemRepository,
             ProductRepository productRepository,
             CreditCustomerRepository creditCustomerRepository,
-            TrashSalesService trashSalesService,
-            PublicIdGeneratorService publicIdGeneratorService) {
+            TrashEngine trashEngine,
+            PublicIdGeneratorService publicIdGeneratorService,
+            CreditLedgerService creditLedgerService,
+            CreditBalanceService creditBalanceService,
+            StoreService storeService,
+            SalesArchiveService salesArchiveService,
+            DomainEventPublisher eventPublisher) {
         this.salesRecordRepository = salesRecordRepository;
         this.salesItemRepository = salesItemRepository;
         this.productRepository = productRepository;
         this.creditCustomerRepository = creditCustomerRepository;
-        this.trashSalesService = trashSalesService;
+        this.trashEngine = trashEngine;
         this.publicIdGeneratorService = publicIdGeneratorService;
+        this.creditLedgerService = creditLedgerService;
+        this.creditBalanceService = creditBalanceService;
+        this.storeService = storeService;
+        this.salesArchiveService = salesArchiveService;
+        this.eventPublisher = eventPublisher;
     }
 
     // CREATE (Unchanged)
@@ -65,6 +92,7 @@ public class SalesService {
 
         record.setSalesDate(dto.getSalesDate());
         record.setNote(dto.getNote());
+        record.setStoreId(storeService.resolve(dto.getStoreId()));
 
         SalesRecord.PaymentMethod method = dto.getPaymentMethod() != null ? dto.getPaymentMethod()
                 : SalesRecord.PaymentMethod.CASH;
@@ -76,18 +104,8 @@ public class SalesService {
 
         if (dto.getItems() != null) {
             for (SalesItemDto itemDto : dto.getItems()) {
-                Product product = productRepository.findById(itemDto.getProductId())
-                        .orElseThrow(() -> new EntityNotFoundException(
-                                "Product not found with ID: " + itemDto.getProductId()));
-
-                SalesItem item = new SalesItem();
-                item.setProduct(product);
-                item.setQtySold(itemDto.getQtySold());
-                item.setUnitPrice(itemDto.getUnitPrice());
-
-                BigDecimal lineTotal = itemDto.getUnitPrice().multiply(new BigDecimal(itemDto.getQtySold()));
-                item.setLineTotal(lineTotal);
-
+                SalesItem item = toItem(itemDto);
+                BigDecimal lineTotal = item.getLineTotal();
                 item.setSalesRecord(record);
                 items.add(item);
 
@@ -100,32 +118,28 @@ public class SalesService {
         record.setTotalRevenue(totalRevenue);
         record.setTotalItemsSold(totalItemsSold);
 
+        BigDecimal creditBalance = null;
         if (method == SalesRecord.PaymentMethod.CREDIT) {
             if (dto.getCreditCustomerId() != null) {
+                // Limit check and balance change in one statement; throws CreditLimitExceededException
+                creditBalance = creditBalanceService.charge(dto.getCreditCustomerId(), totalRevenue);
                 CreditCustomer customer = creditCustomerRepository.findById(dto.getCreditCustomerId())
                         .orElseThrow(() -> new EntityNotFoundException("Credit Customer not found"));
 
-                double currentBalance = customer.getOutstandingBalance() != null ? customer.getOutstandingBalance()
-                        : 0.0;
-                double newBalance = currentBalance + totalRevenue.doubleValue();
-
-                if (newBalance > customer.getCreditLimit()) {
-                    throw new CreditLimitExceededException(
-                            "Credit limit exceeded",
-                            customer.getCreditLimit(),
-                            currentBalance,
-                            totalRevenue.doubleValue());
-                }
-
                 record.setCreditCustomer(customer);
-                customer.updateBalance(newBalance);
-                creditCustomerRepository.save(customer);
+                record.setDueDate(dueDate(record.getSalesDate(), customer));
             } else {
                 throw new IllegalArgumentException("Credit Customer is required for CREDIT sales");
             }
         }
 
         SalesRecord savedRecord = salesRecordRepository.save(record);
+        if (savedRecord.getCreditCustomer() != null) {
+            appendSale(savedRecord, creditBalance);
+        }
+        eventPublisher.publish(new SaleCreated(savedRecord.getId(), invoiceId, savedRecord.getStoreId(), method.name(),
+                savedRecord.getCreditCustomer() != null ? savedRecord.getCreditCustomer().getId() : null,
+                totalRevenue, totalItemsSold, savedRecord.getSalesDate()));
         return mapToDto(savedRecord);
     }
 
@@ -141,6 +155,10 @@ public class SalesService {
 
         record.setSalesDate(dto.getSalesDate());
         record.setNote(dto.getNote());
+        // A sale keeps its store unless the amendment names another one
+        if (dto.getStoreId() != null && !dto.getStoreId().equals(record.getStoreId())) {
+            record.setStoreId(storeService.resolve(dto.getStoreId()));
+        }
         if (dto.getPaymentMethod() != null) {
             record.setPaymentMethod(dto.getPaymentMethod());
         }
@@ -152,18 +170,8 @@ public class SalesService {
 
         if (dto.getItems() != null) {
             for (SalesItemDto itemDto : dto.getItems()) {
-                Product product = productRepository.findById(itemDto.getProductId())
-                        .orElseThrow(() -> new EntityNotFoundException(
-                                "Product not found with ID: " + itemDto.getProductId()));
-
-                SalesItem item = new SalesItem();
-                item.setProduct(product);
-                item.setQtySold(itemDto.getQtySold());
-                item.setUnitPrice(itemDto.getUnitPrice());
-
-                BigDecimal lineTotal = itemDto.getUnitPrice().multiply(new BigDecimal(itemDto.getQtySold()));
-                item.setLineTotal(lineTotal);
-
+                SalesItem item = toItem(itemDto);
+                BigDecimal lineTotal = item.getLineTotal();
                 item.setSalesRecord(record);
                 record.getItems().add(item);
 
@@ -176,42 +184,36 @@ public class SalesService {
         record.setTotalItemsSold(totalItemsSold);
 
         if (oldMethod == SalesRecord.PaymentMethod.CREDIT && oldCustomer != null) {
-            oldCustomer.updateBalance(oldCustomer.getOutstandingBalance() - oldRevenue.doubleValue());
-            creditCustomerRepository.save(oldCustomer);
+            BigDecimal balance = creditBalanceService.adjust(oldCustomer.getId(), oldRevenue.negate());
+            creditLedgerService.append(oldCustomer.getId(), CreditLedgerEntry.EntryType.SALE_REVERSAL, "SALE",
+                    record.getId(), "Sale amended: " + record.getInvoiceId(), BigDecimal.ZERO, oldRevenue, balance);
         }
 
+        BigDecimal creditBalance = null;
         if (record.getPaymentMethod() == SalesRecord.PaymentMethod.CREDIT) {
             Long customerId = dto.getCreditCustomerId() != null ? dto.getCreditCustomerId()
                     : (oldCustomer != null ? oldCustomer.getId() : null);
 
             if (customerId != null) {
+                creditBalance = creditBalanceService.charge(customerId, totalRevenue);
                 CreditCustomer newCustomer = creditCustomerRepository.findById(customerId)
                         .orElseThrow(() -> new EntityNotFoundException("Credit Customer not found"));
 
-                double currentBalance = newCustomer.getOutstandingBalance() != null
-                        ? newCustomer.getOutstandingBalance()
-                        : 0.0;
-                double newBalance = currentBalance + totalRevenue.doubleValue();
-
-                if (newBalance > newCustomer.getCreditLimit()) {
-                    throw new CreditLimitExceededException(
-                            "Credit limit exceeded",
-                            newCustomer.getCreditLimit(),
-                            currentBalance,
-                            totalRevenue.doubleValue());
-                }
-
                 record.setCreditCustomer(newCustomer);
-                newCustomer.updateBalance(newBalance);
-                creditCustomerRepository.save(newCustomer);
+                record.setDueDate(dueDate(record.getSalesDate(), newCustomer));
             } else {
                 throw new IllegalArgumentException("Credit Customer is required for CREDIT sales");
             }
         } else {
             record.setCreditCustomer(null);
+            record.setDueDate(null);
+            record.setDaysOverdue(0);
         }
 
         SalesRecord updatedRecord = salesRecordRepository.save(record);
+        if (updatedRecord.getCreditCustomer() != null) {
+            appendSale(updatedRecord, creditBalance);
+        }
         return mapToDto(updatedRecord);
     }
 
@@ -224,25 +226,43 @@ public class SalesService {
         // Revert Credit Balance BEFORE moving to trash
         if (record.getPaymentMethod() == SalesRecord.PaymentMethod.CREDIT && record.getCreditCustomer() != null) {
             CreditCustomer customer = record.getCreditCustomer();
-            customer.updateBalance(customer.getOutstandingBalance() - record.getTotalRevenue().doubleValue());
-            creditCustomerRepository.save(customer);
+            BigDecimal balance = creditBalanceService.adjust(customer.getId(), record.getTotalRevenue().negate());
+            creditLedgerService.append(customer.getId(), CreditLedgerEntry.EntryType.SALE_REVERSAL, "SALE",
+                    record.getId(), "Sale deleted: " + record.getInvoiceId(), BigDecimal.ZERO,
+                    record.getTotalRevenue(), balance);
+        }
+
+        // Move to the recycle bin
+        trashEngine.moveToTrash(EntityType.SALE, record, null, null);
+    }
+
+    // Aging counts days overdue from here; the nightly job fills it for older rows
+    private LocalDate dueDate(LocalDate salesDate, CreditCustomer customer) {
+        if (salesDate == null) {
+            return null;
         }
+        return salesDate.plusDays(customer.getPaymentTermsDays() != null ? customer.getPaymentTermsDays() : 30);
+    }
 
-        // Move to Trash using new service logic
-        trashSalesService.moveToTrash(record);
+    private void appendSale(SalesRecord record, BigDecimal balanceAfter) {
+        creditLedgerService.append(record.getCreditCustomer().getId(), CreditLedgerEntry.EntryType.SALE, "SALE",
+                record.getId(), "Sale: " + record.getInvoiceId(), record.getTotalRevenue(), BigDecimal.ZERO,
+                balanceAfter);
     }
 
-    // READ ONE (Unchanged)
+    // READ ONE: the hot tables first, then the archive
     @Transactional(readOnly = true)
     public SalesRecordDto getSalesRecord(Long id) {
-        SalesRecord record = salesRecordRepository.findById(id)
+        SalesRecord record = salesRecordRepository.findDetailedById(id)
+                .or(() -> salesArchiveService.findSale(id))
                 .orElseThrow(() -> new EntityNotFoundException("Sales record not found with ID: " + id));
         return mapToDto(record);
     }
 
     @Transactional(readOnly = true)
     public SalesRecordDto getSalesRecordByPublicId(String publicId) {
-        SalesRecord record = salesRecordRepository.findByPublicId(publicId)
+        SalesRecord record = salesRecordRepository.findDetailedByPublicId(publicId)
+                .or(() -> salesArchiveService.findSaleByPublicId(publicId))
                 .orElseThrow(() -> new EntityNotFoundException("Sales record not found with publicId: " + publicId));
         return mapToDto(record);
     }
@@ -250,11 +270,83 @@ public class SalesService {
     // READ ALL (Unchanged)
     // READ ALL (Modified)
     @Transactional(readOnly = true)
-    public Page<SalesRecordDto> getSalesRecords(String search, SalesRecord.PaymentMethod method, LocalDate from,
-            LocalDate to, Pageable pageable) {
-        return salesRecordRepository.findAll(
-                com.grocersmart.specification.SalesSpecification.filterBy(search, method, from, to),
-                pageable).map(this::mapToDto);
+    // List rows omit line items unless expandItems is set; items are then batch-loaded per page
+    // A range reaching back into the archive is paged by the database over both tiers, and only that page's sales
+    // are loaded from each; totals are the two counts added, the tiers never holding the same sale. Either way id
+    // is the last sort key, so rows with equal sort values keep their place from one page to the next.
+    public Page<SalesRecordDto> getSalesRecords(String search, SalesRecord.PaymentMethod method, Long storeId,
+            LocalDate from, LocalDate to, Pageable pageable, boolean expandItems) {
+        Specification<SalesRecord> spec = SalesSpecification.filterBy(search, method, storeId, from, to);
+        if (!salesArchiveService.reaches(from)) {
+            Pageable stable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                    withIdLast(pageable.getSort()));
+            return salesRecordRepository.findAll(spec, stable).map(record -> mapToDto(record, expandItems));
+        }
+        List<SalesArchiveService.TierRow> rows = salesArchiveService.pageAcrossTiers(search, method, storeId, from,
+                to, pageable);
+        List<Long> hotIds = rows.stream().filter(r -> !r.archived()).map(SalesArchiveService.TierRow::id).toList();
+        List<Long> archivedIds = rows.stream().filter(SalesArchiveService.TierRow::archived)
+                .map(SalesArchiveService.TierRow::id).toList();
+        Map<Long, SalesRecord> hot = new HashMap<>();
+        Map<Long, SalesRecord> archived = new HashMap<>();
+        if (!hotIds.isEmpty()) {
+            salesRecordRepository.findAll(idIn(hotIds), Pageable.unpaged()).forEach(r -> hot.put(r.getId(), r));
+        }
+        if (!archivedIds.isEmpty()) {
+            salesArchiveService.findSales(idIn(archivedIds), Pageable.unpaged(), expandItems)
+                    .forEach(r -> archived.put(r.getId(), r));
+        }
+        List<SalesRecordDto> content = rows.stream()
+                .map(r -> (r.archived() ? archived : hot).get(r.id()))
+                .filter(Objects::nonNull)
+                .map(record -> mapToDto(record, expandItems)).collect(Collectors.toList());
+        long total = salesRecordRepository.count(spec) + salesArchiveService.countSales(
+                SalesSpecification.filterBy(search, method, storeId, from, to));
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    // The line as sold, with the product's name and category as they are now; archived sales show these, since the
+    // product may be renamed or deleted after the sale
+    private SalesItem toItem(SalesItemDto itemDto) {
+        Product product = productRepository.findById(itemDto.getProductId())
+                .orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + itemDto.getProductId()));
+
+        SalesItem item = new SalesItem();
+        item.setProduct(product);
+        item.setQtySold(itemDto.getQtySold());
+        item.setUnitPrice(itemDto.getUnitPrice());
+        item.setLineTotal(itemDto.getUnitPrice().multiply(new BigDecimal(itemDto.getQtySold())));
+        item.setProductNameSnapshot(product.getName());
+        item.setCategorySnapshot(product.getCategory());
+        item.setUnitOrBulk(itemDto.getUnitOrBulk() != null ? Product.UnitType.valueOf(itemDto.getUnitOrBulk())
+                : Product.UnitType.UNIT);
+
+        // A line sold under the product's list price for its unit is a promotion unless the request says otherwise;
+        // the discount is what the line came to under list. The forecast reads the flag as its promo share.
+        Double list = item.getUnitOrBulk() == Product.UnitType.BULK ? product.getBulkPrice() : product.getUnitPrice();
+        BigDecimal underList = list == null ? BigDecimal.ZERO
+                : BigDecimal.valueOf(list).subtract(itemDto.getUnitPrice()).max(BigDecimal.ZERO)
+                        .multiply(new BigDecimal(itemDto.getQtySold())).setScale(2, RoundingMode.HALF_UP);
+        boolean promotion = itemDto.getPromotionApplied() != null ? itemDto.getPromotionApplied()
+                : underList.signum() > 0;
+        item.setPromotionApplied(promotion);
+        item.setDiscountAmount(itemDto.getDiscountAmount() != null ? itemDto.getDiscountAmount()
+                : promotion ? underList : BigDecimal.ZERO);
+        return item;
+    }
+
+    // The list's sort with id added as the last key, in the direction of the last order
+    private static Sort withIdLast(Sort sort) {
+        if (sort.getOrderFor("id") != null) {
+            return sort;
+        }
+        Sort.Direction last = sort.stream().reduce((a, b) -> b).map(Sort.Order::getDirection)
+                .orElse(Sort.Direction.ASC);
+        return sort.and(Sort.by(last, "id"));
+    }
+
+    private static <T> Specification<T> idIn(List<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
     }
 
     @Transactional(readOnly = true)
@@ -266,17 +358,56 @@ public class SalesService {
 
     // ANALYTICS (Unchanged)
     @Transactional(readOnly = true)
-    public List<DailySalesStatsDto> getDailySalesStats(LocalDate from, LocalDate to) {
-        return salesRecordRepository.getDailySalesStats(from, to);
+    public List<DailySalesStatsDto> getDailySalesStats(Long storeId, LocalDate from, LocalDate to) {
+        List<DailySalesStatsDto> stats = storeId != null
+                ? salesRecordRepository.getDailySalesStatsForStore(storeId, from, to)
+                : salesRecordRepository.getDailySalesStats(from, to);
+        if (!salesArchiveService.reaches(from)) {
+            return stats;
+        }
+        // A day can have sales in both tiers (those kept hot while open)
+        Map<LocalDate, DailySalesStatsDto> byDay = new TreeMap<>();
+        for (DailySalesStatsDto day : salesArchiveService.getDailySalesStats(storeId, from, to)) {
+            byDay.put(day.getDate(), day);
+        }
+        for (DailySalesStatsDto day : stats) {
+            byDay.merge(day.getDate(), day, (a, b) -> new DailySalesStatsDto(a.getDate(),
+                    a.getTotalRevenue().add(b.getTotalRevenue()), a.getTotalItemsSold() + b.getTotalItemsSold()));
+        }
+        return new ArrayList<>(byDay.values());
     }
 
     @Transactional(readOnly = true)
-    public List<TopProductStatsDto> getTopProducts(LocalDate from, LocalDate to, int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        return salesItemRepository.getTopSellingProducts(from, to, pageable);
+    public List<TopProductStatsDto> getTopProducts(Long storeId, LocalDate from, LocalDate to, int limit) {
+        if (!salesArchiveService.reaches(from)) {
+            Pageable pageable = PageRequest.of(0, limit);
+            return storeId != null ? salesItemRepository.getTopSellingProductsForStore(storeId, from, to, pageable)
+                    : salesItemRepository.getTopSellingProducts(from, to, pageable);
+        }
+        // Every product's totals from both tiers, added up per product before ranking
+        Pageable all = Pageable.unpaged();
+        List<TopProductStatsDto> hot = storeId != null
+                ? salesItemRepository.getTopSellingProductsForStore(storeId, from, to, all)
+                : salesItemRepository.getTopSellingProducts(from, to, all);
+        Map<Long, TopProductStatsDto> byProduct = new HashMap<>();
+        for (TopProductStatsDto product : salesArchiveService.getProductTotals(storeId, from, to)) {
+            byProduct.put(product.getProductId(), product);
+        }
+        for (TopProductStatsDto product : hot) {
+            byProduct.merge(product.getProductId(), product, (a, b) -> new TopProductStatsDto(a.getProductId(),
+                    b.getProductName(), a.getTotalQtySold() + b.getTotalQtySold(),
+                    a.getTotalRevenue().add(b.getTotalRevenue())));
+        }
+        return byProduct.values().stream()
+                .sorted(Comparator.comparing(TopProductStatsDto::getTotalRevenue).reversed())
+                .limit(limit).collect(Collectors.toList());
     }
 
-    private SalesRecordDto mapToDto(SalesRecord entity) {
+    SalesRecordDto mapToDto(SalesRecord entity) {
+        return mapToDto(entity, true);
+    }
+
+    SalesRecordDto mapToDto(SalesRecord entity, boolean includeItems) {
         SalesRecordDto dto = new SalesRecordDto();
         dto.setId(entity.getId());
         dto.setPublicId(entity.getPublicId());
@@ -286,20 +417,30 @@ public class SalesService {
         dto.setTotalItemsSold(entity.getTotalItemsSold());
         dto.setPaymentMethod(entity.getPaymentMethod());
         dto.setNote(entity.getNote());
+        dto.setStoreId(entity.getStoreId());
 
         if (entity.getCreditCustomer() != null) {
             dto.setCreditCustomerId(entity.getCreditCustomer().getId());
         }
 
+        if (!includeItems) {
+            return dto;
+        }
+
         List<SalesItemDto> itemDtos = entity.getItems().stream().map(item -> {
             SalesItemDto itemDto = new SalesItemDto();
             itemDto.setId(item.getId());
             itemDto.setSalesRecordId(entity.getId());
+            // The id comes from the FK; the snapshot spares loading the product row
             itemDto.setProductId(item.getProduct().getId());
-            itemDto.setProductName(item.getProduct().getName());
+            itemDto.setProductName(item.getProductNameSnapshot() != null ? item.getProductNameSnapshot()
+                    : item.getProduct().getName());
             itemDto.setQtySold(item.getQtySold());
             itemDto.setUnitPrice(item.getUnitPrice());
             itemDto.setLineTotal(item.getLineTotal());
+            itemDto.setUnitOrBulk(item.getUnitOrBulk() != null ? item.getUnitOrBulk().name() : null);
+            itemDto.setPromotionApplied(item.getPromotionApplied());
+            itemDto.setDiscountAmount(item.getDiscountAmount());
             return itemDto;
         }).collect(Collectors.toList());
 
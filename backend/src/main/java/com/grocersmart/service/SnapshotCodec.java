@@ -0,0 +1,202 @@
+package com.grocersmart.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.github.luben.zstd.Zstd;
+import com.grocersmart.entity.Cheque;
+import com.grocersmart.entity.CreditCustomer;
+import com.grocersmart.entity.Order;
+import com.grocersmart.entity.Product;
+import com.grocersmart.entity.PurchaseOrder;
+import com.grocersmart.entity.SalesItem;
+import com.grocersmart.entity.SalesRecord;
+import com.grocersmart.entity.Supplier;
+import com.grocersmart.entity.User;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Recycle-bin snapshots. Version 2 (current) keeps the entity's own columns and writes references to other
+// aggregates as their id only: a sale stores "creditCustomer": 17, not the customer. Its child rows (sale
+// items) stay inline. The JSON is compressed with zstd into the snapshot BLOB. Version 1 rows are the
+// uncompressed full-graph JSON in snapshot_json; they still restore, and V30 converts existing ones.
+// Unknown fields are ignored and missing ones keep the entity defaults, so a snapshot still restores after
+// columns are added or dropped.
+@Service
+public class SnapshotCodec {
+
+    public static final int LEGACY_JSON = 1;
+    public static final int CURRENT_VERSION = 2;
+
+    private static final int ZSTD_LEVEL = 3;
+    private static final int DISPLAY_LENGTH = 255;
+
+    private final ObjectMapper legacy;
+    private final ObjectMapper compact;
+
+    public SnapshotCodec(ObjectMapper objectMapper) {
+        this.legacy = objectMapper;
+        this.compact = objectMapper.copy()
+                .addMixIn(SalesRecord.class, SalesRecordSnapshot.class)
+                .addMixIn(SalesItem.class, SalesItemSnapshot.class)
+                .addMixIn(Order.class, OrderSnapshot.class)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    public byte[] encode(Object entity) {
+        try {
+            return Zstd.compress(compact.writeValueAsBytes(entity), ZSTD_LEVEL);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    public <T> T decode(byte[] snapshot, int version, String legacyJson, Class<T> type) {
+        try {
+            return switch (version) {
+                case LEGACY_JSON -> legacy.readValue(legacyJson, type);
+                case CURRENT_VERSION -> compact.readValue(decompress(snapshot), type);
+                default -> throw new IllegalStateException("Snapshot version " + version
+                        + " is newer than this build can restore");
+            };
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    // Readable form for detail views
+    public String toJson(byte[] snapshot, int version, String legacyJson) {
+        return version == LEGACY_JSON ? legacyJson : new String(decompress(snapshot), StandardCharsets.UTF_8);
+    }
+
+    // Display name stored next to the snapshot (entity_name), so trash listings never decode snapshots
+    public String nameOf(Object entity) {
+        String name;
+        if (entity instanceof User user) {
+            name = user.getFullName() + " (" + user.getUsername() + ")";
+        } else if (entity instanceof Product product) {
+            name = product.getName();
+        } else if (entity instanceof Supplier supplier) {
+            name = supplier.getName();
+        } else if (entity instanceof CreditCustomer customer) {
+            name = customer.getName();
+        } else if (entity instanceof SalesRecord record) {
+            name = record.getPublicId() != null ? record.getPublicId() : "Sale #" + record.getId();
+        } else if (entity instanceof Cheque cheque) {
+            name = cheque.getPublicId() != null ? cheque.getPublicId() : "Cheque #" + cheque.getId();
+        } else if (entity instanceof Order order) {
+            name = order.getPublicId() != null ? order.getPublicId() : "Order #" + order.getId();
+        } else if (entity instanceof PurchaseOrder po) {
+            name = po.getPublicId() != null ? po.getPublicId() : "PO #" + po.getId();
+        } else {
+            throw new IllegalArgumentException("No trash snapshot for " + entity.getClass().getSimpleName());
+        }
+        return clip(name);
+    }
+
+    // One-line summary stored next to the snapshot (summary column)
+    public String summaryOf(Object entity) {
+        if (entity instanceof User user) {
+            return join(user.getRole(), user.getPhone());
+        } else if (entity instanceof Product product) {
+            return join(product.getCategory(), product.getUnitPrice());
+        } else if (entity instanceof Supplier supplier) {
+            return join(supplier.getPhone(), supplier.getEmail());
+        } else if (entity instanceof CreditCustomer customer) {
+            return join(customer.getPhone(), "Outstanding " + customer.getOutstandingBalance());
+        } else if (entity instanceof SalesRecord record) {
+            return join(record.getInvoiceId(), record.getPaymentMethod(), record.getTotalRevenue(),
+                    record.getItems() != null ? record.getItems().size() + " items" : null);
+        } else if (entity instanceof Cheque cheque) {
+            return join(cheque.getChequeNumber(), cheque.getBankName(), cheque.getAmount(), cheque.getStatus());
+        } else if (entity instanceof Order order) {
+            return join(order.getInvoiceNo(), order.getStatus(), order.getTotalAmount());
+        } else if (entity instanceof PurchaseOrder po) {
+            return join(po.getStatus(), po.getTotalAmount());
+        }
+        throw new IllegalArgumentException("No trash snapshot for " + entity.getClass().getSimpleName());
+    }
+
+    private static String join(Object... parts) {
+        return clip(Stream.of(parts).filter(Objects::nonNull).map(String::valueOf).collect(Collectors.joining(" · ")));
+    }
+
+    private static String clip(String value) {
+        return value != null && value.length() > DISPLAY_LENGTH ? value.substring(0, DISPLAY_LENGTH) : value;
+    }
+
+    private static byte[] decompress(byte[] snapshot) {
+        return Zstd.decompress(snapshot, (int) Zstd.decompressedSize(snapshot));
+    }
+
+    private abstract static class SalesRecordSnapshot {
+        @JsonSerialize(using = IdReferenceSerializer.class)
+        @JsonDeserialize(using = IdReferenceDeserializer.class)
+        private CreditCustomer creditCustomer;
+    }
+
+    private abstract static class SalesItemSnapshot {
+        @JsonSerialize(using = IdReferenceSerializer.class)
+        @JsonDeserialize(using = IdReferenceDeserializer.class)
+        private Product product;
+    }
+
+    private abstract static class OrderSnapshot {
+        @JsonSerialize(using = IdReferenceSerializer.class)
+        @JsonDeserialize(using = IdReferenceDeserializer.class)
+        private SalesRecord salesRecord;
+
+        @JsonSerialize(using = IdReferenceSerializer.class)
+        @JsonDeserialize(using = IdReferenceDeserializer.class)
+        private CreditCustomer creditCustomer;
+    }
+
+    // Writes an associated entity as its id. Reading a lazy proxy's id does not initialise it.
+    static class IdReferenceSerializer extends JsonSerializer<Object> {
+        @Override
+        public void serialize(Object value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeObject(new BeanWrapperImpl(value).getPropertyValue("id"));
+        }
+    }
+
+    // Reads an id back as an instance of the property's type carrying only that id, which JPA treats as a
+    // reference to the existing row
+    static class IdReferenceDeserializer extends JsonDeserializer<Object> implements ContextualDeserializer {
+        private final Class<?> type;
+
+        IdReferenceDeserializer() {
+            this(null);
+        }
+
+        private IdReferenceDeserializer(Class<?> type) {
+            this.type = type;
+        }
+
+        @Override
+        public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) {
+            return new IdReferenceDeserializer(property.getType().getRawClass());
+        }
+
+        @Override
+        public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            BeanWrapperImpl reference = new BeanWrapperImpl(type);
+            reference.setPropertyValue("id", p.getLongValue());
+            return reference.getWrappedInstance();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.grocersmart.service;
+
+import com.grocersmart.cache.ChangeCounters;
+import com.grocersmart.cache.CountedTable;
+import com.grocersmart.dto.StoreStockDto;
+import com.grocersmart.events.DomainEventPublisher;
+import com.grocersmart.events.StockChanged;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Stock per store. product_stock holds each store's quantities; products.unit_qty / bulk_qty are the chain-wide
+// totals, moved by the same amount in the same transaction. Every change is an atomic increment or a conditional
+// decrement, always store row first and product row second, so concurrent tills and deliveries neither lose
+// updates nor deadlock on each other. Every change is also published as a StockChanged event.
+@Service
+@RequiredArgsConstructor
+public class StockService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DomainEventPublisher eventPublisher;
+    private final ChangeCounters changeCounters;
+
+    public record StockLine(long storeId, long productId, long qty) {
+    }
+
+    // Takes qty units from one store only if that store holds them; false leaves everything untouched
+    @Transactional
+    public boolean take(long storeId, long productId, int qty) {
+        int taken = jdbcTemplate.update("UPDATE product_stock SET unit_qty = unit_qty - ?, "
+                + "updated_at = CURRENT_TIMESTAMP WHERE store_id = ? AND product_id = ? AND unit_qty >= ?",
+                qty, storeId, productId, qty);
+        if (taken == 0) {
+            return false;
+        }
+        jdbcTemplate.update("UPDATE products SET unit_qty = unit_qty - ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?",
+                qty, productId);
+        changeCounters.touch(CountedTable.PRODUCTS);
+        eventPublisher.publish(new StockChanged(storeId, productId, -qty, 0));
+        return true;
+    }
+
+    // Adds received units: one batch of store rows in (store, product) order, then one batch of product totals
+    // in product order
+    @Transactional
+    public void receive(List<StockLine> lines, LocalDateTime now) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        Timestamp at = Timestamp.valueOf(now);
+        List<Object[]> storeRows = new ArrayList<>(lines.size());
+        Map<Long, Long> perProduct = new TreeMap<>();
+        lines.stream().sorted(Comparator.comparingLong(StockLine::storeId).thenComparingLong(StockLine::productId))
+                .forEach(line -> {
+                    storeRows.add(new Object[] { line.storeId(), line.productId(), line.qty(), at });
+                    perProduct.merge(line.productId(), line.qty(), Long::sum);
+                });
+        jdbcTemplate.batchUpdate("INSERT INTO product_stock (store_id, product_id, unit_qty, updated_at) "
+                + "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE unit_qty = unit_qty + VALUES(unit_qty), "
+                + "updated_at = VALUES(updated_at)", storeRows);
+        List<Object[]> totals = new ArrayList<>(perProduct.size());
+        perProduct.forEach((productId, qty) -> totals.add(new Object[] { qty, at, productId }));
+        jdbcTemplate.batchUpdate("UPDATE products SET unit_qty = unit_qty + ?, updated_at = ? WHERE id = ?", totals);
+        changeCounters.touch(CountedTable.PRODUCTS);
+        eventPublisher.publishAll(lines.stream().map(line -> new StockChanged(line.storeId(), line.productId(),
+                line.qty(), 0)).toList());
+    }
+
+    // Moves one store's quantities and the product's totals by the given amounts, store row first: stock
+    // corrections and bulk-to-unit conversion. Refuses to take the store below zero.
+    @Transactional
+    public void adjust(long storeId, long productId, int unitDelta, double bulkDelta) {
+        if (unitDelta == 0 && bulkDelta == 0) {
+            return;
+        }
+        moveStoreRow(storeId, productId, unitDelta, bulkDelta);
+        jdbcTemplate.update("UPDATE products SET unit_qty = unit_qty + ?, bulk_qty = bulk_qty + ?, "
+                + "updated_at = CURRENT_TIMESTAMP WHERE id = ?", unitDelta, bulkDelta, productId);
+        changeCounters.touch(CountedTable.PRODUCTS);
+        eventPublisher.publish(new StockChanged(storeId, productId, unitDelta, bulkDelta));
+    }
+
+    // Puts a product's opening stock in one store, for callers that have just inserted the product with those
+    // quantities as its totals (new products, imports)
+    @Transactional
+    public void applyToStore(long storeId, long productId, int unitQty, double bulkQty) {
+        if (unitQty == 0 && bulkQty == 0) {
+            return;
+        }
+        moveStoreRow(storeId, productId, unitQty, bulkQty);
+        eventPublisher.publish(new StockChanged(storeId, productId, unitQty, bulkQty));
+    }
+
+    private void moveStoreRow(long storeId, long productId, int unitDelta, double bulkDelta) {
+        jdbcTemplate.update("INSERT IGNORE INTO product_stock (store_id, product_id) VALUES (?, ?)", storeId,
+                productId);
+        int updated = jdbcTemplate.update("UPDATE product_stock SET unit_qty = unit_qty + ?, bulk_qty = bulk_qty + ?, "
+                + "updated_at = CURRENT_TIMESTAMP WHERE store_id = ? AND product_id = ? "
+                + "AND unit_qty + ? >= 0 AND bulk_qty + ? >= 0",
+                unitDelta, bulkDelta, storeId, productId, unitDelta, bulkDelta);
+        if (updated == 0) {
+            throw new IllegalArgumentException("Store " + storeId + " does not hold enough stock of product "
+                    + productId);
+        }
+    }
+
+    public int available(long storeId, long productId) {
+        List<Integer> qty = jdbcTemplate.queryForList("SELECT unit_qty FROM product_stock "
+                + "WHERE store_id = ? AND product_id = ?", Integer.class, storeId, productId);
+        return qty.isEmpty() ? 0 : qty.get(0);
+    }
+
+    // Unit and bulk quantity per product id, for one store
+    public Map<Long, double[]> levels(long storeId) {
+        Map<Long, double[]> levels = new TreeMap<>();
+        jdbcTemplate.query("SELECT product_id, unit_qty, bulk_qty FROM product_stock WHERE store_id = ?",
+                rs -> {
+                    levels.put(rs.getLong(1), new double[] { rs.getInt(2), rs.getDouble(3) });
+                }, storeId);
+        return levels;
+    }
+
+    // A store's stock by product, in product id order; products never stocked there are not listed
+    public Page<StoreStockDto> getStoreStock(long storeId, int page, int size) {
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_stock ps "
+                + "JOIN products p ON p.id = ps.product_id WHERE ps.store_id = ?", Long.class, storeId);
+        List<StoreStockDto> rows = jdbcTemplate.query("SELECT ps.product_id, p.public_id, p.name, p.category, "
+                + "ps.unit_qty, ps.bulk_qty, p.reorder_level, ps.updated_at FROM product_stock ps "
+                + "JOIN products p ON p.id = ps.product_id WHERE ps.store_id = ? "
+                + "ORDER BY ps.product_id LIMIT ? OFFSET ?", (rs, i) -> {
+                    StoreStockDto dto = new StoreStockDto();
+                    dto.setStoreId(storeId);
+                    dto.setProductId(rs.getLong(1));
+                    dto.setProductPublicId(rs.getString(2));
+                    dto.setProductName(rs.getString(3));
+                    dto.setCategory(rs.getString(4));
+                    dto.setUnitQty(rs.getInt(5));
+                    dto.setBulkQty(rs.getDouble(6));
+                    dto.setReorderLevel(rs.getObject(7, Integer.class));
+                    Timestamp updatedAt = rs.getTimestamp(8);
+                    dto.setUpdatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null);
+                    return dto;
+                }, storeId, size, (long) page * size);
+        return new PageImpl<>(rows, PageRequest.of(page, size), total != null ? total : 0);
+    }
+}
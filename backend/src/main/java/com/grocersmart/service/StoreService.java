@@ -0,0 +1,74 @@
+package com.grocersmart.service;
+
+import com.grocersmart.dto.StoreDto;
+import com.grocersmart.entity.Store;
+import com.grocersmart.repository.StoreRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class StoreService {
+
+    private final StoreRepository storeRepository;
+
+    public List<StoreDto> getStores() {
+        return storeRepository.findAllByOrderByIdAsc().stream().map(this::mapToDto).toList();
+    }
+
+    @Transactional
+    public StoreDto createStore(StoreDto dto) {
+        if (dto.getCode() == null || dto.getCode().isBlank() || dto.getName() == null || dto.getName().isBlank()) {
+            throw new IllegalArgumentException("Store code and name are required");
+        }
+        if (storeRepository.existsByCodeIgnoreCase(dto.getCode().trim())) {
+            throw new IllegalArgumentException("Store code already in use: " + dto.getCode());
+        }
+        Store store = new Store();
+        store.setCode(dto.getCode().trim().toUpperCase());
+        store.setName(dto.getName().trim());
+        return mapToDto(storeRepository.save(store));
+    }
+
+    @Transactional
+    public StoreDto updateStore(Long id, StoreDto dto) {
+        Store store = storeRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Store not found"));
+        if (dto.getName() != null && !dto.getName().isBlank()) {
+            store.setName(dto.getName().trim());
+        }
+        if (dto.getStatus() != null) {
+            if (dto.getStatus() == Store.Status.CLOSED && store.getId() == Store.MAIN_ID) {
+                throw new IllegalArgumentException("The main store cannot be closed");
+            }
+            store.setStatus(dto.getStatus());
+        }
+        return mapToDto(storeRepository.save(store));
+    }
+
+    // The store a new sale, order or purchase order is booked to: the one named, which has to be open, or MAIN
+    public long resolve(Long storeId) {
+        if (storeId == null) {
+            return Store.MAIN_ID;
+        }
+        Store store = storeRepository.findById(storeId)
+                .orElseThrow(() -> new EntityNotFoundException("Store not found: " + storeId));
+        if (store.getStatus() != Store.Status.ACTIVE) {
+            throw new IllegalArgumentException("Store " + store.getCode() + " is closed");
+        }
+        return store.getId();
+    }
+
+    private StoreDto mapToDto(Store s) {
+        StoreDto dto = new StoreDto();
+        dto.setId(s.getId());
+        dto.setCode(s.getCode());
+        dto.setName(s.getName());
+        dto.setStatus(s.getStatus());
+        dto.setCreatedAt(s.getCreatedAt());
+        return dto;
+    }
+}
@@ -1,5 +1,6 @@
 package com.grocersmart.service;
 
+import com.grocersmart.common.EntityType;
 import com.grocersmart.dto.SupplierDto;
 import com.grocersmart.entity.Supplier;
 import com.grocersmart.repository.SupplierRepository;
@@ -16,7 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class SupplierService {
 
     private final SupplierRepository supplierRepository;
-    private final TrashSupplierService trashSupplierService;
+    private final TrashEngine trashEngine;
     private final PublicIdGeneratorService publicIdGeneratorService;
 
     public SupplierDto createSupplier(SupplierDto dto) {
@@ -69,7 +70,7 @@ public class SupplierService {
 
     public void deleteSupplier(Long id) {
         // Use trash system to archive and delete
-        trashSupplierService.archiveAndDelete(id, "Deleted via API", null);
+        trashEngine.archiveAndDelete(EntityType.SUPPLIER, id, "Deleted via API", null);
     }
 
     @Transactional(readOnly = true)
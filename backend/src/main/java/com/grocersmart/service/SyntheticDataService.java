@@ -0,0 +1,712 @@
+package com.grocersmart.service;
+
+import com.grocersmart.cache.ChangeCounters;
+import com.grocersmart.cache.CountedTable;
+import com.grocersmart.common.EntityType;
+import com.grocersmart.dto.DataGenerationRequest;
+import com.grocersmart.dto.DataGenerationResultDto;
+import com.grocersmart.entity.Store;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Generates multi-year store history (catalogue, credit customers, sales, payments, cheques and
+// purchase orders) straight through JDBC batches. Every random draw comes from one seeded
+// SplittableRandom, so a given seed and parameter set reproduces the same dataset on an empty DB.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SyntheticDataService {
+
+    private static final int BATCH_SIZE = 5000;
+
+    private static final String[] BRANDS = { "Araliya", "Anchor", "Maliban", "Munchee", "Sunlight", "Keells",
+            "Harischandra", "Prima", "Elephant House", "Dilmah", "Lakspray", "Astra", "Kist", "MD", "Highland" };
+    private static final String[] BANKS = { "Bank of Ceylon", "People's Bank", "Commercial Bank", "Sampath Bank",
+            "HNB", "NSB", "Seylan Bank", "DFCC Bank" };
+    private static final String[] BOUNCE_REASONS = { "Insufficient funds", "Signature mismatch",
+            "Account closed", "Payment stopped by drawer", "Post-dated beyond validity" };
+    private static final String[] TOWNS = { "Colombo", "Kandy", "Galle", "Kurunegala", "Negombo", "Matara",
+            "Jaffna", "Anuradhapura", "Ratnapura", "Badulla" };
+    private static final String[] FIRST_NAMES = { "Nimal", "Kamal", "Sunil", "Chaminda", "Ruwan", "Saman",
+            "Dilani", "Kumari", "Ishara", "Tharindu", "Nadeesha", "Mahesh", "Fathima", "Rajesh", "Priya" };
+    private static final String[] LAST_NAMES = { "Perera", "Fernando", "Silva", "Jayasinghe", "Bandara",
+            "Wickramasinghe", "Rajapaksa", "Dissanayake", "Herath", "Mohamed", "Kumar", "Gunawardena" };
+
+    // Mon..Sun demand multipliers
+    private static final double[] WEEKDAY_FACTOR = { 0.9, 0.88, 0.93, 0.97, 1.08, 1.3, 1.18 };
+
+    private static final Category[] CATEGORIES = {
+            new Category("Rice & Grains", new String[] { "Samba Rice", "Nadu Rice", "Red Rice", "Basmati Rice",
+                    "Keeri Samba", "Dhal", "Green Gram", "Chickpeas" }, 180, 1400, new int[] { 5, 10, 25 }, 3.0),
+            new Category("Dairy", new String[] { "Milk Powder", "Fresh Milk", "Yoghurt", "Butter", "Cheese Slices",
+                    "Curd" }, 90, 1600, new int[] { 6, 12, 24 }, 2.4),
+            new Category("Beverages", new String[] { "Tea", "Green Tea", "Coffee", "Cream Soda", "Ginger Beer",
+                    "Malt Drink", "Mineral Water" }, 70, 1800, new int[] { 12, 24 }, 2.0),
+            new Category("Bakery", new String[] { "Bread", "Cream Crackers", "Marie Biscuit", "Chocolate Biscuit",
+                    "Cake", "Rusks" }, 60, 900, new int[] { 12, 24, 48 }, 2.2),
+            new Category("Spices", new String[] { "Chilli Powder", "Curry Powder", "Turmeric", "Pepper", "Salt",
+                    "Cinnamon", "Mustard Seeds" }, 50, 700, new int[] { 10, 20, 50 }, 1.4),
+            new Category("Oils", new String[] { "Coconut Oil", "Vegetable Oil", "Sunflower Oil", "Margarine",
+                    "Ghee" }, 250, 2600, new int[] { 6, 12 }, 1.2),
+            new Category("Sugar & Flour", new String[] { "Sugar", "Brown Sugar", "Wheat Flour", "Rice Flour",
+                    "Kurakkan Flour" }, 120, 900, new int[] { 10, 25, 50 }, 2.1),
+            new Category("Snacks", new String[] { "Noodles", "Potato Chips", "Murukku", "Cashew Nuts",
+                    "Chocolate Bar", "Toffee" }, 40, 1200, new int[] { 12, 24, 48 }, 1.6),
+            new Category("Household", new String[] { "Soap", "Washing Powder", "Dishwash Liquid", "Floor Cleaner",
+                    "Matches", "Candles", "Tissue Roll" }, 45, 1500, new int[] { 6, 12, 24, 72 }, 1.5),
+            new Category("Personal Care", new String[] { "Shampoo", "Toothpaste", "Body Lotion", "Talcum Powder",
+                    "Hair Oil", "Face Wash" }, 90, 1900, new int[] { 6, 12, 24 }, 1.1),
+            new Category("Produce", new String[] { "Onions", "Potatoes", "Garlic", "Coconut", "Lime", "Green Chillies",
+                    "Carrots" }, 40, 800, new int[] { 10, 25 }, 1.8),
+            new Category("Frozen", new String[] { "Chicken Sausages", "Fish Fingers", "Ice Cream", "Frozen Peas",
+                    "Meatballs" }, 250, 2200, new int[] { 6, 12 }, 0.7)
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PublicIdGeneratorService publicIdGeneratorService;
+    private final CreditLedgerService creditLedgerService;
+    private final ChangeCounters changeCounters;
+
+    public DataGenerationResultDto generate(DataGenerationRequest request) {
+        validate(request);
+        long started = System.currentTimeMillis();
+        SplittableRandom random = new SplittableRandom(request.getSeed());
+        LocalDate to = request.getEndDate() != null ? request.getEndDate() : LocalDate.now().minusDays(1);
+        LocalDate from = to.minusYears(request.getYears()).plusDays(1);
+        Map<String, Long> rowCounts = new LinkedHashMap<>();
+
+        log.info("Generating synthetic data {} .. {} (seed={}, products={}, customers={}, salesPerDay={})", from, to,
+                request.getSeed(), request.getProducts(), request.getCustomers(), request.getSalesPerDay());
+
+        long firstSupplierId = insertSuppliers(random, request.getSuppliers(), from, rowCounts);
+        Catalogue catalogue = insertProducts(random, request.getProducts(), request.getSuppliers(), firstSupplierId,
+                from, rowCounts);
+        Customers customers = insertCustomers(random, request.getCustomers(), from, rowCounts);
+        insertSales(random, request, catalogue, customers, from, to, rowCounts);
+        insertPurchaseOrders(random, catalogue, firstSupplierId, request.getSuppliers(), from, to, rowCounts);
+        updateCustomerTotals(customers);
+        // Rows above bypass the services, so the ledger is derived from the generated history in one pass
+        rowCounts.put("credit_ledger", (long) creditLedgerService.rebuild(customers.firstId,
+                customers.firstId + customers.count - 1));
+        changeCounters.touch(CountedTable.values());
+
+        long elapsed = System.currentTimeMillis() - started;
+        log.info("Synthetic data generated in {} ms: {}", elapsed, rowCounts);
+        return DataGenerationResultDto.builder()
+                .timestamp(LocalDateTime.now())
+                .seed(request.getSeed())
+                .fromDate(from)
+                .toDate(to)
+                .rowCounts(rowCounts)
+                .elapsedMs(elapsed)
+                .build();
+    }
+
+    private void validate(DataGenerationRequest request) {
+        if (request.getYears() < 1 || request.getYears() > 20) {
+            throw new IllegalArgumentException("years must be between 1 and 20");
+        }
+        if (request.getProducts() < 1 || request.getCustomers() < 1 || request.getSuppliers() < 1) {
+            throw new IllegalArgumentException("products, customers and suppliers must be at least 1");
+        }
+        if (request.getSalesPerDay() < 1 || request.getSalesPerDay() > 100_000) {
+            throw new IllegalArgumentException("salesPerDay must be between 1 and 100000");
+        }
+        if (request.getCreditSaleRatio() < 0 || request.getCreditSaleRatio() > 1) {
+            throw new IllegalArgumentException("creditSaleRatio must be between 0 and 1");
+        }
+    }
+
+    private long insertSuppliers(SplittableRandom random, int count, LocalDate from, Map<String, Long> rowCounts) {
+        long firstId = nextId("suppliers");
+        long firstPublic = publicIdGeneratorService.reserveBlock(EntityType.SUPPLIER, count);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String brand = BRANDS[i % BRANDS.length];
+            String town = TOWNS[random.nextInt(TOWNS.length)];
+            rows.add(new Object[] { firstId + i, PublicIdGeneratorService.format(EntityType.SUPPLIER, firstPublic + i),
+                    brand + " Distributors " + town + (i >= BRANDS.length ? " " + (i / BRANDS.length + 1) : ""),
+                    phone(random), (10 + random.nextInt(300)) + ", Main Street, " + town,
+                    "orders" + (i + 1) + "@" + brand.toLowerCase().replace(" ", "") + ".lk",
+                    Timestamp.valueOf(from.atStartOfDay()) });
+        }
+        batchInsert("INSERT INTO suppliers (id, public_id, name, phone, address, email, status, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, 'ACTIVE', ?)", rows);
+        rowCounts.put("suppliers", (long) count);
+        return firstId;
+    }
+
+    private Catalogue insertProducts(SplittableRandom random, int count, int suppliers, long firstSupplierId,
+            LocalDate from, Map<String, Long> rowCounts) {
+        Catalogue catalogue = new Catalogue(nextId("products"), count);
+        long firstPublic = publicIdGeneratorService.reserveBlock(EntityType.PRODUCT, count);
+        double totalCategoryWeight = Arrays.stream(CATEGORIES).mapToDouble(Category::demandWeight).sum();
+
+        List<Object[]> rows = new ArrayList<>(Math.min(count, BATCH_SIZE));
+        double cumulative = 0;
+        for (int i = 0; i < count; i++) {
+            Category category = pickCategory(random, totalCategoryWeight);
+            String item = category.items()[random.nextInt(category.items().length)];
+            String brand = BRANDS[random.nextInt(BRANDS.length)];
+            double unitPrice = round2(category.minPrice()
+                    + random.nextDouble() * random.nextDouble() * (category.maxPrice() - category.minPrice()));
+            int unitsPerBulk = category.packSizes()[random.nextInt(category.packSizes().length)];
+            // Bulk packs carry a 5-12% discount over single units; cost sits 12-30% under shelf price
+            double bulkPrice = round2(unitPrice * unitsPerBulk * (0.88 + random.nextDouble() * 0.07));
+            double purchasePrice = round2(unitPrice * (0.70 + random.nextDouble() * 0.18));
+            int reorderLevel = 5 + random.nextInt(46);
+
+            catalogue.names[i] = brand + " " + item + " " + (i + 1);
+            catalogue.categories[i] = category.name();
+            catalogue.unitPrice[i] = unitPrice;
+            catalogue.bulkPrice[i] = bulkPrice;
+            catalogue.purchasePrice[i] = purchasePrice;
+            catalogue.unitsPerBulk[i] = unitsPerBulk;
+            catalogue.supplierIndex[i] = random.nextInt(suppliers);
+            // Zipf-like popularity: a small head of products drives most of the volume
+            cumulative += category.demandWeight() / Math.pow(1 + random.nextInt(count), 0.8);
+            catalogue.cumulativeWeight[i] = cumulative;
+
+            rows.add(new Object[] { catalogue.firstId + i, PublicIdGeneratorService.format(EntityType.PRODUCT,
+                    firstPublic + i), catalogue.names[i], category.name(), "UNIT",
+                    unitPrice, bulkPrice, purchasePrice, unitsPerBulk, reorderLevel + random.nextInt(400),
+                    (double) random.nextInt(40), reorderLevel, firstSupplierId + catalogue.supplierIndex[i],
+                    Timestamp.valueOf(from.atStartOfDay()) });
+            if (rows.size() >= BATCH_SIZE) {
+                flushProducts(rows);
+            }
+        }
+        flushProducts(rows);
+        // Generated stock sits in the main store
+        jdbcTemplate.update("INSERT INTO product_stock (store_id, product_id, unit_qty, bulk_qty) "
+                + "SELECT ?, id, unit_qty, bulk_qty FROM products WHERE id BETWEEN ? AND ?", Store.MAIN_ID,
+                catalogue.firstId, catalogue.firstId + count - 1);
+        rowCounts.put("products", (long) count);
+        return catalogue;
+    }
+
+    private void flushProducts(List<Object[]> rows) {
+        batchInsert("INSERT INTO products (id, public_id, name, category, unit_type, unit_price, bulk_price, "
+                + "purchase_price, units_per_bulk, unit_qty, bulk_qty, reorder_level, supplier_id, status, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 'ACTIVE', ?)", rows);
+        rows.clear();
+    }
+
+    private Customers insertCustomers(SplittableRandom random, int count, LocalDate from,
+            Map<String, Long> rowCounts) {
+        Customers customers = new Customers(nextId("credit_customers"), count);
+        long firstPublic = publicIdGeneratorService.reserveBlock(EntityType.CREDIT_CUSTOMER, count);
+        List<Object[]> rows = new ArrayList<>(Math.min(count, BATCH_SIZE));
+        for (int i = 0; i < count; i++) {
+            PaymentBehaviour behaviour = PaymentBehaviour.pick(random);
+            customers.behaviour[i] = behaviour;
+            customers.paymentTerms[i] = new int[] { 14, 30, 30, 30, 45, 60 }[random.nextInt(6)];
+            customers.creditLimit[i] = 50_000 + 10_000 * random.nextInt(96);
+
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            if (random.nextInt(4) == 0) {
+                name = name + " Stores";
+            }
+            rows.add(new Object[] { customers.firstId + i,
+                    PublicIdGeneratorService.format(EntityType.CREDIT_CUSTOMER, firstPublic + i), name,
+                    phone(random), (1 + random.nextInt(400)) + ", Temple Road, " + TOWNS[random.nextInt(TOWNS.length)],
+                    customers.creditLimit[i], customers.creditLimit[i], customers.paymentTerms[i],
+                    Timestamp.valueOf(from.atStartOfDay()) });
+            if (rows.size() >= BATCH_SIZE) {
+                flushCustomers(rows);
+            }
+        }
+        flushCustomers(rows);
+        rowCounts.put("credit_customers", (long) count);
+        return customers;
+    }
+
+    private void flushCustomers(List<Object[]> rows) {
+        batchInsert("INSERT INTO credit_customers (id, public_id, name, phone, address, credit_limit, "
+                + "outstanding_balance, available_credit, payment_terms_days, customer_type, status, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?, 'CREDIT', 'ACTIVE', ?)", rows);
+        rows.clear();
+    }
+
+    private void insertSales(SplittableRandom random, DataGenerationRequest request, Catalogue catalogue,
+            Customers customers, LocalDate from, LocalDate to, Map<String, Long> rowCounts) {
+        // Archived sales keep their ids, so new ids start past both tiers
+        SalesBatch batch = new SalesBatch(Math.max(nextId("sales_records"), nextId("sales_records_archive")),
+                Math.max(nextId("sales_items"), nextId("sales_items_archive")), nextId("credit_payments"),
+                nextId("cheques"));
+        int years = request.getYears();
+        long totalDays = ChronoUnit.DAYS.between(from, to) + 1;
+
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            double yearsElapsed = (double) ChronoUnit.DAYS.between(from, day) / 365.0;
+            // Growth trend across the window, a mild annual wave, weekday shape and festival peaks
+            double factor = (1 + 0.08 * (yearsElapsed - years / 2.0))
+                    * (1 + 0.1 * Math.sin(2 * Math.PI * (day.getDayOfYear() - 80) / 365.0))
+                    * WEEKDAY_FACTOR[day.getDayOfWeek().getValue() - 1]
+                    * festivalFactor(day)
+                    * (0.9 + random.nextDouble() * 0.2);
+            int salesToday = Math.max(1, (int) Math.round(request.getSalesPerDay() * factor));
+
+            for (int s = 0; s < salesToday; s++) {
+                LocalDateTime soldAt = day.atTime(8 + random.nextInt(13), random.nextInt(60), random.nextInt(60));
+                boolean credit = random.nextDouble() < request.getCreditSaleRatio();
+                addSale(random, batch, catalogue, customers, soldAt, credit, to);
+                if (batch.records.size() >= BATCH_SIZE) {
+                    flushSales(batch);
+                }
+            }
+            if (ChronoUnit.DAYS.between(from, day) % 90 == 89) {
+                log.info("Synthetic data: {} of {} days, {} sales so far", ChronoUnit.DAYS.between(from, day) + 1,
+                        totalDays, batch.recordCount);
+            }
+        }
+        flushSales(batch);
+
+        rowCounts.put("sales_records", batch.recordCount);
+        rowCounts.put("sales_items", batch.itemCount);
+        rowCounts.put("credit_payments", batch.paymentCount);
+        rowCounts.put("cheques", batch.chequeCount);
+    }
+
+    private void addSale(SplittableRandom random, SalesBatch batch, Catalogue catalogue, Customers customers,
+            LocalDateTime soldAt, boolean credit, LocalDate to) {
+        long recordId = batch.nextRecordId++;
+        // Credit buyers are shops restocking, so their baskets are bigger
+        int lines = credit ? 3 + random.nextInt(12) : 1 + geometric(random, 0.35, 14);
+        BigDecimal total = BigDecimal.ZERO;
+        int itemsSold = 0;
+        for (int l = 0; l < lines; l++) {
+            int p = catalogue.pick(random);
+            boolean bulk = catalogue.unitsPerBulk[p] > 1 && random.nextDouble() < (credit ? 0.35 : 0.04);
+            int qty = bulk ? 1 + random.nextInt(credit ? 4 : 2) : 1 + geometric(random, 0.55, 11);
+            BigDecimal unitPrice = BigDecimal.valueOf(bulk ? catalogue.bulkPrice[p] : catalogue.unitPrice[p]);
+            BigDecimal lineTotal = unitPrice.multiply(BigDecimal.valueOf(qty)).setScale(2, RoundingMode.HALF_UP);
+            batch.items.add(new Object[] { batch.nextItemId++, recordId, catalogue.firstId + p, qty, unitPrice,
+                    lineTotal, catalogue.names[p], catalogue.categories[p], bulk ? "BULK" : "UNIT" });
+            total = total.add(lineTotal);
+            itemsSold += qty;
+        }
+        batch.itemCount += lines;
+
+        Long customerId = null;
+        Date dueDate = null;
+        BigDecimal paid = total;
+        String status = "PAID";
+        int daysOverdue = 0;
+        if (credit) {
+            int c = random.nextInt(customers.count);
+            customerId = customers.firstId + c;
+            LocalDate due = soldAt.toLocalDate().plusDays(customers.paymentTerms[c]);
+            dueDate = Date.valueOf(due);
+            paid = addPayments(random, batch, customers, c, recordId, soldAt.toLocalDate(), total, to);
+            status = paid.compareTo(total) >= 0 ? "PAID" : paid.signum() > 0 ? "PARTIAL" : "UNPAID";
+            if (!"PAID".equals(status) && due.isBefore(to)) {
+                daysOverdue = (int) ChronoUnit.DAYS.between(due, to);
+            }
+            customers.purchases[c] += total.doubleValue();
+            customers.outstanding[c] += total.subtract(paid).doubleValue();
+        }
+
+        batch.records.add(new Object[] { recordId, null, null, Date.valueOf(soldAt.toLocalDate()), total, itemsSold,
+                credit ? "CREDIT" : "CASH", customerId, dueDate, paid, status, daysOverdue,
+                Timestamp.valueOf(soldAt) });
+        batch.recordCount++;
+    }
+
+    // Settles a credit invoice according to the customer's behaviour; returns the amount that
+    // actually cleared by the end of the window (pending and bounced cheques don't count)
+    private BigDecimal addPayments(SplittableRandom random, SalesBatch batch, Customers customers, int c,
+            long invoiceId, LocalDate soldOn, BigDecimal total, LocalDate to) {
+        PaymentBehaviour behaviour = customers.behaviour[c];
+        double share = behaviour.settledShare(random);
+        if (share <= 0) {
+            return BigDecimal.ZERO;
+        }
+        int instalments = behaviour == PaymentBehaviour.PROMPT ? 1 : 1 + random.nextInt(3);
+        BigDecimal toSettle = total.multiply(BigDecimal.valueOf(share)).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal cleared = BigDecimal.ZERO;
+        BigDecimal remaining = toSettle;
+        LocalDate payDate = soldOn;
+        long customerId = customers.firstId + c;
+
+        for (int i = 0; i < instalments && remaining.signum() > 0; i++) {
+            payDate = payDate.plusDays(behaviour.minDelay + random.nextInt(behaviour.maxDelay - behaviour.minDelay + 1));
+            if (payDate.isAfter(to)) {
+                break;
+            }
+            BigDecimal amount = i == instalments - 1 ? remaining
+                    : remaining.divide(BigDecimal.valueOf(instalments - i), 2, RoundingMode.HALF_UP);
+            remaining = remaining.subtract(amount);
+
+            String method = random.nextDouble() < behaviour.chequeShare ? "CHEQUE"
+                    : random.nextInt(5) == 0 ? "BANK" : "CASH";
+            String paymentStatus = "SUCCESS";
+            if ("CHEQUE".equals(method)) {
+                paymentStatus = addCheque(random, batch, behaviour, customerId, invoiceId, payDate, amount, to);
+            }
+            if ("SUCCESS".equals(paymentStatus)) {
+                cleared = cleared.add(amount);
+                customers.paid[c] += amount.doubleValue();
+                if (customers.lastPayment[c] == null || payDate.isAfter(customers.lastPayment[c])) {
+                    customers.lastPayment[c] = payDate;
+                }
+            }
+            batch.payments.add(new Object[] { batch.nextPaymentId++, customerId, amount.doubleValue(),
+                    Timestamp.valueOf(payDate.atTime(10 + random.nextInt(8), random.nextInt(60))),
+                    "Invoice settlement", invoiceId, method, paymentStatus });
+            batch.paymentCount++;
+        }
+        return cleared;
+    }
+
+    private String addCheque(SplittableRandom random, SalesBatch batch, PaymentBehaviour behaviour,
+            long customerId, long invoiceId, LocalDate issued, BigDecimal amount, LocalDate to) {
+        LocalDate due = issued.plusDays(random.nextInt(22));
+        String chequeStatus;
+        String paymentStatus;
+        LocalDate depositDate = null;
+        LocalDate clearedDate = null;
+        LocalDate bouncedDate = null;
+        String bounceReason = null;
+        if (due.isAfter(to)) {
+            chequeStatus = "PENDING";
+            paymentStatus = "PENDING";
+        } else if (due.plusDays(3).isAfter(to)) {
+            chequeStatus = "DEPOSITED";
+            paymentStatus = "PENDING";
+            depositDate = due;
+        } else if (random.nextDouble() < behaviour.bounceRate) {
+            chequeStatus = "BOUNCED";
+            paymentStatus = "BOUNCED";
+            depositDate = due;
+            bouncedDate = due.plusDays(2);
+            bounceReason = BOUNCE_REASONS[random.nextInt(BOUNCE_REASONS.length)];
+        } else {
+            chequeStatus = "CLEARED";
+            paymentStatus = "SUCCESS";
+            depositDate = due;
+            clearedDate = due.plusDays(2);
+        }
+        batch.cheques.add(new Object[] { batch.nextChequeId++, null, String.format("%06d", random.nextInt(1_000_000)),
+                customerId, BANKS[random.nextInt(BANKS.length)], amount.doubleValue(), Date.valueOf(issued),
+                Date.valueOf(due), chequeStatus, invoiceId, toSqlDate(depositDate), toSqlDate(clearedDate),
+                toSqlDate(bouncedDate), bounceReason, bouncedDate != null, Timestamp.valueOf(issued.atTime(11, 0)) });
+        batch.chequeCount++;
+        return paymentStatus;
+    }
+
+    private void flushSales(SalesBatch batch) {
+        if (!batch.records.isEmpty()) {
+            long firstPublic = publicIdGeneratorService.reserveBlock(EntityType.SALE, batch.records.size());
+            long firstInvoice = publicIdGeneratorService.reserveInvoiceBlock(batch.records.size());
+            for (int i = 0; i < batch.records.size(); i++) {
+                Object[] row = batch.records.get(i);
+                row[1] = PublicIdGeneratorService.format(EntityType.SALE, firstPublic + i);
+                row[2] = String.format("#%04d", firstInvoice + i);
+            }
+            batchInsert("INSERT INTO sales_records (id, public_id, invoice_id, sales_date, total_revenue, "
+                    + "total_items_sold, payment_method, credit_customer_id, due_date, paid_amount, payment_status, "
+                    + "days_overdue, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch.records);
+        }
+        batchInsert("INSERT INTO sales_items (id, sales_record_id, product_id, qty_sold, unit_price, line_total, "
+                + "product_name_snapshot, category_snapshot, unit_or_bulk) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                batch.items);
+        batchInsert("INSERT INTO credit_payments (id, customer_id, amount, payment_date, note, invoice_id, "
+                + "payment_method, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch.payments);
+        if (!batch.cheques.isEmpty()) {
+            long firstPublic = publicIdGeneratorService.reserveBlock(EntityType.CHEQUE, batch.cheques.size());
+            for (int i = 0; i < batch.cheques.size(); i++) {
+                batch.cheques.get(i)[1] = PublicIdGeneratorService.format(EntityType.CHEQUE, firstPublic + i);
+            }
+            batchInsert("INSERT INTO cheques (id, public_id, cheque_number, customer_id, bank_name, amount, "
+                    + "issue_date, due_date, status, invoice_id, deposit_date, cleared_date, bounced_date, "
+                    + "bounce_reason, migrated_to_debt, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch.cheques);
+        }
+        batch.records.clear();
+        batch.items.clear();
+        batch.payments.clear();
+        batch.cheques.clear();
+    }
+
+    // Each supplier gets a weekly restocking order for a handful of the products it carries
+    private void insertPurchaseOrders(SplittableRandom random, Catalogue catalogue, long firstSupplierId,
+            int suppliers, LocalDate from, LocalDate to, Map<String, Long> rowCounts) {
+        List<List<Integer>> productsBySupplier = new ArrayList<>(suppliers);
+        for (int s = 0; s < suppliers; s++) {
+            productsBySupplier.add(new ArrayList<>());
+        }
+        for (int p = 0; p < catalogue.count; p++) {
+            productsBySupplier.get(catalogue.supplierIndex[p]).add(p);
+        }
+
+        long orderId = nextId("purchase_orders");
+        long itemId = nextId("purchase_order_items");
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        long orderCount = 0;
+        long itemCount = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            for (int s = 0; s < suppliers; s++) {
+                List<Integer> carried = productsBySupplier.get(s);
+                if (carried.isEmpty() || (day.toEpochDay() + s) % 7 != 0) {
+                    continue;
+                }
+                long id = orderId++;
+                int lines = Math.min(carried.size(), 3 + random.nextInt(10));
+                double total = 0;
+                for (int l = 0; l < lines; l++) {
+                    int p = carried.get(random.nextInt(carried.size()));
+                    int qty = catalogue.unitsPerBulk[p] * (1 + random.nextInt(20));
+                    double lineTotal = round2(catalogue.purchasePrice[p] * qty);
+                    items.add(new Object[] { itemId++, id, catalogue.firstId + p, qty, catalogue.purchasePrice[p],
+                            lineTotal });
+                    total += lineTotal;
+                }
+                itemCount += lines;
+                long age = ChronoUnit.DAYS.between(day, to);
+                String status = age > 10 ? (random.nextInt(20) == 0 ? "CANCELLED" : "RECEIVED")
+                        : age > 3 ? "SENT" : "CREATED";
+                orders.add(new Object[] { id, null, firstSupplierId + s, Timestamp.valueOf(day.atTime(9, 0)), status,
+                        round2(total), Timestamp.valueOf(day.atTime(9, 0)) });
+                orderCount++;
+                if (orders.size() >= BATCH_SIZE) {
+                    flushPurchaseOrders(orders, items);
+                }
+            }
+        }
+        flushPurchaseOrders(orders, items);
+        rowCounts.put("purchase_orders", orderCount);
+        rowCounts.put("purchase_order_items", itemCount);
+    }
+
+    private void flushPurchaseOrders(List<Object[]> orders, List<Object[]> items) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        long firstPublic = publicIdGeneratorService.reserveBlock(EntityType.PURCHASE_ORDER, orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            orders.get(i)[1] = PublicIdGeneratorService.format(EntityType.PURCHASE_ORDER, firstPublic + i);
+        }
+        batchInsert("INSERT INTO purchase_orders (id, public_id, supplier_id, po_date, status, total_amount, "
+                + "created_at) VALUES (?, ?, ?, ?, ?, ?, ?)", orders);
+        batchInsert("INSERT INTO purchase_order_items (id, purchase_order_id, product_id, qty, unit_cost, "
+                + "line_total) VALUES (?, ?, ?, ?, ?, ?)", items);
+        orders.clear();
+        items.clear();
+    }
+
+    // Balances are accumulated in memory while generating, then written back in one batch.
+    // Limits are raised where a customer's history pushed them over, as the store would have done.
+    private void updateCustomerTotals(Customers customers) {
+        List<Object[]> rows = new ArrayList<>(customers.count);
+        for (int c = 0; c < customers.count; c++) {
+            double outstanding = round2(customers.outstanding[c]);
+            double limit = Math.max(customers.creditLimit[c], Math.ceil(outstanding * 1.25 / 10_000) * 10_000);
+            rows.add(new Object[] { round2(customers.purchases[c]), round2(customers.paid[c]), outstanding, limit,
+                    round2(limit - outstanding), toSqlDate(customers.lastPayment[c]), customers.firstId + c });
+        }
+        batchInsert("UPDATE credit_customers SET total_purchases = ?, total_paid = ?, outstanding_balance = ?, "
+                + "credit_limit = ?, available_credit = ?, last_payment_date = ? WHERE id = ?", rows);
+    }
+
+    private void batchInsert(String sql, List<Object[]> rows) {
+        for (int i = 0; i < rows.size(); i += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(i, Math.min(rows.size(), i + BATCH_SIZE)));
+        }
+    }
+
+    // Explicit ids let children reference parents inside the same batch without reading keys back
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return (max != null ? max : 0) + 1;
+    }
+
+    private static double festivalFactor(LocalDate day) {
+        int month = day.getMonthValue();
+        int dayOfMonth = day.getDayOfMonth();
+        if (month == 4 && dayOfMonth <= 14) {
+            return 1.6; // Sinhala and Tamil New Year shopping
+        }
+        if (month == 12 && dayOfMonth >= 10) {
+            return 1.4; // Christmas / year-end
+        }
+        if (month == 1 && dayOfMonth <= 15) {
+            return 0.85;
+        }
+        return 1.0;
+    }
+
+    private static Category pickCategory(SplittableRandom random, double totalWeight) {
+        double target = random.nextDouble() * totalWeight;
+        for (Category category : CATEGORIES) {
+            target -= category.demandWeight();
+            if (target <= 0) {
+                return category;
+            }
+        }
+        return CATEGORIES[CATEGORIES.length - 1];
+    }
+
+    private static int geometric(SplittableRandom random, double p, int max) {
+        int n = 0;
+        while (n < max && random.nextDouble() > p) {
+            n++;
+        }
+        return n;
+    }
+
+    private static String phone(SplittableRandom random) {
+        return String.format("07%d%07d", random.nextInt(10), random.nextInt(10_000_000));
+    }
+
+    private static Date toSqlDate(LocalDate date) {
+        return date != null ? Date.valueOf(date) : null;
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private record Category(String name, String[] items, double minPrice, double maxPrice, int[] packSizes,
+            double demandWeight) {
+    }
+
+    private enum PaymentBehaviour {
+        // weight, delay range (days), cheque share, bounce rate
+        PROMPT(45, 3, 25, 0.30, 0.01),
+        SLOW(30, 25, 75, 0.40, 0.05),
+        PARTIAL(15, 10, 60, 0.30, 0.08),
+        DEFAULTER(10, 45, 180, 0.50, 0.25);
+
+        private final int weight;
+        private final int minDelay;
+        private final int maxDelay;
+        private final double chequeShare;
+        private final double bounceRate;
+
+        PaymentBehaviour(int weight, int minDelay, int maxDelay, double chequeShare, double bounceRate) {
+            this.weight = weight;
+            this.minDelay = minDelay;
+            this.maxDelay = maxDelay;
+            this.chequeShare = chequeShare;
+            this.bounceRate = bounceRate;
+        }
+
+        static PaymentBehaviour pick(SplittableRandom random) {
+            int target = random.nextInt(100);
+            for (PaymentBehaviour behaviour : values()) {
+                target -= behaviour.weight;
+                if (target < 0) {
+                    return behaviour;
+                }
+            }
+            return PROMPT;
+        }
+
+        // Fraction of an invoice this kind of customer eventually tries to settle
+        double settledShare(SplittableRandom random) {
+            return switch (this) {
+                case PROMPT, SLOW -> 1.0;
+                case PARTIAL -> 0.5 + random.nextDouble() * 0.4;
+                case DEFAULTER -> random.nextInt(3) == 0 ? 1.0 : random.nextDouble() * 0.5;
+            };
+        }
+    }
+
+    private static class Catalogue {
+        private final long firstId;
+        private final int count;
+        private final String[] names;
+        private final String[] categories;
+        private final double[] unitPrice;
+        private final double[] bulkPrice;
+        private final double[] purchasePrice;
+        private final int[] unitsPerBulk;
+        private final int[] supplierIndex;
+        private final double[] cumulativeWeight;
+
+        Catalogue(long firstId, int count) {
+            this.firstId = firstId;
+            this.count = count;
+            this.names = new String[count];
+            this.categories = new String[count];
+            this.unitPrice = new double[count];
+            this.bulkPrice = new double[count];
+            this.purchasePrice = new double[count];
+            this.unitsPerBulk = new int[count];
+            this.supplierIndex = new int[count];
+            this.cumulativeWeight = new double[count];
+        }
+
+        // Popularity-weighted pick via binary search over the cumulative weights
+        int pick(SplittableRandom random) {
+            double target = random.nextDouble() * cumulativeWeight[count - 1];
+            int index = Arrays.binarySearch(cumulativeWeight, target);
+            return index >= 0 ? index : Math.min(count - 1, -index - 1);
+        }
+    }
+
+    private static class Customers {
+        private final long firstId;
+        private final int count;
+        private final PaymentBehaviour[] behaviour;
+        private final int[] paymentTerms;
+        private final double[] creditLimit;
+        private final double[] purchases;
+        private final double[] paid;
+        private final double[] outstanding;
+        private final LocalDate[] lastPayment;
+
+        Customers(long firstId, int count) {
+            this.firstId = firstId;
+            this.count = count;
+            this.behaviour = new PaymentBehaviour[count];
+            this.paymentTerms = new int[count];
+            this.creditLimit = new double[count];
+            this.purchases = new double[count];
+            this.paid = new double[count];
+            this.outstanding = new double[count];
+            this.lastPayment = new LocalDate[count];
+        }
+    }
+
+    private static class SalesBatch {
+        private long nextRecordId;
+        private long nextItemId;
+        private long nextPaymentId;
+        private long nextChequeId;
+        private long recordCount;
+        private long itemCount;
+        private long paymentCount;
+        private long chequeCount;
+        private final List<Object[]> records = new ArrayList<>(BATCH_SIZE);
+        private final List<Object[]> items = new ArrayList<>(BATCH_SIZE * 4);
+        private final List<Object[]> payments = new ArrayList<>();
+        private final List<Object[]> cheques = new ArrayList<>();
+
+        SalesBatch(long nextRecordId, long nextItemId, long nextPaymentId, long nextChequeId) {
+            this.nextRecordId = nextRecordId;
+            this.nextItemId = nextItemId;
+            this.nextPaymentId = nextPaymentId;
+            this.nextChequeId = nextChequeId;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.grocersmart.service;
+
+import com.grocersmart.common.EntityType;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+// What the trash engine needs to know about one entity type: its deleted_* table, how to read the live row's ids,
+// and how a decoded snapshot becomes a live row again. keepsId types restore under their original id and refuse
+// while that id is taken; the others are saved as new rows by toRestore.
+record TrashAdapter<T>(
+        EntityType type,
+        String table,
+        Class<T> entityClass,
+        JpaRepository<T, Long> repository,
+        Function<T, Long> idOf,
+        Function<T, String> publicIdOf,
+        UnaryOperator<T> toRestore,
+        boolean keepsId) {
+
+    static <T> TrashAdapter<T> keepingId(EntityType type, String table, Class<T> entityClass,
+            JpaRepository<T, Long> repository, Function<T, Long> idOf, Function<T, String> publicIdOf) {
+        return new TrashAdapter<>(type, table, entityClass, repository, idOf, publicIdOf, UnaryOperator.identity(),
+                true);
+    }
+
+    static <T> TrashAdapter<T> asNewRow(EntityType type, String table, Class<T> entityClass,
+            JpaRepository<T, Long> repository, Function<T, Long> idOf, Function<T, String> publicIdOf,
+            UnaryOperator<T> toRestore) {
+        return new TrashAdapter<>(type, table, entityClass, repository, idOf, publicIdOf, toRestore, false);
+    }
+
+    // "Credit customer", "Purchase order", ... for messages
+    String label() {
+        String words = type.name().replace('_', ' ').toLowerCase();
+        return Character.toUpperCase(words.charAt(0)) + words.substring(1);
+    }
+}
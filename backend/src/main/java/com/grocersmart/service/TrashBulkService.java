@@ -0,0 +1,240 @@
+package com.grocersmart.service;
+
+import com.grocersmart.common.EntityType;
+import com.grocersmart.dto.TrashBulkRequestDto;
+import com.grocersmart.dto.TrashBulkResultDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Bulk restore and purge for the recycle bin, and the retention purge. Purges delete by primary key in chunks of
+// PURGE_CHUNK, each chunk its own short transaction, so a large purge never holds locks on more than one chunk.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrashBulkService {
+
+    public static final int MAX_BULK = 1000;
+    private static final int PURGE_CHUNK = 500;
+
+    // Snapshot payload of a row; what a purge frees
+    private static final String SNAPSHOT_BYTES = "COALESCE(LENGTH(snapshot), 0) + COALESCE(LENGTH(snapshot_json), 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TrashEngine trashEngine;
+
+    // Days a deleted record is kept; 0 keeps it forever
+    @Value("${app.trash.retention-days:90}")
+    private int retentionDays;
+
+    // Per-type overrides, e.g. SALE=365,CHEQUE=365
+    @Value("${app.trash.retention-days-by-type:}")
+    private String retentionDaysByType;
+
+    // Restores go one transaction per record, through TrashEngine.restore, so one conflict (say a product
+    // whose id is taken again) is reported and skipped without undoing the rest. Already restored or missing
+    // ids are skipped. A filter restores at most MAX_BULK rows, oldest first.
+    public TrashBulkResultDto restore(TrashBulkRequestDto request) {
+        long started = System.currentTimeMillis();
+        Map<EntityType, List<Long>> targets = new EnumMap<>(EntityType.class);
+        List<String> skipped = new ArrayList<>();
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            List<Long> ids = checkedIds(request);
+            List<Long> open = jdbcTemplate.queryForList("SELECT deleted_id FROM " + table(request.getType())
+                    + " WHERE restored = FALSE AND deleted_id IN (" + placeholders(ids.size()) + ")"
+                    + " ORDER BY deleted_id", Long.class, ids.toArray());
+            Set<Long> found = new HashSet<>(open);
+            ids.stream().filter(id -> !found.contains(id))
+                    .forEach(id -> skipped.add(request.getType() + " " + id + ": not in the recycle bin"));
+            targets.put(request.getType(), open);
+        } else {
+            LocalDateTime before = requireBefore(request);
+            int remaining = MAX_BULK;
+            for (EntityType type : types(request.getType())) {
+                List<Long> ids = jdbcTemplate.queryForList("SELECT deleted_id FROM " + table(type)
+                        + " WHERE restored = FALSE AND deleted_at < ? ORDER BY deleted_at, deleted_id LIMIT ?",
+                        Long.class, before, remaining);
+                targets.put(type, ids);
+                remaining -= ids.size();
+                if (remaining == 0) {
+                    break;
+                }
+            }
+        }
+
+        Map<EntityType, Long> byType = new EnumMap<>(EntityType.class);
+        long restored = 0;
+        for (Map.Entry<EntityType, List<Long>> target : targets.entrySet()) {
+            for (Long deletedId : target.getValue()) {
+                try {
+                    trashEngine.restore(target.getKey(), deletedId);
+                    byType.merge(target.getKey(), 1L, Long::sum);
+                    restored++;
+                } catch (RuntimeException e) {
+                    skipped.add(target.getKey() + " " + deletedId + ": " + rootMessage(e));
+                }
+            }
+        }
+        TrashBulkResultDto result = result("RESTORE", restored, byType, skipped, 0, started);
+        log.info("Trash bulk restore: {} restored, {} skipped in {} ms", restored, skipped.size(),
+                result.getElapsedMs());
+        return result;
+    }
+
+    // Permanent delete by ids, or of everything matching the filter (restored or not)
+    public TrashBulkResultDto purge(TrashBulkRequestDto request) {
+        long started = System.currentTimeMillis();
+        Map<EntityType, Long> byType = new EnumMap<>(EntityType.class);
+        long[] totals = new long[2];
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            List<Long> ids = checkedIds(request);
+            for (int from = 0; from < ids.size(); from += PURGE_CHUNK) {
+                List<Long> chunk = ids.subList(from, Math.min(from + PURGE_CHUNK, ids.size()));
+                Purged purged = purgeChunk(request.getType(), chunk);
+                totals[0] += purged.rows();
+                totals[1] += purged.bytes();
+                byType.merge(request.getType(), purged.rows(), Long::sum);
+            }
+        } else {
+            LocalDateTime before = requireBefore(request);
+            for (EntityType type : types(request.getType())) {
+                Purged purged = purgeOlderThan(type, before);
+                totals[0] += purged.rows();
+                totals[1] += purged.bytes();
+                byType.put(type, purged.rows());
+            }
+        }
+        TrashBulkResultDto result = result("PURGE", totals[0], byType, Collections.emptyList(), totals[1], started);
+        log.info("Trash bulk purge: {} rows, {} snapshot bytes in {} ms", totals[0], totals[1], result.getElapsedMs());
+        return result;
+    }
+
+    // Retention: per type, purges everything deleted more than its retention period before asOf
+    public TrashBulkResultDto purgeExpired(LocalDateTime asOf) {
+        long started = System.currentTimeMillis();
+        Map<EntityType, Integer> policy = retentionPolicy();
+        Map<EntityType, Long> byType = new EnumMap<>(EntityType.class);
+        long rows = 0;
+        long bytes = 0;
+        for (EntityType type : types(null)) {
+            int days = policy.get(type);
+            if (days <= 0) {
+                continue;
+            }
+            Purged purged = purgeOlderThan(type, asOf.minusDays(days));
+            byType.put(type, purged.rows());
+            rows += purged.rows();
+            bytes += purged.bytes();
+        }
+        TrashBulkResultDto result = result("RETENTION", rows, byType, Collections.emptyList(), bytes, started);
+        log.info("Trash retention: {} rows purged, {} snapshot bytes reclaimed in {} ms ({})", rows, bytes,
+                result.getElapsedMs(), byType);
+        return result;
+    }
+
+    public Map<EntityType, Integer> retentionPolicy() {
+        Map<EntityType, Integer> policy = new EnumMap<>(EntityType.class);
+        for (EntityType type : EntityType.values()) {
+            policy.put(type, retentionDays);
+        }
+        for (String entry : retentionDaysByType.split(",")) {
+            if (!entry.isBlank()) {
+                String[] parts = entry.split("=");
+                policy.put(EntityType.valueOf(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+            }
+        }
+        return policy;
+    }
+
+    // Reads the next chunk through the deleted_at index and deletes it by primary key, until none is left
+    private Purged purgeOlderThan(EntityType type, LocalDateTime before) {
+        long rows = 0;
+        long bytes = 0;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList("SELECT deleted_id FROM " + table(type)
+                    + " WHERE deleted_at < ? ORDER BY deleted_at LIMIT ?", Long.class, before, PURGE_CHUNK);
+            if (ids.isEmpty()) {
+                return new Purged(rows, bytes);
+            }
+            Purged purged = purgeChunk(type, ids);
+            rows += purged.rows();
+            bytes += purged.bytes();
+        }
+    }
+
+    private Purged purgeChunk(EntityType type, List<Long> ids) {
+        String in = " WHERE deleted_id IN (" + placeholders(ids.size()) + ")";
+        return transactionTemplate.execute(status -> {
+            Long bytes = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(" + SNAPSHOT_BYTES + "), 0) FROM "
+                    + table(type) + in + " FOR UPDATE", Long.class, ids.toArray());
+            int rows = jdbcTemplate.update("DELETE FROM " + table(type) + in, ids.toArray());
+            return new Purged(rows, bytes != null ? bytes : 0);
+        });
+    }
+
+    private static List<Long> checkedIds(TrashBulkRequestDto request) {
+        if (request.getType() == null) {
+            throw new IllegalArgumentException("type is required with ids");
+        }
+        List<Long> ids = request.getIds().stream().distinct().toList();
+        if (ids.size() > MAX_BULK) {
+            throw new IllegalArgumentException("At most " + MAX_BULK + " ids per request");
+        }
+        return ids;
+    }
+
+    private static LocalDateTime requireBefore(TrashBulkRequestDto request) {
+        if (request.getDeletedBefore() == null) {
+            throw new IllegalArgumentException("Either ids or deletedBefore is required");
+        }
+        return request.getDeletedBefore();
+    }
+
+    private static List<EntityType> types(EntityType type) {
+        return type != null ? List.of(type) : List.of(EntityType.values());
+    }
+
+    private String table(EntityType type) {
+        return trashEngine.tableOf(type);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private static String rootMessage(Throwable e) {
+        while (e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e.getMessage();
+    }
+
+    private static TrashBulkResultDto result(String action, long processed, Map<EntityType, Long> byType,
+            List<String> skipped, long bytes, long started) {
+        return TrashBulkResultDto.builder()
+                .timestamp(LocalDateTime.now())
+                .action(action)
+                .processed(processed)
+                .byType(byType)
+                .skipped(skipped)
+                .reclaimedBytes(bytes)
+                .elapsedMs(System.currentTimeMillis() - started)
+                .build();
+    }
+
+    private record Purged(long rows, long bytes) {
+    }
+}
@@ -0,0 +1,364 @@
+package com.grocersmart.service;
+
+import com.grocersmart.common.EntityType;
+import com.grocersmart.dto.DeleteResponse;
+import com.grocersmart.dto.DeletedItemDto;
+import com.grocersmart.dto.RestoreResponse;
+import com.grocersmart.dto.TrashPageDto;
+import com.grocersmart.entity.Cheque;
+import com.grocersmart.entity.CreditCustomer;
+import com.grocersmart.entity.Order;
+import com.grocersmart.entity.Product;
+import com.grocersmart.entity.PurchaseOrder;
+import com.grocersmart.entity.SalesRecord;
+import com.grocersmart.entity.Supplier;
+import com.grocersmart.entity.User;
+import com.grocersmart.repository.ChequeRepository;
+import com.grocersmart.repository.CreditCustomerRepository;
+import com.grocersmart.repository.OrderRepository;
+import com.grocersmart.repository.ProductRepository;
+import com.grocersmart.repository.PurchaseOrderRepository;
+import com.grocersmart.repository.SalesRecordRepository;
+import com.grocersmart.repository.SupplierRepository;
+import com.grocersmart.repository.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// The recycle bin for every entity type. All deleted_* tables share one layout, so archive, restore, purge and
+// listing are the same JDBC statements with the table swapped in; a TrashAdapter supplies the per-type parts
+// (repository, ids, how a snapshot is saved back). Snapshots go through SnapshotCodec, and the list views only
+// read the entity_name and summary columns written at delete time.
+@Service
+@Slf4j
+public class TrashEngine {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final String COLUMNS = "deleted_id, original_id, public_id, deleted_at, deleted_by_user_id, reason, "
+            + "entity_name, summary";
+
+    private static final String ARCHIVE = " (original_id, public_id, deleted_at, deleted_by_user_id, reason, "
+            + "snapshot, snapshot_version, entity_name, summary) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SnapshotCodec snapshotCodec;
+    private final Map<EntityType, TrashAdapter<?>> adapters = new EnumMap<>(EntityType.class);
+
+    public TrashEngine(JdbcTemplate jdbcTemplate, SnapshotCodec snapshotCodec, UserRepository userRepository,
+            ProductRepository productRepository, SupplierRepository supplierRepository,
+            CreditCustomerRepository creditCustomerRepository, SalesRecordRepository salesRecordRepository,
+            ChequeRepository chequeRepository, OrderRepository orderRepository,
+            PurchaseOrderRepository purchaseOrderRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotCodec = snapshotCodec;
+        register(TrashAdapter.keepingId(EntityType.USER, "deleted_users", User.class, userRepository,
+                User::getId, User::getPublicId));
+        register(TrashAdapter.keepingId(EntityType.PRODUCT, "deleted_products", Product.class, productRepository,
+                Product::getId, Product::getPublicId));
+        register(TrashAdapter.keepingId(EntityType.SUPPLIER, "deleted_suppliers", Supplier.class, supplierRepository,
+                Supplier::getId, Supplier::getPublicId));
+        register(TrashAdapter.keepingId(EntityType.CREDIT_CUSTOMER, "deleted_credit_customers", CreditCustomer.class,
+                creditCustomerRepository, CreditCustomer::getId, CreditCustomer::getPublicId));
+        register(TrashAdapter.asNewRow(EntityType.SALE, "deleted_sales", SalesRecord.class, salesRecordRepository,
+                SalesRecord::getId, SalesRecord::getPublicId, TrashEngine::newSale));
+        register(TrashAdapter.asNewRow(EntityType.CHEQUE, "deleted_cheques", Cheque.class, chequeRepository,
+                Cheque::getId, Cheque::getPublicId, cheque -> {
+                    cheque.setId(null);
+                    return cheque;
+                }));
+        register(TrashAdapter.asNewRow(EntityType.ORDER, "deleted_orders", Order.class, orderRepository,
+                Order::getId, Order::getPublicId, TrashEngine::newOrder));
+        register(TrashAdapter.asNewRow(EntityType.PURCHASE_ORDER, "deleted_purchase_orders", PurchaseOrder.class,
+                purchaseOrderRepository, PurchaseOrder::getId, PurchaseOrder::getPublicId,
+                TrashEngine::newPurchaseOrder));
+    }
+
+    public String tableOf(EntityType type) {
+        return adapter(type).table();
+    }
+
+    // Archives a loaded entity and deletes the live row; callers do their own reversals (credit balance, ...) first
+    @Transactional
+    public <T> DeleteResponse moveToTrash(EntityType type, T entity, String reason, Long deletedByUserId) {
+        TrashAdapter<T> adapter = adapterFor(type, entity);
+        LocalDateTime now = LocalDateTime.now();
+        Object[] row = archiveRow(adapter, entity, now, reason, deletedByUserId);
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement("INSERT INTO " + adapter.table() + ARCHIVE,
+                    Statement.RETURN_GENERATED_KEYS);
+            new ArgumentPreparedStatementSetter(row).setValues(ps);
+            return ps;
+        }, keys);
+        adapter.repository().delete(entity);
+        return new DeleteResponse(adapter.label() + " archived successfully", keys.getKey().longValue(),
+                adapter.idOf().apply(entity), now);
+    }
+
+    // Same as moveToTrash for many rows of one type: one batched insert, then the live deletes
+    @Transactional
+    public <T> int moveAllToTrash(EntityType type, List<T> entities, String reason, Long deletedByUserId) {
+        if (entities.isEmpty()) {
+            return 0;
+        }
+        TrashAdapter<T> adapter = adapterFor(type, entities.get(0));
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            rows.add(archiveRow(adapterFor(type, entity), entity, now, reason, deletedByUserId));
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO " + adapter.table() + ARCHIVE, rows);
+        adapter.repository().deleteAll(entities);
+        return rows.size();
+    }
+
+    @Transactional
+    public DeleteResponse archiveAndDelete(EntityType type, Long id, String reason, Long deletedByUserId) {
+        return moveToTrash(type, load(adapter(type), id), reason, deletedByUserId);
+    }
+
+    // The archived row is locked for the duration, so two restores of the same record cannot both succeed
+    @Transactional
+    public RestoreResponse restore(EntityType type, Long deletedId) {
+        return restore(adapter(type), deletedId);
+    }
+
+    @Transactional
+    public void permanentDelete(EntityType type, Long deletedId) {
+        TrashAdapter<?> adapter = adapter(type);
+        if (jdbcTemplate.update("DELETE FROM " + adapter.table() + " WHERE deleted_id = ?", deletedId) == 0) {
+            throw new EntityNotFoundException("Deleted " + adapter.label().toLowerCase() + " not found with id: "
+                    + deletedId);
+        }
+    }
+
+    // Everything of one type still in the bin, newest first
+    public List<DeletedItemDto> list(EntityType type) {
+        return jdbcTemplate.query("SELECT '" + type.name() + "' AS entity_type, " + COLUMNS + " FROM "
+                + tableOf(type) + " WHERE restored = FALSE ORDER BY deleted_at DESC, deleted_id DESC",
+                (rs, i) -> mapRow(rs));
+    }
+
+    // One feed across every table (or one type), newest first. Each table is read with its own keyset query on
+    // idx_trash_feed (restored, deleted_at) and the branches are merged with UNION ALL, so a page costs at most
+    // (page size + 1) index rows per table however large the bin gets. Rows deleted in the same second are
+    // ordered by type (enum order, descending), then deleted_id descending; the cursor carries all three.
+    public TrashPageDto page(EntityType type, String cursor, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        Cursor after = cursor != null && !cursor.isBlank() ? Cursor.decode(cursor) : null;
+
+        StringBuilder sql = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+        for (TrashAdapter<?> adapter : adapters.values()) {
+            EntityType tableType = adapter.type();
+            if (type != null && type != tableType) {
+                continue;
+            }
+            if (!sql.isEmpty()) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append("(SELECT '").append(tableType.name()).append("' AS entity_type, ")
+                    .append(tableType.ordinal()).append(" AS type_rank, ").append(COLUMNS)
+                    .append(" FROM ").append(adapter.table()).append(" WHERE restored = FALSE");
+            if (after != null) {
+                // Everything after the cursor: older rows, or same-second rows further down the tie order
+                int compare = Integer.compare(tableType.ordinal(), after.typeRank());
+                if (compare < 0) {
+                    sql.append(" AND deleted_at <= ?");
+                    args.add(after.deletedAt());
+                } else if (compare > 0) {
+                    sql.append(" AND deleted_at < ?");
+                    args.add(after.deletedAt());
+                } else {
+                    sql.append(" AND (deleted_at < ? OR (deleted_at = ? AND deleted_id < ?))");
+                    args.add(after.deletedAt());
+                    args.add(after.deletedAt());
+                    args.add(after.deletedId());
+                }
+            }
+            sql.append(" ORDER BY deleted_at DESC, deleted_id DESC LIMIT ?)");
+            args.add(limit + 1);
+        }
+        sql.append(" ORDER BY deleted_at DESC, type_rank DESC, deleted_id DESC LIMIT ?");
+        args.add(limit + 1);
+
+        List<DeletedItemDto> items = jdbcTemplate.query(sql.toString(), (rs, i) -> mapRow(rs), args.toArray());
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items = new ArrayList<>(items.subList(0, limit));
+            DeletedItemDto last = items.get(limit - 1);
+            nextCursor = new Cursor(last.getDeletedAt(), last.getEntityType().ordinal(), last.getDeletedId()).encode();
+        }
+        return new TrashPageDto(items, nextCursor);
+    }
+
+    // Detail view: the same row plus its snapshot as readable JSON
+    public DeletedItemDto detail(EntityType type, Long deletedId) {
+        List<DeletedItemDto> rows = jdbcTemplate.query("SELECT '" + type.name() + "' AS entity_type, " + COLUMNS
+                + ", restored, restored_at, restore_count, snapshot, snapshot_version, snapshot_json FROM "
+                + tableOf(type) + " WHERE deleted_id = ?", (rs, i) -> {
+                    DeletedItemDto dto = mapRow(rs);
+                    dto.setRestored(rs.getBoolean("restored"));
+                    dto.setRestoredAt(rs.getObject("restored_at", LocalDateTime.class));
+                    dto.setRestoreCount(rs.getInt("restore_count"));
+                    dto.setSnapshotJson(snapshotCodec.toJson(rs.getBytes("snapshot"), rs.getInt("snapshot_version"),
+                            rs.getString("snapshot_json")));
+                    return dto;
+                }, deletedId);
+        if (rows.isEmpty()) {
+            throw new EntityNotFoundException("Deleted " + type + " not found with id: " + deletedId);
+        }
+        return rows.get(0);
+    }
+
+    private <T> RestoreResponse restore(TrashAdapter<T> adapter, Long deletedId) {
+        String label = adapter.label();
+        List<Archived> rows = jdbcTemplate.query("SELECT original_id, restored, COALESCE(restore_count, 0), "
+                + "snapshot, snapshot_version, snapshot_json FROM " + adapter.table()
+                + " WHERE deleted_id = ? FOR UPDATE", (rs, i) -> new Archived(rs.getLong(1), rs.getBoolean(2),
+                        rs.getInt(3), rs.getBytes(4), rs.getInt(5), rs.getString(6)), deletedId);
+        if (rows.isEmpty()) {
+            throw new EntityNotFoundException("Deleted " + label.toLowerCase() + " not found with id: " + deletedId);
+        }
+        Archived archived = rows.get(0);
+        if (archived.restored()) {
+            throw new IllegalStateException("This " + label.toLowerCase() + " has already been restored");
+        }
+
+        T snapshot;
+        try {
+            snapshot = snapshotCodec.decode(archived.snapshot(), archived.version(), archived.json(),
+                    adapter.entityClass());
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Failed to restore from snapshot: " + e.getMessage(), e);
+        }
+        if (adapter.keepsId() && adapter.repository().existsById(archived.originalId())) {
+            throw new IllegalStateException("Cannot restore: " + label + " with ID " + archived.originalId()
+                    + " already exists. Please permanently delete the existing " + label.toLowerCase() + " first.");
+        }
+        T restored = adapter.repository().save(adapter.toRestore().apply(snapshot));
+
+        int restoreCount = archived.restoreCount() + 1;
+        jdbcTemplate.update("UPDATE " + adapter.table() + " SET restored = TRUE, restored_at = ?, restore_count = ? "
+                + "WHERE deleted_id = ?", LocalDateTime.now(), restoreCount, deletedId);
+        return new RestoreResponse(label + " restored successfully", adapter.idOf().apply(restored), deletedId,
+                restoreCount);
+    }
+
+    private <T> T load(TrashAdapter<T> adapter, Long id) {
+        return adapter.repository().findById(id)
+                .orElseThrow(() -> new EntityNotFoundException(adapter.label() + " not found with id: " + id));
+    }
+
+    private <T> Object[] archiveRow(TrashAdapter<T> adapter, T entity, LocalDateTime deletedAt, String reason,
+            Long deletedByUserId) {
+        return new Object[] { adapter.idOf().apply(entity), adapter.publicIdOf().apply(entity), deletedAt,
+                deletedByUserId, reason, snapshotCodec.encode(entity), SnapshotCodec.CURRENT_VERSION,
+                snapshotCodec.nameOf(entity), snapshotCodec.summaryOf(entity) };
+    }
+
+    private void register(TrashAdapter<?> adapter) {
+        adapters.put(adapter.type(), adapter);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> TrashAdapter<T> adapter(EntityType type) {
+        return (TrashAdapter<T>) adapters.get(type);
+    }
+
+    private <T> TrashAdapter<T> adapterFor(EntityType type, T entity) {
+        TrashAdapter<T> adapter = adapter(type);
+        if (!adapter.entityClass().isInstance(entity)) {
+            throw new IllegalArgumentException(entity.getClass().getSimpleName() + " is not a " + type);
+        }
+        return adapter;
+    }
+
+    // Sales come back as new rows with new line items
+    private static SalesRecord newSale(SalesRecord record) {
+        if (record.getItems() != null) {
+            record.getItems().forEach(item -> {
+                item.setId(null);
+                item.setSalesRecord(record);
+            });
+        }
+        record.setId(null);
+        return record;
+    }
+
+    private static Order newOrder(Order order) {
+        Order restored = new Order();
+        restored.setPublicId(order.getPublicId());
+        restored.setInvoiceNo(order.getInvoiceNo());
+        restored.setOrderDate(order.getOrderDate());
+        restored.setPaymentType(order.getPaymentType());
+        restored.setStatus(order.getStatus());
+        restored.setTotalAmount(order.getTotalAmount());
+        return restored;
+    }
+
+    private static PurchaseOrder newPurchaseOrder(PurchaseOrder po) {
+        PurchaseOrder restored = new PurchaseOrder();
+        restored.setPublicId(po.getPublicId());
+        restored.setSupplierId(po.getSupplierId());
+        restored.setPoDate(po.getPoDate());
+        restored.setStatus(po.getStatus());
+        restored.setTotalAmount(po.getTotalAmount());
+        return restored;
+    }
+
+    private static DeletedItemDto mapRow(ResultSet rs) throws SQLException {
+        DeletedItemDto dto = new DeletedItemDto();
+        dto.setEntityType(EntityType.valueOf(rs.getString("entity_type")));
+        dto.setDeletedId(rs.getLong("deleted_id"));
+        dto.setId(dto.getDeletedId());
+        dto.setOriginalId(rs.getLong("original_id"));
+        dto.setPublicId(rs.getString("public_id"));
+        dto.setDeletedAt(rs.getObject("deleted_at", LocalDateTime.class));
+        dto.setDeletedByUserId(rs.getObject("deleted_by_user_id", Long.class));
+        dto.setReason(rs.getString("reason"));
+        dto.setEntityName(rs.getString("entity_name") != null ? rs.getString("entity_name") : dto.getPublicId());
+        dto.setDescription(rs.getString("summary"));
+        return dto;
+    }
+
+    private record Archived(long originalId, boolean restored, int restoreCount, byte[] snapshot, int version,
+            String json) {
+    }
+
+    // Opaque to clients: base64url of "deletedAt,typeRank,deletedId"
+    private record Cursor(LocalDateTime deletedAt, int typeRank, long deletedId) {
+
+        String encode() {
+            String raw = deletedAt + "," + typeRank + "," + deletedId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(",");
+                return new Cursor(LocalDateTime.parse(parts[0]), Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid trash cursor");
+            }
+        }
+    }
+}
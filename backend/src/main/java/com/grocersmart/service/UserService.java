@@ -1,5 +1,6 @@
 package com.grocersmart.service;
 
+import com.grocersmart.common.EntityType;
 import com.grocersmart.dto.AuthRegisterRequest;
 import com.grocersmart.dto.UserDto;
 import com.grocersmart.entity.User;
@@ -22,7 +23,7 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final com.grocersmart.security.JwtTokenProvider tokenProvider;
-    private final TrashUserService trashUserService;
+    private final TrashEngine trashEngine;
     private final PublicIdGeneratorService publicIdGeneratorService;
 
     public com.grocersmart.dto.AuthResponse register(AuthRegisterRequest request) {
@@ -144,7 +145,7 @@ public class UserService {
     @Transactional
     public void deleteUser(Long id) {
         // Use trash system to archive and delete
-        trashUserService.archiveAndDelete(id, "Deleted via API", null);
+        trashEngine.archiveAndDelete(EntityType.USER, id, "Deleted via API", null);
     }
 
     @Transactional
@@ -9,11 +9,17 @@ import java.time.LocalDate;
 
 public class SalesSpecification {
 
-    public static Specification<SalesRecord> filterBy(String search, SalesRecord.PaymentMethod method,
+    // Generic so the same filter runs against SalesRecordArchive, whose attributes carry the same names
+    public static <T> Specification<T> filterBy(String search, SalesRecord.PaymentMethod method, Long storeId,
             LocalDate startDate, LocalDate endDate) {
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
+            // Together with the date range this is a range of idx_sales_store_date
+            if (storeId != null) {
+                predicates.add(cb.equal(root.get("storeId"), storeId));
+            }
+
             if (method != null) {
                 predicates.add(cb.equal(root.get("paymentMethod"), method));
             }
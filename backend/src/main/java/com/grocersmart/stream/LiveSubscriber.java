@@ -0,0 +1,94 @@
+package com.grocersmart.stream;
+
+import com.grocersmart.common.ModuleKey;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// One open stream: a bounded queue of ready-made frames, drained onto the connection by the hub's sender pool with
+// at most one drain per subscriber at a time
+final class LiveSubscriber {
+
+    static final Set<DataWithMediaType> RESYNC = SseEmitter.event().name("resync").data("{}").build();
+
+    private final SseEmitter emitter;
+    private final String role;
+    private final BlockingQueue<Set<DataWithMediaType>> queue;
+    private final Executor senders;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile Set<ModuleKey> modules;
+    private volatile boolean closed;
+
+    LiveSubscriber(SseEmitter emitter, String role, Set<ModuleKey> modules, int capacity, Executor senders) {
+        this.emitter = emitter;
+        this.role = role;
+        this.modules = modules;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.senders = senders;
+    }
+
+    String role() {
+        return role;
+    }
+
+    Set<ModuleKey> modules() {
+        return modules;
+    }
+
+    void setModules(Set<ModuleKey> modules) {
+        this.modules = modules;
+    }
+
+    // False when the queue was full: the client is not keeping up, so its backlog is dropped for a single resync
+    // event telling it to reload what it shows
+    boolean offer(Set<DataWithMediaType> frame) {
+        if (closed) {
+            return true;
+        }
+        boolean queued = queue.offer(frame);
+        if (!queued) {
+            queue.clear();
+            queue.offer(RESYNC);
+        }
+        schedule();
+        return queued;
+    }
+
+    void close() {
+        closed = true;
+        queue.clear();
+        try {
+            emitter.complete();
+        } catch (RuntimeException e) {
+            // already completed by the container
+        }
+    }
+
+    private void schedule() {
+        if (draining.compareAndSet(false, true)) {
+            senders.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            Set<DataWithMediaType> frame;
+            while (!closed && (frame = queue.poll()) != null) {
+                emitter.send(frame);
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+        } finally {
+            draining.set(false);
+        }
+        if (!closed && !queue.isEmpty()) {
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.grocersmart.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grocersmart.common.ModuleKey;
+import com.grocersmart.events.ChequeBounced;
+import com.grocersmart.events.DomainEvent;
+import com.grocersmart.events.DomainEventsCommitted;
+import com.grocersmart.events.PaymentRecorded;
+import com.grocersmart.events.SaleCreated;
+import com.grocersmart.events.StockChanged;
+import com.grocersmart.service.PermissionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Live dashboard feed behind GET /api/stream. Domain events committed on this node are gathered as they arrive and
+// every coalesce-ms folded into one compact frame: the current stock of each store and product that moved, the new
+// sales, payments and bounced cheques, and any summary tile whose value changed (tiles are re-read every tiles-ms while
+// anyone is listening, so they also cover other nodes' writes; only the scheduler reads them, read-only, so with a
+// replica they are served there). A frame is serialised once per set of visible modules and queued to every subscriber
+// allowed to see them; a fixed sender pool writes the queues out. A client whose queue fills up loses its backlog and
+// gets a resync event instead, so a stalled tab costs a bounded amount of memory and never holds up the others. Which
+// modules a role sees is re-read with every heartbeat.
+@Component
+public class LiveUpdateHub {
+
+    // Stock levels are read per store with one IN list of at most this many products
+    private static final int MAX_IN = 500;
+
+    private static final Set<DataWithMediaType> PING = SseEmitter.event().comment("ping").build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTemplate;
+    private final PermissionService permissionService;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService senders;
+    private final Set<LiveSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<ModuleKey>> roleModules = new ConcurrentHashMap<>();
+    private final Counter resyncs;
+    private final int bufferFrames;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+    private final long tilesMs;
+    private final int maxItems;
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Guarded by the hub; held only to swap or add to it, never across a query, as checkouts add to it
+    private Pending pending = new Pending();
+
+    // Written by flush only; empty while nobody listens
+    private volatile Map<String, Map<String, Object>> tiles = Map.of();
+    private long tilesDueAt;
+
+    public LiveUpdateHub(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            PermissionService permissionService, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${app.stream.buffer-frames:32}") int bufferFrames,
+            @Value("${app.stream.max-subscribers:10000}") int maxSubscribers,
+            @Value("${app.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${app.stream.tiles-ms:5000}") long tilesMs,
+            @Value("${app.stream.max-items:100}") int maxItems,
+            @Value("${app.stream.sender-threads:4}") int senderThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.permissionService = permissionService;
+        this.objectMapper = objectMapper;
+        this.bufferFrames = bufferFrames;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMs = timeoutMs;
+        this.tilesMs = tilesMs;
+        this.maxItems = maxItems;
+        this.senders = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread thread = new Thread(r, "live-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("grocersmart.stream.subscribers", subscribers::size)
+                .description("Open live update streams").register(meterRegistry);
+        this.resyncs = Counter.builder("grocersmart.stream.resyncs")
+                .description("Streams whose backlog was dropped for a resync").register(meterRegistry);
+    }
+
+    // Empty when the node already holds max-subscribers streams
+    public Optional<SseEmitter> subscribe(String role) {
+        if (subscribers.size() >= maxSubscribers) {
+            return Optional.empty();
+        }
+        Set<ModuleKey> modules = roleModules.computeIfAbsent(role, this::readModules);
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        LiveSubscriber subscriber = new LiveSubscriber(emitter, role, modules, bufferFrames, senders);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        // The first frame carries the visible tiles as last read, so a new tab needs no round of summary requests;
+        // the first subscriber after a quiet spell gets them with the next flush instead. It is sent here, before
+        // the emitter is returned: Spring holds it and writes it on the request thread, which commits the response
+        // (and its headers) before any sender thread can touch it
+        Set<DataWithMediaType> hello = frame(sequence.get(), Map.of(), tiles, modules);
+        try {
+            emitter.send(hello != null ? hello : PING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        subscribers.add(subscriber);
+        return Optional.of(emitter);
+    }
+
+    @EventListener
+    public void onCommitted(DomainEventsCommitted committed) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            committed.events().forEach(pending::add);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.stream.coalesce-ms:250}")
+    public void flush() {
+        Pending batch;
+        synchronized (this) {
+            batch = pending;
+            pending = new Pending();
+        }
+        if (subscribers.isEmpty()) {
+            // Stale once nobody reads them; the next subscriber's first flush sends them all afresh
+            tiles = Map.of();
+            tilesDueAt = 0;
+            return;
+        }
+        Map<String, Object> sections = new LinkedHashMap<>();
+        if (!batch.stock.isEmpty()) {
+            sections.put("stock", stockLevels(batch.stock));
+        }
+        batch.sales.addTo(sections, "sales");
+        batch.payments.addTo(sections, "payments");
+        batch.cheques.addTo(sections, "cheques");
+
+        Map<String, Map<String, Object>> changedTiles = new LinkedHashMap<>();
+        if (System.currentTimeMillis() >= tilesDueAt) {
+            Map<String, Map<String, Object>> previous = tiles;
+            Map<String, Map<String, Object>> fresh = readTemplate.execute(status -> readTiles());
+            fresh.forEach((name, values) -> {
+                if (!values.equals(previous.get(name))) {
+                    changedTiles.put(name, values);
+                }
+            });
+            tiles = fresh;
+            tilesDueAt = System.currentTimeMillis() + tilesMs;
+        }
+        if (sections.isEmpty() && changedTiles.isEmpty()) {
+            return;
+        }
+        long seq = sequence.incrementAndGet();
+
+        Map<Set<ModuleKey>, Optional<Set<DataWithMediaType>>> frames = new HashMap<>();
+        for (LiveSubscriber subscriber : subscribers) {
+            Optional<Set<DataWithMediaType>> frame = frames.computeIfAbsent(subscriber.modules(),
+                    modules -> Optional.ofNullable(frame(seq, sections, changedTiles, modules)));
+            if (frame.isPresent() && !subscriber.offer(frame.get())) {
+                resyncs.increment();
+            }
+        }
+    }
+
+    // Keeps idle connections open through proxies, finds the dead ones and picks up permission changes
+    @Scheduled(fixedDelayString = "${app.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            roleModules.clear();
+            return;
+        }
+        roleModules.replaceAll((role, modules) -> readModules(role));
+        for (LiveSubscriber subscriber : subscribers) {
+            subscriber.setModules(roleModules.computeIfAbsent(subscriber.role(), this::readModules));
+            subscriber.offer(PING);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(LiveSubscriber::close);
+        senders.shutdown();
+    }
+
+    private Set<ModuleKey> readModules(String role) {
+        Set<ModuleKey> modules = EnumSet.noneOf(ModuleKey.class);
+        for (Section section : Section.values()) {
+            if (permissionService.hasPermission(role, section.module)) {
+                modules.add(section.module);
+            }
+        }
+        return Collections.unmodifiableSet(modules);
+    }
+
+    // Null when none of the frame is visible to these modules
+    private Set<DataWithMediaType> frame(long seq, Map<String, Object> sections,
+            Map<String, Map<String, Object>> tileValues, Set<ModuleKey> modules) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        Map<String, Object> visibleTiles = new LinkedHashMap<>();
+        for (Section section : Section.values()) {
+            if (!modules.contains(section.module)) {
+                continue;
+            }
+            if (sections.containsKey(section.key)) {
+                body.put(section.key, sections.get(section.key));
+                Object more = sections.get(section.key + "More");
+                if (more != null) {
+                    body.put(section.key + "More", more);
+                }
+            }
+            if (section.tile != null && tileValues.containsKey(section.tile)) {
+                visibleTiles.put(section.tile, tileValues.get(section.tile));
+            }
+        }
+        if (!visibleTiles.isEmpty()) {
+            body.put("tiles", visibleTiles);
+        }
+        if (body.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> frame = new LinkedHashMap<>();
+        frame.put("seq", seq);
+        frame.put("at", System.currentTimeMillis());
+        frame.putAll(body);
+        try {
+            return SseEmitter.event().id(Long.toString(seq)).name("delta").data(objectMapper.writeValueAsString(frame))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise a live update frame", e);
+        }
+    }
+
+    // Levels after the change rather than the deltas, so a client that missed a frame is right again on the next
+    private List<StockLevel> stockLevels(Set<StockKey> keys) {
+        Map<Long, List<Long>> byStore = new TreeMap<>();
+        keys.forEach(k -> byStore.computeIfAbsent(k.storeId(), s -> new ArrayList<>()).add(k.productId()));
+        List<StockLevel> levels = new ArrayList<>(keys.size());
+        byStore.forEach((storeId, products) -> {
+            for (int i = 0; i < products.size(); i += MAX_IN) {
+                List<Long> chunk = products.subList(i, Math.min(i + MAX_IN, products.size()));
+                List<Object> args = new ArrayList<>(chunk.size() + 1);
+                args.add(storeId);
+                args.addAll(chunk);
+                levels.addAll(jdbcTemplate.query("SELECT ps.store_id, ps.product_id, ps.unit_qty, ps.bulk_qty, "
+                        + "COALESCE(p.unit_qty, 0), COALESCE(p.bulk_qty, 0) FROM product_stock ps "
+                        + "JOIN products p ON p.id = ps.product_id WHERE ps.store_id = ? AND ps.product_id IN ("
+                        + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")",
+                        (rs, n) -> new StockLevel(rs.getLong(1), rs.getLong(2), rs.getInt(3), rs.getDouble(4),
+                                rs.getInt(5), rs.getDouble(6)), args.toArray()));
+            }
+        });
+        return levels;
+    }
+
+    // The values of GET /api/sales/analytics/daily (today), /api/credit-customers/summary and /api/cheques/summary,
+    // each one aggregate query
+    private Map<String, Map<String, Object>> readTiles() {
+        Map<String, Map<String, Object>> fresh = new LinkedHashMap<>();
+        LocalDate today = LocalDate.now();
+        fresh.put("sales", jdbcTemplate.queryForObject("SELECT COUNT(*), COALESCE(SUM(total_revenue), 0), "
+                + "COALESCE(SUM(total_items_sold), 0) FROM sales_records WHERE sales_date = ?", (rs, n) -> {
+                    Map<String, Object> tile = new LinkedHashMap<>();
+                    tile.put("date", today);
+                    tile.put("sales", rs.getLong(1));
+                    tile.put("revenue", rs.getBigDecimal(2));
+                    tile.put("itemsSold", rs.getLong(3));
+                    return tile;
+                }, Date.valueOf(today)));
+        fresh.put("credit", jdbcTemplate.queryForObject("SELECT COALESCE(SUM(credit_limit), 0), "
+                + "COALESCE(SUM(outstanding_balance), 0) FROM credit_customers", (rs, n) -> {
+                    Map<String, Object> tile = new LinkedHashMap<>();
+                    tile.put("totalLimit", rs.getDouble(1));
+                    tile.put("totalOutstanding", rs.getDouble(2));
+                    tile.put("totalAvailable", Math.max(0.0, rs.getDouble(1) - rs.getDouble(2)));
+                    return tile;
+                }));
+        fresh.put("cheques", jdbcTemplate.queryForObject("SELECT COUNT(*), COALESCE(SUM(status = 'PENDING'), 0), "
+                + "COALESCE(SUM(status = 'CLEARED'), 0), COALESCE(SUM(status = 'BOUNCED'), 0), "
+                + "COALESCE(SUM(amount), 0) FROM cheques", (rs, n) -> {
+                    Map<String, Object> tile = new LinkedHashMap<>();
+                    tile.put("total", rs.getLong(1));
+                    tile.put("pending", rs.getLong(2));
+                    tile.put("cleared", rs.getLong(3));
+                    tile.put("bounced", rs.getLong(4));
+                    tile.put("totalAmount", rs.getDouble(5));
+                    return tile;
+                }));
+        return fresh;
+    }
+
+    // What each part of a frame is called, which module may see it, and its summary tile
+    private enum Section {
+        STOCK("stock", ModuleKey.PRODUCTS, null),
+        SALES("sales", ModuleKey.SALES, "sales"),
+        PAYMENTS("payments", ModuleKey.CREDIT_CUSTOMERS, "credit"),
+        CHEQUES("cheques", ModuleKey.CHEQUES, "cheques");
+
+        private final String key;
+        private final ModuleKey module;
+        private final String tile;
+
+        Section(String key, ModuleKey module, String tile) {
+            this.key = key;
+            this.module = module;
+            this.tile = tile;
+        }
+    }
+
+    private record StockKey(long storeId, long productId) {
+    }
+
+    private record StockLevel(long storeId, long productId, int storeUnitQty, double storeBulkQty, int unitQty,
+            double bulkQty) {
+    }
+
+    // Changes gathered since the last frame; guarded by the hub
+    private final class Pending {
+
+        private final Set<StockKey> stock = new LinkedHashSet<>();
+        private final Items sales = new Items();
+        private final Items payments = new Items();
+        private final Items cheques = new Items();
+
+        private void add(DomainEvent event) {
+            if (event instanceof StockChanged change) {
+                stock.add(new StockKey(change.storeId(), change.productId()));
+            } else if (event instanceof SaleCreated) {
+                sales.add(event);
+            } else if (event instanceof PaymentRecorded) {
+                payments.add(event);
+            } else if (event instanceof ChequeBounced) {
+                cheques.add(event);
+            }
+        }
+    }
+
+    // The newest max-items events of one kind, and how many older ones were left out
+    private final class Items {
+
+        private final List<DomainEvent> events = new ArrayList<>();
+        private int dropped;
+
+        private void add(DomainEvent event) {
+            if (events.size() == maxItems) {
+                events.remove(0);
+                dropped++;
+            }
+            events.add(event);
+        }
+
+        private void addTo(Map<String, Object> sections, String key) {
+            if (!events.isEmpty()) {
+                sections.put(key, events);
+            }
+            if (dropped > 0) {
+                sections.put(key + "More", dropped);
+            }
+        }
+    }
+}
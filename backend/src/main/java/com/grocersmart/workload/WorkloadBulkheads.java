@@ -0,0 +1,142 @@
+package com.grocersmart.workload;
+
+import com.grocersmart.exception.WorkloadRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// One fair semaphore per workload class, bounding how many requests or jobs of that class run at once and so how
+// many pool connections it can hold. Work that cannot get a permit within its class's timeout is rejected with
+// WorkloadRejectedException (503) rather than queueing on the pool in front of the tills. Each class publishes
+// grocersmart.workload.{limit,active,waiting} gauges, a .wait timer and a .rejected counter, tagged workload=<name>.
+@Component
+@Slf4j
+public class WorkloadBulkheads {
+
+    private final boolean enabled;
+    private final Map<WorkloadClass, Bulkhead> bulkheads = new EnumMap<>(WorkloadClass.class);
+
+    public WorkloadBulkheads(Environment environment, MeterRegistry meterRegistry) {
+        this.enabled = environment.getProperty("app.workload.enabled", Boolean.class, true);
+        int shared = 0;
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            String prefix = "app.workload." + workload.getKey();
+            int limit = environment.getProperty(prefix + ".max-concurrent", Integer.class,
+                    workload.getDefaultMaxConcurrent());
+            long timeoutMs = environment.getProperty(prefix + ".timeout-ms", Long.class,
+                    workload.getDefaultTimeoutMs());
+            if (limit < 1) {
+                throw new IllegalArgumentException(prefix + ".max-concurrent must be at least 1");
+            }
+            bulkheads.put(workload, new Bulkhead(workload, limit, timeoutMs, meterRegistry));
+            if (workload != WorkloadClass.POS) {
+                shared += limit;
+            }
+        }
+        int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        if (enabled && shared >= poolSize) {
+            log.warn("Workload limits outside POS add up to {} but the pool has {} connections; back-office load can "
+                    + "still starve checkout", shared, poolSize);
+        }
+    }
+
+    // Blocks for up to the class's timeout; close the permit when the work is done
+    public Permit acquire(WorkloadClass workload) {
+        if (!enabled) {
+            return Permit.NONE;
+        }
+        return bulkheads.get(workload).acquire();
+    }
+
+    public <T> T call(WorkloadClass workload, Supplier<T> work) {
+        try (Permit permit = acquire(workload)) {
+            return work.get();
+        }
+    }
+
+    public void run(WorkloadClass workload, Runnable work) {
+        try (Permit permit = acquire(workload)) {
+            work.run();
+        }
+    }
+
+    // Released at most once, however many times it is closed
+    public static final class Permit implements AutoCloseable {
+
+        static final Permit NONE = new Permit(null);
+
+        private final Semaphore semaphore;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public void close() {
+            if (semaphore != null && released.compareAndSet(false, true)) {
+                semaphore.release();
+            }
+        }
+    }
+
+    private static final class Bulkhead {
+
+        private final WorkloadClass workload;
+        private final long timeoutMs;
+        private final Semaphore semaphore;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final Timer waitTimer;
+        private final Counter rejected;
+
+        Bulkhead(WorkloadClass workload, int limit, long timeoutMs, MeterRegistry meterRegistry) {
+            this.workload = workload;
+            this.timeoutMs = timeoutMs;
+            this.semaphore = new Semaphore(limit, true);
+            String name = workload.getKey();
+            Gauge.builder("grocersmart.workload.limit", () -> limit).tag("workload", name)
+                    .description("Concurrent requests or jobs allowed").register(meterRegistry);
+            Gauge.builder("grocersmart.workload.active", () -> limit - semaphore.availablePermits())
+                    .tag("workload", name).description("Requests or jobs holding a permit").register(meterRegistry);
+            Gauge.builder("grocersmart.workload.waiting", waiting::get).tag("workload", name)
+                    .description("Requests or jobs queued for a permit").register(meterRegistry);
+            this.waitTimer = Timer.builder("grocersmart.workload.wait").tag("workload", name)
+                    .description("Time spent waiting for a permit").register(meterRegistry);
+            this.rejected = Counter.builder("grocersmart.workload.rejected").tag("workload", name)
+                    .description("Requests or jobs turned away after the timeout").register(meterRegistry);
+        }
+
+        Permit acquire() {
+            long start = System.nanoTime();
+            boolean acquired;
+            waiting.incrementAndGet();
+            try {
+                acquired = semaphore.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            } finally {
+                waiting.decrementAndGet();
+            }
+            long waitedNs = System.nanoTime() - start;
+            waitTimer.record(waitedNs, TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                rejected.increment();
+                throw new WorkloadRejectedException(workload, TimeUnit.NANOSECONDS.toMillis(waitedNs));
+            }
+            return new Permit(semaphore);
+        }
+    }
+}
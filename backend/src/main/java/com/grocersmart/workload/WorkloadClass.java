@@ -0,0 +1,38 @@
+package com.grocersmart.workload;
+
+// The workloads that compete for database connections, each behind its own bulkhead. Defaults are sized for the
+// shipped pool of 20: everything but POS together stays under the pool, so checkout always finds a connection
+// however busy the back office is. Override per class with app.workload.<name>.max-concurrent / .timeout-ms.
+public enum WorkloadClass {
+
+    // Tills: sales, credit payments, invoice printing
+    POS("pos", 20, 5_000),
+    // Back-office screens: lists, searches and single-record edits; the default for anything unannotated
+    CRUD("crud", 10, 10_000),
+    // Reports, analytics, exports and CSV imports
+    REPORT("report", 3, 30_000),
+    // Nightly jobs and their manual run endpoints
+    BACKGROUND("background", 2, 600_000);
+
+    private final String key;
+    private final int defaultMaxConcurrent;
+    private final long defaultTimeoutMs;
+
+    WorkloadClass(String key, int defaultMaxConcurrent, long defaultTimeoutMs) {
+        this.key = key;
+        this.defaultMaxConcurrent = defaultMaxConcurrent;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getDefaultMaxConcurrent() {
+        return defaultMaxConcurrent;
+    }
+
+    public long getDefaultTimeoutMs() {
+        return defaultTimeoutMs;
+    }
+}
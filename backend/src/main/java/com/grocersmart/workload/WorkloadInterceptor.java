@@ -0,0 +1,63 @@
+package com.grocersmart.workload;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+// Takes a permit from the handler's workload bulkhead before the controller runs and gives it back when the
+// request completes. A streamed response gives it back once streaming starts: the stream reads in its own short
+// transactions, and holding a permit across a slow client would only shrink the class.
+@Component
+@RequiredArgsConstructor
+public class WorkloadInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT = WorkloadInterceptor.class.getName() + ".permit";
+
+    private final WorkloadBulkheads bulkheads;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        request.setAttribute(PERMIT, bulkheads.acquire(resolve(handler)));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        release(request);
+    }
+
+    private static WorkloadClass resolve(Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            Workload workload = AnnotatedElementUtils.findMergedAnnotation(method.getMethod(), Workload.class);
+            if (workload == null) {
+                workload = AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), Workload.class);
+            }
+            if (workload != null) {
+                return workload.value();
+            }
+        }
+        return WorkloadClass.CRUD;
+    }
+
+    private static void release(HttpServletRequest request) {
+        if (request.getAttribute(PERMIT) instanceof WorkloadBulkheads.Permit permit) {
+            request.removeAttribute(PERMIT);
+            permit.close();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+-- credit_customer_id on sales_records and orders was only ever created by Hibernate auto-DDL,
+-- so a database built purely from migrations (e.g. the load-test harness) fails at V19.
+-- Existing installations already have these columns and are past this version, so Flyway skips it there.
+ALTER TABLE sales_records
+    ADD COLUMN credit_customer_id BIGINT NULL,
+    ADD CONSTRAINT fk_sales_records_credit_customer FOREIGN KEY (credit_customer_id) REFERENCES credit_customers(id);
+
+ALTER TABLE orders
+    ADD COLUMN credit_customer_id BIGINT NULL,
+    ADD CONSTRAINT fk_orders_credit_customer FOREIGN KEY (credit_customer_id) REFERENCES credit_customers(id);
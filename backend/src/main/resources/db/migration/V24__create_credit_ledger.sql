@@ -0,0 +1,79 @@
+-- Append-only customer ledger: one row per balance movement with the running balance stored on the row.
+-- Statements and ledger PDFs read it in (customer_id, entry_seq) order instead of re-merging sales and payments.
+
+CREATE TABLE credit_ledger (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    customer_id BIGINT NOT NULL,
+    entry_seq BIGINT NOT NULL,
+    entry_date DATE NOT NULL,
+    entry_type VARCHAR(30) NOT NULL,
+    reference_type VARCHAR(30) NULL,
+    reference_id BIGINT NULL,
+    description VARCHAR(255) NULL,
+    debit DECIMAL(14,2) NOT NULL DEFAULT 0,
+    credit DECIMAL(14,2) NOT NULL DEFAULT 0,
+    balance_after DECIMAL(14,2) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- No FK to credit_customers: trashed customers are hard-deleted and restored under the same id,
+    -- and their history must survive the round trip
+    CONSTRAINT uk_credit_ledger_customer_seq UNIQUE (customer_id, entry_seq)
+);
+
+CREATE INDEX idx_credit_ledger_reference ON credit_ledger(reference_type, reference_id);
+
+-- Backfill from existing history. Credit sales are debits, recorded payments are credits (a bounced
+-- cheque payment was credited first, then re-debited by its bounce), bounced cheques moved to debt are debits.
+-- Anything the history does not explain (opening balances, manual edits) becomes an OPENING_BALANCE row,
+-- so every customer's last balance_after equals credit_customers.outstanding_balance.
+INSERT INTO credit_ledger (customer_id, entry_seq, entry_date, entry_type, reference_type, reference_id,
+                           description, debit, credit, balance_after)
+WITH events AS (
+    SELECT s.credit_customer_id AS customer_id, s.sales_date AS entry_date,
+           CAST(COALESCE(s.created_at, s.sales_date) AS DATETIME) AS sort_ts, 1 AS src_order,
+           'SALE' AS entry_type, 'SALE' AS reference_type, s.id AS reference_id,
+           CONCAT('Sale: ', s.invoice_id) AS description,
+           ROUND(s.total_revenue, 2) AS debit, 0 AS credit
+    FROM sales_records s
+    WHERE s.payment_method = 'CREDIT' AND s.credit_customer_id IS NOT NULL
+      AND COALESCE(s.is_deleted, FALSE) = FALSE
+    UNION ALL
+    SELECT p.customer_id, DATE(p.payment_date), CAST(p.payment_date AS DATETIME), 2,
+           'PAYMENT', 'PAYMENT', p.id, CONCAT('Payment: ', COALESCE(p.note, '-')),
+           0, ROUND(p.amount, 2)
+    FROM credit_payments p
+    WHERE COALESCE(p.status, 'SUCCESS') <> 'PENDING' AND COALESCE(p.is_deleted, FALSE) = FALSE
+      AND p.payment_date IS NOT NULL
+    UNION ALL
+    SELECT c.customer_id, COALESCE(c.bounced_date, c.due_date), CAST(COALESCE(c.bounced_date, c.due_date) AS DATETIME), 3,
+           'CHEQUE_BOUNCE', 'CHEQUE', c.id, CONCAT('Cheque bounced: ', COALESCE(c.cheque_number, '-')),
+           ROUND(c.amount, 2), 0
+    FROM cheques c
+    WHERE c.status = 'BOUNCED' AND c.migrated_to_debt = TRUE AND c.customer_id IS NOT NULL
+      AND COALESCE(c.is_deleted, FALSE) = FALSE AND COALESCE(c.bounced_date, c.due_date) IS NOT NULL
+),
+numbered AS (
+    SELECT e.*,
+           ROW_NUMBER() OVER (PARTITION BY e.customer_id
+                              ORDER BY e.entry_date, e.sort_ts, e.src_order, e.reference_id) AS rn,
+           SUM(e.debit - e.credit) OVER (PARTITION BY e.customer_id
+                                         ORDER BY e.entry_date, e.sort_ts, e.src_order, e.reference_id
+                                         ROWS UNBOUNDED PRECEDING) AS net
+    FROM events e
+),
+opening AS (
+    SELECT c.id AS customer_id,
+           ROUND(COALESCE(c.outstanding_balance, 0) - COALESCE(t.net, 0), 2) AS amount,
+           COALESCE(t.first_date, DATE(c.created_at), CURRENT_DATE) AS entry_date
+    FROM credit_customers c
+    LEFT JOIN (SELECT customer_id, SUM(debit - credit) AS net, MIN(entry_date) AS first_date
+               FROM events GROUP BY customer_id) t ON t.customer_id = c.id
+)
+SELECT o.customer_id, 1, o.entry_date, 'OPENING_BALANCE', NULL, NULL, 'Opening balance',
+       GREATEST(o.amount, 0), GREATEST(-o.amount, 0), o.amount
+FROM opening o
+WHERE o.amount <> 0
+UNION ALL
+SELECT n.customer_id, n.rn + CASE WHEN o.amount <> 0 THEN 1 ELSE 0 END, n.entry_date, n.entry_type,
+       n.reference_type, n.reference_id, n.description, n.debit, n.credit, o.amount + n.net
+FROM numbered n
+JOIN opening o ON o.customer_id = n.customer_id;
@@ -0,0 +1,24 @@
+-- Receivables aging, materialised nightly by CreditAgingService.
+-- One row per credit customer with open (UNPAID / PARTIAL) invoices; amounts are the unpaid remainder.
+
+CREATE TABLE credit_aging_summary (
+    customer_id BIGINT PRIMARY KEY,
+    as_of_date DATE NOT NULL,
+    open_invoices INT NOT NULL DEFAULT 0,
+    bucket_0_30 DECIMAL(14,2) NOT NULL DEFAULT 0,
+    bucket_31_60 DECIMAL(14,2) NOT NULL DEFAULT 0,
+    bucket_61_90 DECIMAL(14,2) NOT NULL DEFAULT 0,
+    bucket_90_plus DECIMAL(14,2) NOT NULL DEFAULT 0,
+    total_open DECIMAL(14,2) NOT NULL DEFAULT 0,
+    max_days_overdue INT NOT NULL DEFAULT 0,
+    computed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_aging_90_plus ON credit_aging_summary(bucket_90_plus);
+CREATE INDEX idx_aging_total_open ON credit_aging_summary(total_open);
+
+-- Credit sales never had a due date set; derive it from the customer's payment terms
+UPDATE sales_records s
+JOIN credit_customers c ON c.id = s.credit_customer_id
+SET s.due_date = DATE_ADD(s.sales_date, INTERVAL c.payment_terms_days DAY)
+WHERE s.payment_method = 'CREDIT' AND s.due_date IS NULL;
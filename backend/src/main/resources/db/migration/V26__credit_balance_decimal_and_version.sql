@@ -0,0 +1,14 @@
+-- Credit balances are now changed with single UPDATE statements (outstanding_balance = outstanding_balance + ?),
+-- so the arithmetic happens in the database and must be exact: move the DOUBLE money columns to DECIMAL.
+-- version lets whole-row edits (customer form) detect a balance change made after they read the row.
+
+UPDATE credit_customers
+SET outstanding_balance = ROUND(COALESCE(outstanding_balance, 0), 2),
+    credit_limit = ROUND(credit_limit, 2),
+    available_credit = ROUND(GREATEST(0, COALESCE(credit_limit, 0) - COALESCE(outstanding_balance, 0)), 2);
+
+ALTER TABLE credit_customers
+    MODIFY COLUMN credit_limit DECIMAL(12,2) NULL,
+    MODIFY COLUMN outstanding_balance DECIMAL(12,2) NOT NULL DEFAULT 0,
+    MODIFY COLUMN available_credit DECIMAL(12,2) NOT NULL DEFAULT 0,
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
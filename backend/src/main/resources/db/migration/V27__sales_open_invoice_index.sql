@@ -0,0 +1,8 @@
+-- Open invoices of one customer, oldest due first: payment allocation reads
+-- WHERE credit_customer_id = ? AND payment_status IN ('UNPAID', 'PARTIAL') ORDER BY due_date
+-- from this index, so its cost follows the customer's open invoices rather than their whole history.
+CREATE INDEX idx_sales_customer_open ON sales_records(credit_customer_id, payment_status, due_date);
+
+-- Both were plain duplicates on credit_customer_id (the FK keeps its own index); the new one covers them
+DROP INDEX idx_sales_customer ON sales_records;
+DROP INDEX idx_sales_c_id ON sales_records;
@@ -0,0 +1,22 @@
+-- Cheques to deposit: the daily job copies PENDING cheques due within the deposit window here,
+-- read from idx_cheques_status_due as one range (status = 'PENDING' AND due_date <= ?).
+-- Rows leave the queue when the cheque is deposited, cleared or bounced, or on the next refresh.
+
+CREATE INDEX idx_cheques_status_due ON cheques(status, due_date);
+
+-- The status-only indexes are prefixes of the new one; idx_chq_d_date duplicated idx_cheques_due_date
+DROP INDEX idx_cheques_status ON cheques;
+DROP INDEX idx_chq_status ON cheques;
+DROP INDEX idx_chq_d_date ON cheques;
+
+CREATE TABLE cheque_deposit_queue (
+    cheque_id BIGINT PRIMARY KEY,
+    customer_id BIGINT NULL,
+    amount DECIMAL(12,2) NOT NULL,
+    due_date DATE NOT NULL,
+    queued_for DATE NOT NULL,
+    queued_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_deposit_queue_cheque FOREIGN KEY (cheque_id) REFERENCES cheques(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_deposit_queue_due ON cheque_deposit_queue(due_date, cheque_id);
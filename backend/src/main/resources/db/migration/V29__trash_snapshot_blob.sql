@@ -0,0 +1,49 @@
+-- Recycle-bin snapshots move from full-graph JSON text to a compact, zstd-compressed BLOB (see SnapshotCodec).
+-- snapshot_version says how a row's snapshot is stored: 1 = legacy JSON in snapshot_json, 2 = compressed
+-- compact JSON in snapshot. Existing rows are version 1 until V30 converts them.
+-- The entity tables also get entity_name, the display name, so their trash lists no longer parse every
+-- snapshot; the sales, cheque and order lists already show public_id.
+
+ALTER TABLE deleted_users
+    MODIFY snapshot_json LONGTEXT NULL,
+    ADD COLUMN snapshot MEDIUMBLOB NULL,
+    ADD COLUMN snapshot_version SMALLINT NOT NULL DEFAULT 1,
+    ADD COLUMN entity_name VARCHAR(255) NULL;
+
+ALTER TABLE deleted_products
+    MODIFY snapshot_json LONGTEXT NULL,
+    ADD COLUMN snapshot MEDIUMBLOB NULL,
+    ADD COLUMN snapshot_version SMALLINT NOT NULL DEFAULT 1,
+    ADD COLUMN entity_name VARCHAR(255) NULL;
+
+ALTER TABLE deleted_suppliers
+    MODIFY snapshot_json LONGTEXT NULL,
+    ADD COLUMN snapshot MEDIUMBLOB NULL,
+    ADD COLUMN snapshot_version SMALLINT NOT NULL DEFAULT 1,
+    ADD COLUMN entity_name VARCHAR(255) NULL;
+
+ALTER TABLE deleted_credit_customers
+    MODIFY snapshot_json LONGTEXT NULL,
+    ADD COLUMN snapshot MEDIUMBLOB NULL,
+    ADD COLUMN snapshot_version SMALLINT NOT NULL DEFAULT 1,
+    ADD COLUMN entity_name VARCHAR(255) NULL;
+
+ALTER TABLE deleted_sales
+    MODIFY snapshot_json LONGTEXT NULL,
+    ADD COLUMN snapshot MEDIUMBLOB NULL,
+    ADD COLUMN snapshot_version SMALLINT NOT NULL DEFAULT 1;
+
+ALTER TABLE deleted_cheques
+    MODIFY snapshot_json LONGTEXT NULL,
+    ADD COLUMN snapshot MEDIUMBLOB NULL,
+    ADD COLUMN snapshot_version SMALLINT NOT NULL DEFAULT 1;
+
+ALTER TABLE deleted_orders
+    MODIFY snapshot_json LONGTEXT NULL,
+    ADD COLUMN snapshot MEDIUMBLOB NULL,
+    ADD COLUMN snapshot_version SMALLINT NOT NULL DEFAULT 1;
+
+ALTER TABLE deleted_purchase_orders
+    MODIFY snapshot_json LONGTEXT NULL,
+    ADD COLUMN snapshot MEDIUMBLOB NULL,
+    ADD COLUMN snapshot_version SMALLINT NOT NULL DEFAULT 1;
@@ -0,0 +1,30 @@
+-- Unified recycle-bin feed (GET /api/trash): every deleted_* table carries its display name and a one-line
+-- summary, written at delete time, so the feed never reads snapshots. V32 fills them in for existing rows.
+-- idx_trash_feed serves the feed's keyset read: restored = FALSE, newest deleted_at first (InnoDB appends
+-- deleted_id, the primary key, which breaks ties).
+
+ALTER TABLE deleted_users ADD COLUMN summary VARCHAR(255) NULL;
+ALTER TABLE deleted_products ADD COLUMN summary VARCHAR(255) NULL;
+ALTER TABLE deleted_suppliers ADD COLUMN summary VARCHAR(255) NULL;
+ALTER TABLE deleted_credit_customers ADD COLUMN summary VARCHAR(255) NULL;
+
+ALTER TABLE deleted_sales ADD COLUMN entity_name VARCHAR(255) NULL, ADD COLUMN summary VARCHAR(255) NULL;
+ALTER TABLE deleted_cheques ADD COLUMN entity_name VARCHAR(255) NULL, ADD COLUMN summary VARCHAR(255) NULL;
+ALTER TABLE deleted_orders ADD COLUMN entity_name VARCHAR(255) NULL, ADD COLUMN summary VARCHAR(255) NULL;
+ALTER TABLE deleted_purchase_orders ADD COLUMN entity_name VARCHAR(255) NULL, ADD COLUMN summary VARCHAR(255) NULL;
+
+CREATE INDEX idx_trash_feed ON deleted_users(restored, deleted_at);
+CREATE INDEX idx_trash_feed ON deleted_products(restored, deleted_at);
+CREATE INDEX idx_trash_feed ON deleted_suppliers(restored, deleted_at);
+CREATE INDEX idx_trash_feed ON deleted_credit_customers(restored, deleted_at);
+CREATE INDEX idx_trash_feed ON deleted_sales(restored, deleted_at);
+CREATE INDEX idx_trash_feed ON deleted_cheques(restored, deleted_at);
+CREATE INDEX idx_trash_feed ON deleted_orders(restored, deleted_at);
+CREATE INDEX idx_trash_feed ON deleted_purchase_orders(restored, deleted_at);
+
+-- idx_restored on the V5/V14 tables is a prefix of idx_trash_feed
+DROP INDEX idx_restored ON deleted_users;
+DROP INDEX idx_restored ON deleted_products;
+DROP INDEX idx_restored ON deleted_suppliers;
+DROP INDEX idx_restored ON deleted_credit_customers;
+DROP INDEX idx_restored ON deleted_purchase_orders;
@@ -0,0 +1,4 @@
+-- The trash engine writes one restore statement for every deleted_* table; the V12 tables lacked restore_count
+ALTER TABLE deleted_sales ADD COLUMN restore_count INT DEFAULT 0;
+ALTER TABLE deleted_cheques ADD COLUMN restore_count INT DEFAULT 0;
+ALTER TABLE deleted_orders ADD COLUMN restore_count INT DEFAULT 0;
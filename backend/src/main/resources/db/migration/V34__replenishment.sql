@@ -0,0 +1,25 @@
+-- Replenishment: each product's usual supplier, and units sold per product per day.
+-- product_daily_sales is keyed by day first, so both the nightly restatement (a date range) and the velocity read
+-- (SUM over the last N days, grouped by product) are range scans of the primary key.
+
+ALTER TABLE products
+    ADD COLUMN supplier_id BIGINT NULL,
+    ADD CONSTRAINT fk_products_supplier FOREIGN KEY (supplier_id) REFERENCES suppliers(id);
+
+-- Existing products take the supplier of the latest purchase order they appear on
+UPDATE products p
+JOIN (
+    SELECT poi.product_id, MAX(poi.purchase_order_id) AS po_id
+    FROM purchase_order_items poi
+    GROUP BY poi.product_id
+) latest ON latest.product_id = p.id
+JOIN purchase_orders po ON po.id = latest.po_id
+SET p.supplier_id = po.supplier_id;
+
+CREATE TABLE product_daily_sales (
+    sales_date DATE NOT NULL,
+    product_id BIGINT NOT NULL,
+    units_sold INT NOT NULL,
+    revenue DECIMAL(19,2) NOT NULL,
+    PRIMARY KEY (sales_date, product_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
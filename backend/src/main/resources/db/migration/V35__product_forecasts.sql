@@ -0,0 +1,23 @@
+-- Demand forecasting: units sold on promotion lines are rolled up alongside the total, and the forecaster reads the
+-- rollup product by product through a covering index instead of sorting the day-first primary key.
+-- The rollup is emptied so the next replenishment or forecast run rebuilds it with promo_units filled in.
+
+ALTER TABLE product_daily_sales ADD COLUMN promo_units INT NOT NULL DEFAULT 0;
+DELETE FROM product_daily_sales;
+CREATE INDEX idx_pds_product ON product_daily_sales(product_id, sales_date, units_sold, promo_units);
+
+-- Read model written by the nightly forecast job (DemandForecastService)
+CREATE TABLE product_forecasts (
+    product_id BIGINT PRIMARY KEY,
+    as_of_date DATE NOT NULL,
+    model VARCHAR(20) NOT NULL,
+    daily_rate DOUBLE NOT NULL,
+    next_7_days DOUBLE NOT NULL,
+    next_28_days DOUBLE NOT NULL,
+    mean_abs_error DOUBLE NULL,
+    history_days INT NOT NULL,
+    promo_share DOUBLE NOT NULL DEFAULT 0,
+    computed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_forecast_next_28 ON product_forecasts(next_28_days);
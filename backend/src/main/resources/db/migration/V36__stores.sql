@@ -0,0 +1,51 @@
+-- Multi-store: branches, stock per branch, and the branch on every sale, order, purchase order and stock movement.
+-- Everything that exists today belongs to the MAIN store (id 1), which is also the default for new rows.
+-- products.unit_qty / bulk_qty stay as the chain-wide totals and are kept equal to the sum of product_stock by
+-- StockService, in the same transaction as each change.
+--
+-- sales_records and sales_items are not partitioned: InnoDB does not support foreign keys on partitioned tables, and
+-- both are referenced (orders, sales_items, cheques, ...). Per-store reads use the (store_id, sales_date) index below
+-- instead, which narrows them to the store's own range of the index in the same way.
+
+CREATE TABLE stores (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    code VARCHAR(20) NOT NULL UNIQUE,
+    name VARCHAR(120) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO stores (id, code, name) VALUES (1, 'MAIN', 'Main store');
+
+-- No foreign key to products: rows outlive a product moved to the recycle bin and are there again on restore
+CREATE TABLE product_stock (
+    store_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    unit_qty INT NOT NULL DEFAULT 0,
+    bulk_qty DOUBLE NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (store_id, product_id),
+    CONSTRAINT fk_product_stock_store FOREIGN KEY (store_id) REFERENCES stores(id)
+);
+
+INSERT INTO product_stock (store_id, product_id, unit_qty, bulk_qty)
+SELECT 1, id, COALESCE(unit_qty, 0), COALESCE(bulk_qty, 0) FROM products;
+
+UPDATE sales_records SET store_id = 1 WHERE store_id IS NULL;
+DROP INDEX idx_sales_store ON sales_records;
+ALTER TABLE sales_records
+    MODIFY store_id BIGINT NOT NULL DEFAULT 1,
+    ADD CONSTRAINT fk_sales_store FOREIGN KEY (store_id) REFERENCES stores(id);
+CREATE INDEX idx_sales_store_date ON sales_records(store_id, sales_date);
+
+ALTER TABLE orders
+    ADD COLUMN store_id BIGINT NOT NULL DEFAULT 1,
+    ADD CONSTRAINT fk_orders_store FOREIGN KEY (store_id) REFERENCES stores(id);
+
+ALTER TABLE purchase_orders
+    ADD COLUMN store_id BIGINT NOT NULL DEFAULT 1,
+    ADD CONSTRAINT fk_purchase_orders_store FOREIGN KEY (store_id) REFERENCES stores(id);
+
+ALTER TABLE stock_movements
+    ADD COLUMN store_id BIGINT NOT NULL DEFAULT 1,
+    ADD CONSTRAINT fk_stock_movements_store FOREIGN KEY (store_id) REFERENCES stores(id);
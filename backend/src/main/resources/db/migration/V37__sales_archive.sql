@@ -0,0 +1,69 @@
+-- Sales history tiering. Settled sales older than app.archive.months move out of sales_records / sales_items into
+-- these two tables (SalesArchiveService), which keeps the hot tables, and every index over them, to the recent
+-- months the tills, aging and allocation actually work on.
+--
+-- The hot tables cannot be range partitioned: InnoDB refuses foreign keys on partitioned tables, and every unique
+-- key (id, invoice_id, public_id) would have to include sales_date. The archive has neither constraint, so it is
+-- partitioned by month of sales_date; the archiver adds each month's partition before moving rows into it. Rows are
+-- moved with their original ids, so the two tiers never overlap and a sale is in exactly one of them.
+-- Pages are compressed: archived rows are written once and read by reports only.
+
+CREATE TABLE sales_records_archive (
+    id BIGINT NOT NULL,
+    public_id VARCHAR(20) NOT NULL,
+    invoice_id VARCHAR(20) NOT NULL,
+    sales_date DATE NOT NULL,
+    store_id BIGINT NOT NULL,
+    total_revenue DECIMAL(19, 2) NOT NULL DEFAULT 0.00,
+    total_items_sold INT NOT NULL DEFAULT 0,
+    payment_method ENUM('CASH', 'CREDIT') DEFAULT 'CASH',
+    payment_status ENUM('PAID', 'PARTIAL', 'UNPAID') NOT NULL DEFAULT 'PAID',
+    due_date DATE NULL,
+    paid_amount DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    days_overdue INT NOT NULL DEFAULT 0,
+    cashier_id BIGINT NULL,
+    is_deleted BOOLEAN DEFAULT FALSE,
+    deleted_at DATETIME NULL,
+    deleted_by VARCHAR(50) NULL,
+    credit_customer_id BIGINT NULL,
+    note TEXT,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, sales_date),
+    INDEX idx_sra_date (sales_date),
+    INDEX idx_sra_store_date (store_id, sales_date),
+    INDEX idx_sra_customer (credit_customer_id),
+    INDEX idx_sra_invoice (invoice_id),
+    INDEX idx_sra_public (public_id)
+) ROW_FORMAT = COMPRESSED
+PARTITION BY RANGE COLUMNS (sales_date) (
+    PARTITION p_before VALUES LESS THAN ('2000-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
+
+-- sales_date is copied from the parent so that items are partitioned, and pruned, the same way
+CREATE TABLE sales_items_archive (
+    id BIGINT NOT NULL,
+    sales_record_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    qty_sold INT NOT NULL,
+    unit_price DECIMAL(19, 2) NOT NULL,
+    line_total DECIMAL(19, 2) NOT NULL,
+    product_name_snapshot VARCHAR(120),
+    category_snapshot VARCHAR(80),
+    unit_or_bulk ENUM('UNIT', 'BULK') DEFAULT 'UNIT',
+    promotion_applied BOOLEAN DEFAULT FALSE,
+    discount_amount DECIMAL(12, 2) DEFAULT 0,
+    sales_date DATE NOT NULL,
+    PRIMARY KEY (id, sales_date),
+    INDEX idx_sia_record (sales_record_id),
+    INDEX idx_sia_date_product (sales_date, product_id)
+) ROW_FORMAT = COMPRESSED
+PARTITION BY RANGE COLUMNS (sales_date) (
+    PARTITION p_before VALUES LESS THAN ('2000-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
+
+-- The archiver keeps invoices with a cheque still in flight hot; this makes that check a lookup
+CREATE INDEX idx_cheques_invoice ON cheques(invoice_id);
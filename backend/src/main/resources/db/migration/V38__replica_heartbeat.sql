@@ -0,0 +1,10 @@
+-- Read replica lag. ReplicaLagMonitor stamps this row on the primary every heartbeat and reads it back on the
+-- replica; how far the replica's copy trails the clock is its replication lag, whatever the replication setup.
+-- With several app nodes each stamps its own clock and the newest stamp wins.
+
+CREATE TABLE replica_heartbeat (
+    id TINYINT NOT NULL PRIMARY KEY,
+    beat_ms BIGINT NOT NULL
+);
+
+INSERT INTO replica_heartbeat (id, beat_ms) VALUES (1, 0);
@@ -0,0 +1,23 @@
+-- Transactional outbox. Write paths append their domain events (SaleCreated, PaymentRecorded, StockChanged,
+-- ChequeBounced) here in the same transaction as the change itself, so an event exists exactly when its change was
+-- committed. DomainEventDispatcher reads them in id order and hands them to the projectors; each projector's position
+-- is its row in event_consumers, moved in the same transaction as the projection it made.
+-- No foreign keys: events describe what happened and outlive the rows they mention.
+
+CREATE TABLE domain_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(40) NOT NULL,
+    aggregate_type VARCHAR(30) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    store_id BIGINT NULL,
+    payload JSON NOT NULL,
+    created_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6)
+);
+
+CREATE INDEX idx_domain_events_created ON domain_events(created_at);
+
+CREATE TABLE event_consumers (
+    consumer VARCHAR(60) NOT NULL PRIMARY KEY,
+    last_event_id BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
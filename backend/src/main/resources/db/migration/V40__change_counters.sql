@@ -0,0 +1,13 @@
+-- Change counters for conditional GETs. After a transaction that wrote a table has committed, ChangeCounters adds one
+-- to the table's row in a separate autocommit statement, and the read endpoints build their ETags from these versions.
+-- The bump is not atomic with the data: between the commit and the bump a reader gets the new rows under the old tag,
+-- and revalidates them once more after the bump. updated_at only resolves to the second, so two edits within one
+-- second would otherwise share a tag.
+
+CREATE TABLE change_counters (
+    table_name VARCHAR(40) NOT NULL PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO change_counters (table_name) VALUES
+    ('credit_customers'), ('credit_ledger'), ('credit_payments'), ('products'), ('suppliers'), ('users');
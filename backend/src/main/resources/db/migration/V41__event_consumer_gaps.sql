@@ -0,0 +1,11 @@
+-- Outbox ids a projector has moved past while they were still missing. An id is taken when a transaction writes its
+-- events, moments before it commits, so a slow commit can land behind a position that has already moved on.
+-- DomainEventDispatcher re-checks these ids on every poll, projects the ones that turn up, and drops the rest once
+-- they are older than app.events.gap-horizon-ms (their transaction rolled back).
+
+CREATE TABLE event_consumer_gaps (
+    consumer VARCHAR(60) NOT NULL,
+    event_id BIGINT NOT NULL,
+    seen_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (consumer, event_id)
+);
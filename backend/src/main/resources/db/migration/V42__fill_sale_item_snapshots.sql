@@ -0,0 +1,13 @@
+-- Sale lines record the product's name and category as sold. Lines written through the API before SalesService
+-- filled these in have none, and archived lines are shown from the snapshot alone; both tiers take the product's
+-- current name and category where it is missing.
+
+UPDATE sales_items si JOIN products p ON p.id = si.product_id
+SET si.product_name_snapshot = COALESCE(si.product_name_snapshot, p.name),
+    si.category_snapshot = COALESCE(si.category_snapshot, p.category)
+WHERE si.product_name_snapshot IS NULL OR si.category_snapshot IS NULL;
+
+UPDATE sales_items_archive si JOIN products p ON p.id = si.product_id
+SET si.product_name_snapshot = COALESCE(si.product_name_snapshot, p.name),
+    si.category_snapshot = COALESCE(si.category_snapshot, p.category)
+WHERE si.product_name_snapshot IS NULL OR si.category_snapshot IS NULL;
@@ -0,0 +1,50 @@
+package com.grocersmart;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+// Base for tests that need the whole app: one embedded MariaDB per test JVM, migrated by Flyway when the first
+// context starts. Subclasses share that context and database, so each creates its own rows and never assumes the
+// tables are empty. Nightly jobs are off; the event dispatcher and the live stream run as they do in production.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public abstract class IntegrationTest {
+
+    private static final DB DATABASE = start();
+
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:mysql://localhost:" + DATABASE.getConfiguration().getPort()
+                + "/grocersmart?createDatabaseIfNotExist=true&allowPublicKeyRetrieval=true&useSSL=false"
+                + "&rewriteBatchedStatements=true");
+        registry.add("spring.datasource.username", () -> "root");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.devtools.restart.enabled", () -> "false");
+        registry.add("logging.level.org.springframework.web", () -> "WARN");
+        registry.add("logging.level.org.springframework.security", () -> "WARN");
+        registry.add("app.aging.schedule-enabled", () -> "false");
+        registry.add("app.cheques.schedule-enabled", () -> "false");
+        registry.add("app.trash.schedule-enabled", () -> "false");
+        registry.add("app.replenishment.schedule-enabled", () -> "false");
+        registry.add("app.forecast.schedule-enabled", () -> "false");
+        registry.add("app.sales-archive.schedule-enabled", () -> "false");
+    }
+
+    private static DB start() {
+        DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+        config.setPort(0);
+        if ("root".equals(System.getProperty("user.name"))) {
+            config.addArg("--user=root");
+        }
+        try {
+            DB db = DB.newEmbeddedDB(config.build());
+            db.start();
+            return db;
+        } catch (ManagedProcessException e) {
+            throw new IllegalStateException("Could not start the embedded MariaDB", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.grocersmart.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryStatsTest {
+
+    @Test
+    void fingerprintGroupsQueriesThatDifferOnlyInValues() {
+        assertThat(QueryStats.fingerprint("select * from products where id in (?, ?, ?) and name = 'Tea'"))
+                .isEqualTo(QueryStats.fingerprint("select  *\n from products where id IN (?) and name = 'it''s'"))
+                .isEqualTo("select * from products where id in (?) and name = ?");
+        assertThat(QueryStats.fingerprint("select * from sales_records limit 20 offset 40"))
+                .isEqualTo("select * from sales_records limit ? offset ?");
+    }
+
+    @Test
+    void countsEveryStatementButKeepsABoundedNumberOfShapes() {
+        QueryStats stats = QueryStats.begin();
+        try {
+            assertThat(QueryStats.current()).isSameAs(stats);
+            for (int i = 0; i < 60; i++) {
+                stats.record("select * from table_" + (char) ('a' + i % 26) + (char) ('a' + i / 26) + " where id = "
+                        + i, 2);
+            }
+            stats.record("select * from table_aa where id = 99", 1);
+
+            assertThat(stats.getStatementCount()).isEqualTo(61);
+            assertThat(stats.getTotalTimeMs()).isEqualTo(121);
+            assertThat(stats.getFingerprints()).hasSize(50)
+                    .containsEntry("select * from table_aa where id = ?", 2);
+        } finally {
+            QueryStats.end();
+        }
+        assertThat(QueryStats.current()).isNull();
+    }
+}
@@ -0,0 +1,163 @@
+package com.grocersmart.service;
+
+import com.grocersmart.IntegrationTest;
+import com.grocersmart.dto.CreditCustomerDto;
+import com.grocersmart.dto.CreditPaymentDto;
+import com.grocersmart.dto.ProductDto;
+import com.grocersmart.dto.SalesItemDto;
+import com.grocersmart.dto.SalesRecordDto;
+import com.grocersmart.entity.SalesRecord;
+import com.grocersmart.exception.CreditLimitExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Credit sales and payments racing on one customer: the limit holds, no update is lost or doubled, and the ledger
+// ends gap-free at the stored balance
+class CreditBalanceConcurrencyTest extends IntegrationTest {
+
+    private static final int SALE_THREADS = 8;
+    private static final int SALES_PER_THREAD = 20;
+    private static final int PAYMENT_THREADS = 4;
+    private static final int PAYMENTS_PER_THREAD = 10;
+
+    @Autowired
+    private SalesService salesService;
+
+    @Autowired
+    private CreditService creditService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentSalesAndPaymentsKeepBalanceAndLedgerInStep() throws Exception {
+        long customerId = customer(BigDecimal.valueOf(1000));
+        long productId = product();
+        AtomicInteger sales = new AtomicInteger();
+        AtomicInteger overLimit = new AtomicInteger();
+        AtomicInteger payments = new AtomicInteger();
+        AtomicInteger overpaid = new AtomicInteger();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Void>> work = new ArrayList<>();
+        for (int t = 0; t < SALE_THREADS; t++) {
+            work.add(() -> {
+                start.await();
+                for (int i = 0; i < SALES_PER_THREAD; i++) {
+                    try {
+                        salesService.createSalesRecord(creditSale(customerId, productId, 10));
+                        sales.incrementAndGet();
+                    } catch (CreditLimitExceededException e) {
+                        overLimit.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        for (int t = 0; t < PAYMENT_THREADS; t++) {
+            work.add(() -> {
+                start.await();
+                for (int i = 0; i < PAYMENTS_PER_THREAD; i++) {
+                    CreditPaymentDto payment = new CreditPaymentDto();
+                    payment.setAmount(5.0);
+                    payment.setNote("test");
+                    try {
+                        creditService.addPayment(customerId, payment);
+                        payments.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        // Only before the first sale lands: more than the customer owes
+                        overpaid.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(work.size());
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            work.forEach(w -> futures.add(executor.submit(w)));
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(sales.get() + overLimit.get()).isEqualTo(SALE_THREADS * SALES_PER_THREAD);
+        assertThat(payments.get() + overpaid.get()).isEqualTo(PAYMENT_THREADS * PAYMENTS_PER_THREAD);
+        // Payments only ever free up credit, so at least the limit's worth of sales got through
+        assertThat(sales.get()).isGreaterThanOrEqualTo(100);
+        assertThat(overLimit.get()).isPositive();
+
+        BigDecimal expected = BigDecimal.valueOf(sales.get() * 10L - payments.get() * 5L);
+        Map<String, Object> customer = jdbcTemplate.queryForMap("SELECT outstanding_balance, available_credit, "
+                + "credit_limit FROM credit_customers WHERE id = ?", customerId);
+        assertThat((BigDecimal) customer.get("outstanding_balance")).isEqualByComparingTo(expected);
+        assertThat(expected).isLessThanOrEqualTo(BigDecimal.valueOf(1000));
+        assertThat(((BigDecimal) customer.get("available_credit")).add(expected))
+                .isEqualByComparingTo(BigDecimal.valueOf(1000));
+
+        Map<String, Object> ledger = jdbcTemplate.queryForMap("SELECT COUNT(*) AS entries, MAX(entry_seq) AS last_seq, "
+                + "SUM(debit - credit) AS net FROM credit_ledger WHERE customer_id = ?", customerId);
+        assertThat(((Number) ledger.get("entries")).longValue()).isEqualTo(sales.get() + payments.get());
+        assertThat(((Number) ledger.get("last_seq")).longValue()).isEqualTo(sales.get() + payments.get());
+        assertThat((BigDecimal) ledger.get("net")).isEqualByComparingTo(expected);
+        assertThat(jdbcTemplate.queryForObject("SELECT balance_after FROM credit_ledger WHERE customer_id = ? "
+                + "ORDER BY entry_seq DESC LIMIT 1", BigDecimal.class, customerId)).isEqualByComparingTo(expected);
+    }
+
+    private long customer(BigDecimal creditLimit) {
+        CreditCustomerDto dto = new CreditCustomerDto();
+        dto.setName("Concurrency " + UUID.randomUUID());
+        dto.setPhone("07" + (System.nanoTime() % 100_000_000L));
+        dto.setCreditLimit(creditLimit);
+        dto.setOutstandingBalance(BigDecimal.ZERO);
+        dto.setPaymentTermsDays(30);
+        return creditService.createCustomer(dto).getId();
+    }
+
+    private long product() {
+        ProductDto dto = new ProductDto();
+        dto.setName("Concurrency " + UUID.randomUUID());
+        dto.setCategory("Test");
+        dto.setUnitPrice(10.0);
+        dto.setBulkPrice(100.0);
+        dto.setUnitQty(10_000);
+        dto.setBulkQty(0.0);
+        return productService.createProduct(dto).getId();
+    }
+
+    private static SalesRecordDto creditSale(long customerId, long productId, int price) {
+        SalesItemDto item = new SalesItemDto();
+        item.setProductId(productId);
+        item.setQtySold(1);
+        item.setUnitPrice(BigDecimal.valueOf(price));
+        SalesRecordDto sale = new SalesRecordDto();
+        sale.setSalesDate(LocalDate.now());
+        sale.setPaymentMethod(SalesRecord.PaymentMethod.CREDIT);
+        sale.setCreditCustomerId(customerId);
+        sale.setItems(List.of(item));
+        return sale;
+    }
+}
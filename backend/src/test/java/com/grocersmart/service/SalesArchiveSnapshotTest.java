@@ -0,0 +1,81 @@
+package com.grocersmart.service;
+
+import com.grocersmart.IntegrationTest;
+import com.grocersmart.dto.ProductDto;
+import com.grocersmart.dto.SalesItemDto;
+import com.grocersmart.dto.SalesRecordDto;
+import com.grocersmart.entity.SalesRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Archived sale lines are shown from their snapshot columns alone: a sale made through the service keeps the name
+// it was sold under, and a line that never had a snapshot is archived with the product's current name
+class SalesArchiveSnapshotTest extends IntegrationTest {
+
+    @Autowired
+    private SalesService salesService;
+
+    @Autowired
+    private SalesArchiveService salesArchiveService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void archivedSalesKeepTheirProductNames() {
+        String name = "Snapshot " + UUID.randomUUID();
+        ProductDto product = new ProductDto();
+        product.setName(name);
+        product.setCategory("Tea");
+        product.setUnitPrice(10.0);
+        product.setBulkPrice(100.0);
+        product.setUnitQty(100);
+        product.setBulkQty(0.0);
+        long productId = productService.createProduct(product).getId();
+
+        // Older than any other test's sales, so only these two are archived below
+        LocalDate soldOn = LocalDate.now().minusYears(10);
+        long snapshotted = salesService.createSalesRecord(cashSale(productId, soldOn)).getId();
+        long legacy = salesService.createSalesRecord(cashSale(productId, soldOn)).getId();
+        assertThat(jdbcTemplate.queryForList("SELECT CONCAT(product_name_snapshot, '/', category_snapshot, '/', "
+                + "unit_or_bulk) FROM sales_items WHERE sales_record_id IN (?, ?)", String.class, snapshotted, legacy))
+                .containsExactly(name + "/Tea/UNIT", name + "/Tea/UNIT");
+
+        jdbcTemplate.update("UPDATE sales_items SET product_name_snapshot = NULL, category_snapshot = NULL "
+                + "WHERE sales_record_id = ?", legacy);
+        jdbcTemplate.update("UPDATE products SET name = ? WHERE id = ?", name + " (renamed)", productId);
+        salesArchiveService.run(LocalDate.now());
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sales_records WHERE id IN (?, ?)",
+                Integer.class, snapshotted, legacy)).isZero();
+        assertThat(salesService.getSalesRecord(snapshotted).getItems())
+                .extracting(SalesItemDto::getProductName).containsExactly(name);
+        assertThat(salesService.getSalesRecord(legacy).getItems())
+                .extracting(SalesItemDto::getProductName).containsExactly(name + " (renamed)");
+        assertThat(jdbcTemplate.queryForObject("SELECT category_snapshot FROM sales_items_archive "
+                + "WHERE sales_record_id = ?", String.class, legacy)).isEqualTo("Tea");
+    }
+
+    private static SalesRecordDto cashSale(long productId, LocalDate salesDate) {
+        SalesItemDto item = new SalesItemDto();
+        item.setProductId(productId);
+        item.setQtySold(2);
+        item.setUnitPrice(BigDecimal.TEN);
+        SalesRecordDto sale = new SalesRecordDto();
+        sale.setSalesDate(salesDate);
+        sale.setPaymentMethod(SalesRecord.PaymentMethod.CASH);
+        sale.setItems(List.of(item));
+        return sale;
+    }
+}
@@ -0,0 +1,84 @@
+package com.grocersmart.service;
+
+import com.grocersmart.IntegrationTest;
+import com.grocersmart.dto.DataGenerationRequest;
+import com.grocersmart.dto.SalesRecordDto;
+import com.grocersmart.monitoring.QueryStats;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The sales list costs a fixed handful of statements per page: a query per row (items, customer, product) would
+// show up as the count growing with the page. Lazy associations load in IN batches of default_batch_fetch_size (50),
+// so a page of up to 50 costs the same as a page of 10, and each further 50 rows add at most one batch.
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SalesListQueryCountTest extends IntegrationTest {
+
+    @Autowired
+    private SyntheticDataService syntheticDataService;
+
+    @Autowired
+    private SalesService salesService;
+
+    @BeforeAll
+    void seed() {
+        DataGenerationRequest request = new DataGenerationRequest();
+        request.setSeed(7);
+        request.setYears(1);
+        request.setProducts(60);
+        request.setCustomers(20);
+        request.setSuppliers(3);
+        request.setSalesPerDay(4);
+        request.setCreditSaleRatio(0.3);
+        syntheticDataService.generate(request);
+    }
+
+    @Test
+    void hotTierPageCostIsIndependentOfPageSize() {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusMonths(6);
+        int small = statements(() -> page(from, to, 10));
+
+        assertThat(statements(() -> page(from, to, 50))).isEqualTo(small);
+        assertThat(statements(() -> page(from, to, 100))).isLessThanOrEqualTo(small + 1);
+        assertThat(small).isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    void pageAcrossBothTiersCostIsIndependentOfPageSize() {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusYears(5);
+        int small = statements(() -> page(from, to, 10));
+
+        assertThat(statements(() -> page(from, to, 50))).isEqualTo(small);
+        assertThat(statements(() -> page(from, to, 100))).isLessThanOrEqualTo(small + 1);
+        assertThat(small).isLessThanOrEqualTo(8);
+    }
+
+    private Page<SalesRecordDto> page(LocalDate from, LocalDate to, int size) {
+        Page<SalesRecordDto> page = salesService.getSalesRecords(null, null, null, from, to,
+                PageRequest.of(1, size, Sort.by(Sort.Direction.DESC, "salesDate")), true);
+        assertThat(page.getContent()).hasSize(size);
+        assertThat(page.getContent()).allSatisfy(sale -> assertThat(sale.getItems()).isNotEmpty());
+        return page;
+    }
+
+    private static int statements(Supplier<?> work) {
+        QueryStats stats = QueryStats.begin();
+        try {
+            work.get();
+            return stats.getStatementCount();
+        } finally {
+            QueryStats.end();
+        }
+    }
+}
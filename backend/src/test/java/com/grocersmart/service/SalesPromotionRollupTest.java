@@ -0,0 +1,82 @@
+package com.grocersmart.service;
+
+import com.grocersmart.IntegrationTest;
+import com.grocersmart.dto.ProductDto;
+import com.grocersmart.dto.SalesItemDto;
+import com.grocersmart.dto.SalesRecordDto;
+import com.grocersmart.entity.SalesRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Lines sold under list price are recorded as promotions at sale time, and the nightly rollup counts their units
+// (bulk packs in units) as promo_units, the forecast's promotion input
+class SalesPromotionRollupTest extends IntegrationTest {
+
+    @Autowired
+    private SalesService salesService;
+
+    @Autowired
+    private ReplenishmentService replenishmentService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void discountedLinesReachTheRollupAsPromoUnits() {
+        ProductDto dto = new ProductDto();
+        dto.setName("Promotion " + UUID.randomUUID());
+        dto.setCategory("Tea");
+        dto.setUnitPrice(10.0);
+        dto.setBulkPrice(110.0);
+        dto.setUnitsPerBulk(12);
+        dto.setUnitQty(1000);
+        dto.setBulkQty(10.0);
+        long productId = productService.createProduct(dto).getId();
+        LocalDate day = LocalDate.now().minusDays(3);
+
+        salesService.createSalesRecord(cashSale(day, line(productId, 3, "10.00", null)));
+        long discounted = salesService.createSalesRecord(cashSale(day, line(productId, 2, "8.50", null))).getId();
+        salesService.createSalesRecord(cashSale(day, line(productId, 1, "100.00", "BULK")));
+
+        Map<String, Object> promoted = jdbcTemplate.queryForMap("SELECT promotion_applied, discount_amount "
+                + "FROM sales_items WHERE sales_record_id = ?", discounted);
+        assertThat(promoted.get("promotion_applied")).isEqualTo(true);
+        assertThat((BigDecimal) promoted.get("discount_amount")).isEqualByComparingTo("3.00");
+
+        replenishmentService.rollup(day, day);
+
+        Map<String, Object> rollup = jdbcTemplate.queryForMap("SELECT units_sold, promo_units FROM product_daily_sales "
+                + "WHERE sales_date = ? AND product_id = ?", day, productId);
+        assertThat(((Number) rollup.get("units_sold")).intValue()).isEqualTo(3 + 2 + 12);
+        assertThat(((Number) rollup.get("promo_units")).intValue()).isEqualTo(2 + 12);
+    }
+
+    private static SalesItemDto line(long productId, int qty, String unitPrice, String unitOrBulk) {
+        SalesItemDto item = new SalesItemDto();
+        item.setProductId(productId);
+        item.setQtySold(qty);
+        item.setUnitPrice(new BigDecimal(unitPrice));
+        item.setUnitOrBulk(unitOrBulk);
+        return item;
+    }
+
+    private static SalesRecordDto cashSale(LocalDate salesDate, SalesItemDto item) {
+        SalesRecordDto sale = new SalesRecordDto();
+        sale.setSalesDate(salesDate);
+        sale.setPaymentMethod(SalesRecord.PaymentMethod.CASH);
+        sale.setItems(List.of(item));
+        return sale;
+    }
+}
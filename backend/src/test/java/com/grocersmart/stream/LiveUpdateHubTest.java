@@ -0,0 +1,165 @@
+package com.grocersmart.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grocersmart.IntegrationTest;
+import com.grocersmart.dto.CreditCustomerDto;
+import com.grocersmart.dto.CreditPaymentDto;
+import com.grocersmart.service.CreditService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Many open streams on one node: a committed payment reaches every one of them in a single coalesced frame, and
+// none of them falls behind far enough to be sent a resync
+class LiveUpdateHubTest extends IntegrationTest {
+
+    private static final int SUBSCRIBERS = 2000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CreditService creditService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void paymentReachesEverySubscriber() throws Exception {
+        CreditCustomerDto dto = new CreditCustomerDto();
+        dto.setName("Stream " + UUID.randomUUID());
+        dto.setPhone("07" + (System.nanoTime() % 100_000_000L));
+        dto.setCreditLimit(BigDecimal.valueOf(500));
+        dto.setOutstandingBalance(BigDecimal.valueOf(100));
+        dto.setPaymentTermsDays(30);
+        long customerId = creditService.createCustomer(dto).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor)
+                .connectTimeout(Duration.ofSeconds(30)).build();
+        String marker = "\"customerId\":" + customerId + ",";
+        CountDownLatch opened = new CountDownLatch(SUBSCRIBERS);
+        CountDownLatch delivered = new CountDownLatch(SUBSCRIBERS);
+        List<Listener> listeners = new ArrayList<>();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/stream"))
+                    .header("Authorization", "Bearer " + login(client))
+                    .header("Accept", "text/event-stream")
+                    .GET()
+                    .build();
+            for (int i = 0; i < SUBSCRIBERS; i++) {
+                Listener listener = new Listener(marker, opened, delivered);
+                listeners.add(listener);
+                client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(listener));
+            }
+            assertThat(opened.await(60, TimeUnit.SECONDS)).as("all streams open").isTrue();
+
+            CreditPaymentDto payment = new CreditPaymentDto();
+            payment.setAmount(40.0);
+            payment.setNote("stream");
+            creditService.addPayment(customerId, payment);
+
+            assertThat(delivered.await(30, TimeUnit.SECONDS)).as("payment delivered to every stream").isTrue();
+            assertThat(listeners).allSatisfy(listener -> {
+                assertThat(listener.resyncs).isZero();
+                assertThat(listener.ended).isFalse();
+            });
+        } finally {
+            listeners.forEach(Listener::cancel);
+            executor.shutdownNow();
+        }
+    }
+
+    private String login(HttpClient client) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(
+                        Map.of("username", "VTNV", "password", "vtnv"))))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body()).path("data").path("token").asText();
+    }
+
+    // One stream, parsed just enough to see its first line, the payment's frame and any resync
+    private static final class Listener implements Flow.Subscriber<String> {
+
+        private final String marker;
+        private final CountDownLatch opened;
+        private final CountDownLatch delivered;
+        private Flow.Subscription subscription;
+        private String event = "message";
+        private boolean open;
+        private boolean seen;
+        private volatile int resyncs;
+        private volatile boolean ended;
+
+        private Listener(String marker, CountDownLatch opened, CountDownLatch delivered) {
+            this.marker = marker;
+            this.opened = opened;
+            this.delivered = delivered;
+        }
+
+        @Override
+        public synchronized void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        // The first frame is the last tiles read, or a ping comment when there are none yet
+        @Override
+        public synchronized void onNext(String line) {
+            if (!open) {
+                open = true;
+                opened.countDown();
+            }
+            if (line.startsWith("event:")) {
+                event = line.substring(6).trim();
+            } else if (line.startsWith("data:")) {
+                if ("resync".equals(event)) {
+                    resyncs++;
+                } else if ("delta".equals(event) && !seen && line.contains("\"payments\"")
+                        && line.contains(marker)) {
+                    seen = true;
+                    delivered.countDown();
+                }
+            } else if (line.isEmpty()) {
+                event = "message";
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            ended = true;
+        }
+
+        @Override
+        public void onComplete() {
+            ended = true;
+        }
+
+        private synchronized void cancel() {
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+}
@@ -87,6 +87,8 @@ export default function CreditCustomers() {
         },
         onError: (error) => {
             toast.error(error.response?.data?.message || 'Operation failed');
+            // A version conflict: reload the list so the next edit starts from the current row
+            if (error.response?.status === 409) queryClient.invalidateQueries(['creditCustomers']);
         }
     };
 
@@ -110,7 +112,9 @@ export default function CreditCustomers() {
                 creditLimit: customer.creditLimit,
                 paymentTermsDays: customer.paymentTermsDays || 30,
                 authorizedThreshold: customer.authorizedThreshold || 0,
-                customerType: customer.customerType || 'CREDIT'
+                customerType: customer.customerType || 'CREDIT',
+                // Sent back so the server refuses the save (409) if the customer changed since this row was loaded
+                version: customer.version
             });
         } else {
             setEditId(null);
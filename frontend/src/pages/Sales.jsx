@@ -5,7 +5,7 @@ import {
     Chip, Divider, Stack, InputAdornment, Autocomplete
 } from '@mui/material';
 import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query';
-import { getSales, createSale, updateSale, deleteSale } from '../api/salesApi';
+import { getSales, getSale, createSale, updateSale, deleteSale } from '../api/salesApi';
 import { getProducts } from '../api/productsApi';
 import { getCreditCustomers } from '../api/creditCustomersApi';
 import { getSalesReportPdf, getInvoicePdf, downloadBlob } from '../api/reportsApi';
@@ -112,7 +112,30 @@ export default function Sales() {
     const deleteMutation = useMutation({ mutationFn: deleteSale, ...mutationOptions, onSuccess: () => { toast.success('Sale deleted'); mutationOptions.onSuccess(); } });
 
     // Handlers
-    const handleOpenDialog = (sale = null) => {
+    // List rows come without line items; fetch the full sale before viewing or editing
+    const loadSaleDetails = async (row) => {
+        try {
+            const res = await getSale(row.id);
+            return res.data || res;
+        } catch (error) {
+            toast.error('Failed to load sale details');
+            return null;
+        }
+    };
+
+    const handleViewSale = async (row) => {
+        const sale = await loadSaleDetails(row);
+        if (sale) {
+            setSelectedSale(sale);
+            setDetailsOpen(true);
+        }
+    };
+
+    const handleOpenDialog = async (row = null) => {
+        const sale = row ? await loadSaleDetails(row) : null;
+        if (row && !sale) {
+            return;
+        }
         if (sale) {
             setEditId(sale.id);
             setFormData({
@@ -124,7 +147,8 @@ export default function Sales() {
                     productId: item.productId,
                     qtySold: item.qtySold,
                     unitPrice: item.unitPrice,
-                    lineTotal: item.lineTotal
+                    lineTotal: item.lineTotal,
+                    unitOrBulk: item.unitOrBulk
                 }))
             });
         } else {
@@ -154,7 +178,10 @@ export default function Sales() {
 
         if (field === 'productId') {
             const prod = products.find(p => p.id === value);
-            if (prod) item.unitPrice = prod.unitPrice;
+            if (prod) {
+                item.unitPrice = prod.unitPrice;
+                item.unitOrBulk = 'UNIT';
+            }
         }
 
         if (field === 'qtySold' || field === 'unitPrice' || field === 'productId') {
@@ -249,7 +276,7 @@ export default function Sales() {
                     actions={(row) => (
                         <Stack direction="row" spacing={0.5}>
                             <Tooltip title="Print"><IconButton size="small" color="secondary" onClick={() => handlePrintInvoice(row)}><PictureAsPdf fontSize="small" /></IconButton></Tooltip>
-                            <Tooltip title="View"><IconButton size="small" color="primary" onClick={() => { setSelectedSale(row); setDetailsOpen(true); }}><Visibility fontSize="small" /></IconButton></Tooltip>
+                            <Tooltip title="View"><IconButton size="small" color="primary" onClick={() => handleViewSale(row)}><Visibility fontSize="small" /></IconButton></Tooltip>
                             <Tooltip title="Edit"><IconButton size="small" onClick={() => handleOpenDialog(row)}><Edit fontSize="small" /></IconButton></Tooltip>
                             <Tooltip title="Delete"><IconButton size="small" color="error" onClick={() => { setDeleteId(row.id); setDeleteDialogOpen(true); }}><Delete fontSize="small" /></IconButton></Tooltip>
                         </Stack>